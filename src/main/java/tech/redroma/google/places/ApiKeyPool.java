@@ -0,0 +1,485 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import tech.redroma.google.places.exceptions.GooglePlacesAuthenticationException;
+import tech.redroma.google.places.exceptions.GooglePlacesException;
+import tech.redroma.google.places.exceptions.GooglePlacesLimitExceededException;
+import tech.sirwellington.alchemy.annotations.access.Internal;
+import tech.sirwellington.alchemy.annotations.arguments.NonEmpty;
+import tech.sirwellington.alchemy.annotations.arguments.NonNegative;
+import tech.sirwellington.alchemy.annotations.arguments.Positive;
+import tech.sirwellington.alchemy.annotations.arguments.Required;
+import tech.sirwellington.alchemy.annotations.concurrency.Immutable;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadSafe;
+import tech.sirwellington.alchemy.annotations.designs.patterns.BuilderPattern;
+
+import static tech.sirwellington.alchemy.annotations.designs.patterns.BuilderPattern.Role.BUILDER;
+import static tech.sirwellington.alchemy.annotations.designs.patterns.BuilderPattern.Role.PRODUCT;
+import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
+import static tech.sirwellington.alchemy.arguments.assertions.Assertions.notNull;
+import static tech.sirwellington.alchemy.arguments.assertions.BooleanAssertions.falseStatement;
+import static tech.sirwellington.alchemy.arguments.assertions.CollectionAssertions.nonEmptyCollection;
+import static tech.sirwellington.alchemy.arguments.assertions.NumberAssertions.greaterThanOrEqualTo;
+import static tech.sirwellington.alchemy.arguments.assertions.StringAssertions.nonEmptyString;
+
+/**
+ * A set of API Keys that requests are spread across, so that throughput is not capped by the quota of a single key.
+ * <p>
+ * Keys are chosen by weighted round-robin. A key that is rejected with a {@link GooglePlacesLimitExceededException} or
+ * a {@link GooglePlacesAuthenticationException} is taken out of rotation for a while. If every key has been taken out,
+ * the one that comes back soonest is used, so that requests are never failed without asking Google.
+ * <p>
+ * Weights are fixed when the pool is built. The pool does not know how much of each key's quota remains, so a key
+ * that is shared with other applications is still used in proportion to its weight until Google rejects it. Size the
+ * weights to the share of each quota that is left to this application, and use {@link #getUsage() } to watch it.
+ * <p>
+ * See {@link #of(java.lang.String...) } and {@link #newBuilder() } to create a pool, and
+ * {@link GooglePlacesAPI#create(tech.redroma.google.places.ApiKeyPool) } to use it.
+ *
+ * @author SirWellington
+ */
+@ThreadSafe
+@BuilderPattern(role = PRODUCT)
+public final class ApiKeyPool
+{
+
+    private final Slot[] slots;
+    private final long limitExceededEvictionMillis;
+    private final long authenticationEvictionMillis;
+    private final Clock clock;
+
+    ApiKeyPool(List<Slot> slots, long limitExceededEvictionMillis, long authenticationEvictionMillis, Clock clock)
+    {
+        checkThat(slots).is(nonEmptyCollection());
+        checkThat(clock).is(notNull());
+
+        this.slots = slots.toArray(new Slot[slots.size()]);
+        this.limitExceededEvictionMillis = limitExceededEvictionMillis;
+        this.authenticationEvictionMillis = authenticationEvictionMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Creates a pool that uses each of the keys equally, with the default eviction times.
+     *
+     * @param keys The API Keys, obtained from the Google Console.
+     * @return
+     * @throws IllegalArgumentException If no keys are given, or if any are empty or repeated.
+     */
+    public static ApiKeyPool of(@NonEmpty String... keys) throws IllegalArgumentException
+    {
+        checkThat(keys).is(notNull());
+
+        Builder builder = newBuilder();
+
+        for (String key : keys)
+        {
+            builder.withKey(key);
+        }
+
+        return builder.build();
+    }
+
+    public static Builder newBuilder()
+    {
+        return Builder.newInstance();
+    }
+
+    /**
+     * @return The number of keys in this pool.
+     */
+    public int size()
+    {
+        return slots.length;
+    }
+
+    /**
+     * @return How each key has been used so far, in the order they were added.
+     */
+    public synchronized List<KeyUsage> getUsage()
+    {
+        long now = clock.millis();
+        List<KeyUsage> usage = new ArrayList<>(slots.length);
+
+        for (Slot slot : slots)
+        {
+            usage.add(new KeyUsage(slot.key, slot.requests, slot.failures, slot.evictions, slot.evictedUntil <= now));
+        }
+
+        return usage;
+    }
+
+    /**
+     * Picks the key to use for the next request. The request is only counted once it is {@linkplain #onSent(String) sent}.
+     */
+    @Internal
+    synchronized String acquire()
+    {
+        long now = clock.millis();
+        Slot chosen = null;
+        int totalWeight = 0;
+
+        //Smooth weighted round-robin: each key earns its weight on every pick, and the chosen key pays back the total,
+        //which interleaves heavier keys with lighter ones instead of using them in bursts.
+        for (Slot slot : slots)
+        {
+            if (slot.evictedUntil > now)
+            {
+                continue;
+            }
+
+            slot.currentWeight += slot.weight;
+            totalWeight += slot.weight;
+
+            if (chosen == null || slot.currentWeight > chosen.currentWeight)
+            {
+                chosen = slot;
+            }
+        }
+
+        if (chosen != null)
+        {
+            chosen.currentWeight -= totalWeight;
+        }
+        else
+        {
+            chosen = slots[0];
+
+            for (Slot slot : slots)
+            {
+                if (slot.evictedUntil < chosen.evictedUntil)
+                {
+                    chosen = slot;
+                }
+            }
+        }
+
+        return chosen.key;
+    }
+
+    /**
+     * Records that a request made with {@code key} is being sent to Google, rather than answered by an interceptor or
+     * turned away before it left.
+     */
+    @Internal
+    synchronized void onSent(String key)
+    {
+        Slot slot = find(key);
+
+        if (slot != null)
+        {
+            ++slot.requests;
+        }
+    }
+
+    /**
+     * Records that a request made with {@code key} failed, evicting it if Google rejected the key itself.
+     */
+    @Internal
+    synchronized void onFailure(String key, GooglePlacesException ex)
+    {
+        Slot slot = find(key);
+
+        if (slot == null)
+        {
+            return;
+        }
+
+        ++slot.failures;
+
+        long evictFor = 0;
+
+        if (ex instanceof GooglePlacesLimitExceededException)
+        {
+            evictFor = limitExceededEvictionMillis;
+        }
+        else if (ex instanceof GooglePlacesAuthenticationException)
+        {
+            evictFor = authenticationEvictionMillis;
+        }
+
+        if (evictFor > 0)
+        {
+            ++slot.evictions;
+            slot.evictedUntil = clock.millis() + evictFor;
+            slot.currentWeight = 0;
+        }
+    }
+
+    /**
+     * @return Whether {@code key} belongs to this pool and is not currently evicted.
+     */
+    @Internal
+    synchronized boolean isAvailable(String key)
+    {
+        Slot slot = find(key);
+
+        return slot != null && slot.evictedUntil <= clock.millis();
+    }
+
+    private Slot find(String key)
+    {
+        for (Slot slot : slots)
+        {
+            if (slot.key.equals(key))
+            {
+                return slot;
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ApiKeyPool{" + "keys=" + slots.length + ", limitExceededEvictionMillis=" + limitExceededEvictionMillis +
+               ", authenticationEvictionMillis=" + authenticationEvictionMillis + '}';
+    }
+
+    /**
+     * Only ever accessed while holding the pool's lock.
+     */
+    static final class Slot
+    {
+
+        private final String key;
+        private final int weight;
+
+        private int currentWeight;
+        private long evictedUntil;
+        private long requests;
+        private long failures;
+        private long evictions;
+
+        Slot(String key, int weight)
+        {
+            this.key = key;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * A snapshot of how a single key has been used.
+     */
+    @Immutable
+    public static final class KeyUsage
+    {
+
+        private final String key;
+        private final long requests;
+        private final long failures;
+        private final long evictions;
+        private final boolean available;
+
+        KeyUsage(String key, long requests, long failures, long evictions, boolean available)
+        {
+            this.key = key;
+            this.requests = requests;
+            this.failures = failures;
+            this.evictions = evictions;
+            this.available = available;
+        }
+
+        public String getKey()
+        {
+            return key;
+        }
+
+        /**
+         * @return The number of requests sent to Google with this key.
+         */
+        public long getRequests()
+        {
+            return requests;
+        }
+
+        /**
+         * @return The number of those requests that failed.
+         */
+        public long getFailures()
+        {
+            return failures;
+        }
+
+        /**
+         * @return The number of times this key has been taken out of rotation.
+         */
+        public long getEvictions()
+        {
+            return evictions;
+        }
+
+        /**
+         * @return Whether this key is currently in rotation.
+         */
+        public boolean isAvailable()
+        {
+            return available;
+        }
+
+        @Override
+        public String toString()
+        {
+            //Keys are secrets, and usage is likely to be logged
+            String suffix = key.length() > 4 ? key.substring(key.length() - 4) : "";
+
+            return "KeyUsage{" + "key=..." + suffix + ", requests=" + requests + ", failures=" + failures +
+                   ", evictions=" + evictions + ", available=" + available + '}';
+        }
+    }
+
+    @BuilderPattern(role = BUILDER)
+    public static final class Builder
+    {
+
+        public static final long DEFAULT_LIMIT_EXCEEDED_EVICTION_SECONDS = 60;
+        public static final long DEFAULT_AUTHENTICATION_EVICTION_MINUTES = 60;
+
+        private final Map<String, Integer> weights = new LinkedHashMap<>();
+        private long limitExceededEvictionMillis = TimeUnit.SECONDS.toMillis(DEFAULT_LIMIT_EXCEEDED_EVICTION_SECONDS);
+        private long authenticationEvictionMillis = TimeUnit.MINUTES.toMillis(DEFAULT_AUTHENTICATION_EVICTION_MINUTES);
+        private Clock clock = Clock.systemUTC();
+
+        public static Builder newInstance()
+        {
+            return new Builder();
+        }
+
+        /**
+         * Adds a key with a weight of 1.
+         *
+         * @param key The API Key.
+         * @return
+         * @throws IllegalArgumentException
+         */
+        public Builder withKey(@NonEmpty String key) throws IllegalArgumentException
+        {
+            return withKey(key, 1);
+        }
+
+        /**
+         * Adds a key that is used in proportion to its weight. For example, a key with a weight of 3 is used three times
+         * as often as one with a weight of 1. Weights are usually set in proportion to each key's quota.
+         *
+         * @param key    The API Key.
+         * @param weight How much the key is used, relative to the other keys.
+         * @return
+         * @throws IllegalArgumentException If the key is empty or was already added, or the weight is not positive.
+         */
+        public Builder withKey(@NonEmpty String key, @Positive int weight) throws IllegalArgumentException
+        {
+            checkThat(key).is(nonEmptyString());
+            checkThat(weight).is(greaterThanOrEqualTo(1));
+            checkThat(weights.containsKey(key))
+                .usingMessage("key was already added")
+                .is(falseStatement());
+
+            weights.put(key, weight);
+            return this;
+        }
+
+        /**
+         * Adds several keys with a weight of 1.
+         *
+         * @param keys The API Keys.
+         * @return
+         * @throws IllegalArgumentException
+         */
+        public Builder withKeys(@Required Collection<String> keys) throws IllegalArgumentException
+        {
+            checkThat(keys).is(notNull());
+
+            for (String key : keys)
+            {
+                withKey(key);
+            }
+
+            return this;
+        }
+
+        /**
+         * Sets how long a key is taken out of rotation after exceeding its quota.
+         *
+         * @param eviction The amount of time. 0 keeps the key in rotation.
+         * @param timeUnit The unit of {@code eviction}.
+         * @return
+         * @throws IllegalArgumentException
+         */
+        public Builder withLimitExceededEviction(@NonNegative long eviction, @Required TimeUnit timeUnit) throws IllegalArgumentException
+        {
+            checkThat(eviction).is(greaterThanOrEqualTo(0L));
+            checkThat(timeUnit).is(notNull());
+
+            this.limitExceededEvictionMillis = timeUnit.toMillis(eviction);
+            return this;
+        }
+
+        /**
+         * Sets how long a key is taken out of rotation after being denied, such as when it is revoked or not enabled
+         * for the Places API.
+         *
+         * @param eviction The amount of time. 0 keeps the key in rotation.
+         * @param timeUnit The unit of {@code eviction}.
+         * @return
+         * @throws IllegalArgumentException
+         */
+        public Builder withAuthenticationEviction(@NonNegative long eviction, @Required TimeUnit timeUnit) throws IllegalArgumentException
+        {
+            checkThat(eviction).is(greaterThanOrEqualTo(0L));
+            checkThat(timeUnit).is(notNull());
+
+            this.authenticationEvictionMillis = timeUnit.toMillis(eviction);
+            return this;
+        }
+
+        Builder withClock(Clock clock)
+        {
+            checkThat(clock).is(notNull());
+
+            this.clock = clock;
+            return this;
+        }
+
+        /**
+         * Builds the {@link ApiKeyPool}.
+         *
+         * @return
+         * @throws IllegalArgumentException If no keys were added.
+         */
+        public ApiKeyPool build() throws IllegalArgumentException
+        {
+            checkThat(weights.keySet())
+                .usingMessage("at least one key is required")
+                .is(nonEmptyCollection());
+
+            List<Slot> slots = new ArrayList<>(weights.size());
+            weights.forEach((key, weight) -> slots.add(new Slot(key, weight)));
+
+            return new ApiKeyPool(slots, limitExceededEvictionMillis, authenticationEvictionMillis, clock);
+        }
+    }
+
+}
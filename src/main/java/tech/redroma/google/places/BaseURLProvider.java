@@ -0,0 +1,76 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package tech.redroma.google.places;
+
+import tech.sirwellington.alchemy.annotations.access.Internal;
+import tech.sirwellington.alchemy.annotations.concurrency.Immutable;
+
+/**
+ * Places each endpoint under a base URL, at the same path Google uses.
+ *
+ * @author SirWellington
+ */
+@Internal
+@Immutable
+final class BaseURLProvider implements URLProvider
+{
+
+    private final String base;
+
+    BaseURLProvider(String base)
+    {
+        this.base = base.endsWith("/") ? base.substring(0, base.length() - 1) : base;
+    }
+
+    @Override
+    public String getBase()
+    {
+        return base;
+    }
+
+    @Override
+    public String getPhotoAPI()
+    {
+        return base + "/photo";
+    }
+
+    @Override
+    public String getPlaceDetails()
+    {
+        return base + "/details/json";
+    }
+
+    @Override
+    public String getNearbySearch()
+    {
+        return base + "/nearbysearch/json";
+    }
+
+    @Override
+    public String getAutocomplete()
+    {
+        return base + "/autocomplete/json";
+    }
+
+    @Override
+    public String toString()
+    {
+        return "BaseURLProvider{" + "base=" + base + '}';
+    }
+
+}
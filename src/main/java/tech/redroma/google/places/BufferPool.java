@@ -0,0 +1,98 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package tech.redroma.google.places;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import tech.sirwellington.alchemy.annotations.access.Internal;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadSafe;
+
+import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
+import static tech.sirwellington.alchemy.arguments.assertions.NumberAssertions.positiveInteger;
+
+/**
+ * Keeps the buffers that response bodies are read into, so that each response does not allocate its own.
+ * <p>
+ * Buffers are allocated when the pool is empty, and returned buffers beyond the capacity of the pool are left to the
+ * garbage collector, so the pool never blocks.
+ *
+ * @author SirWellington
+ */
+@Internal
+@ThreadSafe
+final class BufferPool
+{
+
+    static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+    static final int DEFAULT_CAPACITY = 64;
+
+    static final BufferPool SHARED = new BufferPool(DEFAULT_BUFFER_SIZE, DEFAULT_CAPACITY);
+
+    private final int bufferSize;
+    private final BlockingQueue<ByteBuffer> buffers;
+
+    BufferPool(int bufferSize, int capacity)
+    {
+        checkThat(bufferSize, capacity).are(positiveInteger());
+
+        this.bufferSize = bufferSize;
+        this.buffers = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * @return An empty buffer, ready to be written to.
+     */
+    ByteBuffer acquire()
+    {
+        ByteBuffer buffer = buffers.poll();
+
+        if (buffer == null)
+        {
+            return ByteBuffer.allocate(bufferSize);
+        }
+
+        buffer.clear();
+        return buffer;
+    }
+
+    void release(ByteBuffer buffer)
+    {
+        if (buffer != null && buffer.capacity() == bufferSize)
+        {
+            buffers.offer(buffer);
+        }
+    }
+
+    int getBufferSize()
+    {
+        return bufferSize;
+    }
+
+    int getPooled()
+    {
+        return buffers.size();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "BufferPool{" + "bufferSize=" + bufferSize + ", pooled=" + buffers.size() + '}';
+    }
+
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.Closeable;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import tech.redroma.google.places.BulkPhotoDownloaderImpl.Downloader;
+import tech.redroma.google.places.data.Photo;
+import tech.redroma.google.places.exceptions.GooglePlacesBadArgumentException;
+import tech.redroma.google.places.exceptions.GooglePlacesException;
+import tech.redroma.google.places.requests.GetPhotoRequest;
+import tech.sirwellington.alchemy.annotations.arguments.Positive;
+import tech.sirwellington.alchemy.annotations.arguments.Required;
+
+import static java.util.stream.Collectors.toList;
+import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
+import static tech.sirwellington.alchemy.arguments.assertions.Assertions.notNull;
+import static tech.sirwellington.alchemy.arguments.assertions.NumberAssertions.positiveInteger;
+
+/**
+ * Downloads many photos concurrently, delivering each image as soon as it is ready.
+ * <p>
+ * Useful when rendering a list of {@linkplain tech.redroma.google.places.data.Place Places}, where the list only has to
+ * wait for the slowest photo rather than the sum of all of them.
+ * <p>
+ * Images are downloaded with the API's connect and read timeouts, and a {@link Deadline} that is current when
+ * {@link #downloadAll(java.util.Collection, tech.redroma.google.places.BulkPhotoDownloader.Callback) downloadAll} is
+ * called bounds every lookup and download in that batch.
+ * <p>
+ * A downloader created with its own threads keeps them until it is {@linkplain #close() closed}.
+ *
+ * @see #create(tech.redroma.google.places.GooglePlacesAPI)
+ * @author SirWellington
+ */
+public interface BulkPhotoDownloader extends Closeable
+{
+
+    /** The default maximum number of photos being resolved or downloaded at once. */
+    int DEFAULT_MAX_IN_FLIGHT = 16;
+
+    /** The default maximum number of concurrent downloads from a single host. */
+    int DEFAULT_MAX_PER_HOST = 6;
+
+    /**
+     * Downloads each of the requested photos. Each result is delivered to {@code callback} as it completes, on a background
+     * thread, and possibly out of order.
+     *
+     * @param requests The photos to download.
+     * @param callback Notified once per request, with either the image or the failure.
+     * @return A future that completes once every request has been delivered to the callback.
+     * @throws GooglePlacesException
+     */
+    CompletableFuture<Void> downloadAll(@Required Collection<GetPhotoRequest> requests,
+                                        @Required Callback callback) throws GooglePlacesException;
+
+    /**
+     * This is a convenience method for {@link #downloadAll(java.util.Collection, tech.redroma.google.places.BulkPhotoDownloader.Callback) }
+     * that downloads each of the full-sized {@linkplain Photo photos}, like
+     * {@link GooglePlacesAPI#downloadPhoto(tech.redroma.google.places.data.Photo) } does.
+     *
+     * @param photos   The photos to download.
+     * @param callback Notified once per photo, with either the image or the failure.
+     * @return
+     * @throws GooglePlacesException
+     */
+    default CompletableFuture<Void> downloadPhotos(@Required Collection<Photo> photos,
+                                                   @Required Callback callback) throws GooglePlacesException
+    {
+        checkThat(photos)
+            .throwing(GooglePlacesBadArgumentException.class)
+            .is(notNull());
+
+        List<GetPhotoRequest> requests = photos.stream()
+            .map(photo -> GetPhotoRequest.newBuilder()
+                .withPhotoReference(photo.photoReference)
+                .withMaxWidth(GetPhotoRequest.Builder.MAX_WIDTH)
+                .build())
+            .collect(toList());
+
+        return downloadAll(requests, callback);
+    }
+
+    /**
+     * Stops the threads this downloader created for itself. Downloads that have already started are finished, and
+     * requests that have not are reported to their callback as failures. An {@link Executor} passed to
+     * {@link #create(GooglePlacesAPI, int, int, Executor) } is left running.
+     */
+    @Override
+    void close();
+
+    /**
+     * Creates a {@link BulkPhotoDownloader} using the default concurrency limits.
+     *
+     * @param api The API used to resolve photo URLs.
+     * @return
+     * @throws IllegalArgumentException
+     */
+    static BulkPhotoDownloader create(@Required GooglePlacesAPI api) throws IllegalArgumentException
+    {
+        return create(api, DEFAULT_MAX_IN_FLIGHT, DEFAULT_MAX_PER_HOST);
+    }
+
+    /**
+     * Creates a {@link BulkPhotoDownloader} with its own threads, which are stopped when it is {@linkplain #close() closed}.
+     *
+     * @param api         The API used to resolve photo URLs.
+     * @param maxInFlight The maximum number of photos being resolved or downloaded at once. Remaining requests wait
+     *                    until one of these completes.
+     * @param maxPerHost  The maximum number of concurrent downloads from any single host.
+     * @return
+     * @throws IllegalArgumentException
+     */
+    static BulkPhotoDownloader create(@Required GooglePlacesAPI api,
+                                      @Positive int maxInFlight,
+                                      @Positive int maxPerHost) throws IllegalArgumentException
+    {
+        checkThat(api).is(notNull());
+        checkThat(maxInFlight, maxPerHost).are(positiveInteger());
+
+        ExecutorService executor = Executors.newFixedThreadPool(maxInFlight,
+                                                                new ThreadFactoryBuilder()
+                                                                    .setDaemon(true)
+                                                                    .setNameFormat("google-places-photo-download-%d")
+                                                                    .build());
+
+        return new BulkPhotoDownloaderImpl(api, Downloader.of(api), executor, maxInFlight, maxPerHost, true);
+    }
+
+    /**
+     * Creates a {@link BulkPhotoDownloader} that runs its downloads on the given {@link Executor}. The executor belongs
+     * to the caller, and is not stopped when the downloader is closed.
+     *
+     * @param api         The API used to resolve photo URLs.
+     * @param maxInFlight The maximum number of photos being resolved or downloaded at once.
+     * @param maxPerHost  The maximum number of concurrent downloads from any single host.
+     * @param executor    Runs the downloads.
+     * @return
+     * @throws IllegalArgumentException
+     */
+    static BulkPhotoDownloader create(@Required GooglePlacesAPI api,
+                                      @Positive int maxInFlight,
+                                      @Positive int maxPerHost,
+                                      @Required Executor executor) throws IllegalArgumentException
+    {
+        checkThat(api, executor).are(notNull());
+        checkThat(maxInFlight, maxPerHost).are(positiveInteger());
+
+        return new BulkPhotoDownloaderImpl(api, Downloader.of(api), executor, maxInFlight, maxPerHost, false);
+    }
+
+    /**
+     * Receives the results of a bulk download.
+     */
+    interface Callback
+    {
+
+        /**
+         * Called when a photo has been downloaded.
+         *
+         * @param request The request the image belongs to.
+         * @param image   The raw image.
+         */
+        void onPhoto(GetPhotoRequest request, byte[] image);
+
+        /**
+         * Called when a photo could not be downloaded. Does nothing by default.
+         *
+         * @param request The request that failed.
+         * @param ex      The reason for the failure.
+         */
+        default void onError(GetPhotoRequest request, GooglePlacesException ex)
+        {
+        }
+    }
+}
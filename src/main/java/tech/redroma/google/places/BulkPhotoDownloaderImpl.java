@@ -0,0 +1,347 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import com.google.common.io.ByteStreams;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tech.redroma.google.places.exceptions.GooglePlacesBadArgumentException;
+import tech.redroma.google.places.exceptions.GooglePlacesException;
+import tech.redroma.google.places.exceptions.GooglePlacesOperationFailedException;
+import tech.redroma.google.places.exceptions.GooglePlacesTimeoutException;
+import tech.redroma.google.places.requests.GetPhotoRequest;
+import tech.sirwellington.alchemy.annotations.access.Internal;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadSafe;
+
+import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
+import static tech.sirwellington.alchemy.arguments.assertions.Assertions.notNull;
+import static tech.sirwellington.alchemy.arguments.assertions.NumberAssertions.positiveInteger;
+
+/**
+ * Starts at most {@code maxInFlight} downloads at a time, and only starts the next one when another finishes, so a large
+ * request never floods the executor. Downloads from the same host are further limited to {@code maxPerHost}.
+ *
+ * @author SirWellington
+ */
+@Internal
+@ThreadSafe
+final class BulkPhotoDownloaderImpl implements BulkPhotoDownloader
+{
+
+    private final static Logger LOG = LoggerFactory.getLogger(BulkPhotoDownloaderImpl.class);
+
+    private final GooglePlacesAPI api;
+    private final Downloader downloader;
+    private final Executor executor;
+    private final int maxInFlight;
+    private final int maxPerHost;
+    private final boolean ownsExecutor;
+    private final ConcurrentMap<String, Semaphore> hostLimits = new ConcurrentHashMap<>();
+
+    BulkPhotoDownloaderImpl(GooglePlacesAPI api, Downloader downloader, Executor executor, int maxInFlight, int maxPerHost)
+    {
+        this(api, downloader, executor, maxInFlight, maxPerHost, false);
+    }
+
+    /**
+     * @param ownsExecutor Whether {@code executor} was created for this downloader, and should be shut down when it is
+     *                     closed.
+     */
+    BulkPhotoDownloaderImpl(GooglePlacesAPI api,
+                            Downloader downloader,
+                            Executor executor,
+                            int maxInFlight,
+                            int maxPerHost,
+                            boolean ownsExecutor)
+    {
+        checkThat(api, downloader, executor).are(notNull());
+        checkThat(maxInFlight, maxPerHost).are(positiveInteger());
+
+        this.api = api;
+        this.downloader = downloader;
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+        this.maxPerHost = maxPerHost;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    @Override
+    public CompletableFuture<Void> downloadAll(Collection<GetPhotoRequest> requests, Callback callback) throws GooglePlacesException
+    {
+        checkThat(requests, callback)
+            .throwing(GooglePlacesBadArgumentException.class)
+            .are(notNull());
+
+        Batch batch = new Batch(new ArrayList<>(requests), callback);
+        batch.start();
+
+        return batch.done;
+    }
+
+    @Override
+    public void close()
+    {
+        if (ownsExecutor && executor instanceof ExecutorService)
+        {
+            ((ExecutorService) executor).shutdown();
+        }
+    }
+
+    private byte[] download(GetPhotoRequest request, Deadline deadline) throws GooglePlacesException
+    {
+        URL url = deadline.run(() -> api.getPhoto(request));
+
+        if (url == null)
+        {
+            throw new GooglePlacesOperationFailedException("No URL available for photo: " + request);
+        }
+
+        Semaphore hostLimit = hostLimits.computeIfAbsent(url.getHost(), host -> new Semaphore(maxPerHost));
+
+        try
+        {
+            acquire(hostLimit, deadline);
+        }
+        catch (InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+            throw new GooglePlacesOperationFailedException("Interrupted while waiting to download: " + url, ex);
+        }
+
+        try
+        {
+            return downloader.download(url, deadline);
+        }
+        catch (IOException ex)
+        {
+            throw new GooglePlacesOperationFailedException("Could not download Image at: " + url, ex);
+        }
+        finally
+        {
+            hostLimit.release();
+        }
+    }
+
+    private static void acquire(Semaphore hostLimit, Deadline deadline) throws InterruptedException, GooglePlacesTimeoutException
+    {
+        if (!deadline.isFinite())
+        {
+            hostLimit.acquire();
+        }
+        else if (!hostLimit.tryAcquire(deadline.remaining(TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS))
+        {
+            throw new GooglePlacesTimeoutException("Deadline passed while waiting for a download slot");
+        }
+    }
+
+    /**
+     * Tracks the progress of a single call to {@link #downloadAll(java.util.Collection, tech.redroma.google.places.BulkPhotoDownloader.Callback) }.
+     */
+    private final class Batch
+    {
+
+        private final Iterator<GetPhotoRequest> pending;
+        private final Callback callback;
+        private final AtomicInteger remaining;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        //The downloads run in the background, where the caller's deadline would otherwise be lost
+        private final Deadline deadline = Deadline.current();
+
+        Batch(Collection<GetPhotoRequest> requests, Callback callback)
+        {
+            this.pending = requests.iterator();
+            this.callback = callback;
+            this.remaining = new AtomicInteger(requests.size());
+        }
+
+        void start()
+        {
+            if (remaining.get() == 0)
+            {
+                done.complete(null);
+                return;
+            }
+
+            for (int i = 0; i < maxInFlight; ++i)
+            {
+                if (!startNext())
+                {
+                    break;
+                }
+            }
+        }
+
+        private boolean startNext()
+        {
+            GetPhotoRequest request;
+
+            synchronized (pending)
+            {
+                if (!pending.hasNext())
+                {
+                    return false;
+                }
+
+                request = pending.next();
+            }
+
+            try
+            {
+                executor.execute(() -> run(request));
+                return true;
+            }
+            catch (RejectedExecutionException ex)
+            {
+                LOG.error("Executor rejected the download of photo [{}]", request, ex);
+                rejectRemaining(request, ex);
+                return false;
+            }
+        }
+
+        private void run(GetPhotoRequest request)
+        {
+            try
+            {
+                deliver(request);
+            }
+            finally
+            {
+                if (finish())
+                {
+                    startNext();
+                }
+            }
+        }
+
+        private void deliver(GetPhotoRequest request)
+        {
+            byte[] image;
+
+            try
+            {
+                image = download(request, deadline);
+            }
+            catch (RuntimeException ex)
+            {
+                LOG.warn("Failed to download photo for [{}]", request, ex);
+                notifyError(request, ExceptionMapper.INSTANCE.mapException(ex));
+                return;
+            }
+
+            try
+            {
+                callback.onPhoto(request, image);
+            }
+            catch (RuntimeException ex)
+            {
+                LOG.error("Callback failed for photo [{}]", request, ex);
+            }
+        }
+
+        /**
+         * Reports the rejected request, and every request that has not started yet, as failed, since nothing is
+         * left to start them.
+         */
+        private void rejectRemaining(GetPhotoRequest rejected, RejectedExecutionException cause)
+        {
+            List<GetPhotoRequest> rejections = new ArrayList<>();
+            rejections.add(rejected);
+
+            synchronized (pending)
+            {
+                while (pending.hasNext())
+                {
+                    rejections.add(pending.next());
+                }
+            }
+
+            for (GetPhotoRequest request : rejections)
+            {
+                notifyError(request, new GooglePlacesOperationFailedException("Could not start the download of photo: " + request, cause));
+                finish();
+            }
+        }
+
+        /**
+         * Counts one request as delivered, completing {@link #done} after the last one.
+         *
+         * @return True if requests remain.
+         */
+        private boolean finish()
+        {
+            if (remaining.decrementAndGet() == 0)
+            {
+                done.complete(null);
+                return false;
+            }
+
+            return true;
+        }
+
+        private void notifyError(GetPhotoRequest request, GooglePlacesException ex)
+        {
+            try
+            {
+                callback.onError(request, ex);
+            }
+            catch (RuntimeException callbackEx)
+            {
+                LOG.error("Callback failed for photo [{}]", request, callbackEx);
+            }
+        }
+    }
+
+    /**
+     * Downloads the raw bytes at a URL.
+     */
+    @FunctionalInterface
+    interface Downloader
+    {
+
+        byte[] download(URL url, Deadline deadline) throws IOException;
+
+        /**
+         * Downloads with the transport of {@code api}, and so with its timeouts, if it was made by a
+         * {@link GooglePlacesAPI.Builder}. Otherwise, downloads with the default timeouts.
+         */
+        static Downloader of(GooglePlacesAPI api)
+        {
+            HttpTransport transport = api instanceof GooglePlacesAPIImpl
+                                      ? ((GooglePlacesAPIImpl) api).getTransport()
+                                      : new URLConnectionTransport();
+
+            return (url, deadline) -> transport.get(url.toString(), ByteStreams::toByteArray, deadline);
+        }
+    }
+
+}
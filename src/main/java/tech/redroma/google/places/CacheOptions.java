@@ -0,0 +1,258 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.util.concurrent.TimeUnit;
+import tech.redroma.google.places.exceptions.GooglePlacesBadArgumentException;
+import tech.redroma.google.places.requests.GetPhotoRequest;
+import tech.redroma.google.places.requests.GetPlaceDetailsRequest;
+import tech.sirwellington.alchemy.annotations.arguments.NonNegative;
+import tech.sirwellington.alchemy.annotations.arguments.Positive;
+import tech.sirwellington.alchemy.annotations.arguments.Required;
+import tech.sirwellington.alchemy.annotations.concurrency.Immutable;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadSafe;
+import tech.sirwellington.alchemy.annotations.designs.patterns.BuilderPattern;
+
+import static tech.sirwellington.alchemy.annotations.designs.patterns.BuilderPattern.Role.BUILDER;
+import static tech.sirwellington.alchemy.annotations.designs.patterns.BuilderPattern.Role.PRODUCT;
+import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
+import static tech.sirwellington.alchemy.arguments.assertions.Assertions.notNull;
+import static tech.sirwellington.alchemy.arguments.assertions.NumberAssertions.greaterThan;
+import static tech.sirwellington.alchemy.arguments.assertions.NumberAssertions.greaterThanOrEqualTo;
+import static tech.sirwellington.alchemy.arguments.assertions.NumberAssertions.lessThan;
+
+/**
+ * Configures a {@link CachingGooglePlacesAPI}.
+ * <p>
+ * See {@link #newBuilder() } to create options.
+ *
+ * @see #newBuilder()
+ * @see Builder
+ * @author SirWellington
+ */
+@Immutable
+@ThreadSafe
+@BuilderPattern(role = PRODUCT)
+public final class CacheOptions
+{
+
+    /** The options used when none are specified. */
+    public static final CacheOptions DEFAULT = newBuilder().build();
+
+    final long timeToLiveMillis;
+    final long maximumSize;
+    final long staleWhileRevalidateMillis;
+    final long refreshAheadMillis;
+    final long negativeTimeToLiveMillis;
+
+    CacheOptions(long timeToLiveMillis,
+                 long maximumSize,
+                 long staleWhileRevalidateMillis,
+                 long refreshAheadMillis,
+                 long negativeTimeToLiveMillis)
+    {
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.maximumSize = maximumSize;
+        this.staleWhileRevalidateMillis = staleWhileRevalidateMillis;
+        this.refreshAheadMillis = refreshAheadMillis;
+        this.negativeTimeToLiveMillis = negativeTimeToLiveMillis;
+    }
+
+    /**
+     * @return How long a response is served from the cache, in milliseconds.
+     */
+    public long getTimeToLiveMillis()
+    {
+        return timeToLiveMillis;
+    }
+
+    /**
+     * @return The maximum number of responses of each kind to keep.
+     */
+    public long getMaximumSize()
+    {
+        return maximumSize;
+    }
+
+    /**
+     * @return How long after expiring a response may still be served while it is refreshed, in milliseconds.
+     */
+    public long getStaleWhileRevalidateMillis()
+    {
+        return staleWhileRevalidateMillis;
+    }
+
+    /**
+     * @return How long before expiring a response that is still being requested is refreshed, in milliseconds.
+     */
+    public long getRefreshAheadMillis()
+    {
+        return refreshAheadMillis;
+    }
+
+    /**
+     * @return How long a request rejected as a bad argument is failed without calling Google again, in milliseconds.
+     *         0 if rejections are not remembered.
+     */
+    public long getNegativeTimeToLiveMillis()
+    {
+        return negativeTimeToLiveMillis;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "CacheOptions{" + "timeToLiveMillis=" + timeToLiveMillis + ", maximumSize=" + maximumSize +
+               ", staleWhileRevalidateMillis=" + staleWhileRevalidateMillis + ", refreshAheadMillis=" + refreshAheadMillis +
+               ", negativeTimeToLiveMillis=" + negativeTimeToLiveMillis + '}';
+    }
+
+    public static Builder newBuilder()
+    {
+        return Builder.newInstance();
+    }
+
+    @BuilderPattern(role = BUILDER)
+    public static final class Builder
+    {
+
+        public static final long DEFAULT_TIME_TO_LIVE_MINUTES = 30;
+        public static final long DEFAULT_MAXIMUM_SIZE = 10_000;
+
+        private long timeToLiveMillis = TimeUnit.MINUTES.toMillis(DEFAULT_TIME_TO_LIVE_MINUTES);
+        private long maximumSize = DEFAULT_MAXIMUM_SIZE;
+        private long staleWhileRevalidateMillis = 0;
+        private long refreshAheadMillis = 0;
+        private long negativeTimeToLiveMillis = 0;
+
+        public static Builder newInstance()
+        {
+            return new Builder();
+        }
+
+        /**
+         * Sets how long a response is served from the cache before it is requested again.
+         *
+         * @param timeToLive The amount of time.
+         * @param timeUnit   The unit of {@code timeToLive}.
+         * @return
+         * @throws IllegalArgumentException
+         */
+        public Builder withTimeToLive(@Positive long timeToLive, @Required TimeUnit timeUnit) throws IllegalArgumentException
+        {
+            checkThat(timeToLive).is(greaterThan(0L));
+            checkThat(timeUnit).is(notNull());
+
+            this.timeToLiveMillis = timeUnit.toMillis(timeToLive);
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of responses of each kind to keep. The least recently used responses are evicted
+         * first.
+         *
+         * @param maximumSize The maximum number of entries.
+         * @return
+         * @throws IllegalArgumentException
+         */
+        public Builder withMaximumSize(@Positive long maximumSize) throws IllegalArgumentException
+        {
+            checkThat(maximumSize).is(greaterThan(0L));
+
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * Allows a response to be served for a while after it expires. The stale response is returned immediately,
+         * and a fresh one is requested in the background, so that callers never wait for popular entries to reload.
+         * <p>
+         * Disabled by default.
+         *
+         * @param staleWhileRevalidate How long after expiring a response may still be served.
+         * @param timeUnit             The unit of {@code staleWhileRevalidate}.
+         * @return
+         * @throws IllegalArgumentException
+         */
+        public Builder withStaleWhileRevalidate(@NonNegative long staleWhileRevalidate, @Required TimeUnit timeUnit) throws IllegalArgumentException
+        {
+            checkThat(staleWhileRevalidate).is(greaterThanOrEqualTo(0L));
+            checkThat(timeUnit).is(notNull());
+
+            this.staleWhileRevalidateMillis = timeUnit.toMillis(staleWhileRevalidate);
+            return this;
+        }
+
+        /**
+         * Refreshes responses in the background shortly before they expire, if they are requested during that time.
+         * Frequently requested responses are then never served stale, and never expire.
+         * <p>
+         * Disabled by default.
+         *
+         * @param refreshAhead How long before a response expires it may be refreshed. Must be less than the time to
+         *                     live.
+         * @param timeUnit     The unit of {@code refreshAhead}.
+         * @return
+         * @throws IllegalArgumentException
+         */
+        public Builder withRefreshAhead(@NonNegative long refreshAhead, @Required TimeUnit timeUnit) throws IllegalArgumentException
+        {
+            checkThat(refreshAhead).is(greaterThanOrEqualTo(0L));
+            checkThat(timeUnit).is(notNull());
+
+            this.refreshAheadMillis = timeUnit.toMillis(refreshAhead);
+            return this;
+        }
+
+        /**
+         * Remembers which {@linkplain GetPlaceDetailsRequest Place Details} and {@linkplain GetPhotoRequest Photo}
+         * requests were recently rejected with a {@link GooglePlacesBadArgumentException}, such as for a place ID that no
+         * longer exists. Repeating one of those requests fails immediately, without spending quota on another call.
+         * <p>
+         * Disabled by default.
+         *
+         * @param negativeTimeToLive How long a rejection is remembered.
+         * @param timeUnit           The unit of {@code negativeTimeToLive}.
+         * @return
+         * @throws IllegalArgumentException
+         */
+        public Builder withNegativeTimeToLive(@NonNegative long negativeTimeToLive, @Required TimeUnit timeUnit) throws IllegalArgumentException
+        {
+            checkThat(negativeTimeToLive).is(greaterThanOrEqualTo(0L));
+            checkThat(timeUnit).is(notNull());
+
+            this.negativeTimeToLiveMillis = timeUnit.toMillis(negativeTimeToLive);
+            return this;
+        }
+
+        /**
+         * Builds the {@link CacheOptions}.
+         *
+         * @return
+         * @throws IllegalArgumentException If the refresh-ahead time is not less than the time to live.
+         */
+        public CacheOptions build() throws IllegalArgumentException
+        {
+            checkThat(refreshAheadMillis)
+                .usingMessage("refresh-ahead time must be less than the time to live")
+                .is(lessThan(timeToLiveMillis));
+
+            return new CacheOptions(timeToLiveMillis, maximumSize, staleWhileRevalidateMillis, refreshAheadMillis, negativeTimeToLiveMillis);
+        }
+    }
+
+}
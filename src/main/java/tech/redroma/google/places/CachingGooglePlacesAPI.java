@@ -0,0 +1,153 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import tech.redroma.google.places.responses.GetPlaceDetailsResponse;
+import tech.redroma.google.places.responses.NearbySearchResponse;
+import tech.sirwellington.alchemy.annotations.arguments.Required;
+
+import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
+import static tech.sirwellington.alchemy.arguments.assertions.Assertions.notNull;
+
+/**
+ * A {@link GooglePlacesAPI} that keeps {@link GetPlaceDetailsResponse Place Details} and
+ * {@link NearbySearchResponse Nearby Search} responses in memory, so that repeated requests do not cost another call
+ * to Google.
+ * <p>
+ * The cache can be saved to disk with {@link #saveSnapshot(java.nio.file.Path) } and loaded back with
+ * {@link #loadSnapshot(java.nio.file.Path) }, so that a freshly started instance does not begin with an empty cache.
+ * Entries keep their original age, and expire at the same time they would have without the restart.
+ * <p>
+ * A cache created with its own threads keeps them until it is {@linkplain #close() closed}.
+ *
+ * <pre>
+ * CachingGooglePlacesAPI api = CachingGooglePlacesAPI.create(GooglePlacesAPI.create(apiKey));
+ * api.loadSnapshot(snapshotFile);
+ * ...
+ * api.saveSnapshot(snapshotFile);
+ * </pre>
+ *
+ * @see #create(tech.redroma.google.places.GooglePlacesAPI, tech.redroma.google.places.CacheOptions)
+ * @see CacheOptions
+ * @author SirWellington
+ */
+public interface CachingGooglePlacesAPI extends GooglePlacesAPI, Closeable
+{
+
+    /**
+     * Writes every unexpired entry in the cache to {@code file}, replacing it atomically.
+     *
+     * @param file The file to write to.
+     * @throws IOException
+     * @throws IllegalArgumentException
+     */
+    void saveSnapshot(@Required Path file) throws IOException, IllegalArgumentException;
+
+    /**
+     * Loads a snapshot written by {@link #saveSnapshot(java.nio.file.Path) } into the cache, in the background.
+     * Requests are served as usual while the snapshot loads. Entries which have expired since the snapshot was taken
+     * are skipped, and entries already in the cache are kept if they are newer.
+     *
+     * @param file The snapshot to load. If it does not exist, nothing is loaded.
+     * @return A future that completes with the number of entries loaded. It fails if the snapshot could not be read,
+     *         or if the cache has been {@linkplain #close() closed}.
+     * @throws IllegalArgumentException
+     */
+    CompletableFuture<Integer> loadSnapshot(@Required Path file) throws IllegalArgumentException;
+
+    /**
+     * Removes every entry from the cache.
+     */
+    void invalidateAll();
+
+    /**
+     * @return The number of entries currently in the cache. This may include entries that have expired but have not
+     *         yet been removed.
+     */
+    long size();
+
+    /**
+     * Stops the threads this cache created for itself. Cached responses are still served, but are no longer refreshed
+     * in the background, and snapshots can no longer be loaded. An {@link Executor} passed to
+     * {@link #create(GooglePlacesAPI, CacheOptions, Executor) } is left running, and the delegate is left open.
+     */
+    @Override
+    void close();
+
+    /**
+     * Creates a {@link CachingGooglePlacesAPI} using {@linkplain CacheOptions#DEFAULT the default options}.
+     *
+     * @param delegate The API to call when a response is not in the cache.
+     * @return
+     * @throws IllegalArgumentException
+     */
+    static CachingGooglePlacesAPI create(@Required GooglePlacesAPI delegate) throws IllegalArgumentException
+    {
+        return create(delegate, CacheOptions.DEFAULT);
+    }
+
+    /**
+     * Creates a {@link CachingGooglePlacesAPI} with its own threads, which are stopped when it is
+     * {@linkplain #close() closed}.
+     *
+     * @param delegate The API to call when a response is not in the cache.
+     * @param options  Configures the cache.
+     * @return
+     * @throws IllegalArgumentException
+     * @see CacheOptions#newBuilder()
+     */
+    static CachingGooglePlacesAPI create(@Required GooglePlacesAPI delegate, @Required CacheOptions options) throws IllegalArgumentException
+    {
+        checkThat(delegate, options).are(notNull());
+
+        ExecutorService executor = Executors.newFixedThreadPool(2,
+                                                                new ThreadFactoryBuilder()
+                                                                    .setDaemon(true)
+                                                                    .setNameFormat("google-places-cache-%d")
+                                                                    .build());
+
+        return new CachingGooglePlacesAPIImpl(delegate, options, Clock.systemUTC(), executor, InternalResources.GSON, true);
+    }
+
+    /**
+     * Creates a {@link CachingGooglePlacesAPI} that refreshes responses and loads snapshots on the given
+     * {@link Executor}. The executor belongs to the caller, and is not stopped when the cache is closed.
+     *
+     * @param delegate The API to call when a response is not in the cache.
+     * @param options  Configures the cache.
+     * @param executor Runs background refreshes and snapshot loads.
+     * @return
+     * @throws IllegalArgumentException
+     */
+    static CachingGooglePlacesAPI create(@Required GooglePlacesAPI delegate,
+                                         @Required CacheOptions options,
+                                         @Required Executor executor) throws IllegalArgumentException
+    {
+        checkThat(delegate, options, executor).are(notNull());
+
+        return new CachingGooglePlacesAPIImpl(delegate, options, Clock.systemUTC(), executor, InternalResources.GSON);
+    }
+}
@@ -0,0 +1,574 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.lang.reflect.Type;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tech.redroma.google.places.exceptions.GooglePlacesBadArgumentException;
+import tech.redroma.google.places.exceptions.GooglePlacesException;
+import tech.redroma.google.places.requests.GetPhotoRequest;
+import tech.redroma.google.places.requests.GetPlaceDetailsRequest;
+import tech.redroma.google.places.requests.NearbySearchRequest;
+import tech.redroma.google.places.responses.GetPlaceDetailsResponse;
+import tech.redroma.google.places.responses.NearbySearchResponse;
+import tech.sirwellington.alchemy.annotations.access.Internal;
+import tech.sirwellington.alchemy.annotations.concurrency.Immutable;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadSafe;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
+import static tech.sirwellington.alchemy.arguments.assertions.Assertions.notNull;
+
+/**
+ * Caches responses in memory, keyed by request, and reads and writes snapshots of the cache as gzipped JSON.
+ * <p>
+ * A response goes through up to three stages as it ages:
+ * <ol>
+ * <li>Fresh, until the refresh-ahead time: served from the cache.</li>
+ * <li>Expiring, until the time to live: served from the cache, and refreshed in the background.</li>
+ * <li>Stale, until the stale-while-revalidate window has passed: likewise served and refreshed in the background.</li>
+ * </ol>
+ * After that, requests wait for a new response. At most one background refresh runs per request at a time.
+ * <p>
+ * If a negative time to live is set, Place Details and Photo requests that fail with a
+ * {@link GooglePlacesBadArgumentException} are also remembered, and fail again without calling Google until it
+ * passes.
+ *
+ * @author SirWellington
+ */
+@Internal
+@ThreadSafe
+final class CachingGooglePlacesAPIImpl implements CachingGooglePlacesAPI
+{
+
+    private final static Logger LOG = LoggerFactory.getLogger(CachingGooglePlacesAPIImpl.class);
+
+    /**
+     * Version 2 keys Place Details by their requested fields as well.
+     */
+    static final int SNAPSHOT_VERSION = 2;
+
+    private static final Type DETAILS_ENTRY = new TypeToken<SnapshotEntry<GetPlaceDetailsRequest, GetPlaceDetailsResponse>>(){}.getType();
+    private static final Type SEARCH_ENTRY = new TypeToken<SnapshotEntry<NearbySearchRequest, NearbySearchResponse>>(){}.getType();
+
+    private final GooglePlacesAPI delegate;
+    private final long timeToLive;
+    private final long staleWhileRevalidate;
+    private final long refreshAfter;
+    private final long negativeTimeToLive;
+    private final Clock clock;
+    private final Executor executor;
+    private final boolean ownsExecutor;
+    private final Gson gson;
+
+    private final ResponseCache<GetPlaceDetailsRequest, GetPlaceDetailsResponse> details;
+    private final ResponseCache<NearbySearchRequest, NearbySearchResponse> searches;
+    private final Cache<Object, Entry<GooglePlacesBadArgumentException>> rejections;
+
+    CachingGooglePlacesAPIImpl(GooglePlacesAPI delegate, CacheOptions options, Clock clock, Executor executor, Gson gson)
+    {
+        this(delegate, options, clock, executor, gson, false);
+    }
+
+    /**
+     * @param ownsExecutor Whether {@code executor} was created for this cache, and should be shut down when it is
+     *                     closed.
+     */
+    CachingGooglePlacesAPIImpl(GooglePlacesAPI delegate,
+                               CacheOptions options,
+                               Clock clock,
+                               Executor executor,
+                               Gson gson,
+                               boolean ownsExecutor)
+    {
+        checkThat(delegate, options, clock, executor, gson).are(notNull());
+
+        this.delegate = delegate;
+        this.timeToLive = options.timeToLiveMillis;
+        this.staleWhileRevalidate = options.staleWhileRevalidateMillis;
+        this.refreshAfter = timeToLive - options.refreshAheadMillis;
+        this.negativeTimeToLive = options.negativeTimeToLiveMillis;
+        this.clock = clock;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+        this.gson = gson;
+        this.details = new ResponseCache<>(options, delegate::getPlaceDetails);
+        this.searches = new ResponseCache<>(options, delegate::searchNearbyPlaces);
+        this.rejections = CacheBuilder.newBuilder()
+            .expireAfterWrite(negativeTimeToLive, TimeUnit.MILLISECONDS)
+            .maximumSize(options.maximumSize)
+            .build();
+    }
+
+    @Override
+    public NearbySearchResponse searchNearbyPlaces(NearbySearchRequest request) throws GooglePlacesException
+    {
+        checkThat(request)
+            .throwing(GooglePlacesBadArgumentException.class)
+            .is(notNull());
+
+        return searches.get(request);
+    }
+
+    @Override
+    public GetPlaceDetailsResponse getPlaceDetails(GetPlaceDetailsRequest request) throws GooglePlacesException
+    {
+        checkThat(request)
+            .throwing(GooglePlacesBadArgumentException.class)
+            .is(notNull());
+
+        checkNotRecentlyRejected(request);
+
+        try
+        {
+            return details.get(request);
+        }
+        catch (GooglePlacesBadArgumentException ex)
+        {
+            rememberRejection(request, ex);
+            throw ex;
+        }
+    }
+
+    @Override
+    public URL getPhoto(GetPhotoRequest request) throws GooglePlacesException
+    {
+        checkThat(request)
+            .throwing(GooglePlacesBadArgumentException.class)
+            .is(notNull());
+
+        checkNotRecentlyRejected(request);
+
+        try
+        {
+            return delegate.getPhoto(request);
+        }
+        catch (GooglePlacesBadArgumentException ex)
+        {
+            rememberRejection(request, ex);
+            throw ex;
+        }
+    }
+
+    @Override
+    public CompletableFuture<Map<GetPhotoRequest, URL>> getPhotos(Collection<GetPhotoRequest> requests) throws GooglePlacesException
+    {
+        return delegate.getPhotos(requests);
+    }
+
+    private void checkNotRecentlyRejected(Object request) throws GooglePlacesBadArgumentException
+    {
+        Entry<GooglePlacesBadArgumentException> rejection = rejections.getIfPresent(request);
+
+        if (rejection != null && rejection.ageAt(clock.millis()) < negativeTimeToLive)
+        {
+            throw new GooglePlacesBadArgumentException("Request was recently rejected: " + rejection.value.getMessage(),
+                                                       rejection.value);
+        }
+    }
+
+    private void rememberRejection(Object request, GooglePlacesBadArgumentException ex)
+    {
+        if (negativeTimeToLive > 0)
+        {
+            rejections.put(request, new Entry<>(ex, clock.millis()));
+        }
+    }
+
+    @Override
+    public void saveSnapshot(Path file) throws IOException, IllegalArgumentException
+    {
+        checkThat(file).is(notNull());
+
+        Path target = file.toAbsolutePath();
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+
+        try
+        {
+            long now = clock.millis();
+            int saved = 0;
+
+            try (JsonWriter writer = new JsonWriter(new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(temp)), UTF_8)))
+            {
+                writer.beginObject();
+                writer.name("version").value(SNAPSHOT_VERSION);
+                writer.name("details");
+                saved += writeEntries(writer, details, DETAILS_ENTRY, now);
+                writer.name("searches");
+                saved += writeEntries(writer, searches, SEARCH_ENTRY, now);
+                writer.endObject();
+            }
+
+            Files.move(temp, target, REPLACE_EXISTING, ATOMIC_MOVE);
+            LOG.debug("Saved {} cached responses to {}", saved, target);
+        }
+        finally
+        {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private <K, V> int writeEntries(JsonWriter writer, ResponseCache<K, V> cache, Type type, long now) throws IOException
+    {
+        int saved = 0;
+        writer.beginArray();
+
+        for (Map.Entry<K, Entry<V>> cached : cache.entries.asMap().entrySet())
+        {
+            Entry<V> entry = cached.getValue();
+
+            if (!isUsable(entry, now))
+            {
+                continue;
+            }
+
+            gson.toJson(new SnapshotEntry<>(cached.getKey(), entry.value, entry.writtenAt), type, writer);
+            ++saved;
+        }
+
+        writer.endArray();
+        return saved;
+    }
+
+    @Override
+    public CompletableFuture<Integer> loadSnapshot(Path file) throws IllegalArgumentException
+    {
+        checkThat(file).is(notNull());
+
+        try
+        {
+            return CompletableFuture.supplyAsync(() ->
+            {
+                try
+                {
+                    return readSnapshot(file);
+                }
+                catch (IOException ex)
+                {
+                    LOG.warn("Failed to load cache snapshot from {}", file, ex);
+                    throw new CompletionException(ex);
+                }
+            }, executor);
+        }
+        catch (RejectedExecutionException ex)
+        {
+            CompletableFuture<Integer> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(ex);
+            return rejected;
+        }
+    }
+
+    private int readSnapshot(Path file) throws IOException
+    {
+        if (!Files.exists(file))
+        {
+            return 0;
+        }
+
+        long now = clock.millis();
+        int loaded = 0;
+        int version = 0;
+
+        try (JsonReader reader = new JsonReader(new InputStreamReader(new GZIPInputStream(Files.newInputStream(file)), UTF_8)))
+        {
+            reader.beginObject();
+
+            while (reader.hasNext())
+            {
+                switch (reader.nextName())
+                {
+                    case "version":
+                        version = reader.nextInt();
+                        if (version > SNAPSHOT_VERSION)
+                        {
+                            throw new IOException("Unsupported cache snapshot version: " + version);
+                        }
+                        break;
+                    case "details":
+                        //Older details were saved without their fields, and would never match a request again
+                        if (version < 2)
+                        {
+                            reader.skipValue();
+                            break;
+                        }
+                        loaded += readEntries(reader, details, DETAILS_ENTRY, now);
+                        break;
+                    case "searches":
+                        loaded += readEntries(reader, searches, SEARCH_ENTRY, now);
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+
+            reader.endObject();
+        }
+        catch (JsonParseException | IllegalStateException ex)
+        {
+            throw new IOException("Corrupt cache snapshot: " + file, ex);
+        }
+
+        LOG.info("Loaded {} cached responses from {}", loaded, file);
+        return loaded;
+    }
+
+    private <K, V> int readEntries(JsonReader reader, ResponseCache<K, V> cache, Type type, long now) throws IOException
+    {
+        int loaded = 0;
+        reader.beginArray();
+
+        while (reader.hasNext())
+        {
+            SnapshotEntry<K, V> snapshot = gson.fromJson(reader, type);
+
+            if (snapshot == null || snapshot.request == null || snapshot.response == null)
+            {
+                continue;
+            }
+
+            Entry<V> restored = new Entry<>(snapshot.response, snapshot.writtenAt);
+
+            if (!isUsable(restored, now))
+            {
+                continue;
+            }
+
+            Entry<V> result = cache.entries.asMap().merge(snapshot.request, restored, Entry::newest);
+
+            if (result == restored)
+            {
+                ++loaded;
+            }
+        }
+
+        reader.endArray();
+        return loaded;
+    }
+
+    @Override
+    public void invalidateAll()
+    {
+        details.entries.invalidateAll();
+        searches.entries.invalidateAll();
+        rejections.invalidateAll();
+    }
+
+    @Override
+    public long size()
+    {
+        return details.entries.size() + searches.entries.size();
+    }
+
+    /**
+     * @return Whether the entry can still be served, either fresh or stale.
+     */
+    private boolean isUsable(Entry<?> entry, long now)
+    {
+        return entry.ageAt(now) < timeToLive + staleWhileRevalidate;
+    }
+
+    @Override
+    public void close()
+    {
+        if (ownsExecutor && executor instanceof ExecutorService)
+        {
+            ((ExecutorService) executor).shutdown();
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "CachingGooglePlacesAPIImpl{" + "delegate=" + delegate + ", timeToLive=" + timeToLive +
+               ", staleWhileRevalidate=" + staleWhileRevalidate + ", negativeTimeToLive=" + negativeTimeToLive +
+               ", size=" + size() + '}';
+    }
+
+    /**
+     * The cached responses of one kind of request, and the background refreshes in progress for them.
+     */
+    private final class ResponseCache<K, V>
+    {
+
+        private final Cache<K, Entry<V>> entries;
+        private final ConcurrentMap<K, CompletableFuture<V>> refreshes = new ConcurrentHashMap<>();
+        private final Function<K, V> call;
+
+        ResponseCache(CacheOptions options, Function<K, V> call)
+        {
+            //Entries restored from a snapshot are older than their time in this cache, so their age is also checked on read
+            this.entries = CacheBuilder.newBuilder()
+                .expireAfterWrite(options.timeToLiveMillis + options.staleWhileRevalidateMillis, TimeUnit.MILLISECONDS)
+                .maximumSize(options.maximumSize)
+                .build();
+            this.call = call;
+        }
+
+        V get(K request)
+        {
+            long now = clock.millis();
+            Entry<V> entry = entries.getIfPresent(request);
+
+            if (entry != null)
+            {
+                long age = entry.ageAt(now);
+
+                if (age < refreshAfter)
+                {
+                    return entry.value;
+                }
+
+                if (age < timeToLive + staleWhileRevalidate)
+                {
+                    refreshInBackground(request);
+                    return entry.value;
+                }
+            }
+
+            return load(request);
+        }
+
+        private V load(K request)
+        {
+            long now = clock.millis();
+            V response = call.apply(request);
+
+            if (response != null)
+            {
+                entries.put(request, new Entry<>(response, now));
+            }
+
+            return response;
+        }
+
+        /**
+         * Starts refreshing the response to {@code request}, unless a refresh is already in progress.
+         */
+        private void refreshInBackground(K request)
+        {
+            CompletableFuture<V> refresh = new CompletableFuture<>();
+
+            if (refreshes.putIfAbsent(request, refresh) != null)
+            {
+                return;
+            }
+
+            refresh.whenComplete((response, ex) -> refreshes.remove(request, refresh));
+
+            try
+            {
+                executor.execute(() ->
+                {
+                    try
+                    {
+                        refresh.complete(load(request));
+                    }
+                    catch (RuntimeException ex)
+                    {
+                        LOG.warn("Failed to refresh cached response to {}", request, ex);
+                        refresh.completeExceptionally(ex);
+                    }
+                });
+            }
+            catch (RejectedExecutionException ex)
+            {
+                LOG.warn("Could not schedule refresh of {}", request, ex);
+                refresh.completeExceptionally(ex);
+            }
+        }
+    }
+
+    /**
+     * A cached response, and the time it was received from Google.
+     */
+    @Immutable
+    static final class Entry<V>
+    {
+
+        final V value;
+        final long writtenAt;
+
+        Entry(V value, long writtenAt)
+        {
+            this.value = value;
+            this.writtenAt = writtenAt;
+        }
+
+        long ageAt(long now)
+        {
+            return now - writtenAt;
+        }
+
+        static <V> Entry<V> newest(Entry<V> first, Entry<V> second)
+        {
+            return first.writtenAt >= second.writtenAt ? first : second;
+        }
+    }
+
+    /**
+     * The JSON form of a cache entry.
+     */
+    private static final class SnapshotEntry<K, V>
+    {
+
+        private K request;
+        private V response;
+        private long writtenAt;
+
+        private SnapshotEntry()
+        {
+        }
+
+        private SnapshotEntry(K request, V response, long writtenAt)
+        {
+            this.request = request;
+            this.response = response;
+            this.writtenAt = writtenAt;
+        }
+    }
+
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.time.Clock;
+import tech.redroma.google.places.CircuitBreakingGooglePlacesAPI.State;
+import tech.redroma.google.places.CircuitBreakingGooglePlacesAPI.StateListener;
+import tech.sirwellington.alchemy.annotations.access.Internal;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadSafe;
+
+import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
+import static tech.sirwellington.alchemy.arguments.assertions.Assertions.notNull;
+
+/**
+ * Tracks the health of a single {@link Endpoint}, and decides whether calls to it are allowed.
+ * <p>
+ * While {@linkplain State#CLOSED closed}, the outcomes of the most recent calls are kept in a ring buffer. Once enough
+ * calls have been made, the circuit {@linkplain State#OPEN opens} if too many of them failed or were slow. After
+ * waiting, it becomes {@linkplain State#HALF_OPEN half-open} and lets a few trial calls through, whose outcomes decide
+ * whether it closes or opens again.
+ *
+ * @author SirWellington
+ */
+@Internal
+@ThreadSafe
+final class CircuitBreaker
+{
+
+    private static final byte SUCCESS = 0;
+    private static final byte FAILURE = 1;
+    private static final byte SLOW = 2;
+
+    private final Endpoint endpoint;
+    private final CircuitBreakerOptions options;
+    private final Clock clock;
+    private final StateListener listener;
+
+    //Guarded by this
+    private State state = State.CLOSED;
+    private byte[] outcomes;
+    private int next;
+    private int recorded;
+    private int failures;
+    private int slowCalls;
+    private int permitsIssued;
+    private long openedAt;
+
+    CircuitBreaker(Endpoint endpoint, CircuitBreakerOptions options, Clock clock, StateListener listener)
+    {
+        checkThat(endpoint, options, clock, listener).are(notNull());
+
+        this.endpoint = endpoint;
+        this.options = options;
+        this.clock = clock;
+        this.listener = listener;
+        this.outcomes = new byte[options.slidingWindowSize];
+    }
+
+    /**
+     * @return Whether a call may be made now. Every permitted call must be followed by a call to
+     *         {@link #onResult(long, boolean) }.
+     */
+    boolean tryAcquirePermission()
+    {
+        State from = null;
+        boolean permitted;
+
+        synchronized (this)
+        {
+            if (state == State.OPEN && clock.millis() - openedAt >= options.waitDurationInOpenStateMillis)
+            {
+                from = transitionTo(State.HALF_OPEN);
+            }
+
+            switch (state)
+            {
+                case CLOSED:
+                    permitted = true;
+                    break;
+                case HALF_OPEN:
+                    permitted = permitsIssued < options.permittedCallsInHalfOpenState;
+                    if (permitted)
+                    {
+                        ++permitsIssued;
+                    }
+                    break;
+                default:
+                    permitted = false;
+            }
+        }
+
+        notifyListener(from, State.HALF_OPEN);
+        return permitted;
+    }
+
+    /**
+     * Records the outcome of a permitted call.
+     *
+     * @param durationMillis How long the call took.
+     * @param failed         Whether the call failed because of the endpoint.
+     */
+    void onResult(long durationMillis, boolean failed)
+    {
+        byte outcome = failed ? FAILURE : SUCCESS;
+
+        if (durationMillis >= options.slowCallDurationMillis)
+        {
+            outcome |= SLOW;
+        }
+
+        State from = null;
+        State to = null;
+
+        synchronized (this)
+        {
+            if (state == State.OPEN)
+            {
+                //A call that started before the circuit opened
+                return;
+            }
+
+            record(outcome);
+
+            int required = state == State.HALF_OPEN ? options.permittedCallsInHalfOpenState : options.minimumNumberOfCalls;
+
+            if (recorded < required)
+            {
+                return;
+            }
+
+            if (isUnhealthy())
+            {
+                to = State.OPEN;
+            }
+            else if (state == State.HALF_OPEN)
+            {
+                to = State.CLOSED;
+            }
+
+            if (to != null)
+            {
+                from = transitionTo(to);
+            }
+        }
+
+        notifyListener(from, to);
+    }
+
+    synchronized State getState()
+    {
+        return state;
+    }
+
+    private void record(byte outcome)
+    {
+        if (recorded == outcomes.length)
+        {
+            forget(outcomes[next]);
+        }
+        else
+        {
+            ++recorded;
+        }
+
+        outcomes[next] = outcome;
+        next = (next + 1) % outcomes.length;
+
+        if ((outcome & FAILURE) != 0)
+        {
+            ++failures;
+        }
+
+        if ((outcome & SLOW) != 0)
+        {
+            ++slowCalls;
+        }
+    }
+
+    private void forget(byte outcome)
+    {
+        if ((outcome & FAILURE) != 0)
+        {
+            --failures;
+        }
+
+        if ((outcome & SLOW) != 0)
+        {
+            --slowCalls;
+        }
+    }
+
+    private boolean isUnhealthy()
+    {
+        return failures * 100 >= options.failureRateThreshold * recorded ||
+               slowCalls * 100 >= options.slowCallRateThreshold * recorded;
+    }
+
+    /**
+     * Moves to a new state, and starts counting calls afresh.
+     *
+     * @return The previous state.
+     */
+    private State transitionTo(State to)
+    {
+        State from = state;
+        state = to;
+
+        int windowSize = to == State.HALF_OPEN ? options.permittedCallsInHalfOpenState : options.slidingWindowSize;
+
+        if (outcomes.length != windowSize)
+        {
+            outcomes = new byte[windowSize];
+        }
+
+        next = 0;
+        recorded = 0;
+        failures = 0;
+        slowCalls = 0;
+        permitsIssued = 0;
+
+        if (to == State.OPEN)
+        {
+            openedAt = clock.millis();
+        }
+
+        return from;
+    }
+
+    /**
+     * Listeners are notified outside of the lock, so that a slow listener does not hold up calls.
+     */
+    private void notifyListener(State from, State to)
+    {
+        if (from != null && from != to)
+        {
+            listener.onStateChange(endpoint, from, to);
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "CircuitBreaker{" + "endpoint=" + endpoint + ", state=" + getState() + '}';
+    }
+
+}
@@ -0,0 +1,303 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.util.concurrent.TimeUnit;
+import tech.sirwellington.alchemy.annotations.arguments.Positive;
+import tech.sirwellington.alchemy.annotations.arguments.Required;
+import tech.sirwellington.alchemy.annotations.concurrency.Immutable;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadSafe;
+import tech.sirwellington.alchemy.annotations.designs.patterns.BuilderPattern;
+
+import static tech.sirwellington.alchemy.annotations.designs.patterns.BuilderPattern.Role.BUILDER;
+import static tech.sirwellington.alchemy.annotations.designs.patterns.BuilderPattern.Role.PRODUCT;
+import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
+import static tech.sirwellington.alchemy.arguments.assertions.Assertions.notNull;
+import static tech.sirwellington.alchemy.arguments.assertions.NumberAssertions.greaterThan;
+import static tech.sirwellington.alchemy.arguments.assertions.NumberAssertions.lessThanOrEqualTo;
+import static tech.sirwellington.alchemy.arguments.assertions.NumberAssertions.positiveInteger;
+
+/**
+ * Configures the circuit breakers of a {@link CircuitBreakingGooglePlacesAPI}.
+ * <p>
+ * See {@link #newBuilder() } to create options.
+ *
+ * @see #newBuilder()
+ * @see Builder
+ * @author SirWellington
+ */
+@Immutable
+@ThreadSafe
+@BuilderPattern(role = PRODUCT)
+public final class CircuitBreakerOptions
+{
+
+    /** The options used when none are specified. */
+    public static final CircuitBreakerOptions DEFAULT = newBuilder().build();
+
+    final int failureRateThreshold;
+    final int slowCallRateThreshold;
+    final long slowCallDurationMillis;
+    final int slidingWindowSize;
+    final int minimumNumberOfCalls;
+    final long waitDurationInOpenStateMillis;
+    final int permittedCallsInHalfOpenState;
+
+    CircuitBreakerOptions(int failureRateThreshold,
+                          int slowCallRateThreshold,
+                          long slowCallDurationMillis,
+                          int slidingWindowSize,
+                          int minimumNumberOfCalls,
+                          long waitDurationInOpenStateMillis,
+                          int permittedCallsInHalfOpenState)
+    {
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallDurationMillis = slowCallDurationMillis;
+        this.slidingWindowSize = slidingWindowSize;
+        this.minimumNumberOfCalls = minimumNumberOfCalls;
+        this.waitDurationInOpenStateMillis = waitDurationInOpenStateMillis;
+        this.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState;
+    }
+
+    /**
+     * @return The percentage of failed calls at which the circuit opens.
+     */
+    public int getFailureRateThreshold()
+    {
+        return failureRateThreshold;
+    }
+
+    /**
+     * @return The percentage of slow calls at which the circuit opens.
+     */
+    public int getSlowCallRateThreshold()
+    {
+        return slowCallRateThreshold;
+    }
+
+    /**
+     * @return How long a call may take before it counts as slow, in milliseconds.
+     */
+    public long getSlowCallDurationMillis()
+    {
+        return slowCallDurationMillis;
+    }
+
+    /**
+     * @return The number of most recent calls that the failure and slow call rates are measured over.
+     */
+    public int getSlidingWindowSize()
+    {
+        return slidingWindowSize;
+    }
+
+    /**
+     * @return The number of calls that must be made before the rates are checked at all.
+     */
+    public int getMinimumNumberOfCalls()
+    {
+        return minimumNumberOfCalls;
+    }
+
+    /**
+     * @return How long the circuit stays open before trial calls are let through, in milliseconds.
+     */
+    public long getWaitDurationInOpenStateMillis()
+    {
+        return waitDurationInOpenStateMillis;
+    }
+
+    /**
+     * @return The number of trial calls let through while half-open.
+     */
+    public int getPermittedCallsInHalfOpenState()
+    {
+        return permittedCallsInHalfOpenState;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "CircuitBreakerOptions{" + "failureRateThreshold=" + failureRateThreshold +
+               ", slowCallRateThreshold=" + slowCallRateThreshold + ", slowCallDurationMillis=" + slowCallDurationMillis +
+               ", slidingWindowSize=" + slidingWindowSize + ", minimumNumberOfCalls=" + minimumNumberOfCalls +
+               ", waitDurationInOpenStateMillis=" + waitDurationInOpenStateMillis +
+               ", permittedCallsInHalfOpenState=" + permittedCallsInHalfOpenState + '}';
+    }
+
+    public static Builder newBuilder()
+    {
+        return Builder.newInstance();
+    }
+
+    @BuilderPattern(role = BUILDER)
+    public static final class Builder
+    {
+
+        public static final int DEFAULT_FAILURE_RATE_THRESHOLD = 50;
+        public static final int DEFAULT_SLOW_CALL_RATE_THRESHOLD = 100;
+        public static final long DEFAULT_SLOW_CALL_DURATION_SECONDS = 5;
+        public static final int DEFAULT_SLIDING_WINDOW_SIZE = 20;
+        public static final int DEFAULT_MINIMUM_NUMBER_OF_CALLS = 10;
+        public static final long DEFAULT_WAIT_DURATION_IN_OPEN_STATE_SECONDS = 30;
+        public static final int DEFAULT_PERMITTED_CALLS_IN_HALF_OPEN_STATE = 3;
+
+        private int failureRateThreshold = DEFAULT_FAILURE_RATE_THRESHOLD;
+        private int slowCallRateThreshold = DEFAULT_SLOW_CALL_RATE_THRESHOLD;
+        private long slowCallDurationMillis = TimeUnit.SECONDS.toMillis(DEFAULT_SLOW_CALL_DURATION_SECONDS);
+        private int slidingWindowSize = DEFAULT_SLIDING_WINDOW_SIZE;
+        private int minimumNumberOfCalls = DEFAULT_MINIMUM_NUMBER_OF_CALLS;
+        private long waitDurationInOpenStateMillis = TimeUnit.SECONDS.toMillis(DEFAULT_WAIT_DURATION_IN_OPEN_STATE_SECONDS);
+        private int permittedCallsInHalfOpenState = DEFAULT_PERMITTED_CALLS_IN_HALF_OPEN_STATE;
+
+        public static Builder newInstance()
+        {
+            return new Builder();
+        }
+
+        /**
+         * Sets the percentage of failed calls, within the sliding window, at which the circuit opens.
+         * <p>
+         * Only {@link tech.redroma.google.places.exceptions.GooglePlacesOperationFailedException operation failures}
+         * count as failures. Bad arguments, authentication failures and exceeded quotas are answers from a healthy
+         * service, and do not.
+         *
+         * @param percentage Between 1 and 100.
+         * @return
+         * @throws IllegalArgumentException
+         */
+        public Builder withFailureRateThreshold(@Positive int percentage) throws IllegalArgumentException
+        {
+            checkThat(percentage)
+                .is(positiveInteger())
+                .is(lessThanOrEqualTo(100));
+
+            this.failureRateThreshold = percentage;
+            return this;
+        }
+
+        /**
+         * Sets the percentage of slow calls, within the sliding window, at which the circuit opens. Slow calls tie up
+         * threads just like failures do, even when they eventually succeed.
+         *
+         * @param percentage   Between 1 and 100.
+         * @param slowCall     How long a call may take before it counts as slow.
+         * @param timeUnit     The unit of {@code slowCall}.
+         * @return
+         * @throws IllegalArgumentException
+         */
+        public Builder withSlowCallRateThreshold(@Positive int percentage, @Positive long slowCall, @Required TimeUnit timeUnit) throws IllegalArgumentException
+        {
+            checkThat(percentage)
+                .is(positiveInteger())
+                .is(lessThanOrEqualTo(100));
+            checkThat(slowCall).is(greaterThan(0L));
+            checkThat(timeUnit).is(notNull());
+
+            this.slowCallRateThreshold = percentage;
+            this.slowCallDurationMillis = timeUnit.toMillis(slowCall);
+            return this;
+        }
+
+        /**
+         * Sets how many of the most recent calls the failure and slow call rates are measured over.
+         *
+         * @param calls The number of calls.
+         * @return
+         * @throws IllegalArgumentException
+         */
+        public Builder withSlidingWindowSize(@Positive int calls) throws IllegalArgumentException
+        {
+            checkThat(calls).is(positiveInteger());
+
+            this.slidingWindowSize = calls;
+            return this;
+        }
+
+        /**
+         * Sets how many calls must be made before the rates are checked, so that a single early failure does not open
+         * the circuit.
+         *
+         * @param calls The number of calls. Must not be greater than the sliding window size.
+         * @return
+         * @throws IllegalArgumentException
+         */
+        public Builder withMinimumNumberOfCalls(@Positive int calls) throws IllegalArgumentException
+        {
+            checkThat(calls).is(positiveInteger());
+
+            this.minimumNumberOfCalls = calls;
+            return this;
+        }
+
+        /**
+         * Sets how long the circuit stays open, failing every call, before it lets trial calls through.
+         *
+         * @param wait     The amount of time.
+         * @param timeUnit The unit of {@code wait}.
+         * @return
+         * @throws IllegalArgumentException
+         */
+        public Builder withWaitDurationInOpenState(@Positive long wait, @Required TimeUnit timeUnit) throws IllegalArgumentException
+        {
+            checkThat(wait).is(greaterThan(0L));
+            checkThat(timeUnit).is(notNull());
+
+            this.waitDurationInOpenStateMillis = timeUnit.toMillis(wait);
+            return this;
+        }
+
+        /**
+         * Sets how many trial calls are let through once the circuit is half-open. The circuit closes again if they
+         * are healthy, and opens again if they are not.
+         *
+         * @param calls The number of calls.
+         * @return
+         * @throws IllegalArgumentException
+         */
+        public Builder withPermittedCallsInHalfOpenState(@Positive int calls) throws IllegalArgumentException
+        {
+            checkThat(calls).is(positiveInteger());
+
+            this.permittedCallsInHalfOpenState = calls;
+            return this;
+        }
+
+        /**
+         * Builds the {@link CircuitBreakerOptions}.
+         *
+         * @return
+         * @throws IllegalArgumentException If the minimum number of calls is greater than the sliding window size.
+         */
+        public CircuitBreakerOptions build() throws IllegalArgumentException
+        {
+            checkThat(minimumNumberOfCalls)
+                .usingMessage("minimum number of calls cannot be greater than the sliding window size")
+                .is(lessThanOrEqualTo(slidingWindowSize));
+
+            return new CircuitBreakerOptions(failureRateThreshold,
+                                             slowCallRateThreshold,
+                                             slowCallDurationMillis,
+                                             slidingWindowSize,
+                                             minimumNumberOfCalls,
+                                             waitDurationInOpenStateMillis,
+                                             permittedCallsInHalfOpenState);
+        }
+    }
+
+}
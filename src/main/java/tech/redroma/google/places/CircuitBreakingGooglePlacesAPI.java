@@ -0,0 +1,113 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.time.Clock;
+import tech.redroma.google.places.exceptions.GooglePlacesCircuitOpenException;
+import tech.sirwellington.alchemy.annotations.arguments.Required;
+
+import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
+import static tech.sirwellington.alchemy.arguments.assertions.Assertions.notNull;
+
+/**
+ * A {@link GooglePlacesAPI} that stops calling an {@link Endpoint} while it is failing or responding slowly.
+ * <p>
+ * Each endpoint has its own circuit breaker. When an endpoint is degraded, its circuit opens and calls to it fail
+ * immediately with a {@link GooglePlacesCircuitOpenException}, instead of each caller waiting out a full timeout. After
+ * a while a few trial calls are let through, and the circuit closes again once they succeed.
+ * <p>
+ * Only transport failures, socket timeouts and server errors, including an {@code UNKNOWN_ERROR} status, count as
+ * failures. Photo lookups already fall back to the unresolved photo URL when Google cannot be reached, so their circuit
+ * is opened by slow calls rather than failed ones.
+ *
+ * <pre>
+ * CircuitBreakingGooglePlacesAPI api = CircuitBreakingGooglePlacesAPI.create(GooglePlacesAPI.create(apiKey));
+ * api.addListener((endpoint, from, to) -&gt; LOG.warn("{} circuit is now {}", endpoint, to));
+ * </pre>
+ *
+ * @see #create(tech.redroma.google.places.GooglePlacesAPI, tech.redroma.google.places.CircuitBreakerOptions)
+ * @see CircuitBreakerOptions
+ * @author SirWellington
+ */
+public interface CircuitBreakingGooglePlacesAPI extends GooglePlacesAPI
+{
+
+    enum State
+    {
+        /** Calls are made as usual. */
+        CLOSED,
+        /** Calls fail immediately. */
+        OPEN,
+        /** A limited number of trial calls are made. */
+        HALF_OPEN
+    }
+
+    /**
+     * Notified when the circuit of an endpoint changes state.
+     */
+    @FunctionalInterface
+    interface StateListener
+    {
+
+        void onStateChange(Endpoint endpoint, State from, State to);
+    }
+
+    /**
+     * @param endpoint The endpoint to check.
+     * @return The current state of the endpoint's circuit.
+     * @throws IllegalArgumentException
+     */
+    State getState(@Required Endpoint endpoint) throws IllegalArgumentException;
+
+    /**
+     * Adds a listener that is notified whenever the circuit of any endpoint changes state. Listeners are called on the
+     * thread that made the call causing the change, so they should return quickly.
+     *
+     * @param listener The listener to add.
+     * @throws IllegalArgumentException
+     */
+    void addListener(@Required StateListener listener) throws IllegalArgumentException;
+
+    /**
+     * Creates a {@link CircuitBreakingGooglePlacesAPI} using {@linkplain CircuitBreakerOptions#DEFAULT the default
+     * options}.
+     *
+     * @param delegate The API to call while the circuit is closed.
+     * @return
+     * @throws IllegalArgumentException
+     */
+    static CircuitBreakingGooglePlacesAPI create(@Required GooglePlacesAPI delegate) throws IllegalArgumentException
+    {
+        return create(delegate, CircuitBreakerOptions.DEFAULT);
+    }
+
+    /**
+     * Creates a {@link CircuitBreakingGooglePlacesAPI}.
+     *
+     * @param delegate The API to call while the circuit is closed.
+     * @param options  Configures the circuit breakers.
+     * @return
+     * @throws IllegalArgumentException
+     * @see CircuitBreakerOptions#newBuilder()
+     */
+    static CircuitBreakingGooglePlacesAPI create(@Required GooglePlacesAPI delegate, @Required CircuitBreakerOptions options) throws IllegalArgumentException
+    {
+        checkThat(delegate, options).are(notNull());
+
+        return new CircuitBreakingGooglePlacesAPIImpl(delegate, options, Clock.systemUTC());
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.io.IOException;
+import java.net.URL;
+import java.time.Clock;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tech.redroma.google.places.exceptions.GooglePlacesCircuitOpenException;
+import tech.redroma.google.places.exceptions.GooglePlacesException;
+import tech.redroma.google.places.exceptions.GooglePlacesServerErrorException;
+import tech.redroma.google.places.exceptions.GooglePlacesTimeoutException;
+import tech.redroma.google.places.requests.GetPhotoRequest;
+import tech.redroma.google.places.requests.GetPlaceDetailsRequest;
+import tech.redroma.google.places.requests.NearbySearchRequest;
+import tech.redroma.google.places.responses.GetPlaceDetailsResponse;
+import tech.redroma.google.places.responses.NearbySearchResponse;
+import tech.sirwellington.alchemy.annotations.access.Internal;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadSafe;
+
+import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
+import static tech.sirwellington.alchemy.arguments.assertions.Assertions.notNull;
+
+/**
+ * Guards each {@link Endpoint} of the delegate with its own {@link CircuitBreaker}.
+ * <p>
+ * {@link GooglePlacesAPIImpl} falls back to the unresolved photo URL when a redirect cannot be followed, so photo
+ * lookups rarely fail here. Their circuit opens when they are slow instead, such as when each one waits out the
+ * transport's timeout before falling back. A batch of photos counts as a single call, which lasts until its slowest
+ * photo is resolved.
+ *
+ * @author SirWellington
+ */
+@Internal
+@ThreadSafe
+final class CircuitBreakingGooglePlacesAPIImpl implements CircuitBreakingGooglePlacesAPI
+{
+
+    private final static Logger LOG = LoggerFactory.getLogger(CircuitBreakingGooglePlacesAPIImpl.class);
+
+    private final GooglePlacesAPI delegate;
+    private final Clock clock;
+    private final Map<Endpoint, CircuitBreaker> breakers = new EnumMap<>(Endpoint.class);
+    private final List<StateListener> listeners = new CopyOnWriteArrayList<>();
+
+    CircuitBreakingGooglePlacesAPIImpl(GooglePlacesAPI delegate, CircuitBreakerOptions options, Clock clock)
+    {
+        checkThat(delegate, options, clock).are(notNull());
+
+        this.delegate = delegate;
+        this.clock = clock;
+
+        for (Endpoint endpoint : Endpoint.values())
+        {
+            breakers.put(endpoint, new CircuitBreaker(endpoint, options, clock, this::onStateChange));
+        }
+    }
+
+    @Override
+    public NearbySearchResponse searchNearbyPlaces(NearbySearchRequest request) throws GooglePlacesException
+    {
+        return call(Endpoint.NEARBY_SEARCH, () -> delegate.searchNearbyPlaces(request));
+    }
+
+    @Override
+    public GetPlaceDetailsResponse getPlaceDetails(GetPlaceDetailsRequest request) throws GooglePlacesException
+    {
+        return call(Endpoint.PLACE_DETAILS, () -> delegate.getPlaceDetails(request));
+    }
+
+    @Override
+    public URL getPhoto(GetPhotoRequest request) throws GooglePlacesException
+    {
+        return call(Endpoint.PHOTO, () -> delegate.getPhoto(request));
+    }
+
+    @Override
+    public CompletableFuture<Map<GetPhotoRequest, URL>> getPhotos(Collection<GetPhotoRequest> requests) throws GooglePlacesException
+    {
+        CircuitBreaker breaker = acquire(Endpoint.PHOTO);
+        Deadline deadline = Deadline.current();
+        long start = clock.millis();
+        CompletableFuture<Map<GetPhotoRequest, URL>> result;
+
+        try
+        {
+            result = delegate.getPhotos(requests);
+        }
+        catch (Throwable ex)
+        {
+            breaker.onResult(clock.millis() - start, isFailure(ex, deadline));
+            throw ex;
+        }
+
+        return result.whenComplete((photos, ex) -> breaker.onResult(clock.millis() - start,
+                                                                    ex != null && isFailure(unwrap(ex), deadline)));
+    }
+
+    @Override
+    public State getState(Endpoint endpoint) throws IllegalArgumentException
+    {
+        checkThat(endpoint).is(notNull());
+
+        return breakers.get(endpoint).getState();
+    }
+
+    @Override
+    public void addListener(StateListener listener) throws IllegalArgumentException
+    {
+        checkThat(listener).is(notNull());
+
+        listeners.add(listener);
+    }
+
+    private <T> T call(Endpoint endpoint, Supplier<T> call) throws GooglePlacesException
+    {
+        CircuitBreaker breaker = acquire(endpoint);
+        Deadline deadline = Deadline.current();
+        long start = clock.millis();
+        Throwable failure = null;
+
+        //The result is reported even if the call throws an Error, so that a trial call always returns its permit
+        try
+        {
+            return call.get();
+        }
+        catch (Throwable ex)
+        {
+            failure = ex;
+            throw ex;
+        }
+        finally
+        {
+            breaker.onResult(clock.millis() - start, failure != null && isFailure(failure, deadline));
+        }
+    }
+
+    private CircuitBreaker acquire(Endpoint endpoint) throws GooglePlacesCircuitOpenException
+    {
+        CircuitBreaker breaker = breakers.get(endpoint);
+
+        if (!breaker.tryAcquirePermission())
+        {
+            throw new GooglePlacesCircuitOpenException("Circuit is open for " + endpoint);
+        }
+
+        return breaker;
+    }
+
+    /**
+     * Bad arguments, authentication failures and exceeded quotas are answers from a healthy endpoint. Calls shed by a
+     * local limit, or cut short by the caller's own {@link Deadline}, never reached it. Only transport failures, socket
+     * timeouts and server errors count against it, including the {@code UNKNOWN_ERROR} that Google returns with a
+     * {@code 200}.
+     */
+    private static boolean isFailure(Throwable ex, Deadline deadline)
+    {
+        if (ex instanceof GooglePlacesTimeoutException && deadline.isExpired())
+        {
+            return false;
+        }
+
+        for (Throwable cause = ex; cause != null; cause = cause.getCause())
+        {
+            if (cause instanceof GooglePlacesServerErrorException)
+            {
+                return true;
+            }
+
+            if (cause instanceof HttpStatusException)
+            {
+                return ((HttpStatusException) cause).getStatusCode() >= 500;
+            }
+
+            if (cause instanceof IOException)
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static Throwable unwrap(Throwable ex)
+    {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    }
+
+    private void onStateChange(Endpoint endpoint, State from, State to)
+    {
+        LOG.info("Circuit for {} changed from {} to {}", endpoint, from, to);
+
+        for (StateListener listener : listeners)
+        {
+            try
+            {
+                listener.onStateChange(endpoint, from, to);
+            }
+            catch (RuntimeException ex)
+            {
+                LOG.warn("Circuit breaker listener failed: {}", listener, ex);
+            }
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "CircuitBreakingGooglePlacesAPIImpl{" + "delegate=" + delegate + ", breakers=" + breakers.values() + '}';
+    }
+
+}
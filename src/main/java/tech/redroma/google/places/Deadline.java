@@ -0,0 +1,257 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import tech.redroma.google.places.exceptions.GooglePlacesTimeoutException;
+import tech.sirwellington.alchemy.annotations.arguments.NonNegative;
+import tech.sirwellington.alchemy.annotations.arguments.Required;
+import tech.sirwellington.alchemy.annotations.concurrency.Immutable;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadSafe;
+
+import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
+import static tech.sirwellington.alchemy.arguments.assertions.Assertions.notNull;
+import static tech.sirwellington.alchemy.arguments.assertions.NumberAssertions.greaterThanOrEqualTo;
+
+/**
+ * A point in time by which a request must complete.
+ * <p>
+ * A deadline applies to every call made by the current thread while it is {@linkplain #enter() entered}. Connecting,
+ * reading the response and resolving photo redirects all share the time that remains, so a caller with a 200ms budget
+ * never blocks for longer than that, however many steps a request takes.
+ *
+ * <pre>
+ * PlaceDetails details = Deadline.after(200, TimeUnit.MILLISECONDS)
+ *     .run(() -&gt; api.simpleGetPlaceDetails(place));
+ * </pre>
+ *
+ * Deadlines nest: entering a deadline while another is in effect keeps whichever is earlier. Requests that run in
+ * the background, such as {@link GooglePlacesAPI#getPhotos(java.util.Collection) }, keep the deadline that was in
+ * effect when they were started.
+ *
+ * @author SirWellington
+ */
+@Immutable
+@ThreadSafe
+public final class Deadline
+{
+
+    /** No deadline at all. Requests are still bounded by the transport's own timeouts. */
+    public static final Deadline NONE = new Deadline(0, Long.MAX_VALUE, System::nanoTime);
+
+    private static final ThreadLocal<Deadline> CURRENT = ThreadLocal.withInitial(() -> NONE);
+
+    //System.nanoTime() may be negative and may wrap, so only differences between its values are meaningful
+    private final long startNanos;
+    private final long durationNanos;
+    private final LongSupplier nanoTime;
+
+    Deadline(long startNanos, long durationNanos, LongSupplier nanoTime)
+    {
+        this.startNanos = startNanos;
+        this.durationNanos = durationNanos;
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Creates a deadline that expires after {@code amount} of time from now.
+     *
+     * @param amount   The amount of time.
+     * @param timeUnit The unit of {@code amount}.
+     * @return
+     * @throws IllegalArgumentException
+     */
+    public static Deadline after(@NonNegative long amount, @Required TimeUnit timeUnit) throws IllegalArgumentException
+    {
+        checkThat(amount).is(greaterThanOrEqualTo(0L));
+        checkThat(timeUnit).is(notNull());
+
+        return after(amount, timeUnit, System::nanoTime);
+    }
+
+    static Deadline after(long amount, TimeUnit timeUnit, LongSupplier nanoTime)
+    {
+        //Saturates at Long.MAX_VALUE, which never expires
+        long nanos = timeUnit.toNanos(amount);
+
+        return new Deadline(nanoTime.getAsLong(), nanos, nanoTime);
+    }
+
+    /**
+     * @return The deadline in effect on this thread, or {@link #NONE}.
+     */
+    public static Deadline current()
+    {
+        return CURRENT.get();
+    }
+
+    /**
+     * @return Whether this deadline ever expires.
+     */
+    public boolean isFinite()
+    {
+        return durationNanos != Long.MAX_VALUE;
+    }
+
+    public boolean isExpired()
+    {
+        return remaining(TimeUnit.NANOSECONDS) <= 0;
+    }
+
+    /**
+     * @param timeUnit The unit to return.
+     * @return The time left before this deadline expires, or {@link Long#MAX_VALUE} if it never does. Negative once it
+     *         has expired.
+     */
+    public long remaining(@Required TimeUnit timeUnit)
+    {
+        if (!isFinite())
+        {
+            return Long.MAX_VALUE;
+        }
+
+        long elapsed = nanoTime.getAsLong() - startNanos;
+
+        return timeUnit.convert(durationNanos - elapsed, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Shortens a timeout so that it does not go past this deadline.
+     *
+     * @param timeoutMillis The timeout to use if this deadline is further away. {@code 0} means no timeout.
+     * @return The timeout to use, in milliseconds.
+     * @throws GooglePlacesTimeoutException If this deadline has already expired.
+     */
+    int boundTimeout(int timeoutMillis) throws GooglePlacesTimeoutException
+    {
+        checkNotExpired();
+
+        if (!isFinite())
+        {
+            return timeoutMillis;
+        }
+
+        //Round up, so that a fraction of a millisecond left does not become 0, which means "no timeout"
+        long remaining = Math.max(1, (remaining(TimeUnit.MICROSECONDS) + 999) / 1000);
+
+        if (timeoutMillis > 0 && timeoutMillis < remaining)
+        {
+            return timeoutMillis;
+        }
+
+        return (int) Math.min(Integer.MAX_VALUE, remaining);
+    }
+
+    /**
+     * @throws GooglePlacesTimeoutException If this deadline has expired.
+     */
+    public void checkNotExpired() throws GooglePlacesTimeoutException
+    {
+        if (isExpired())
+        {
+            throw new GooglePlacesTimeoutException("Deadline exceeded");
+        }
+    }
+
+    /**
+     * @return Whichever of this and {@code other} expires first.
+     */
+    public Deadline earliest(@Required Deadline other)
+    {
+        checkThat(other).is(notNull());
+
+        if (!other.isFinite())
+        {
+            return this;
+        }
+
+        if (!this.isFinite())
+        {
+            return other;
+        }
+
+        //Compared by their difference, which stays correct when the clock wraps around
+        long difference = (other.startNanos - this.startNanos) + (other.durationNanos - this.durationNanos);
+        return difference < 0 ? other : this;
+    }
+
+    /**
+     * Applies this deadline to the current thread until the returned {@link Scope} is closed.
+     *
+     * <pre>
+     * try (Deadline.Scope scope = Deadline.after(200, TimeUnit.MILLISECONDS).enter())
+     * {
+     *     ...
+     * }
+     * </pre>
+     *
+     * @return
+     */
+    public Scope enter()
+    {
+        Deadline previous = CURRENT.get();
+        CURRENT.set(earliest(previous));
+        return new Scope(previous);
+    }
+
+    /**
+     * Runs {@code task} with this deadline in effect.
+     *
+     * @param <T>
+     * @param task The task to run.
+     * @return What {@code task} returns.
+     * @throws IllegalArgumentException
+     */
+    public <T> T run(@Required Supplier<T> task) throws IllegalArgumentException
+    {
+        checkThat(task).is(notNull());
+
+        try (Scope scope = enter())
+        {
+            return task.get();
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return isFinite() ? "Deadline{remaining=" + remaining(TimeUnit.MILLISECONDS) + "ms}" : "Deadline{none}";
+    }
+
+    /**
+     * Restores the deadline that was in effect before {@link #enter() } when closed.
+     */
+    public static final class Scope implements AutoCloseable
+    {
+
+        private final Deadline previous;
+
+        private Scope(Deadline previous)
+        {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close()
+        {
+            CURRENT.set(previous);
+        }
+    }
+
+}
@@ -17,14 +17,16 @@
 
 package tech.redroma.google.places;
 
+import java.net.SocketTimeoutException;
 import tech.redroma.google.places.exceptions.GooglePlacesAuthenticationException;
 import tech.redroma.google.places.exceptions.GooglePlacesBadArgumentException;
 import tech.redroma.google.places.exceptions.GooglePlacesException;
 import tech.redroma.google.places.exceptions.GooglePlacesLimitExceededException;
 import tech.redroma.google.places.exceptions.GooglePlacesOperationFailedException;
-import tech.sirwellington.alchemy.http.HttpResponse;
+import tech.redroma.google.places.exceptions.GooglePlacesServerErrorException;
+import tech.redroma.google.places.exceptions.GooglePlacesTimeoutException;
+import tech.redroma.google.places.responses.PlacesStatus;
 import tech.sirwellington.alchemy.http.HttpStatusCode;
-import tech.sirwellington.alchemy.http.exceptions.AlchemyHttpException;
 
 import static tech.sirwellington.alchemy.http.HttpStatusCode.BAD_REQUEST;
 import static tech.sirwellington.alchemy.http.HttpStatusCode.UNAUTHORIZED;
@@ -55,38 +57,84 @@ interface ExceptionMapper
             return new GooglePlacesBadArgumentException(ex);
         }
         
-        if (ex instanceof AlchemyHttpException)
+        if (ex instanceof HttpStatusException)
         {
-            AlchemyHttpException aex = (AlchemyHttpException) ex;
+            HttpStatusException hex = (HttpStatusException) ex;
+            PlacesStatus status = hex.getPlacesStatus();
             
-            if (!aex.hasResponse())
+            if (status != null && status.isError())
             {
-                return new GooglePlacesOperationFailedException(aex);
+                return mapStatus(status, hex);
             }
             
-            HttpResponse response = aex.getResponse();
-            
-            if (response.statusCode() == BAD_REQUEST.getCode())
-            {
-                return new GooglePlacesBadArgumentException(aex);
-            }
-            
-            if (response.statusCode() == UNAUTHORIZED.getCode())
-            {
-                return new GooglePlacesAuthenticationException(aex);
-            }
-            
-            if (response.statusCode() == HttpStatusCode.NOT_FOUND.getCode())
-            {
-                return new GooglePlacesBadArgumentException(aex);
-            }
-            
-            if (response.bodyAsString().contains("OVER_QUERY_LIMIT"))
-            {
-                return new GooglePlacesLimitExceededException(aex);
-            }
+            return mapStatusCode(hex.getStatusCode(), hex);
+        }
+        
+        if (ex instanceof SocketTimeoutException)
+        {
+            return new GooglePlacesTimeoutException(ex);
         }
         
         return new GooglePlacesOperationFailedException(ex);
     };
+    
+    /**
+     * Maps an HTTP error code to the matching exception.
+     * 
+     * @param statusCode The HTTP status code of the response.
+     * @param cause      The cause of the failure.
+     * @return 
+     */
+    static GooglePlacesException mapStatusCode(int statusCode, Exception cause)
+    {
+        if (statusCode == BAD_REQUEST.getCode())
+        {
+            return new GooglePlacesBadArgumentException(cause);
+        }
+        
+        if (statusCode == UNAUTHORIZED.getCode())
+        {
+            return new GooglePlacesAuthenticationException(cause);
+        }
+        
+        if (statusCode == HttpStatusCode.NOT_FOUND.getCode())
+        {
+            return new GooglePlacesBadArgumentException(cause);
+        }
+        
+        if (statusCode >= 500)
+        {
+            return new GooglePlacesServerErrorException(cause);
+        }
+        
+        return new GooglePlacesOperationFailedException(cause);
+    }
+    
+    /**
+     * Maps a failed {@link PlacesStatus} to the matching exception.
+     * 
+     * @param status The status of the response. Must be an {@linkplain PlacesStatus#isError() error}.
+     * @param cause  The cause of the failure, if any.
+     * @return 
+     */
+    static GooglePlacesException mapStatus(PlacesStatus status, Throwable cause)
+    {
+        String message = "Google Places returned " + status;
+        
+        switch (status)
+        {
+            case OVER_QUERY_LIMIT:
+            case OVER_DAILY_LIMIT:
+                return new GooglePlacesLimitExceededException(message, cause);
+            case REQUEST_DENIED:
+                return new GooglePlacesAuthenticationException(message, cause);
+            case INVALID_REQUEST:
+            case NOT_FOUND:
+                return new GooglePlacesBadArgumentException(message, cause);
+            case UNKNOWN_ERROR:
+                return new GooglePlacesServerErrorException(message, cause);
+            default:
+                return new GooglePlacesOperationFailedException(message, cause);
+        }
+    }
 }
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import tech.sirwellington.alchemy.annotations.arguments.Required;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadSafe;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
+import static tech.sirwellington.alchemy.arguments.assertions.Assertions.notNull;
+import static tech.sirwellington.alchemy.arguments.assertions.BooleanAssertions.falseStatement;
+import static tech.sirwellington.alchemy.arguments.assertions.StringAssertions.nonEmptyString;
+
+/**
+ * A {@link RateLimitStore} kept in a local file, which lets separate processes on the same machine share a rate limit.
+ * It stands in for a networked store during development and in tests.
+ * <p>
+ * Each lease locks the whole file, so there should be only one instance per file in each process.
+ *
+ * @author SirWellington
+ */
+@ThreadSafe
+public final class FileRateLimitStore implements RateLimitStore
+{
+
+    private final Path path;
+
+    /**
+     * @param path The file to keep the counts in. It is created if it does not exist.
+     * @throws IllegalArgumentException
+     */
+    public FileRateLimitStore(@Required Path path) throws IllegalArgumentException
+    {
+        checkThat(path).is(notNull());
+
+        this.path = path;
+    }
+
+    /**
+     * Within a process, {@code synchronized} keeps threads apart, since a file lock is held by the whole process.
+     */
+    @Override
+    public synchronized long lease(String bucket, long windowStart, long requested, long limit) throws IOException
+    {
+        checkThat(bucket).is(nonEmptyString());
+        checkThat(bucket.indexOf('\n') >= 0)
+            .usingMessage("bucket must be a single line")
+            .is(falseStatement());
+
+        try (FileChannel channel = FileChannel.open(path, READ, WRITE, CREATE);
+             FileLock lock = channel.lock())
+        {
+            Map<String, long[]> windows = read(channel);
+            long[] window = windows.get(bucket);
+
+            if (window == null || window[0] < windowStart)
+            {
+                window = new long[] { windowStart, 0 };
+                windows.put(bucket, window);
+            }
+
+            long granted = 0;
+
+            if (window[0] == windowStart)
+            {
+                granted = Math.max(0, Math.min(requested, limit - window[1]));
+                window[1] += granted;
+            }
+
+            write(channel, windows);
+            return granted;
+        }
+    }
+
+    /**
+     * Each line holds the start of a bucket's latest window, the permits granted in it, and the bucket's name.
+     */
+    private static Map<String, long[]> read(FileChannel channel) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+
+        while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) >= 0)
+        {
+        }
+
+        Map<String, long[]> windows = new LinkedHashMap<>();
+        String contents = new String(buffer.array(), 0, buffer.position(), UTF_8);
+
+        for (String line : contents.split("\n"))
+        {
+            String[] parts = line.split(" ", 3);
+
+            if (parts.length < 3)
+            {
+                continue;
+            }
+
+            try
+            {
+                windows.put(parts[2], new long[] { Long.parseLong(parts[0]), Long.parseLong(parts[1]) });
+            }
+            catch (NumberFormatException ex)
+            {
+                //A corrupt line only loses that bucket's count for the current window
+            }
+        }
+
+        return windows;
+    }
+
+    private static void write(FileChannel channel, Map<String, long[]> windows) throws IOException
+    {
+        StringBuilder contents = new StringBuilder();
+
+        windows.forEach((bucket, window) -> contents.append(window[0]).append(' ')
+            .append(window[1]).append(' ')
+            .append(bucket).append('\n'));
+
+        ByteBuffer buffer = ByteBuffer.wrap(contents.toString().getBytes(UTF_8));
+
+        channel.truncate(0);
+
+        while (buffer.hasRemaining())
+        {
+            channel.write(buffer, buffer.position());
+        }
+
+        channel.force(false);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "FileRateLimitStore{" + "path=" + path + '}';
+    }
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package tech.redroma.google.places;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import tech.sirwellington.alchemy.annotations.access.Internal;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadSafe;
+
+/**
+ * Makes every {@link List} that is read unmodifiable, once, as it is read. The getters of the responses can then
+ * return their lists as they are, instead of copying them on each call.
+ * <p>
+ * Elements are copied into an array of the exact size, so that the growth room left by reading is not kept.
+ *
+ * @author SirWellington
+ */
+@Internal
+@ThreadSafe
+final class FrozenListTypeAdapterFactory implements TypeAdapterFactory
+{
+
+    private static final Type PROBE = new TypeToken<List<Object>>(){}.getType();
+    private static final Class<?> FROZEN = Collections.unmodifiableList(new ArrayList<>()).getClass();
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type)
+    {
+        if (type.getRawType() != List.class)
+        {
+            return null;
+        }
+
+        TypeAdapter<List<Object>> delegate = (TypeAdapter<List<Object>>) gson.getDelegateAdapter(this, type);
+        return (TypeAdapter<T>) new FrozenListAdapter<>(delegate);
+    }
+
+    /**
+     * Returns {@code gson} if it already freezes the lists it reads, such as one made from
+     * {@link InternalResources#newGsonBuilder() }, or else a copy of it that does.
+     */
+    static Gson freezing(Gson gson)
+    {
+        List<?> probe = gson.fromJson("[0]", PROBE);
+
+        if (probe.getClass() == FROZEN)
+        {
+            return gson;
+        }
+
+        return gson.newBuilder()
+            .registerTypeAdapterFactory(new FrozenListTypeAdapterFactory())
+            .create();
+    }
+
+    static <E> List<E> freeze(List<E> list)
+    {
+        if (list == null)
+        {
+            return null;
+        }
+
+        if (list.isEmpty())
+        {
+            return Collections.emptyList();
+        }
+
+        @SuppressWarnings("unchecked")
+        E[] elements = (E[]) list.toArray();
+        return Collections.unmodifiableList(Arrays.asList(elements));
+    }
+
+    private static final class FrozenListAdapter<E> extends TypeAdapter<List<E>>
+    {
+
+        private final TypeAdapter<List<E>> delegate;
+
+        private FrozenListAdapter(TypeAdapter<List<E>> delegate)
+        {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(JsonWriter out, List<E> value) throws IOException
+        {
+            delegate.write(out, value);
+        }
+
+        @Override
+        public List<E> read(JsonReader in) throws IOException
+        {
+            return freeze(delegate.read(in));
+        }
+    }
+
+}
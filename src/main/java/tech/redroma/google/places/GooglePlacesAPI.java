@@ -20,8 +20,15 @@ import com.google.common.io.Resources;
 import com.google.gson.Gson;
 import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-import sir.wellington.alchemy.collections.lists.Lists;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import tech.redroma.google.places.data.Photo;
 import tech.redroma.google.places.data.Place;
 import tech.redroma.google.places.data.PlaceDetails;
@@ -34,11 +41,17 @@ import tech.redroma.google.places.requests.NearbySearchRequest;
 import tech.redroma.google.places.responses.GetPlaceDetailsResponse;
 import tech.redroma.google.places.responses.NearbySearchResponse;
 import tech.sirwellington.alchemy.annotations.arguments.NonEmpty;
+import tech.sirwellington.alchemy.annotations.arguments.Positive;
 import tech.sirwellington.alchemy.annotations.arguments.Required;
-import tech.sirwellington.alchemy.http.AlchemyHttp;
+import tech.sirwellington.alchemy.annotations.designs.patterns.BuilderPattern;
 
+import static tech.sirwellington.alchemy.annotations.designs.patterns.BuilderPattern.Role.BUILDER;
 import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
 import static tech.sirwellington.alchemy.arguments.assertions.Assertions.notNull;
+import static tech.sirwellington.alchemy.arguments.assertions.NumberAssertions.greaterThan;
+import static tech.sirwellington.alchemy.arguments.assertions.NumberAssertions.greaterThanOrEqualTo;
+import static tech.sirwellington.alchemy.arguments.assertions.NumberAssertions.lessThanOrEqualTo;
+import static tech.sirwellington.alchemy.arguments.assertions.NumberAssertions.positiveInteger;
 import static tech.sirwellington.alchemy.arguments.assertions.StringAssertions.nonEmptyString;
 
 /**
@@ -47,6 +60,7 @@ import static tech.sirwellington.alchemy.arguments.assertions.StringAssertions.n
  * See <a href="https://developers.google.com/places/web-service">https://developers.google.com/places/web-service</a>
  *
  * @see #create(java.lang.String) 
+ * @see #newBuilder()
  * @see  <a href="https://developers.google.com/places/web-service">https://developers.google.com/places/web-service</a>
  * @author SirWellington
  */
@@ -80,7 +94,7 @@ public interface GooglePlacesAPI
     {
         NearbySearchResponse result = searchNearbyPlaces(request);
 
-        return Lists.nullToEmpty(result.getResults());
+        return result.getResults();
     }
 
     /**
@@ -131,6 +145,37 @@ public interface GooglePlacesAPI
      */
     URL getPhoto(@Required GetPhotoRequest request) throws GooglePlacesException;
 
+    /**
+     * Resolves the URLs of many photos at once, in the background.
+     * <p>
+     * Implementations may resolve the requests in batches and serve previously resolved photos from a cache,
+     * so that repeated lookups of the same photo do not require another round trip.
+     *
+     * @param requests The photos to resolve.
+     * @return A future that completes with each request mapped to its photo URL, in the iteration order of
+     *         {@code requests}.
+     * @throws GooglePlacesException
+     * @see #getPhoto(tech.redroma.google.places.requests.GetPhotoRequest)
+     */
+    default CompletableFuture<Map<GetPhotoRequest, URL>> getPhotos(@Required Collection<GetPhotoRequest> requests) throws GooglePlacesException
+    {
+        checkThat(requests)
+            .throwing(GooglePlacesBadArgumentException.class)
+            .is(notNull());
+
+        return CompletableFuture.supplyAsync(() ->
+        {
+            Map<GetPhotoRequest, URL> results = new LinkedHashMap<>();
+
+            for (GetPhotoRequest request : requests)
+            {
+                results.put(request, getPhoto(request));
+            }
+
+            return results;
+        });
+    }
+
     /**
      * This is a convenience method for {@link #getPhoto(tech.redroma.google.places.requests.GetPhotoRequest) }
      * which returns a fully-downloaded image.
@@ -171,6 +216,9 @@ public interface GooglePlacesAPI
     
     /**
      * Creates a production {@link GooglePlacesAPI} that can be used to make requests.
+     * <p>
+     * Requests time out if connecting takes longer than 10 seconds, or if Google stops responding for 30 seconds. Use
+     * a {@link Deadline} to bound a request more tightly.
      * 
      * @param apiKey The API Key is required, and can be obtained from the Google Console.
      * @return
@@ -179,23 +227,337 @@ public interface GooglePlacesAPI
     static GooglePlacesAPI create(@NonEmpty String apiKey) throws IllegalArgumentException
     {
         checkThat(apiKey).is(nonEmptyString());
-       
-        Gson gson = InternalResources.GSON;
-        AlchemyHttp http = AlchemyHttp.Factory.newBuilder()
-            .disableAsyncCallbacks()
-            .usingGson(gson)
+
+        return create(ApiKeyPool.of(apiKey));
+    }
+
+    /**
+     * Creates a production {@link GooglePlacesAPI} that spreads its requests across several API Keys.
+     *
+     * @param keys The API Keys to use.
+     * @return
+     * @throws IllegalArgumentException
+     * @see ApiKeyPool
+     */
+    static GooglePlacesAPI create(@Required ApiKeyPool keys) throws IllegalArgumentException
+    {
+        checkThat(keys).is(notNull());
+
+        return newBuilder()
+            .withApiKeys(keys)
             .build();
-        
-        RequestEncoders.NearbySearchEncoder nearbySearchEncoder = new RequestEncoders.NearbySearchEncoder();
-        RequestEncoders.GetPlaceDetailsEncoder placeDetailsEncoder = new RequestEncoders.GetPlaceDetailsEncoder();
-        RequestEncoders.AutocompleteEncoder autocompleteEncoder = new RequestEncoders.AutocompleteEncoder();
-        
-        return new GooglePlacesAPIImpl(apiKey,
-                                       http,
-                                       ExceptionMapper.INSTANCE,
-                                       nearbySearchEncoder,
-                                       placeDetailsEncoder,
-                                       autocompleteEncoder,
-                                       URLProvider.PRODUCTION);
+    }
+
+    /**
+     * Starts building a {@link GooglePlacesAPI} whose HTTP client, JSON parsing, endpoints, or
+     * interceptors are customized.
+     *
+     * @return
+     * @see Builder
+     */
+    static Builder newBuilder()
+    {
+        return Builder.newInstance();
+    }
+
+    /**
+     * Builds a {@link GooglePlacesAPI}. Only the API Key is required; everything else defaults to what
+     * {@link #create(java.lang.String) } uses.
+     */
+    @BuilderPattern(role = BUILDER)
+    final class Builder
+    {
+
+        /** The number of threads used to resolve photos in the background, when no executor is provided. */
+        public static final int DEFAULT_PHOTO_THREADS = PhotoRedirectCache.DEFAULT_THREADS;
+
+        private ApiKeyPool keys;
+        private HttpTransport transport;
+        private int connectTimeoutMillis = URLConnectionTransport.DEFAULT_CONNECT_TIMEOUT_MILLIS;
+        private int readTimeoutMillis = URLConnectionTransport.DEFAULT_READ_TIMEOUT_MILLIS;
+        private boolean compression = true;
+        private TransferMetrics transferMetrics = TransferMetrics.create();
+        private JsonCodec codec = JsonCodec.DEFAULT;
+        private URLProvider urls = URLProvider.PRODUCTION;
+        private Executor executor;
+        private int photoThreads = DEFAULT_PHOTO_THREADS;
+        private final List<Interceptor> interceptors = new ArrayList<>();
+
+        private Builder()
+        {
+        }
+
+        public static Builder newInstance()
+        {
+            return new Builder();
+        }
+
+        /**
+         * Sets the API Key to make requests with. Either this or {@link #withApiKeys(tech.redroma.google.places.ApiKeyPool) }
+         * is required.
+         *
+         * @param apiKey The API Key, obtained from the Google Console.
+         * @return
+         * @throws IllegalArgumentException
+         */
+        public Builder withApiKey(@NonEmpty String apiKey) throws IllegalArgumentException
+        {
+            checkThat(apiKey).is(nonEmptyString());
+
+            this.keys = ApiKeyPool.of(apiKey);
+            return this;
+        }
+
+        /**
+         * Spreads requests across several API Keys.
+         *
+         * @param keys The API Keys to use.
+         * @return
+         * @throws IllegalArgumentException
+         * @see ApiKeyPool
+         */
+        public Builder withApiKeys(@Required ApiKeyPool keys) throws IllegalArgumentException
+        {
+            checkThat(keys).is(notNull());
+
+            this.keys = keys;
+            return this;
+        }
+
+        /**
+         * Sends requests through another HTTP client. By default, the JDK's {@link java.net.HttpURLConnection} is
+         * used, which keeps connections alive and reuses them.
+         *
+         * @param transport The transport to use.
+         * @return
+         * @throws IllegalArgumentException
+         */
+        public Builder withTransport(@Required HttpTransport transport) throws IllegalArgumentException
+        {
+            checkThat(transport).is(notNull());
+
+            this.transport = transport;
+            return this;
+        }
+
+        /**
+         * Sets how long the default transport waits to connect, and to receive data once connected. These are upper
+         * bounds; a {@link Deadline} may shorten them for a single request. Ignored if a transport is provided with
+         * {@link #withTransport(tech.redroma.google.places.HttpTransport) }.
+         * <p>
+         * Defaults to 10 seconds to connect and 30 seconds to read.
+         *
+         * @param connectTimeout How long to wait for a connection.
+         * @param readTimeout    How long to wait between bytes of a response.
+         * @param timeUnit       The unit of both timeouts.
+         * @return
+         * @throws IllegalArgumentException
+         */
+        public Builder withTimeouts(@Positive long connectTimeout, @Positive long readTimeout, @Required TimeUnit timeUnit) throws IllegalArgumentException
+        {
+            checkThat(connectTimeout, readTimeout).are(greaterThan(0L));
+            checkThat(timeUnit).is(notNull());
+
+            this.connectTimeoutMillis = toTimeoutMillis(connectTimeout, timeUnit);
+            this.readTimeoutMillis = toTimeoutMillis(readTimeout, timeUnit);
+            return this;
+        }
+
+        /**
+         * Sets whether the default transport asks Google to compress responses with gzip or deflate. Compressed
+         * responses are decompressed as they are read. Ignored if a transport is provided with
+         * {@link #withTransport(tech.redroma.google.places.HttpTransport) }.
+         * <p>
+         * Enabled by default.
+         *
+         * @param compression {@code false} to receive responses uncompressed.
+         * @return
+         */
+        public Builder withCompression(boolean compression)
+        {
+            this.compression = compression;
+            return this;
+        }
+
+        /**
+         * Counts the response bytes the default transport receives, before and after decompression. Ignored if a
+         * transport is provided with {@link #withTransport(tech.redroma.google.places.HttpTransport) }.
+         *
+         * @param transferMetrics The metrics to add to.
+         * @return
+         * @throws IllegalArgumentException
+         */
+        public Builder withTransferMetrics(@Required TransferMetrics transferMetrics) throws IllegalArgumentException
+        {
+            checkThat(transferMetrics).is(notNull());
+
+            this.transferMetrics = transferMetrics;
+            return this;
+        }
+
+        private static int toTimeoutMillis(long timeout, TimeUnit timeUnit)
+        {
+            long millis = timeUnit.toMillis(timeout);
+
+            checkThat(millis)
+                .usingMessage("timeouts must be between 1 and " + Integer.MAX_VALUE + " milliseconds")
+                .is(greaterThanOrEqualTo(1L))
+                .is(lessThanOrEqualTo((long) Integer.MAX_VALUE));
+
+            return (int) millis;
+        }
+
+        /**
+         * Reads responses with another {@link JsonCodec}.
+         *
+         * @param codec The codec to use.
+         * @return
+         * @throws IllegalArgumentException
+         */
+        public Builder withJsonCodec(@Required JsonCodec codec) throws IllegalArgumentException
+        {
+            checkThat(codec).is(notNull());
+
+            this.codec = codec;
+            return this;
+        }
+
+        /**
+         * Reads responses with a customized {@link Gson}.
+         *
+         * @param gson Must be able to read the responses of the Places API; start from
+         *             {@link JsonCodec#newGsonBuilder() }.
+         * @return
+         * @throws IllegalArgumentException
+         */
+        public Builder withGson(@Required Gson gson) throws IllegalArgumentException
+        {
+            return withJsonCodec(JsonCodec.gson(gson));
+        }
+
+        /**
+         * Sends requests to other endpoints than Google's.
+         *
+         * @param urls The endpoints to use.
+         * @return
+         * @throws IllegalArgumentException
+         */
+        public Builder withURLProvider(@Required URLProvider urls) throws IllegalArgumentException
+        {
+            checkThat(urls).is(notNull());
+
+            this.urls = urls;
+            return this;
+        }
+
+        /**
+         * Sends requests to the same paths Google uses, under another base URL, such as a proxy.
+         *
+         * @param baseURL The URL the endpoints are under.
+         * @return
+         * @throws IllegalArgumentException
+         * @see URLProvider#fromBase(java.lang.String)
+         */
+        public Builder withBaseURL(@NonEmpty String baseURL) throws IllegalArgumentException
+        {
+            return withURLProvider(URLProvider.fromBase(baseURL));
+        }
+
+        /**
+         * Resolves photos in the background on the given {@link Executor}, instead of on threads owned by the client.
+         * The executor belongs to the caller, who is responsible for shutting it down.
+         *
+         * @param executor The executor to use.
+         * @return
+         * @throws IllegalArgumentException
+         */
+        public Builder withExecutor(@Required Executor executor) throws IllegalArgumentException
+        {
+            checkThat(executor).is(notNull());
+
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Sets how many threads resolve photos in the background. These threads belong to the client, and exit once
+         * they have been idle for a while. Ignored if an executor is provided with
+         * {@link #withExecutor(java.util.concurrent.Executor) }.
+         *
+         * @param photoThreads The number of threads.
+         * @return
+         * @throws IllegalArgumentException
+         */
+        public Builder withPhotoThreads(@Positive int photoThreads) throws IllegalArgumentException
+        {
+            checkThat(photoThreads).is(positiveInteger());
+
+            this.photoThreads = photoThreads;
+            return this;
+        }
+
+        /**
+         * Adds an {@link Interceptor} to the end of the chain. Interceptors see each call in the order they are added.
+         *
+         * @param interceptor The interceptor to add.
+         * @return
+         * @throws IllegalArgumentException
+         */
+        public Builder withInterceptor(@Required Interceptor interceptor) throws IllegalArgumentException
+        {
+            checkThat(interceptor).is(notNull());
+
+            this.interceptors.add(interceptor);
+            return this;
+        }
+
+        /**
+         * Builds the {@link GooglePlacesAPI}.
+         *
+         * @return
+         * @throws IllegalArgumentException If no API Key was set.
+         */
+        public GooglePlacesAPI build() throws IllegalArgumentException
+        {
+            return build(interceptors);
+        }
+
+        /**
+         * Builds the {@link GooglePlacesAPI} with {@code last} after every interceptor added to this builder, where it
+         * sees only the calls that are about to be sent to Google. The builder itself is left unchanged.
+         */
+        GooglePlacesAPI build(Interceptor last) throws IllegalArgumentException
+        {
+            checkThat(last).is(notNull());
+
+            List<Interceptor> interceptors = new ArrayList<>(this.interceptors);
+            interceptors.add(last);
+
+            return build(interceptors);
+        }
+
+        private GooglePlacesAPI build(List<Interceptor> interceptors) throws IllegalArgumentException
+        {
+            checkThat(keys)
+                .usingMessage("an API Key is required")
+                .is(notNull());
+
+            HttpTransport transport = this.transport != null
+                                      ? this.transport
+                                      : new URLConnectionTransport(connectTimeoutMillis, readTimeoutMillis, compression, transferMetrics);
+
+            Executor executor = this.executor != null ? this.executor : PhotoRedirectCache.newExecutor(photoThreads);
+
+            return new GooglePlacesAPIImpl(keys,
+                                           transport,
+                                           codec,
+                                           ExceptionMapper.INSTANCE,
+                                           new RequestEncoders.NearbySearchEncoder(),
+                                           new RequestEncoders.GetPlaceDetailsEncoder(),
+                                           new RequestEncoders.AutocompleteEncoder(),
+                                           urls,
+                                           PhotoRedirectCache.create(executor),
+                                           Collections.unmodifiableList(new ArrayList<>(interceptors)));
+        }
     }
 }
@@ -18,24 +18,30 @@ package tech.redroma.google.places;
 
 import java.io.IOException;
 import java.net.*;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import javax.inject.Inject;
 
 import io.mikael.urlbuilder.UrlBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import tech.redroma.google.places.data.PlaceField;
 import tech.redroma.google.places.exceptions.GooglePlacesBadArgumentException;
+import tech.redroma.google.places.exceptions.GooglePlacesBudgetExceededException;
 import tech.redroma.google.places.exceptions.GooglePlacesException;
+import tech.redroma.google.places.exceptions.GooglePlacesOperationFailedException;
 import tech.redroma.google.places.requests.*;
 import tech.redroma.google.places.responses.GetPlaceDetailsResponse;
 import tech.redroma.google.places.responses.NearbySearchResponse;
+import tech.redroma.google.places.responses.PlacesStatus;
 import tech.sirwellington.alchemy.annotations.access.Internal;
-import tech.sirwellington.alchemy.http.AlchemyHttp;
-import tech.sirwellington.alchemy.http.AlchemyRequestSteps;
 
-import static com.google.common.base.Strings.isNullOrEmpty;
 import static tech.sirwellington.alchemy.arguments.Arguments.*;
 import static tech.sirwellington.alchemy.arguments.assertions.Assertions.notNull;
-import static tech.sirwellington.alchemy.arguments.assertions.StringAssertions.*;
 
 /**
  *
@@ -47,34 +53,51 @@ final class GooglePlacesAPIImpl implements GooglePlacesAPI
 
     private final static Logger LOG = LoggerFactory.getLogger(GooglePlacesAPIImpl.class);
 
-    private final String apiKey;
-    private final AlchemyHttp http;
+    private final ApiKeyPool keys;
+    private final HttpTransport transport;
+    private final JsonCodec codec;
     private final ExceptionMapper exceptionMapper;
     private final RequestEncoder<NearbySearchRequest> nearbySearchRequestEncoder;
     private final RequestEncoder<GetPlaceDetailsRequest> placeDetailsRequestEncoder;
     private final RequestEncoder<AutocompletePlaceRequest> autocompleteRequestEncoder;
     private final URLProvider urls;
+    private final PhotoRedirectCache photoRedirects;
+    private final List<Interceptor> interceptors;
 
     @Inject
-    GooglePlacesAPIImpl(String apiKey,
-                        AlchemyHttp http,
+    GooglePlacesAPIImpl(ApiKeyPool keys,
+                        HttpTransport transport,
+                        JsonCodec codec,
                         ExceptionMapper exceptionMapper,
                         RequestEncoder<NearbySearchRequest> nearbySearchRequestEncoder,
                         RequestEncoder<GetPlaceDetailsRequest> placeDetailsRequestEncoder,
                         RequestEncoder<AutocompletePlaceRequest> autocompleteRequestEncoder,
-                        URLProvider urls)
+                        URLProvider urls,
+                        PhotoRedirectCache photoRedirects,
+                        List<Interceptor> interceptors)
     {
-        checkThat(apiKey).is(nonEmptyString());
-        checkThat(http, exceptionMapper, nearbySearchRequestEncoder, placeDetailsRequestEncoder, autocompleteRequestEncoder)
+        checkThat(keys, transport, codec, exceptionMapper, nearbySearchRequestEncoder, placeDetailsRequestEncoder, autocompleteRequestEncoder)
             .are(notNull());
+        checkThat(photoRedirects, interceptors).are(notNull());
 
-        this.apiKey = apiKey;
-        this.http = http;
+        this.keys = keys;
+        this.transport = transport;
+        this.codec = codec;
         this.exceptionMapper = exceptionMapper;
         this.nearbySearchRequestEncoder = nearbySearchRequestEncoder;
         this.placeDetailsRequestEncoder = placeDetailsRequestEncoder;
         this.autocompleteRequestEncoder = autocompleteRequestEncoder;
         this.urls = urls;
+        this.photoRedirects = photoRedirects;
+        this.interceptors = interceptors;
+    }
+
+    /**
+     * @return The transport that requests are made with, so that other downloads can share its timeouts.
+     */
+    HttpTransport getTransport()
+    {
+        return transport;
     }
 
     @Override
@@ -82,23 +105,27 @@ final class GooglePlacesAPIImpl implements GooglePlacesAPI
     {
         checkRequest(request);
 
-        AlchemyRequestSteps.Step3 httpRequest = http.go()
-                                                    .get()
-                                                    .usingQueryParam(Keys.API_KEY, apiKey);
-
-        String url = urls.getNearbySearch();
-        httpRequest = nearbySearchRequestEncoder.encodeRequest(httpRequest, request);
+        //The query string includes the API key, so only the endpoint is logged
+        String endpoint = urls.getNearbySearch();
+        String key = keys.acquire();
+        QueryString query = QueryString.begin(endpoint).add(Keys.API_KEY, key);
+        nearbySearchRequestEncoder.encodeRequest(query, request);
+        String url = query.toString();
 
         try
         {
-            return httpRequest
-                .expecting(NearbySearchResponse.class)
-                .at(url);
+            return InterceptorChain.dispatch(interceptors, Endpoint.NEARBY_SEARCH, request, url, NearbySearchResponse.class, sending(key, u ->
+            {
+                NearbySearchResponse response = get(u, NearbySearchResponse.class);
+
+                checkStatus(response.getPlacesStatus());
+                return response;
+            }));
         }
         catch (Exception ex)
         {
-            LOG.error("Failed to make request to at: {}", url, ex);
-            throw exceptionMapper.mapException(ex);
+            LOG.error("Failed to make request to at: {}", endpoint, ex);
+            throw onFailure(key, ex);
         }
     }
 
@@ -107,53 +134,113 @@ final class GooglePlacesAPIImpl implements GooglePlacesAPI
     {
         checkRequest(request);
 
-        AlchemyRequestSteps.Step3 httpRequest = http.go()
-            .get()
-            .usingQueryParam(Keys.API_KEY, apiKey);
-
-        String url = urls.getPlaceDetails();
-        httpRequest = placeDetailsRequestEncoder.encodeRequest(httpRequest, request);
+        String endpoint = urls.getPlaceDetails();
+        String key = keys.acquire();
+        QueryString query = QueryString.begin(endpoint).add(Keys.API_KEY, key);
+        placeDetailsRequestEncoder.encodeRequest(query, request);
+        String url = query.toString();
 
         try
         {
-            return httpRequest
-                .expecting(GetPlaceDetailsResponse.class)
-                .at(url);
+            return InterceptorChain.dispatch(interceptors, Endpoint.PLACE_DETAILS, request, url, GetPlaceDetailsResponse.class, sending(key, u ->
+            {
+                GetPlaceDetailsResponse response = get(u, GetPlaceDetailsResponse.class, request.fields);
+
+                checkStatus(response.getPlacesStatus());
+                return response;
+            }));
         }
         catch (Exception ex)
         {
-            LOG.error("Failed to make request to get PlaceDetails: [{}] at [{}]", request, url, ex);
-            throw exceptionMapper.mapException(ex);
+            LOG.error("Failed to make request to get PlaceDetails: [{}] at [{}]", request, endpoint, ex);
+            throw onFailure(key, ex);
         }
     }
 
-    @Override
-    public URL getPhoto(GetPhotoRequest request) throws GooglePlacesException
+    /**
+     * Ends the chain by sending the request, which is only then counted against {@code key}. Failures of the request
+     * itself are mapped, so that interceptors see them as a {@link GooglePlacesException}, the same as callers do.
+     */
+    private <T> InterceptorChain.Call<T> sending(String key, InterceptorChain.Call<T> call)
     {
-        checkRequest(request);
+        return url ->
+        {
+            keys.onSent(key);
 
-        String url = urls.getPhotoAPI();
-        URL result;
-        try
+            try
+            {
+                return call.execute(url);
+            }
+            catch (Exception ex)
+            {
+                throw exceptionMapper.mapException(ex);
+            }
+        };
+    }
+
+    private GooglePlacesException onFailure(String key, Exception ex)
+    {
+        GooglePlacesException mapped = exceptionMapper.mapException(ex);
+
+        //A budget is kept by the caller, and says nothing about the key
+        if (!(mapped instanceof GooglePlacesBudgetExceededException))
         {
-            result = buildURLFor(request, url);
+            keys.onFailure(key, mapped);
         }
-        catch (URISyntaxException | MalformedURLException ex)
+
+        return mapped;
+    }
+
+    private <T> T get(String url, Class<T> responseType) throws IOException
+    {
+        return get(url, responseType, Collections.emptySet());
+    }
+
+    private <T> T get(String url, Class<T> responseType, Set<PlaceField> fields) throws IOException
+    {
+        Set<PlaceField> projection = fields != null ? fields : Collections.<PlaceField>emptySet();
+        T response = transport.get(url, body -> codec.decode(body, responseType, projection), Deadline.current());
+
+        if (response == null)
         {
-            LOG.error("Failed to create URL to get photo: [{]] at [{}]", request, url, ex);
-            throw exceptionMapper.mapException(ex);
+            throw new GooglePlacesOperationFailedException("Received an empty response");
         }
-        
+
+        return response;
+    }
+
+    @Override
+    public URL getPhoto(GetPhotoRequest request) throws GooglePlacesException
+    {
+        checkRequest(request);
+
+        Deadline deadline = Deadline.current();
+
         try
         {
-            result = determineRedirectAt(result);
+            return photoRedirects.get(request, photo -> resolvePhotoURL(photo, deadline));
         }
         catch (Exception ex)
         {
-            LOG.error("Failed to follow a redirect to get image at: [{}]", url, ex);
+            LOG.error("Failed to follow a redirect to get image for: [{}]", request, ex);
+            return buildFallbackURL(request, ex);
         }
-        
-        return result;
+    }
+
+    @Override
+    public CompletableFuture<Map<GetPhotoRequest, URL>> getPhotos(Collection<GetPhotoRequest> requests) throws GooglePlacesException
+    {
+        checkRequest(requests);
+
+        for (GetPhotoRequest request : requests)
+        {
+            checkRequest(request);
+        }
+
+        //The photos are resolved in the background, where the caller's deadline would otherwise be lost
+        Deadline deadline = Deadline.current();
+
+        return photoRedirects.resolveAll(requests, photo -> resolvePhotoURL(photo, deadline), this::buildFallbackURL);
     }
 
     private void checkRequest(Object request)
@@ -165,57 +252,105 @@ final class GooglePlacesAPIImpl implements GooglePlacesAPI
 
     }
 
-    private URL buildURLFor(GetPhotoRequest request, String url) throws URISyntaxException, MalformedURLException
+    /**
+     * Google reports most failures with a 200 and an error status, which would otherwise be returned as an empty
+     * response.
+     */
+    private void checkStatus(PlacesStatus status) throws GooglePlacesException
     {
+        if (status != null && status.isError())
+        {
+            throw ExceptionMapper.mapStatus(status, null);
+        }
+    }
 
-        UrlBuilder builder = UrlBuilder.fromString(url);
-        builder.addParameter(Keys.API_KEY, apiKey)
-               .addParameter(Keys.PHOTO_REFERENCE, request.photoReference);
+    private URL resolvePhotoURL(GetPhotoRequest request, Deadline deadline) throws GooglePlacesException
+    {
+        String key = keys.acquire();
+        URL url = buildPhotoURL(request, key);
+        URL resolved;
 
-        if (request.hasMaxHeight())
+        try
         {
-            builder = builder.addParameter(Keys.HEIGHT, String.valueOf(request.maxHeight));
+            resolved = InterceptorChain.dispatch(interceptors, Endpoint.PHOTO, request, url.toString(), URL.class,
+                                                 sending(key, u -> transport.resolveRedirect(new URL(u), deadline)));
         }
-        else if (request.hasMaxWidth())
+        catch (Exception ex)
         {
-            builder = builder.addParameter(Keys.WIDTH, String.valueOf(request.maxWidth));
+            throw onFailure(key, ex);
         }
 
-        URI uri = builder.toUri();
-        return uri.toURL();
+        //Without a redirect, the URL still carries the key, and must not be cached past the key's eviction
+        if (url.equals(resolved))
+        {
+            throw new GooglePlacesOperationFailedException("Photo request was not redirected");
+        }
+
+        return resolved;
     }
 
-    private URL determineRedirectAt(URL url) throws IOException
+    /**
+     * Builds the unresolved URL of a photo, for when its redirect could not be followed.
+     *
+     * @param cause Why the redirect could not be followed.
+     * @throws GooglePlacesException If the unresolved URL would fail the same way, in which case {@code cause} is
+     *                               thrown instead.
+     */
+    private URL buildFallbackURL(GetPhotoRequest request, Exception cause) throws GooglePlacesException
     {
-        URLConnection connection = url.openConnection();
-        
-        if (!(connection instanceof HttpURLConnection))
+        GooglePlacesException mapped = exceptionMapper.mapException(cause);
+
+        //Google would reject the URL just the same, or it would cost a call over the budget
+        if (mapped instanceof GooglePlacesBadArgumentException || mapped instanceof GooglePlacesBudgetExceededException)
         {
-            return url;
+            throw mapped;
         }
-        
-        HttpURLConnection httpConnection = (HttpURLConnection) connection;
-        httpConnection.setInstanceFollowRedirects(false);
-        httpConnection.setRequestMethod(Keys.HEAD);
-        int responseCode = httpConnection.getResponseCode();
-        
+
+        String key = keys.acquire();
+
+        //The pool only hands out an evicted key once every key is evicted, and Google would reject the URL
+        if (!keys.isAvailable(key))
+        {
+            throw new GooglePlacesOperationFailedException("No API Key is available to build the photo URL");
+        }
+
+        return buildPhotoURL(request, key);
+    }
+
+    private URL buildPhotoURL(GetPhotoRequest request, String key) throws GooglePlacesException
+    {
+        String url = urls.getPhotoAPI();
+
         try
         {
-            String redirectURL = httpConnection.getHeaderField(Keys.REDIRECTED_HEADER);
+            return buildURLFor(request, url, key);
+        }
+        catch (URISyntaxException | MalformedURLException ex)
+        {
+            LOG.error("Failed to create URL to get photo: [{}] at [{}]", request, url, ex);
+            throw exceptionMapper.mapException(ex);
+        }
+    }
 
-            if (!isNullOrEmpty(redirectURL))
-            {
-                return new URL(redirectURL);
-            }
-            else
-            {
-                return url;
-            }
+    private URL buildURLFor(GetPhotoRequest request, String url, String key) throws URISyntaxException, MalformedURLException
+    {
+
+        //UrlBuilder is immutable, so each parameter returns a new builder
+        UrlBuilder builder = UrlBuilder.fromString(url)
+            .addParameter(Keys.API_KEY, key)
+            .addParameter(Keys.PHOTO_REFERENCE, request.photoReference);
+
+        if (request.hasMaxHeight())
+        {
+            builder = builder.addParameter(Keys.HEIGHT, String.valueOf(request.maxHeight));
         }
-        finally
+        else if (request.hasMaxWidth())
         {
-            httpConnection.disconnect();
+            builder = builder.addParameter(Keys.WIDTH, String.valueOf(request.maxWidth));
         }
+
+        URI uri = builder.toUri();
+        return uri.toURL();
     }
 
     static class Keys
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package tech.redroma.google.places;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.Set;
+import java.util.function.Function;
+import tech.redroma.google.places.ProjectionTypeAdapterFactory.ProjectingReader;
+import tech.redroma.google.places.data.PlaceField;
+import tech.sirwellington.alchemy.annotations.access.Internal;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadSafe;
+
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * Reads responses straight from the body with a {@link JsonReader}, without buffering them into a String first.
+ * The bytes are decoded through a buffer borrowed from the {@linkplain BufferPool#SHARED shared pool}. Parsing errors
+ * are reported as {@link IOException IOExceptions}.
+ * <p>
+ * When only some fields of the result are needed, the other members of the result are skipped by the reader, so
+ * that large lists such as reviews and photos are never turned into objects. The requested members are read straight
+ * from the same reader; see {@link ProjectionTypeAdapterFactory}.
+ *
+ * @author SirWellington
+ */
+@Internal
+@ThreadSafe
+final class GsonJsonCodec implements JsonCodec
+{
+
+    private final Gson gson;
+    private final Gson projecting;
+
+    GsonJsonCodec(Gson gson)
+    {
+        this.gson = gson;
+        this.projecting = gson.newBuilder()
+            .registerTypeAdapterFactory(new ProjectionTypeAdapterFactory())
+            .create();
+    }
+
+    @Override
+    public <T> T decode(InputStream body, Class<T> type) throws IOException
+    {
+        return read(body, reader -> gson.fromJson(reader, type));
+    }
+
+    @Override
+    public <T> T decode(InputStream body, Class<T> type, Set<PlaceField> fields) throws IOException
+    {
+        if (fields.isEmpty())
+        {
+            return decode(body, type);
+        }
+
+        Set<String> names = fields.stream()
+            .map(PlaceField::getJsonName)
+            .collect(toSet());
+
+        return read(body, reader -> new ProjectingReader(reader, names), reader -> projecting.fromJson(reader, type));
+    }
+
+    private <T> T read(InputStream body, Reading<T> reading) throws IOException
+    {
+        return read(body, RecordingJsonReader::new, reading);
+    }
+
+    private <T> T read(InputStream body, Function<Reader, JsonReader> readers, Reading<T> reading) throws IOException
+    {
+        try (Reader reader = new PooledUtf8Reader(body, BufferPool.SHARED))
+        {
+            return reading.read(readers.apply(reader));
+        }
+        catch (JsonParseException ex)
+        {
+            //Gson wraps failures to read the body, such as timeouts, which callers should see as they are
+            if (ex.getCause() instanceof IOException)
+            {
+                throw (IOException) ex.getCause();
+            }
+
+            throw new IOException("Could not parse response", ex);
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "GsonJsonCodec{" + "gson=" + gson + '}';
+    }
+
+    @FunctionalInterface
+    private interface Reading<T>
+    {
+
+        T read(JsonReader reader) throws IOException;
+    }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import com.google.gson.stream.JsonReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import tech.redroma.google.places.responses.PlacesStatus;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Thrown by an {@link HttpTransport} when a response has an HTTP error code. The status code and body are used to
+ * decide which {@link tech.redroma.google.places.exceptions.GooglePlacesException} the caller receives.
+ *
+ * @author SirWellington
+ */
+public final class HttpStatusException extends IOException
+{
+
+    private final int statusCode;
+    private final byte[] body;
+
+    /**
+     * @param statusCode The HTTP status code of the response.
+     * @param body       The body of the response, or as much of it as was read. May be {@code null}.
+     */
+    public HttpStatusException(int statusCode, byte[] body)
+    {
+        super("HTTP " + statusCode);
+
+        this.statusCode = statusCode;
+        this.body = body != null ? body : new byte[0];
+    }
+
+    public int getStatusCode()
+    {
+        return statusCode;
+    }
+
+    /**
+     * @return The top-level {@code status} of the response body, or {@code null} if it does not have one.
+     */
+    public PlacesStatus getPlacesStatus()
+    {
+        try
+        {
+            return PlacesStatus.readFrom(new JsonReader(new InputStreamReader(new ByteArrayInputStream(body), UTF_8)));
+        }
+        catch (IOException | RuntimeException ex)
+        {
+            //The body is not JSON
+            return null;
+        }
+    }
+
+}
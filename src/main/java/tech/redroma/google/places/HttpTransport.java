@@ -0,0 +1,71 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+
+/**
+ * Makes the HTTP requests to Google on behalf of a {@link GooglePlacesAPI}.
+ * <p>
+ * Every request is bounded by a {@link Deadline}: connecting, waiting for the response and reading it must all finish
+ * before it expires.
+ * <p>
+ * Implementations can be plugged in with {@link GooglePlacesAPI.Builder#withTransport(HttpTransport) }, to use another
+ * HTTP client or to serve responses from a local stand-in.
+ *
+ * @author SirWellington
+ */
+public interface HttpTransport
+{
+
+    /**
+     * Makes a {@code GET} request, and decodes the response body if it succeeds.
+     *
+     * @param <T>
+     * @param url      The URL to request, including its query string.
+     * @param decoder  Decodes the response body. The body is closed afterwards.
+     * @param deadline The deadline for the whole request.
+     * @return What {@code decoder} returns.
+     * @throws HttpStatusException If the response has an HTTP error code.
+     * @throws IOException         If the request fails, or does not complete in time.
+     */
+    <T> T get(String url, BodyDecoder<T> decoder, Deadline deadline) throws IOException;
+
+    /**
+     * Makes a {@code HEAD} request to {@code url}, without following redirects.
+     *
+     * @param url      The URL to request.
+     * @param deadline The deadline for the whole request.
+     * @return The URL that {@code url} redirects to, or {@code url} itself if it does not redirect.
+     * @throws HttpStatusException If the response has an HTTP error code.
+     * @throws IOException         If the request fails, or does not complete in time.
+     */
+    URL resolveRedirect(URL url, Deadline deadline) throws IOException;
+
+    /**
+     * Reads the body of a successful response.
+     */
+    @FunctionalInterface
+    interface BodyDecoder<T>
+    {
+
+        T decode(InputStream body) throws IOException;
+    }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadSafe;
+
+/**
+ * A {@link RateLimitStore} for clients within a single process, such as several {@link GooglePlacesAPI} instances
+ * sharing one key. Also useful in tests.
+ *
+ * @author SirWellington
+ */
+@ThreadSafe
+public final class InMemoryRateLimitStore implements RateLimitStore
+{
+
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    @Override
+    public long lease(String bucket, long windowStart, long requested, long limit)
+    {
+        long[] granted = new long[1];
+
+        windows.compute(bucket, (key, window) ->
+        {
+            if (window == null || window.start < windowStart)
+            {
+                window = new Window(windowStart);
+            }
+
+            if (window.start == windowStart)
+            {
+                granted[0] = Math.max(0, Math.min(requested, limit - window.granted));
+                window.granted += granted[0];
+            }
+
+            return window;
+        });
+
+        return granted[0];
+    }
+
+    @Override
+    public String toString()
+    {
+        return "InMemoryRateLimitStore{" + "buckets=" + windows.size() + '}';
+    }
+
+    /**
+     * Only accessed within {@link Map#compute(java.lang.Object, java.util.function.BiFunction) }.
+     */
+    private static final class Window
+    {
+
+        private final long start;
+        private long granted;
+
+        Window(long start)
+        {
+            this.start = start;
+        }
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package tech.redroma.google.places;
+
+import java.io.IOException;
+import tech.redroma.google.places.requests.GetPhotoRequest;
+import tech.redroma.google.places.requests.GetPlaceDetailsRequest;
+import tech.redroma.google.places.requests.NearbySearchRequest;
+import tech.redroma.google.places.responses.GetPlaceDetailsResponse;
+import tech.redroma.google.places.responses.NearbySearchResponse;
+import tech.sirwellington.alchemy.annotations.arguments.NonEmpty;
+import tech.sirwellington.alchemy.annotations.arguments.Required;
+
+/**
+ * Observes, rewrites, or answers the requests a {@link GooglePlacesAPI} makes, without wrapping the whole API.
+ * <p>
+ * Interceptors run in the order they were added to the {@link GooglePlacesAPI.Builder}; the first one added sees each
+ * call first, and its response last. An interceptor usually calls {@link Chain#proceed() } to pass the call on, and
+ * may return a response of its own instead, to short-circuit the rest of the chain and the call to Google.
+ * <p>
+ * Each call is one of:
+ * <ul>
+ * <li>{@link Endpoint#NEARBY_SEARCH}: a {@link NearbySearchRequest}, answered with a {@link NearbySearchResponse}.</li>
+ * <li>{@link Endpoint#PLACE_DETAILS}: a {@link GetPlaceDetailsRequest}, answered with a
+ * {@link GetPlaceDetailsResponse}.</li>
+ * <li>{@link Endpoint#PHOTO}: a {@link GetPhotoRequest}, answered with the {@link java.net.URL} of the image. Photos
+ * that were resolved recently are served before the interceptors are reached.</li>
+ * </ul>
+ * A request that fails, whether because it could not be sent, Google answered with an HTTP error, or Google reported an
+ * error status, reaches interceptors as a {@link tech.redroma.google.places.exceptions.GooglePlacesException} thrown
+ * from {@link Chain#proceed() }, the same one the caller sees. An {@link IOException} thrown by an interceptor itself is
+ * mapped in the same way before it reaches the caller.
+ *
+ * @see GooglePlacesAPI.Builder#withInterceptor(Interceptor)
+ * @author SirWellington
+ */
+@FunctionalInterface
+public interface Interceptor
+{
+
+    /**
+     * Handles a single call.
+     *
+     * @param chain The call, and the rest of the interceptors.
+     * @return The response to the call; must be an instance of {@link Chain#getResponseType() }.
+     * @throws IOException
+     */
+    Object intercept(@Required Chain chain) throws IOException;
+
+    /**
+     * A call in progress, as seen by one {@link Interceptor}.
+     */
+    interface Chain
+    {
+
+        /**
+         * @return The service being called.
+         */
+        Endpoint getEndpoint();
+
+        /**
+         * @return The typed request, such as a {@link GetPlaceDetailsRequest}.
+         */
+        Object getRequest();
+
+        /**
+         * @return The request encoded as an HTTP URL. This includes the API Key, and should not be logged.
+         */
+        String getUrl();
+
+        /**
+         * @return The type of response the call produces.
+         */
+        Class<?> getResponseType();
+
+        /**
+         * Passes the call on to the next interceptor, or to Google if this is the last one.
+         *
+         * @return The decoded response.
+         * @throws tech.redroma.google.places.exceptions.GooglePlacesException If the request failed.
+         * @throws IOException                                               If a later interceptor threw one.
+         */
+        Object proceed() throws IOException;
+
+        /**
+         * Passes the call on with a rewritten HTTP request.
+         *
+         * @param url The URL to request instead of {@link #getUrl() }.
+         * @return The decoded response.
+         * @throws IOException
+         */
+        Object proceed(@NonEmpty String url) throws IOException;
+    }
+
+}
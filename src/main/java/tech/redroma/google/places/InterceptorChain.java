@@ -0,0 +1,146 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package tech.redroma.google.places;
+
+import java.io.IOException;
+import java.util.List;
+import tech.redroma.google.places.exceptions.GooglePlacesOperationFailedException;
+import tech.sirwellington.alchemy.annotations.access.Internal;
+
+import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
+import static tech.sirwellington.alchemy.arguments.assertions.StringAssertions.nonEmptyString;
+
+/**
+ * Runs a call through each {@link Interceptor} in turn, and then through the {@link Call} that reaches Google.
+ *
+ * @author SirWellington
+ */
+@Internal
+final class InterceptorChain<T> implements Interceptor.Chain
+{
+
+    /**
+     * The last step of a call, which sends the HTTP request and decodes the response.
+     */
+    @FunctionalInterface
+    interface Call<T>
+    {
+
+        T execute(String url) throws IOException;
+    }
+
+    private final List<Interceptor> interceptors;
+    private final int index;
+    private final Endpoint endpoint;
+    private final Object request;
+    private final String url;
+    private final Class<T> responseType;
+    private final Call<T> call;
+
+    private InterceptorChain(List<Interceptor> interceptors,
+                             int index,
+                             Endpoint endpoint,
+                             Object request,
+                             String url,
+                             Class<T> responseType,
+                             Call<T> call)
+    {
+        this.interceptors = interceptors;
+        this.index = index;
+        this.endpoint = endpoint;
+        this.request = request;
+        this.url = url;
+        this.responseType = responseType;
+        this.call = call;
+    }
+
+    static <T> T dispatch(List<Interceptor> interceptors,
+                          Endpoint endpoint,
+                          Object request,
+                          String url,
+                          Class<T> responseType,
+                          Call<T> call) throws IOException
+    {
+        if (interceptors.isEmpty())
+        {
+            return call.execute(url);
+        }
+
+        return new InterceptorChain<>(interceptors, 0, endpoint, request, url, responseType, call).proceed();
+    }
+
+    @Override
+    public Endpoint getEndpoint()
+    {
+        return endpoint;
+    }
+
+    @Override
+    public Object getRequest()
+    {
+        return request;
+    }
+
+    @Override
+    public String getUrl()
+    {
+        return url;
+    }
+
+    @Override
+    public Class<T> getResponseType()
+    {
+        return responseType;
+    }
+
+    @Override
+    public T proceed() throws IOException
+    {
+        return proceed(url);
+    }
+
+    @Override
+    public T proceed(String url) throws IOException
+    {
+        checkThat(url).is(nonEmptyString());
+
+        if (index >= interceptors.size())
+        {
+            return call.execute(url);
+        }
+
+        Interceptor interceptor = interceptors.get(index);
+        InterceptorChain<T> next = new InterceptorChain<>(interceptors, index + 1, endpoint, request, url, responseType, call);
+        Object response = interceptor.intercept(next);
+
+        if (!responseType.isInstance(response))
+        {
+            throw new GooglePlacesOperationFailedException("Interceptor " + interceptor + " returned " + response +
+                                                           " instead of a " + responseType.getSimpleName());
+        }
+
+        return responseType.cast(response);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "InterceptorChain{" + "endpoint=" + endpoint + ", request=" + request + ", index=" + index + '}';
+    }
+
+}
@@ -25,6 +25,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import tech.redroma.google.places.data.Language;
 import tech.redroma.google.places.data.OpeningHours;
+import tech.redroma.google.places.data.TypeSet;
 import tech.redroma.google.places.data.Types;
 import tech.sirwellington.alchemy.annotations.access.Internal;
 
@@ -37,10 +38,22 @@ final class InternalResources
 {
     private final static Logger LOG = LoggerFactory.getLogger(InternalResources.class);
 
-    static final Gson GSON = new GsonBuilder()
+    static final Gson GSON = newGsonBuilder().create();
+
+    /**
+     * @return A {@link GsonBuilder} that can read and write the responses of the Places API. The lists it reads are
+     *         unmodifiable.
+     */
+    static GsonBuilder newGsonBuilder()
+    {
+        return new GsonBuilder()
+        .registerTypeAdapterFactory(new FrozenListTypeAdapterFactory())
+        .registerTypeAdapterFactory(TypeSet.createTypeAdapterFactory())
         .registerTypeAdapter(Types.ReturnedPlaceType.class, Types.ReturnedPlaceType.createJSONDeserializer())
         .registerTypeAdapter(OpeningHours.Period.class, OpeningHours.Period.createDeserializer())
+        .registerTypeAdapter(OpeningHours.Period.class, OpeningHours.Period.createSerializer())
         .registerTypeAdapter(Language.class, Language.createDeserializer())
-        .setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES)
-        .create();
+        .registerTypeAdapter(Language.class, Language.createSerializer())
+        .setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES);
+    }
 }
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package tech.redroma.google.places;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
+import tech.redroma.google.places.data.Photo;
+import tech.redroma.google.places.data.PlaceField;
+import tech.redroma.google.places.data.Review;
+import tech.redroma.google.places.data.StringPool;
+import tech.sirwellington.alchemy.annotations.arguments.Required;
+
+import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
+import static tech.sirwellington.alchemy.arguments.assertions.Assertions.notNull;
+
+/**
+ * Turns the JSON body of a response from Google into an object.
+ * <p>
+ * The default codec uses {@link Gson}. Use {@link #gson(com.google.gson.Gson) } with a {@link Gson} configured from
+ * {@link #newGsonBuilder() } to customize it, or implement this interface to use another JSON library.
+ *
+ * @see GooglePlacesAPI.Builder#withJsonCodec(JsonCodec)
+ * @author SirWellington
+ */
+public interface JsonCodec
+{
+
+    /**
+     * Reads a response body.
+     *
+     * @param <T>  The type of response.
+     * @param body The UTF-8 encoded JSON body. It is closed by the caller.
+     * @param type The type of response to read.
+     * @return
+     * @throws IOException If the body could not be read or parsed.
+     */
+    <T> T decode(@Required InputStream body, @Required Class<T> type) throws IOException;
+
+    /**
+     * Reads a response of which only some fields of the {@code result} are needed, such as a Place Details response
+     * for a request with {@linkplain tech.redroma.google.places.requests.GetPlaceDetailsRequest.Builder#withFields(PlaceField...) fields}.
+     * Codecs may skip the other members of the result without reading them into objects. By default, the whole
+     * response is read.
+     *
+     * @param <T>    The type of response.
+     * @param body   The UTF-8 encoded JSON body. It is closed by the caller.
+     * @param type   The type of response to read.
+     * @param fields The fields of the result to read.
+     * @return
+     * @throws IOException If the body could not be read or parsed.
+     */
+    default <T> T decode(@Required InputStream body, @Required Class<T> type, @Required Set<PlaceField> fields) throws IOException
+    {
+        return decode(body, type);
+    }
+
+    /**
+     * The codec used when none is specified.
+     */
+    JsonCodec DEFAULT = gson(InternalResources.GSON);
+
+    /**
+     * A codec that defers reading {@linkplain Review reviews} and {@linkplain Photo photos}. Their JSON is kept as it
+     * is received, and turned into objects the first time the list is used, so that callers that never look at them
+     * do not pay for them.
+     */
+    JsonCodec LAZY = gson(InternalResources.newGsonBuilder()
+        .registerTypeAdapterFactory(new LazyListTypeAdapterFactory(Review.class, Photo.class))
+        .create());
+
+    /**
+     * Creates a codec that reads responses with the given {@link Gson}. The lists it reads are made unmodifiable, even
+     * if {@code gson} was not made from {@link #newGsonBuilder() }, so that responses can hand them out without
+     * copying them.
+     *
+     * @param gson Must be able to read the responses of the Places API; see {@link #newGsonBuilder() }.
+     * @return
+     * @throws IllegalArgumentException
+     */
+    static JsonCodec gson(@Required Gson gson) throws IllegalArgumentException
+    {
+        checkThat(gson).is(notNull());
+
+        return new GsonJsonCodec(FrozenListTypeAdapterFactory.freezing(gson));
+    }
+
+    /**
+     * Creates a codec that shares repeated Strings, such as icon URLs and opening hours, among the objects it reads.
+     * This saves memory when many responses are kept, such as by a {@link CachingGooglePlacesAPI}.
+     *
+     * @param pool The pool to share Strings through. It may be shared by several codecs.
+     * @return
+     * @throws IllegalArgumentException
+     * @see StringPool
+     */
+    static JsonCodec interning(@Required StringPool pool) throws IllegalArgumentException
+    {
+        checkThat(pool).is(notNull());
+
+        return gson(InternalResources.newGsonBuilder()
+            .registerTypeAdapterFactory(pool.createTypeAdapterFactory())
+            .create());
+    }
+
+    /**
+     * @return A {@link GsonBuilder} that is already set up to read the responses of the Places API, to which further
+     *         type adapters or settings may be added.
+     */
+    static GsonBuilder newGsonBuilder()
+    {
+        return InternalResources.newGsonBuilder();
+    }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package tech.redroma.google.places;
+
+import com.google.gson.TypeAdapter;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.List;
+import tech.redroma.google.places.exceptions.GooglePlacesOperationFailedException;
+import tech.sirwellington.alchemy.annotations.access.Internal;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadSafe;
+
+/**
+ * A list that holds the raw JSON of its elements, and only turns them into objects the first time it is read.
+ *
+ * @author SirWellington
+ */
+@Internal
+@ThreadSafe
+final class LazyJsonList<T> extends AbstractList<T>
+{
+
+    private final String json;
+    private final TypeAdapter<List<T>> adapter;
+
+    private volatile List<T> elements;
+
+    LazyJsonList(String json, TypeAdapter<List<T>> adapter)
+    {
+        this.json = json;
+        this.adapter = adapter;
+    }
+
+    @Override
+    public T get(int index)
+    {
+        return elements().get(index);
+    }
+
+    @Override
+    public int size()
+    {
+        return elements().size();
+    }
+
+    boolean isDecoded()
+    {
+        return elements != null;
+    }
+
+    private List<T> elements()
+    {
+        List<T> result = elements;
+
+        if (result != null)
+        {
+            return result;
+        }
+
+        synchronized (this)
+        {
+            if (elements == null)
+            {
+                elements = decode();
+            }
+
+            return elements;
+        }
+    }
+
+    private List<T> decode()
+    {
+        try
+        {
+            List<T> result = adapter.fromJson(json);
+            return result != null ? result : Collections.emptyList();
+        }
+        catch (IOException | RuntimeException ex)
+        {
+            throw new GooglePlacesOperationFailedException("Could not decode list", ex);
+        }
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package tech.redroma.google.places;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import tech.sirwellington.alchemy.annotations.access.Internal;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadSafe;
+
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * Reads lists of the given element types as {@link LazyJsonList LazyJsonLists}. The JSON of each list is kept as
+ * it appeared in the body, and turned into objects only if the list is used.
+ * <p>
+ * Lists are only deferred when read through a {@link RecordingJsonReader}, which every {@link GsonJsonCodec} uses.
+ * With other readers, they are read as usual.
+ *
+ * @author SirWellington
+ */
+@Internal
+@ThreadSafe
+final class LazyListTypeAdapterFactory implements TypeAdapterFactory
+{
+
+    private final Set<Class<?>> elementTypes;
+
+    LazyListTypeAdapterFactory(Class<?>... elementTypes)
+    {
+        this.elementTypes = Arrays.stream(elementTypes).collect(toSet());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type)
+    {
+        if (!isLazy(type))
+        {
+            return null;
+        }
+
+        TypeAdapter<List<Object>> delegate = (TypeAdapter<List<Object>>) gson.getDelegateAdapter(this, type);
+        return (TypeAdapter<T>) new LazyListAdapter<>(delegate);
+    }
+
+    private boolean isLazy(TypeToken<?> type)
+    {
+        if (type.getRawType() != List.class || !(type.getType() instanceof ParameterizedType))
+        {
+            return false;
+        }
+
+        Type elementType = ((ParameterizedType) type.getType()).getActualTypeArguments()[0];
+        return elementTypes.contains(elementType);
+    }
+
+    private static final class LazyListAdapter<E> extends TypeAdapter<List<E>>
+    {
+
+        private final TypeAdapter<List<E>> delegate;
+
+        private LazyListAdapter(TypeAdapter<List<E>> delegate)
+        {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(JsonWriter out, List<E> value) throws IOException
+        {
+            delegate.write(out, value);
+        }
+
+        @Override
+        public List<E> read(JsonReader in) throws IOException
+        {
+            if (!(in instanceof RecordingJsonReader) || in.peek() != JsonToken.BEGIN_ARRAY)
+            {
+                return delegate.read(in);
+            }
+
+            String json = ((RecordingJsonReader) in).nextRawArray();
+            return new LazyJsonList<>(json, delegate);
+        }
+    }
+
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tech.redroma.google.places.requests.GetPhotoRequest;
+import tech.sirwellington.alchemy.annotations.access.Internal;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadSafe;
+
+import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
+import static tech.sirwellington.alchemy.arguments.assertions.Assertions.notNull;
+import static tech.sirwellington.alchemy.arguments.assertions.NumberAssertions.greaterThan;
+import static tech.sirwellington.alchemy.arguments.assertions.NumberAssertions.positiveInteger;
+
+/**
+ * Remembers the redirect location that a {@link GetPhotoRequest} resolves to, so that
+ * repeated lookups of the same photo do not require another round trip to Google.
+ * <p>
+ * Entries expire after a fixed time-to-live, and the cache is bounded in size.
+ * Failed resolutions are never cached.
+ *
+ * @author SirWellington
+ */
+@Internal
+@ThreadSafe
+final class PhotoRedirectCache
+{
+
+    private final static Logger LOG = LoggerFactory.getLogger(PhotoRedirectCache.class);
+
+    static final long DEFAULT_TTL_MINUTES = 60;
+    static final long DEFAULT_MAX_SIZE = 10_000;
+    static final int DEFAULT_BATCH_SIZE = 10;
+    static final int DEFAULT_THREADS = 4;
+    static final long IDLE_THREAD_SECONDS = 30;
+
+    private final Cache<GetPhotoRequest, URL> cache;
+    private final Executor executor;
+    private final int batchSize;
+
+    PhotoRedirectCache(long ttl, TimeUnit timeUnit, long maxSize, int batchSize, Executor executor)
+    {
+        checkThat(ttl, maxSize).are(greaterThan(0L));
+        checkThat(batchSize).is(positiveInteger());
+        checkThat(timeUnit, executor).are(notNull());
+
+        this.cache = CacheBuilder.newBuilder()
+            .expireAfterWrite(ttl, timeUnit)
+            .maximumSize(maxSize)
+            .build();
+
+        this.executor = executor;
+        this.batchSize = batchSize;
+    }
+
+    static PhotoRedirectCache create(Executor executor)
+    {
+        return new PhotoRedirectCache(DEFAULT_TTL_MINUTES, TimeUnit.MINUTES, DEFAULT_MAX_SIZE, DEFAULT_BATCH_SIZE, executor);
+    }
+
+    /**
+     * Creates a pool for resolving photos whose threads exit once they have been idle for a while, so that a client
+     * nobody is using does not keep any.
+     */
+    static Executor newExecutor(int threads)
+    {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads,
+                                                             threads,
+                                                             IDLE_THREAD_SECONDS,
+                                                             TimeUnit.SECONDS,
+                                                             new LinkedBlockingQueue<>(),
+                                                             new ThreadFactoryBuilder()
+                                                                 .setDaemon(true)
+                                                                 .setNameFormat("google-places-photos-%d")
+                                                                 .build());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Returns the cached redirect for {@code request}, or resolves and caches it using {@code resolver}.
+     * Concurrent calls for the same request share a single resolution.
+     *
+     * @throws Exception If the redirect could not be resolved. Nothing is cached in this case.
+     */
+    URL get(GetPhotoRequest request, Resolver resolver) throws Exception
+    {
+        checkThat(request, resolver).are(notNull());
+
+        try
+        {
+            return cache.get(request, () -> resolver.resolve(request));
+        }
+        catch (ExecutionException | UncheckedExecutionException ex)
+        {
+            Throwable cause = ex.getCause();
+            throw cause instanceof Exception ? (Exception) cause : ex;
+        }
+    }
+
+    URL getIfPresent(GetPhotoRequest request)
+    {
+        return cache.getIfPresent(request);
+    }
+
+    /**
+     * Resolves all of the requests in the background, in batches, returning the results in the same iteration order as
+     * {@code requests}. Requests already in the cache are answered immediately without dispatching any work.
+     * <p>
+     * A request whose resolution fails is mapped to the URL returned by {@code fallback}, or to {@code null} if the
+     * fallback fails too.
+     */
+    CompletableFuture<Map<GetPhotoRequest, URL>> resolveAll(Collection<GetPhotoRequest> requests,
+                                                            Resolver resolver,
+                                                            Fallback fallback)
+    {
+        checkThat(requests, resolver, fallback).are(notNull());
+
+        Map<GetPhotoRequest, URL> results = new LinkedHashMap<>();
+        List<GetPhotoRequest> missing = new ArrayList<>();
+
+        for (GetPhotoRequest request : new LinkedHashSet<>(requests))
+        {
+            URL cached = cache.getIfPresent(request);
+
+            if (cached != null)
+            {
+                results.put(request, cached);
+            }
+            else
+            {
+                results.put(request, null);
+                missing.add(request);
+            }
+        }
+
+        List<CompletableFuture<Void>> batches = new ArrayList<>();
+
+        for (List<GetPhotoRequest> batch : Iterables.partition(missing, batchSize))
+        {
+            CompletableFuture<Void> future = CompletableFuture.runAsync(() -> resolveBatch(batch, resolver, fallback, results),
+                                                                        executor);
+            batches.add(future);
+        }
+
+        return CompletableFuture.allOf(batches.toArray(new CompletableFuture<?>[0]))
+            .thenApply(ignore -> results);
+    }
+
+    private void resolveBatch(List<GetPhotoRequest> batch,
+                              Resolver resolver,
+                              Fallback fallback,
+                              Map<GetPhotoRequest, URL> results)
+    {
+        for (GetPhotoRequest request : batch)
+        {
+            URL url;
+
+            try
+            {
+                url = get(request, resolver);
+            }
+            catch (Exception ex)
+            {
+                LOG.warn("Failed to resolve photo redirect for [{}]", request, ex);
+
+                try
+                {
+                    url = fallback.resolve(request, ex);
+                }
+                catch (Exception fallbackEx)
+                {
+                    LOG.error("Failed to create fallback URL for [{}]", request, fallbackEx);
+                    url = null;
+                }
+            }
+
+            synchronized (results)
+            {
+                results.put(request, url);
+            }
+        }
+    }
+
+    void invalidateAll()
+    {
+        cache.invalidateAll();
+    }
+
+    long size()
+    {
+        return cache.size();
+    }
+
+    /**
+     * Resolves a {@link GetPhotoRequest} into the URL of the image.
+     */
+    @FunctionalInterface
+    interface Resolver
+    {
+        URL resolve(GetPhotoRequest request) throws Exception;
+    }
+
+    /**
+     * Provides a URL for a {@link GetPhotoRequest} whose redirect could not be resolved.
+     */
+    @FunctionalInterface
+    interface Fallback
+    {
+        URL resolve(GetPhotoRequest request, Exception cause) throws Exception;
+    }
+
+}
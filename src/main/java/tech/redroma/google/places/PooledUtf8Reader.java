@@ -0,0 +1,168 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package tech.redroma.google.places;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import tech.sirwellington.alchemy.annotations.access.Internal;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadUnsafe;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Decodes a UTF-8 stream straight into the caller's buffer, reading the bytes through a buffer borrowed from a
+ * {@link BufferPool}. Unlike an {@link java.io.InputStreamReader}, no buffers are allocated for each stream.
+ * <p>
+ * The buffer is returned to the pool when the reader is closed. Malformed input is replaced, as an
+ * {@link java.io.InputStreamReader} would.
+ *
+ * @author SirWellington
+ */
+@Internal
+@ThreadUnsafe
+final class PooledUtf8Reader extends Reader
+{
+
+    private static final int NONE = -1;
+
+    private final InputStream in;
+    private final BufferPool pool;
+    private final CharsetDecoder decoder;
+
+    private ByteBuffer bytes;
+    private boolean endOfInput = false;
+    private boolean flushed = false;
+    private int leftover = NONE;
+
+    PooledUtf8Reader(InputStream in, BufferPool pool)
+    {
+        this.in = in;
+        this.pool = pool;
+        this.decoder = UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+        this.bytes = pool.acquire();
+        this.bytes.flip();
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException
+    {
+        if (bytes == null)
+        {
+            throw new IOException("Reader is closed");
+        }
+
+        if (len == 0)
+        {
+            return 0;
+        }
+
+        //The second half of a surrogate pair that did not fit in the last read
+        if (leftover != NONE)
+        {
+            cbuf[off] = (char) leftover;
+            leftover = NONE;
+            return 1;
+        }
+
+        //A character may need two chars, which cannot be decoded into a buffer of one
+        if (len == 1)
+        {
+            char[] pair = new char[2];
+            int read = read(pair, 0, 2);
+
+            if (read <= 0)
+            {
+                return read;
+            }
+
+            cbuf[off] = pair[0];
+            leftover = read == 2 ? pair[1] : NONE;
+            return 1;
+        }
+
+        CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+
+        while (true)
+        {
+            if (!flushed)
+            {
+                CoderResult result = decoder.decode(bytes, out, endOfInput);
+
+                if (endOfInput && result.isUnderflow())
+                {
+                    flushed = decoder.flush(out).isUnderflow();
+                }
+            }
+
+            int decoded = out.position() - off;
+
+            if (decoded > 0)
+            {
+                return decoded;
+            }
+
+            if (endOfInput)
+            {
+                return -1;
+            }
+
+            fill();
+        }
+    }
+
+    private void fill() throws IOException
+    {
+        bytes.compact();
+
+        int read = in.read(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+
+        if (read < 0)
+        {
+            endOfInput = true;
+        }
+        else
+        {
+            bytes.position(bytes.position() + read);
+        }
+
+        bytes.flip();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        if (bytes == null)
+        {
+            return;
+        }
+
+        pool.release(bytes);
+        bytes = null;
+        in.close();
+    }
+
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package tech.redroma.google.places;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import tech.redroma.google.places.data.PlaceDetails;
+import tech.sirwellington.alchemy.annotations.access.Internal;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadSafe;
+
+/**
+ * Reads only the requested members of a {@link PlaceDetails}, when it is read through a {@link ProjectingReader}.
+ * The other members are skipped by the reader, and the requested ones are read straight from it, so that nothing is
+ * read twice. With any other reader, the whole object is read as usual.
+ *
+ * @author SirWellington
+ */
+@Internal
+@ThreadSafe
+final class ProjectionTypeAdapterFactory implements TypeAdapterFactory
+{
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type)
+    {
+        if (type.getRawType() != PlaceDetails.class)
+        {
+            return null;
+        }
+
+        TypeAdapter<PlaceDetails> delegate = (TypeAdapter<PlaceDetails>) gson.getDelegateAdapter(this, type);
+        return (TypeAdapter<T>) new ProjectingAdapter(delegate, membersOf(gson));
+    }
+
+    private static Map<String, Member> membersOf(Gson gson)
+    {
+        Map<String, Member> members = new HashMap<>();
+
+        for (Field field : PlaceDetails.class.getDeclaredFields())
+        {
+            if (Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers()))
+            {
+                continue;
+            }
+
+            SerializedName serializedName = field.getAnnotation(SerializedName.class);
+            String name = serializedName != null ? serializedName.value() : gson.fieldNamingStrategy().translateName(field);
+
+            field.setAccessible(true);
+            members.put(name, new Member(field, gson.getAdapter(TypeToken.get(field.getGenericType()))));
+        }
+
+        return members;
+    }
+
+    /**
+     * A {@link JsonReader} that carries the names of the {@link PlaceDetails} members to read.
+     */
+    static final class ProjectingReader extends RecordingJsonReader
+    {
+
+        private final Set<String> names;
+
+        ProjectingReader(Reader in, Set<String> names)
+        {
+            super(in);
+            this.names = names;
+        }
+    }
+
+    private static final class Member
+    {
+
+        private final Field field;
+        private final TypeAdapter<?> adapter;
+
+        private Member(Field field, TypeAdapter<?> adapter)
+        {
+            this.field = field;
+            this.adapter = adapter;
+        }
+
+        private void read(JsonReader in, PlaceDetails target) throws IOException
+        {
+            Object value = adapter.read(in);
+
+            try
+            {
+                field.set(target, value);
+            }
+            catch (IllegalAccessException ex)
+            {
+                throw new JsonIOException("Could not set " + field, ex);
+            }
+        }
+    }
+
+    private static final class ProjectingAdapter extends TypeAdapter<PlaceDetails>
+    {
+
+        private final TypeAdapter<PlaceDetails> delegate;
+        private final Map<String, Member> members;
+
+        private ProjectingAdapter(TypeAdapter<PlaceDetails> delegate, Map<String, Member> members)
+        {
+            this.delegate = delegate;
+            this.members = members;
+        }
+
+        @Override
+        public void write(JsonWriter out, PlaceDetails value) throws IOException
+        {
+            delegate.write(out, value);
+        }
+
+        @Override
+        public PlaceDetails read(JsonReader in) throws IOException
+        {
+            if (!(in instanceof ProjectingReader))
+            {
+                return delegate.read(in);
+            }
+
+            if (in.peek() == JsonToken.NULL)
+            {
+                in.nextNull();
+                return null;
+            }
+
+            Set<String> names = ((ProjectingReader) in).names;
+            PlaceDetails details = new PlaceDetails();
+            in.beginObject();
+
+            while (in.hasNext())
+            {
+                String name = in.nextName();
+                Member member = names.contains(name) ? members.get(name) : null;
+
+                if (member == null)
+                {
+                    in.skipValue();
+                }
+                else
+                {
+                    member.read(in, details);
+                }
+            }
+
+            in.endObject();
+            return details;
+        }
+    }
+
+}
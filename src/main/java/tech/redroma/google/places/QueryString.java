@@ -0,0 +1,226 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.util.function.Function;
+import tech.redroma.google.places.data.Location;
+import tech.sirwellington.alchemy.annotations.access.Internal;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadUnsafe;
+
+/**
+ * Builds a URL and its query string in a single buffer that is reused by each thread, so that encoding a request
+ * allocates nothing but the final {@link String}.
+ * <p>
+ * Values are URL-encoded as they are written, the same way {@link java.net.URLEncoder} encodes them. Parameter names
+ * are written as they are, and must already be safe to use in a URL, like the names in
+ * {@link RequestEncoders.Parameters}.
+ * <p>
+ * A thread's buffer is reset by every call to {@link #begin(java.lang.String) }, so a {@link QueryString} must be
+ * turned into a {@link String} before the same thread begins another.
+ *
+ * @author SirWellington
+ */
+@Internal
+@ThreadUnsafe
+final class QueryString
+{
+
+    static final int INITIAL_CAPACITY = 512;
+
+    /** Buffers that grow larger than this, for an unusually long request, are not kept for reuse. */
+    static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+
+    private static final ThreadLocal<QueryString> BUFFERS = ThreadLocal.withInitial(QueryString::new);
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final StringBuilder buffer = new StringBuilder(INITIAL_CAPACITY);
+    private boolean hasParameters;
+
+    /**
+     * Starts a new query string on this thread's buffer.
+     *
+     * @param url The URL the query string is for, without a query string of its own.
+     * @return
+     */
+    static QueryString begin(String url)
+    {
+        QueryString query = BUFFERS.get();
+
+        if (query.buffer.capacity() > MAX_RETAINED_CAPACITY)
+        {
+            query = new QueryString();
+            BUFFERS.set(query);
+        }
+
+        query.buffer.setLength(0);
+        query.buffer.append(url);
+        query.hasParameters = false;
+        return query;
+    }
+
+    QueryString add(String name, String value)
+    {
+        appendName(name);
+        appendEncoded(value);
+        return this;
+    }
+
+    QueryString add(String name, int value)
+    {
+        appendName(name);
+        buffer.append(value);
+        return this;
+    }
+
+    QueryString add(String name, boolean value)
+    {
+        appendName(name);
+        buffer.append(value);
+        return this;
+    }
+
+    /**
+     * Adds a location as {@code latitude,longitude}.
+     */
+    QueryString add(String name, Location location)
+    {
+        appendName(name);
+        buffer.append(location.latitude);
+        appendEncoded(',');
+        buffer.append(location.longitude);
+        return this;
+    }
+
+    /**
+     * Adds several values as one parameter, separated by {@code separator}.
+     */
+    <T> QueryString add(String name, Iterable<T> values, Function<? super T, String> toText, char separator)
+    {
+        appendName(name);
+
+        boolean first = true;
+
+        for (T value : values)
+        {
+            if (!first)
+            {
+                appendEncoded(separator);
+            }
+
+            appendEncoded(toText.apply(value));
+            first = false;
+        }
+
+        return this;
+    }
+
+    @Override
+    public String toString()
+    {
+        return buffer.toString();
+    }
+
+    private void appendName(String name)
+    {
+        buffer.append(hasParameters ? '&' : '?')
+            .append(name)
+            .append('=');
+
+        hasParameters = true;
+    }
+
+    private void appendEncoded(String value)
+    {
+        for (int i = 0; i < value.length(); ++i)
+        {
+            char c = value.charAt(i);
+
+            if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1)))
+            {
+                appendUtf8(Character.toCodePoint(c, value.charAt(++i)));
+            }
+            else
+            {
+                appendEncoded(c);
+            }
+        }
+    }
+
+    private void appendEncoded(char c)
+    {
+        if (isUnreserved(c))
+        {
+            buffer.append(c);
+        }
+        else if (c == ' ')
+        {
+            buffer.append('+');
+        }
+        else if (Character.isSurrogate(c))
+        {
+            //An unpaired surrogate cannot be encoded, and is replaced the same way URLEncoder replaces it
+            appendByte('?');
+        }
+        else
+        {
+            appendUtf8(c);
+        }
+    }
+
+    private void appendUtf8(int codePoint)
+    {
+        if (codePoint < 0x80)
+        {
+            appendByte(codePoint);
+        }
+        else if (codePoint < 0x800)
+        {
+            appendByte(0xC0 | (codePoint >> 6));
+            appendByte(0x80 | (codePoint & 0x3F));
+        }
+        else if (codePoint < 0x10000)
+        {
+            appendByte(0xE0 | (codePoint >> 12));
+            appendByte(0x80 | ((codePoint >> 6) & 0x3F));
+            appendByte(0x80 | (codePoint & 0x3F));
+        }
+        else
+        {
+            appendByte(0xF0 | (codePoint >> 18));
+            appendByte(0x80 | ((codePoint >> 12) & 0x3F));
+            appendByte(0x80 | ((codePoint >> 6) & 0x3F));
+            appendByte(0x80 | (codePoint & 0x3F));
+        }
+    }
+
+    private void appendByte(int b)
+    {
+        buffer.append('%')
+            .append(HEX[(b >> 4) & 0xF])
+            .append(HEX[b & 0xF]);
+    }
+
+    private static boolean isUnreserved(char c)
+    {
+        return (c >= 'a' && c <= 'z') ||
+               (c >= 'A' && c <= 'Z') ||
+               (c >= '0' && c <= '9') ||
+               c == '-' || c == '_' || c == '.' || c == '*';
+    }
+
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.Set;
+import tech.redroma.google.places.QuotaAccountingGooglePlacesAPI.Window;
+import tech.redroma.google.places.exceptions.GooglePlacesBudgetExceededException;
+import tech.sirwellington.alchemy.annotations.access.Internal;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadSafe;
+
+import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
+import static tech.sirwellington.alchemy.arguments.assertions.Assertions.notNull;
+
+/**
+ * Keeps the running totals of a {@link QuotaAccountingGooglePlacesAPI}, and decides whether a call fits within its
+ * budgets.
+ * <p>
+ * Calls are charged before they are made, so that concurrent callers cannot all slip in under the hard limit at once.
+ *
+ * @author SirWellington
+ */
+@Internal
+@ThreadSafe
+final class QuotaAccountant
+{
+
+    private static final Sku[] SKUS = Sku.values();
+
+    private final QuotaOptions options;
+    private final Clock clock;
+
+    //Guarded by this
+    private LocalDate day;
+    private long hour = Long.MIN_VALUE;
+    private final long[] callsToday = new long[SKUS.length];
+    private long spentToday;
+    private long spentThisHour;
+    private boolean dailyWarned;
+    private boolean hourlyWarned;
+
+    QuotaAccountant(QuotaOptions options, Clock clock)
+    {
+        checkThat(options, clock).are(notNull());
+
+        this.options = options;
+        this.clock = clock;
+    }
+
+    /**
+     * Charges for {@code calls} calls that are each billed as all of {@code skus}, unless that would go over a hard
+     * limit.
+     *
+     * @return The windows whose soft limit was reached by this charge.
+     * @throws GooglePlacesBudgetExceededException If the calls would go over a hard limit. Nothing is charged.
+     */
+    synchronized Set<Window> charge(Set<Sku> skus, int calls) throws GooglePlacesBudgetExceededException
+    {
+        roll();
+
+        long cost = 0;
+
+        for (Sku sku : skus)
+        {
+            cost += options.costs[sku.ordinal()] * calls;
+        }
+
+        if (spentThisHour + cost > options.hourlyHardLimit)
+        {
+            throw new GooglePlacesBudgetExceededException("Hourly budget of " + options.hourlyHardLimit + " exceeded by " + skus);
+        }
+
+        if (spentToday + cost > options.dailyHardLimit)
+        {
+            throw new GooglePlacesBudgetExceededException("Daily budget of " + options.dailyHardLimit + " exceeded by " + skus);
+        }
+
+        for (Sku sku : skus)
+        {
+            callsToday[sku.ordinal()] += calls;
+        }
+
+        spentThisHour += cost;
+        spentToday += cost;
+
+        Set<Window> reached = EnumSet.noneOf(Window.class);
+
+        if (!hourlyWarned && spentThisHour >= options.hourlySoftLimit)
+        {
+            hourlyWarned = true;
+            reached.add(Window.HOURLY);
+        }
+
+        if (!dailyWarned && spentToday >= options.dailySoftLimit)
+        {
+            dailyWarned = true;
+            reached.add(Window.DAILY);
+        }
+
+        return reached;
+    }
+
+    synchronized long getCalls(Sku sku)
+    {
+        roll();
+        return callsToday[sku.ordinal()];
+    }
+
+    synchronized long getCalls(Endpoint endpoint)
+    {
+        roll();
+
+        long calls = 0;
+
+        for (Sku sku : SKUS)
+        {
+            //Add-ons are billed on top of a call that is already counted
+            if (sku.getEndpoint() == endpoint && !sku.isAddOn())
+            {
+                calls += callsToday[sku.ordinal()];
+            }
+        }
+
+        return calls;
+    }
+
+    synchronized long getSpent(Window window)
+    {
+        roll();
+        return window == Window.HOURLY ? spentThisHour : spentToday;
+    }
+
+    synchronized long getRemaining(Window window)
+    {
+        roll();
+
+        long limit = window == Window.HOURLY ? options.hourlyHardLimit : options.dailyHardLimit;
+
+        if (limit == QuotaOptions.UNLIMITED)
+        {
+            return QuotaOptions.UNLIMITED;
+        }
+
+        return Math.max(0, limit - getSpent(window));
+    }
+
+    /**
+     * Starts new windows once the current ones are over.
+     */
+    private void roll()
+    {
+        ZonedDateTime now = Instant.ofEpochMilli(clock.millis()).atZone(options.timeZone);
+        LocalDate today = now.toLocalDate();
+        long thisHour = now.truncatedTo(ChronoUnit.HOURS).toEpochSecond();
+
+        if (!today.equals(day))
+        {
+            day = today;
+            spentToday = 0;
+            dailyWarned = false;
+
+            for (int i = 0; i < callsToday.length; ++i)
+            {
+                callsToday[i] = 0;
+            }
+        }
+
+        if (thisHour != hour)
+        {
+            hour = thisHour;
+            spentThisHour = 0;
+            hourlyWarned = false;
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "QuotaAccountant{" + "options=" + options + '}';
+    }
+
+}
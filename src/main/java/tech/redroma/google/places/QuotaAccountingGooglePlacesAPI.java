@@ -0,0 +1,154 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.time.Clock;
+import tech.redroma.google.places.exceptions.GooglePlacesBudgetExceededException;
+import tech.sirwellington.alchemy.annotations.arguments.Required;
+
+import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
+import static tech.sirwellington.alchemy.arguments.assertions.Assertions.notNull;
+
+/**
+ * A {@link GooglePlacesAPI} that counts the billable calls it makes, and keeps them within daily and hourly budgets.
+ * <p>
+ * Calls are counted by {@link Sku}. Once a soft limit is reached, listeners are warned; calls that would go over a
+ * hard limit fail with a {@link GooglePlacesBudgetExceededException} without calling Google. Batch jobs can check
+ * {@link #getRemaining(Window) } to slow down before that happens.
+ * <p>
+ * A client {@linkplain #create(GooglePlacesAPI.Builder, QuotaOptions) built by this API} is charged for each request
+ * as it is sent to Google, whether or not it succeeds. Photos served from the client's redirect cache, and calls
+ * that fail or are answered by an {@link Interceptor} before they are sent, are free. Wrapping any other
+ * {@link GooglePlacesAPI} charges each call before it is passed on, cached or not.
+ *
+ * <pre>
+ * GooglePlacesAPI.Builder builder = GooglePlacesAPI.newBuilder().withApiKey(apiKey);
+ * QuotaAccountingGooglePlacesAPI api = QuotaAccountingGooglePlacesAPI.create(builder, options);
+ * api.addListener((window, spent) -&gt; LOG.warn("Spent {} of the {} budget", spent, window));
+ * </pre>
+ *
+ * @see #create(tech.redroma.google.places.GooglePlacesAPI.Builder, tech.redroma.google.places.QuotaOptions)
+ * @see QuotaOptions
+ * @author SirWellington
+ */
+public interface QuotaAccountingGooglePlacesAPI extends GooglePlacesAPI
+{
+
+    enum Window
+    {
+        /** Starts at the top of each hour. */
+        HOURLY,
+        /** Starts at midnight in the {@linkplain QuotaOptions#getTimeZone() configured time zone}. */
+        DAILY
+    }
+
+    /**
+     * Notified when a soft limit is reached, once per window.
+     */
+    @FunctionalInterface
+    interface BudgetListener
+    {
+
+        void onSoftLimitReached(Window window, long spent);
+    }
+
+    /**
+     * @param sku The SKU to check.
+     * @return The number of calls of that SKU made today.
+     * @throws IllegalArgumentException
+     */
+    long getCalls(@Required Sku sku) throws IllegalArgumentException;
+
+    /**
+     * @param endpoint The endpoint to check.
+     * @return The number of calls made to that endpoint today, of every SKU. {@linkplain Sku#isAddOn() Add-ons} are
+     *         not counted as calls of their own.
+     * @throws IllegalArgumentException
+     */
+    long getCalls(@Required Endpoint endpoint) throws IllegalArgumentException;
+
+    /**
+     * @param window The window to check.
+     * @return How much has been spent in the current window.
+     * @throws IllegalArgumentException
+     */
+    long getSpent(@Required Window window) throws IllegalArgumentException;
+
+    /**
+     * @param window The window to check.
+     * @return How much may still be spent in the current window before calls are refused, or
+     *         {@link QuotaOptions#UNLIMITED} if the window has no hard limit.
+     * @throws IllegalArgumentException
+     */
+    long getRemaining(@Required Window window) throws IllegalArgumentException;
+
+    /**
+     * Adds a listener that is warned whenever a soft limit is reached. Listeners are called on the thread that made
+     * the call, so they should return quickly.
+     *
+     * @param listener The listener to add.
+     * @throws IllegalArgumentException
+     */
+    void addListener(@Required BudgetListener listener) throws IllegalArgumentException;
+
+    /**
+     * Creates a {@link QuotaAccountingGooglePlacesAPI} that counts calls, without enforcing any budget.
+     *
+     * @param delegate The API to count calls to.
+     * @return
+     * @throws IllegalArgumentException
+     */
+    static QuotaAccountingGooglePlacesAPI create(@Required GooglePlacesAPI delegate) throws IllegalArgumentException
+    {
+        return create(delegate, QuotaOptions.DEFAULT);
+    }
+
+    /**
+     * Creates a {@link QuotaAccountingGooglePlacesAPI} that charges each call before passing it to {@code delegate},
+     * including calls it answers from a cache. Use {@link #create(GooglePlacesAPI.Builder, QuotaOptions) } to charge
+     * only for the requests sent to Google.
+     *
+     * @param delegate The API to count calls to.
+     * @param options  Configures the budgets.
+     * @return
+     * @throws IllegalArgumentException
+     * @see QuotaOptions#newBuilder()
+     */
+    static QuotaAccountingGooglePlacesAPI create(@Required GooglePlacesAPI delegate, @Required QuotaOptions options) throws IllegalArgumentException
+    {
+        checkThat(delegate, options).are(notNull());
+
+        return new QuotaAccountingGooglePlacesAPIImpl(delegate, new QuotaAccountant(options, Clock.systemUTC()));
+    }
+
+    /**
+     * Builds a client that is charged for each request as it is sent to Google, after every {@link Interceptor}
+     * already added to {@code builder}. The builder itself is left unchanged.
+     *
+     * @param builder Configures the client.
+     * @param options Configures the budgets.
+     * @return
+     * @throws IllegalArgumentException
+     * @see QuotaOptions#newBuilder()
+     */
+    static QuotaAccountingGooglePlacesAPI create(@Required GooglePlacesAPI.Builder builder, @Required QuotaOptions options) throws IllegalArgumentException
+    {
+        checkThat(builder, options).are(notNull());
+
+        return QuotaAccountingGooglePlacesAPIImpl.build(builder, new QuotaAccountant(options, Clock.systemUTC()));
+    }
+}
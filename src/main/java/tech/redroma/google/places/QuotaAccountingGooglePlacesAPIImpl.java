@@ -0,0 +1,293 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tech.redroma.google.places.data.PlaceField;
+import tech.redroma.google.places.exceptions.GooglePlacesBadArgumentException;
+import tech.redroma.google.places.exceptions.GooglePlacesException;
+import tech.redroma.google.places.requests.GetPhotoRequest;
+import tech.redroma.google.places.requests.GetPlaceDetailsRequest;
+import tech.redroma.google.places.requests.NearbySearchRequest;
+import tech.redroma.google.places.responses.GetPlaceDetailsResponse;
+import tech.redroma.google.places.responses.NearbySearchResponse;
+import tech.sirwellington.alchemy.annotations.access.Internal;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadSafe;
+
+import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
+import static tech.sirwellington.alchemy.arguments.assertions.Assertions.notNull;
+
+/**
+ * Charges the calls of a {@link GooglePlacesAPI} to a {@link QuotaAccountant}.
+ * <p>
+ * A client {@linkplain #build(GooglePlacesAPI.Builder, QuotaAccountant) built for it} is charged by a {@link Meter},
+ * as each request is about to be sent to Google. Any other delegate is charged before each call is passed to it.
+ *
+ * @author SirWellington
+ */
+@Internal
+@ThreadSafe
+final class QuotaAccountingGooglePlacesAPIImpl implements QuotaAccountingGooglePlacesAPI
+{
+
+    private final static Logger LOG = LoggerFactory.getLogger(QuotaAccountingGooglePlacesAPIImpl.class);
+
+    private final GooglePlacesAPI delegate;
+    private final Meter meter;
+    private final boolean meteredOnSend;
+
+    QuotaAccountingGooglePlacesAPIImpl(GooglePlacesAPI delegate, QuotaAccountant accountant)
+    {
+        this(delegate, new Meter(accountant), false);
+    }
+
+    private QuotaAccountingGooglePlacesAPIImpl(GooglePlacesAPI delegate, Meter meter, boolean meteredOnSend)
+    {
+        checkThat(delegate, meter).are(notNull());
+
+        this.delegate = delegate;
+        this.meter = meter;
+        this.meteredOnSend = meteredOnSend;
+    }
+
+    /**
+     * Builds a client whose requests are charged as they are sent, after every interceptor already added to
+     * {@code builder}.
+     */
+    static QuotaAccountingGooglePlacesAPIImpl build(GooglePlacesAPI.Builder builder, QuotaAccountant accountant)
+    {
+        checkThat(builder, accountant).are(notNull());
+
+        Meter meter = new Meter(accountant);
+        return new QuotaAccountingGooglePlacesAPIImpl(builder.build(meter), meter, true);
+    }
+
+    @Override
+    public NearbySearchResponse searchNearbyPlaces(NearbySearchRequest request) throws GooglePlacesException
+    {
+        checkRequest(request);
+        chargeUpFront(Sku.NEARBY_SEARCH, 1);
+
+        return delegate.searchNearbyPlaces(request);
+    }
+
+    @Override
+    public GetPlaceDetailsResponse getPlaceDetails(GetPlaceDetailsRequest request) throws GooglePlacesException
+    {
+        checkRequest(request);
+        chargeUpFront(skusOf(request), 1);
+
+        return delegate.getPlaceDetails(request);
+    }
+
+    @Override
+    public URL getPhoto(GetPhotoRequest request) throws GooglePlacesException
+    {
+        checkRequest(request);
+        chargeUpFront(Sku.PHOTO, 1);
+
+        return delegate.getPhoto(request);
+    }
+
+    /**
+     * When charging up front, every distinct photo is charged before any are resolved, so the whole batch is refused
+     * rather than failing part way through.
+     */
+    @Override
+    public CompletableFuture<Map<GetPhotoRequest, URL>> getPhotos(Collection<GetPhotoRequest> requests) throws GooglePlacesException
+    {
+        checkRequest(requests);
+        chargeUpFront(Sku.PHOTO, new HashSet<>(requests).size());
+
+        return delegate.getPhotos(requests);
+    }
+
+    @Override
+    public long getCalls(Sku sku) throws IllegalArgumentException
+    {
+        checkThat(sku).is(notNull());
+
+        return meter.accountant.getCalls(sku);
+    }
+
+    @Override
+    public long getCalls(Endpoint endpoint) throws IllegalArgumentException
+    {
+        checkThat(endpoint).is(notNull());
+
+        return meter.accountant.getCalls(endpoint);
+    }
+
+    @Override
+    public long getSpent(Window window) throws IllegalArgumentException
+    {
+        checkThat(window).is(notNull());
+
+        return meter.accountant.getSpent(window);
+    }
+
+    @Override
+    public long getRemaining(Window window) throws IllegalArgumentException
+    {
+        checkThat(window).is(notNull());
+
+        return meter.accountant.getRemaining(window);
+    }
+
+    @Override
+    public void addListener(BudgetListener listener) throws IllegalArgumentException
+    {
+        checkThat(listener).is(notNull());
+
+        meter.listeners.add(listener);
+    }
+
+    private void checkRequest(Object request)
+    {
+        checkThat(request)
+            .throwing(GooglePlacesBadArgumentException.class)
+            .usingMessage("request missing")
+            .is(notNull());
+    }
+
+    private void chargeUpFront(Sku sku, int calls) throws GooglePlacesException
+    {
+        chargeUpFront(EnumSet.of(sku), calls);
+    }
+
+    private void chargeUpFront(Set<Sku> skus, int calls) throws GooglePlacesException
+    {
+        if (!meteredOnSend)
+        {
+            meter.charge(skus, calls);
+        }
+    }
+
+    /**
+     * A request without fields returns every field, and is billed for every group of data.
+     */
+    private static Set<Sku> skusOf(GetPlaceDetailsRequest request)
+    {
+        Set<Sku> skus = EnumSet.of(request.hasExtensions() ? Sku.PLACE_DETAILS_REVIEW_SUMMARY : Sku.PLACE_DETAILS);
+        Collection<PlaceField> fields = request.hasFields() ? request.fields : EnumSet.allOf(PlaceField.class);
+
+        for (PlaceField field : fields)
+        {
+            if (field.getGroup() == PlaceField.Group.CONTACT)
+            {
+                skus.add(Sku.CONTACT_DATA);
+            }
+            else if (field.getGroup() == PlaceField.Group.ATMOSPHERE)
+            {
+                skus.add(Sku.ATMOSPHERE_DATA);
+            }
+        }
+
+        return skus;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "QuotaAccountingGooglePlacesAPIImpl{" + "delegate=" + delegate + ", accountant=" + meter.accountant +
+               ", meteredOnSend=" + meteredOnSend + '}';
+    }
+
+    /**
+     * Charges each call that reaches it. As the last {@link Interceptor}, it only sees requests that are about to be
+     * sent, and not photos served from the redirect cache, or calls that fail or are answered before then.
+     */
+    @ThreadSafe
+    static final class Meter implements Interceptor
+    {
+
+        private final QuotaAccountant accountant;
+        private final List<BudgetListener> listeners = new CopyOnWriteArrayList<>();
+
+        Meter(QuotaAccountant accountant)
+        {
+            checkThat(accountant).is(notNull());
+
+            this.accountant = accountant;
+        }
+
+        @Override
+        public Object intercept(Chain chain) throws IOException
+        {
+            charge(skusOf(chain), 1);
+
+            return chain.proceed();
+        }
+
+        private Set<Sku> skusOf(Chain chain)
+        {
+            switch (chain.getEndpoint())
+            {
+                case NEARBY_SEARCH:
+                    return EnumSet.of(Sku.NEARBY_SEARCH);
+                case PLACE_DETAILS:
+                    return QuotaAccountingGooglePlacesAPIImpl.skusOf((GetPlaceDetailsRequest) chain.getRequest());
+                case PHOTO:
+                    return EnumSet.of(Sku.PHOTO);
+                case AUTOCOMPLETE:
+                default:
+                    return EnumSet.of(Sku.AUTOCOMPLETE);
+            }
+        }
+
+        void charge(Set<Sku> skus, int calls) throws GooglePlacesException
+        {
+            Set<Window> reached = accountant.charge(skus, calls);
+
+            for (Window window : reached)
+            {
+                long spent = accountant.getSpent(window);
+                LOG.warn("Reached the soft limit of the {} budget, with {} spent", window, spent);
+
+                for (BudgetListener listener : listeners)
+                {
+                    try
+                    {
+                        listener.onSoftLimitReached(window, spent);
+                    }
+                    catch (RuntimeException ex)
+                    {
+                        LOG.warn("Budget listener failed: {}", listener, ex);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public String toString()
+        {
+            return "Meter{" + "accountant=" + accountant + '}';
+        }
+    }
+
+}
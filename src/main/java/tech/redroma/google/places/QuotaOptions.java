@@ -0,0 +1,264 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.time.ZoneId;
+import java.util.Arrays;
+import tech.sirwellington.alchemy.annotations.arguments.NonNegative;
+import tech.sirwellington.alchemy.annotations.arguments.Positive;
+import tech.sirwellington.alchemy.annotations.arguments.Required;
+import tech.sirwellington.alchemy.annotations.concurrency.Immutable;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadSafe;
+import tech.sirwellington.alchemy.annotations.designs.patterns.BuilderPattern;
+
+import static tech.sirwellington.alchemy.annotations.designs.patterns.BuilderPattern.Role.BUILDER;
+import static tech.sirwellington.alchemy.annotations.designs.patterns.BuilderPattern.Role.PRODUCT;
+import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
+import static tech.sirwellington.alchemy.arguments.assertions.Assertions.notNull;
+import static tech.sirwellington.alchemy.arguments.assertions.NumberAssertions.greaterThan;
+import static tech.sirwellington.alchemy.arguments.assertions.NumberAssertions.greaterThanOrEqualTo;
+import static tech.sirwellington.alchemy.arguments.assertions.NumberAssertions.lessThanOrEqualTo;
+
+/**
+ * Configures the budgets of a {@link QuotaAccountingGooglePlacesAPI}.
+ * <p>
+ * Every call costs the amount set for its {@link Sku}, which is 1 unless changed, plus that of any
+ * {@linkplain Sku#isAddOn() add-ons} it is billed for, which are free unless changed. Costs can be set to each SKU's
+ * price, in any unit, to budget by spend rather than by number of calls. Budgets are unlimited unless set.
+ * <p>
+ * See {@link #newBuilder() } to create options.
+ *
+ * @see #newBuilder()
+ * @see Builder
+ * @author SirWellington
+ */
+@Immutable
+@ThreadSafe
+@BuilderPattern(role = PRODUCT)
+public final class QuotaOptions
+{
+
+    /** The options used when none are specified. */
+    public static final QuotaOptions DEFAULT = newBuilder().build();
+
+    /** Used for budgets that were not set. */
+    public static final long UNLIMITED = Long.MAX_VALUE;
+
+    final long dailySoftLimit;
+    final long dailyHardLimit;
+    final long hourlySoftLimit;
+    final long hourlyHardLimit;
+    final long[] costs;
+    final ZoneId timeZone;
+
+    QuotaOptions(long dailySoftLimit,
+                 long dailyHardLimit,
+                 long hourlySoftLimit,
+                 long hourlyHardLimit,
+                 long[] costs,
+                 ZoneId timeZone)
+    {
+        this.dailySoftLimit = dailySoftLimit;
+        this.dailyHardLimit = dailyHardLimit;
+        this.hourlySoftLimit = hourlySoftLimit;
+        this.hourlyHardLimit = hourlyHardLimit;
+        this.costs = costs;
+        this.timeZone = timeZone;
+    }
+
+    /**
+     * @return How much may be spent in a day before listeners are warned.
+     */
+    public long getDailySoftLimit()
+    {
+        return dailySoftLimit;
+    }
+
+    /**
+     * @return How much may be spent in a day before calls are refused.
+     */
+    public long getDailyHardLimit()
+    {
+        return dailyHardLimit;
+    }
+
+    /**
+     * @return How much may be spent in an hour before listeners are warned.
+     */
+    public long getHourlySoftLimit()
+    {
+        return hourlySoftLimit;
+    }
+
+    /**
+     * @return How much may be spent in an hour before calls are refused.
+     */
+    public long getHourlyHardLimit()
+    {
+        return hourlyHardLimit;
+    }
+
+    /**
+     * @param sku The SKU to check.
+     * @return How much a single call of that SKU costs.
+     * @throws IllegalArgumentException
+     */
+    public long getCost(@Required Sku sku) throws IllegalArgumentException
+    {
+        checkThat(sku).is(notNull());
+
+        return costs[sku.ordinal()];
+    }
+
+    /**
+     * @return The time zone whose midnight starts a new day.
+     */
+    public ZoneId getTimeZone()
+    {
+        return timeZone;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "QuotaOptions{" + "dailySoftLimit=" + dailySoftLimit + ", dailyHardLimit=" + dailyHardLimit +
+               ", hourlySoftLimit=" + hourlySoftLimit + ", hourlyHardLimit=" + hourlyHardLimit + ", costs=" +
+               Arrays.toString(costs) + ", timeZone=" + timeZone + '}';
+    }
+
+    public static Builder newBuilder()
+    {
+        return Builder.newInstance();
+    }
+
+    @BuilderPattern(role = BUILDER)
+    public static final class Builder
+    {
+
+        /** Google resets daily quotas at midnight Pacific Time. */
+        public static final ZoneId DEFAULT_TIME_ZONE = ZoneId.of("America/Los_Angeles");
+        public static final long DEFAULT_COST = 1;
+
+        private long dailySoftLimit = UNLIMITED;
+        private long dailyHardLimit = UNLIMITED;
+        private long hourlySoftLimit = UNLIMITED;
+        private long hourlyHardLimit = UNLIMITED;
+        private final long[] costs = new long[Sku.values().length];
+        private ZoneId timeZone = DEFAULT_TIME_ZONE;
+
+        Builder()
+        {
+            for (Sku sku : Sku.values())
+            {
+                costs[sku.ordinal()] = sku.isAddOn() ? 0 : DEFAULT_COST;
+            }
+        }
+
+        public static Builder newInstance()
+        {
+            return new Builder();
+        }
+
+        /**
+         * Sets the daily budget.
+         *
+         * @param softLimit Once reached, listeners are warned, but calls are still made.
+         * @param hardLimit Calls that would go over it are refused with a
+         *                  {@link tech.redroma.google.places.exceptions.GooglePlacesBudgetExceededException}.
+         * @return
+         * @throws IllegalArgumentException If either limit is not positive, or the soft limit is above the hard limit.
+         */
+        public Builder withDailyBudget(@Positive long softLimit, @Positive long hardLimit) throws IllegalArgumentException
+        {
+            checkLimits(softLimit, hardLimit);
+
+            this.dailySoftLimit = softLimit;
+            this.dailyHardLimit = hardLimit;
+            return this;
+        }
+
+        /**
+         * Sets the hourly budget, which keeps a burst of calls from spending the whole day's budget at once.
+         *
+         * @param softLimit Once reached, listeners are warned, but calls are still made.
+         * @param hardLimit Calls that would go over it are refused with a
+         *                  {@link tech.redroma.google.places.exceptions.GooglePlacesBudgetExceededException}.
+         * @return
+         * @throws IllegalArgumentException If either limit is not positive, or the soft limit is above the hard limit.
+         */
+        public Builder withHourlyBudget(@Positive long softLimit, @Positive long hardLimit) throws IllegalArgumentException
+        {
+            checkLimits(softLimit, hardLimit);
+
+            this.hourlySoftLimit = softLimit;
+            this.hourlyHardLimit = hardLimit;
+            return this;
+        }
+
+        /**
+         * Sets how much a single call of a SKU costs.
+         *
+         * @param sku  The SKU.
+         * @param cost The cost of each call. 0 makes the calls free.
+         * @return
+         * @throws IllegalArgumentException
+         */
+        public Builder withCost(@Required Sku sku, @NonNegative long cost) throws IllegalArgumentException
+        {
+            checkThat(sku).is(notNull());
+            checkThat(cost).is(greaterThanOrEqualTo(0L));
+
+            this.costs[sku.ordinal()] = cost;
+            return this;
+        }
+
+        /**
+         * Sets the time zone whose midnight starts a new day. Defaults to Pacific Time, to match Google.
+         *
+         * @param timeZone The time zone.
+         * @return
+         * @throws IllegalArgumentException
+         */
+        public Builder withTimeZone(@Required ZoneId timeZone) throws IllegalArgumentException
+        {
+            checkThat(timeZone).is(notNull());
+
+            this.timeZone = timeZone;
+            return this;
+        }
+
+        /**
+         * Builds the {@link QuotaOptions}.
+         *
+         * @return
+         */
+        public QuotaOptions build()
+        {
+            return new QuotaOptions(dailySoftLimit, dailyHardLimit, hourlySoftLimit, hourlyHardLimit, costs.clone(), timeZone);
+        }
+
+        private static void checkLimits(long softLimit, long hardLimit)
+        {
+            checkThat(softLimit).is(greaterThan(0L));
+            checkThat(hardLimit).is(greaterThan(0L));
+            checkThat(softLimit)
+                .usingMessage("soft limit cannot be greater than the hard limit")
+                .is(lessThanOrEqualTo(hardLimit));
+        }
+    }
+
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.util.concurrent.TimeUnit;
+import tech.sirwellington.alchemy.annotations.arguments.NonEmpty;
+import tech.sirwellington.alchemy.annotations.arguments.Positive;
+import tech.sirwellington.alchemy.annotations.arguments.Required;
+import tech.sirwellington.alchemy.annotations.concurrency.Immutable;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadSafe;
+import tech.sirwellington.alchemy.annotations.designs.patterns.BuilderPattern;
+
+import static tech.sirwellington.alchemy.annotations.designs.patterns.BuilderPattern.Role.BUILDER;
+import static tech.sirwellington.alchemy.annotations.designs.patterns.BuilderPattern.Role.PRODUCT;
+import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
+import static tech.sirwellington.alchemy.arguments.assertions.Assertions.notNull;
+import static tech.sirwellington.alchemy.arguments.assertions.NumberAssertions.greaterThan;
+import static tech.sirwellington.alchemy.arguments.assertions.NumberAssertions.positiveInteger;
+import static tech.sirwellington.alchemy.arguments.assertions.StringAssertions.nonEmptyString;
+
+/**
+ * Configures a {@link RateLimitingGooglePlacesAPI}.
+ * <p>
+ * See {@link #newBuilder() } to create options. A limit is required.
+ *
+ * @see #newBuilder()
+ * @see Builder
+ * @author SirWellington
+ */
+@Immutable
+@ThreadSafe
+@BuilderPattern(role = PRODUCT)
+public final class RateLimitOptions
+{
+
+    final long permits;
+    final long windowMillis;
+    final int batchSize;
+    final String bucket;
+
+    RateLimitOptions(long permits, long windowMillis, int batchSize, String bucket)
+    {
+        this.permits = permits;
+        this.windowMillis = windowMillis;
+        this.batchSize = batchSize;
+        this.bucket = bucket;
+    }
+
+    /**
+     * @return The number of calls allowed in each window, across every client sharing the store.
+     */
+    public long getPermits()
+    {
+        return permits;
+    }
+
+    /**
+     * @return The length of each window, in milliseconds.
+     */
+    public long getWindowMillis()
+    {
+        return windowMillis;
+    }
+
+    /**
+     * @return The number of permits leased from the store at a time.
+     */
+    public int getBatchSize()
+    {
+        return batchSize;
+    }
+
+    /**
+     * @return The name the limit is shared under in the store.
+     */
+    public String getBucket()
+    {
+        return bucket;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "RateLimitOptions{" + "permits=" + permits + ", windowMillis=" + windowMillis + ", batchSize=" + batchSize +
+               ", bucket=" + bucket + '}';
+    }
+
+    public static Builder newBuilder()
+    {
+        return Builder.newInstance();
+    }
+
+    @BuilderPattern(role = BUILDER)
+    public static final class Builder
+    {
+
+        public static final int DEFAULT_BATCH_SIZE = 10;
+        public static final String DEFAULT_BUCKET = "google-places";
+
+        private long permits;
+        private long windowMillis;
+        private int batchSize = DEFAULT_BATCH_SIZE;
+        private String bucket = DEFAULT_BUCKET;
+
+        public static Builder newInstance()
+        {
+            return new Builder();
+        }
+
+        /**
+         * Sets the limit shared by every client, such as 100 calls per second.
+         *
+         * @param permits  The number of calls allowed in each window.
+         * @param window   The length of the window.
+         * @param timeUnit The unit of {@code window}.
+         * @return
+         * @throws IllegalArgumentException
+         */
+        public Builder withLimit(@Positive long permits, @Positive long window, @Required TimeUnit timeUnit) throws IllegalArgumentException
+        {
+            checkThat(permits).is(greaterThan(0L));
+            checkThat(window).is(greaterThan(0L));
+            checkThat(timeUnit).is(notNull());
+            checkThat(timeUnit.toMillis(window))
+                .usingMessage("window must be at least a millisecond")
+                .is(greaterThan(0L));
+
+            this.permits = permits;
+            this.windowMillis = timeUnit.toMillis(window);
+            return this;
+        }
+
+        /**
+         * Sets how many permits are leased from the store at a time. Larger batches call the store less often, but
+         * permits leased and not used by the end of a window are lost, so each client may leave up to a batch of the
+         * limit unused.
+         *
+         * @param batchSize The number of permits.
+         * @return
+         * @throws IllegalArgumentException
+         */
+        public Builder withBatchSize(@Positive int batchSize) throws IllegalArgumentException
+        {
+            checkThat(batchSize).is(positiveInteger());
+
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * Sets the name the limit is shared under, so that several limits, such as one per API Key, can share a
+         * store.
+         *
+         * @param bucket The name of the limit.
+         * @return
+         * @throws IllegalArgumentException
+         */
+        public Builder withBucket(@NonEmpty String bucket) throws IllegalArgumentException
+        {
+            checkThat(bucket).is(nonEmptyString());
+
+            this.bucket = bucket;
+            return this;
+        }
+
+        /**
+         * Builds the {@link RateLimitOptions}.
+         *
+         * @return
+         * @throws IllegalArgumentException If no limit was set.
+         */
+        public RateLimitOptions build() throws IllegalArgumentException
+        {
+            checkThat(permits)
+                .usingMessage("a limit is required")
+                .is(greaterThan(0L));
+
+            return new RateLimitOptions(permits, windowMillis, batchSize, bucket);
+        }
+    }
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.io.IOException;
+
+/**
+ * Shared state that lets many clients, on any number of machines, stay within a single rate limit together.
+ * <p>
+ * Time is divided into fixed windows, and the store keeps a count of the permits granted in each window of each
+ * bucket. Clients lease permits in batches and hand them out locally, so the store is only called once per batch
+ * rather than once per request.
+ * <p>
+ * Implementations must make {@link #lease(String, long, long, long) } atomic across every client sharing the store.
+ * With Redis, for example, it can be a short Lua script around {@code INCRBY} and {@code EXPIRE}.
+ *
+ * @see InMemoryRateLimitStore
+ * @see FileRateLimitStore
+ * @author SirWellington
+ */
+public interface RateLimitStore
+{
+
+    /**
+     * Grants as many of the requested permits as the window has left.
+     *
+     * @param bucket      Identifies the rate limit being shared.
+     * @param windowStart The start of the window, in milliseconds since the epoch. Counts of earlier windows are no
+     *                    longer needed, and may be discarded.
+     * @param requested   The number of permits wanted.
+     * @param limit       The number of permits the whole window allows.
+     * @return The number of permits granted, between 0 and {@code requested}.
+     * @throws IOException If the store could not be reached.
+     */
+    long lease(String bucket, long windowStart, long requested, long limit) throws IOException;
+
+}
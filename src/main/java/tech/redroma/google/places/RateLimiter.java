@@ -0,0 +1,237 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tech.redroma.google.places.exceptions.GooglePlacesException;
+import tech.redroma.google.places.exceptions.GooglePlacesOperationFailedException;
+import tech.redroma.google.places.exceptions.GooglePlacesTimeoutException;
+import tech.sirwellington.alchemy.annotations.access.Internal;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadSafe;
+
+import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
+import static tech.sirwellington.alchemy.arguments.assertions.Assertions.notNull;
+
+/**
+ * Hands out permits leased in batches from a {@link RateLimitStore}.
+ * <p>
+ * Once the store has no permits left for the current window, callers wait for the next one. If the store cannot be
+ * reached, a batch is granted locally instead, so that an outage of the store does not stop every call.
+ * <p>
+ * The store is asked without holding the lock, by one caller at a time. Callers that find a lease under way wait for
+ * its batch rather than asking for another.
+ *
+ * @author SirWellington
+ */
+@Internal
+@ThreadSafe
+final class RateLimiter
+{
+
+    private final static Logger LOG = LoggerFactory.getLogger(RateLimiter.class);
+
+    @FunctionalInterface
+    interface Sleeper
+    {
+
+        Sleeper THREAD = Thread::sleep;
+
+        void sleep(long millis) throws InterruptedException;
+    }
+
+    private final RateLimitStore store;
+    private final RateLimitOptions options;
+    private final Clock clock;
+    private final Sleeper sleeper;
+
+    //Guarded by this
+    private long windowStart = Long.MIN_VALUE;
+    private long tokens;
+    private boolean exhausted;
+    private boolean leasing;
+
+    RateLimiter(RateLimitStore store, RateLimitOptions options, Clock clock, Sleeper sleeper)
+    {
+        checkThat(store, options, clock, sleeper).are(notNull());
+
+        this.store = store;
+        this.options = options;
+        this.clock = clock;
+        this.sleeper = sleeper;
+    }
+
+    /**
+     * Waits until {@code permits} permits are available, and takes them.
+     *
+     * @throws GooglePlacesTimeoutException If the caller's {@link Deadline} would pass while waiting.
+     */
+    void acquire(int permits) throws GooglePlacesException
+    {
+        Deadline deadline = Deadline.current();
+        long needed = permits;
+
+        while (true)
+        {
+            long waitMillis;
+            long window;
+            long requested;
+
+            synchronized (this)
+            {
+                long now = clock.millis();
+                roll(now);
+
+                long taken = Math.min(tokens, needed);
+                tokens -= taken;
+                needed -= taken;
+
+                if (needed == 0)
+                {
+                    return;
+                }
+
+                if (leasing)
+                {
+                    awaitLease(deadline);
+                    continue;
+                }
+
+                if (!exhausted)
+                {
+                    //Only one thread asks the store at a time, and the rest wait for its batch
+                    leasing = true;
+                    window = windowStart;
+                    requested = Math.max(options.batchSize, needed);
+                    waitMillis = 0;
+                }
+                else
+                {
+                    waitMillis = windowStart + options.windowMillis - now;
+                    window = 0;
+                    requested = 0;
+                }
+            }
+
+            if (requested > 0)
+            {
+                lease(window, requested);
+                continue;
+            }
+
+            if (deadline.remaining(TimeUnit.MILLISECONDS) < waitMillis)
+            {
+                throw new GooglePlacesTimeoutException("Deadline would pass while waiting for the rate limit");
+            }
+
+            try
+            {
+                sleeper.sleep(waitMillis);
+            }
+            catch (InterruptedException ex)
+            {
+                Thread.currentThread().interrupt();
+                throw new GooglePlacesOperationFailedException("Interrupted while waiting for the rate limit", ex);
+            }
+        }
+    }
+
+    private void roll(long now)
+    {
+        long currentWindow = now - Math.floorMod(now, options.windowMillis);
+
+        if (currentWindow != windowStart)
+        {
+            //Permits left over from a past window cannot be spent in this one
+            windowStart = currentWindow;
+            tokens = 0;
+            exhausted = false;
+        }
+    }
+
+    /**
+     * Waits, while holding the lock, for the thread that is leasing to finish.
+     */
+    private void awaitLease(Deadline deadline) throws GooglePlacesException
+    {
+        long waitMillis = deadline.remaining(TimeUnit.MILLISECONDS);
+
+        if (deadline.isFinite() && waitMillis <= 0)
+        {
+            throw new GooglePlacesTimeoutException("Deadline passed while waiting for the rate limit");
+        }
+
+        try
+        {
+            wait(deadline.isFinite() ? waitMillis : 0);
+        }
+        catch (InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+            throw new GooglePlacesOperationFailedException("Interrupted while waiting for the rate limit", ex);
+        }
+    }
+
+    /**
+     * Leases a batch for {@code window} from the store, without holding the lock, so that callers with local permits
+     * are not held up by a slow store.
+     */
+    private void lease(long window, long requested)
+    {
+        //Stays negative if the store throws an Error, which leaves nothing to record
+        long granted = -1;
+
+        try
+        {
+            granted = store.lease(options.bucket, window, requested, options.permits);
+        }
+        catch (IOException | RuntimeException ex)
+        {
+            LOG.warn("Failed to lease permits from {}. Allowing a batch locally.", store, ex);
+            granted = requested;
+        }
+        finally
+        {
+            synchronized (this)
+            {
+                //A batch leased for a window that has since passed cannot be spent in this one
+                if (granted >= 0 && window == windowStart)
+                {
+                    tokens += granted;
+
+                    if (granted < requested)
+                    {
+                        exhausted = true;
+                    }
+                }
+
+                leasing = false;
+                notifyAll();
+            }
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "RateLimiter{" + "store=" + store + ", options=" + options + '}';
+    }
+
+}
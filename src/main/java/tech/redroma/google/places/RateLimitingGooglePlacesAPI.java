@@ -0,0 +1,67 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.time.Clock;
+import tech.sirwellington.alchemy.annotations.arguments.Required;
+
+import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
+import static tech.sirwellington.alchemy.arguments.assertions.Assertions.notNull;
+
+/**
+ * A {@link GooglePlacesAPI} that shares a single rate limit with every other client using the same
+ * {@link RateLimitStore}, such as all the nodes of a cluster calling Google with one API Key.
+ * <p>
+ * Permits are leased from the store in batches, so most calls do not touch the store at all. Once the limit for the
+ * current window is used up, calls wait for the next window, unless their {@link Deadline} would pass first.
+ *
+ * <pre>
+ * RateLimitOptions options = RateLimitOptions.newBuilder()
+ *     .withLimit(100, 1, TimeUnit.SECONDS)
+ *     .build();
+ *
+ * GooglePlacesAPI api = RateLimitingGooglePlacesAPI.create(GooglePlacesAPI.create(apiKey), store, options);
+ * </pre>
+ *
+ * @see #create(tech.redroma.google.places.GooglePlacesAPI, tech.redroma.google.places.RateLimitStore,
+ * tech.redroma.google.places.RateLimitOptions)
+ * @see RateLimitOptions
+ * @author SirWellington
+ */
+public interface RateLimitingGooglePlacesAPI extends GooglePlacesAPI
+{
+
+    /**
+     * Creates a {@link RateLimitingGooglePlacesAPI}.
+     *
+     * @param delegate The API to limit calls to.
+     * @param store    Where the limit is shared.
+     * @param options  Configures the limit.
+     * @return
+     * @throws IllegalArgumentException
+     * @see RateLimitOptions#newBuilder()
+     */
+    static RateLimitingGooglePlacesAPI create(@Required GooglePlacesAPI delegate,
+                                              @Required RateLimitStore store,
+                                              @Required RateLimitOptions options) throws IllegalArgumentException
+    {
+        checkThat(delegate, store, options).are(notNull());
+
+        RateLimiter limiter = new RateLimiter(store, options, Clock.systemUTC(), RateLimiter.Sleeper.THREAD);
+        return new RateLimitingGooglePlacesAPIImpl(delegate, limiter);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.net.URL;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import tech.redroma.google.places.exceptions.GooglePlacesBadArgumentException;
+import tech.redroma.google.places.exceptions.GooglePlacesException;
+import tech.redroma.google.places.requests.GetPhotoRequest;
+import tech.redroma.google.places.requests.GetPlaceDetailsRequest;
+import tech.redroma.google.places.requests.NearbySearchRequest;
+import tech.redroma.google.places.responses.GetPlaceDetailsResponse;
+import tech.redroma.google.places.responses.NearbySearchResponse;
+import tech.sirwellington.alchemy.annotations.access.Internal;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadSafe;
+
+import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
+import static tech.sirwellington.alchemy.arguments.assertions.Assertions.notNull;
+
+/**
+ * Takes a permit from a {@link RateLimiter} before each call of the delegate.
+ *
+ * @author SirWellington
+ */
+@Internal
+@ThreadSafe
+final class RateLimitingGooglePlacesAPIImpl implements RateLimitingGooglePlacesAPI
+{
+
+    private final GooglePlacesAPI delegate;
+    private final RateLimiter limiter;
+
+    RateLimitingGooglePlacesAPIImpl(GooglePlacesAPI delegate, RateLimiter limiter)
+    {
+        checkThat(delegate, limiter).are(notNull());
+
+        this.delegate = delegate;
+        this.limiter = limiter;
+    }
+
+    @Override
+    public NearbySearchResponse searchNearbyPlaces(NearbySearchRequest request) throws GooglePlacesException
+    {
+        checkRequest(request);
+        limiter.acquire(1);
+
+        return delegate.searchNearbyPlaces(request);
+    }
+
+    @Override
+    public GetPlaceDetailsResponse getPlaceDetails(GetPlaceDetailsRequest request) throws GooglePlacesException
+    {
+        checkRequest(request);
+        limiter.acquire(1);
+
+        return delegate.getPlaceDetails(request);
+    }
+
+    @Override
+    public URL getPhoto(GetPhotoRequest request) throws GooglePlacesException
+    {
+        checkRequest(request);
+        limiter.acquire(1);
+
+        return delegate.getPhoto(request);
+    }
+
+    @Override
+    public CompletableFuture<Map<GetPhotoRequest, URL>> getPhotos(Collection<GetPhotoRequest> requests) throws GooglePlacesException
+    {
+        checkRequest(requests);
+        limiter.acquire(requests.size());
+
+        return delegate.getPhotos(requests);
+    }
+
+    private void checkRequest(Object request)
+    {
+        checkThat(request)
+            .throwing(GooglePlacesBadArgumentException.class)
+            .usingMessage("request missing")
+            .is(notNull());
+    }
+
+    @Override
+    public String toString()
+    {
+        return "RateLimitingGooglePlacesAPIImpl{" + "delegate=" + delegate + ", limiter=" + limiter + '}';
+    }
+
+}
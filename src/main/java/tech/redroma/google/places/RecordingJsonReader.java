@@ -0,0 +1,212 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package tech.redroma.google.places;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import tech.sirwellington.alchemy.annotations.access.Internal;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadUnsafe;
+
+/**
+ * A {@link JsonReader} that can hand back the raw JSON of an array instead of reading it. The array is skipped with
+ * {@link #skipValue() }, while the characters the reader takes from the body are kept, so that no objects are created
+ * for its members.
+ * <p>
+ * The characters are handed to the reader in runs that end at each {@code '['}. The reader does not look past an
+ * opening bracket, so when it reports {@link JsonToken#BEGIN_ARRAY}, the bracket is the last character it was given,
+ * and the array starts there.
+ *
+ * @author SirWellington
+ */
+@Internal
+@ThreadUnsafe
+class RecordingJsonReader extends JsonReader
+{
+
+    private final Recorder recorder;
+
+    RecordingJsonReader(Reader in)
+    {
+        this(new Recorder(in));
+    }
+
+    private RecordingJsonReader(Recorder recorder)
+    {
+        super(recorder);
+        this.recorder = recorder;
+    }
+
+    /**
+     * Skips the next array and returns its JSON, as it appeared in the body.
+     *
+     * @throws IOException           If the array could not be read.
+     * @throws IllegalStateException If the next value is not an array.
+     */
+    String nextRawArray() throws IOException
+    {
+        if (peek() != JsonToken.BEGIN_ARRAY)
+        {
+            throw new IllegalStateException("Expected an array but was " + peek());
+        }
+
+        recorder.start('[');
+
+        try
+        {
+            skipValue();
+        }
+        finally
+        {
+            recorder.recording = false;
+        }
+
+        return recorder.arrayAtStart();
+    }
+
+    private static final class Recorder extends Reader
+    {
+
+        private static final int BUFFER_SIZE = 1024;
+
+        private final Reader in;
+        private final char[] buffer = new char[BUFFER_SIZE];
+        private int position = 0;
+        private int limit = 0;
+
+        private char[] recorded = new char[0];
+        private int length = 0;
+        private boolean recording = false;
+
+        private Recorder(Reader in)
+        {
+            this.in = in;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException
+        {
+            if (len == 0)
+            {
+                return 0;
+            }
+
+            if (position == limit)
+            {
+                int read = in.read(buffer, 0, buffer.length);
+
+                if (read < 0)
+                {
+                    return -1;
+                }
+
+                position = 0;
+                limit = read;
+            }
+
+            int end = Math.min(limit, position + len);
+            int count = end - position;
+
+            for (int i = position; i < end; i++)
+            {
+                if (buffer[i] == '[')
+                {
+                    count = i + 1 - position;
+                    break;
+                }
+            }
+
+            System.arraycopy(buffer, position, cbuf, off, count);
+
+            if (recording)
+            {
+                record(buffer, position, count);
+            }
+
+            position += count;
+            return count;
+        }
+
+        private void start(char first)
+        {
+            length = 0;
+            record(new char[] { first }, 0, 1);
+            recording = true;
+        }
+
+        private void record(char[] chars, int offset, int count)
+        {
+            if (length + count > recorded.length)
+            {
+                recorded = Arrays.copyOf(recorded, Math.max(length + count, recorded.length * 2));
+            }
+
+            System.arraycopy(chars, offset, recorded, length, count);
+            length += count;
+        }
+
+        /**
+         * The reader may have been given characters past the end of the array, which are left out.
+         */
+        private String arrayAtStart() throws IOException
+        {
+            int depth = 0;
+            char quote = 0;
+
+            for (int i = 0; i < length; i++)
+            {
+                char c = recorded[i];
+
+                if (quote != 0)
+                {
+                    if (c == '\\')
+                    {
+                        i++;
+                    }
+                    else if (c == quote)
+                    {
+                        quote = 0;
+                    }
+                }
+                else if (c == '"' || c == '\'')
+                {
+                    quote = c;
+                }
+                else if (c == '[' || c == '{')
+                {
+                    depth++;
+                }
+                else if ((c == ']' || c == '}') && --depth == 0)
+                {
+                    return new String(recorded, 0, i + 1);
+                }
+            }
+
+            throw new IOException("Unterminated array");
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            in.close();
+        }
+    }
+
+}
@@ -18,11 +18,10 @@
 package tech.redroma.google.places;
 
 import tech.sirwellington.alchemy.annotations.access.Internal;
-import tech.sirwellington.alchemy.http.AlchemyRequestSteps;
 
 
 /**
- * Responsible for taking information from a request object and embedding it into an {@link tech.sirwellington.alchemy.http.HttpRequest}.
+ * Responsible for taking information from a request object and writing it into the query string of an HTTP request.
  * 
  * @author SirWellington
  */
@@ -31,13 +30,12 @@ interface RequestEncoder<Request>
 {
 
     /**
-     * Takes the {@linkplain AlchemyRequestSteps.Step3 Alchemy Request} and embeds it with the information
-     * from the {@code Request} object.
+     * Writes the information from the {@code Request} object into {@code query}, as query parameters.
      * 
-     * @param alchemyRequest
+     * @param query
      * @param request
-     * @return An {@linkplain AlchemyRequestSteps.Step3 Alchemy Request} with information from {@code request} injected.
+     * @see QueryString
      */
-    AlchemyRequestSteps.Step3 encodeRequest(AlchemyRequestSteps.Step3 alchemyRequest, Request request);
+    void encodeRequest(QueryString query, Request request);
 
 }
@@ -16,10 +16,9 @@
 
 package tech.redroma.google.places;
 
-import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import tech.redroma.google.places.data.Location;
+import tech.redroma.google.places.data.PlaceField;
 import tech.redroma.google.places.data.Types;
 import tech.redroma.google.places.exceptions.GooglePlacesBadArgumentException;
 import tech.redroma.google.places.requests.AutocompletePlaceRequest;
@@ -28,9 +27,7 @@ import tech.redroma.google.places.requests.GetPlaceDetailsRequest;
 import tech.redroma.google.places.requests.NearbySearchRequest;
 import tech.sirwellington.alchemy.annotations.access.Internal;
 import tech.sirwellington.alchemy.annotations.access.NonInstantiable;
-import tech.sirwellington.alchemy.http.AlchemyRequestSteps;
 
-import static java.util.stream.Collectors.toList;
 import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
 import static tech.sirwellington.alchemy.arguments.assertions.Assertions.notNull;
 
@@ -48,66 +45,59 @@ final class RequestEncoders
     static class NearbySearchEncoder implements RequestEncoder<NearbySearchRequest>
     {
         @Override
-        public AlchemyRequestSteps.Step3 encodeRequest(AlchemyRequestSteps.Step3 alchemyRequest, NearbySearchRequest request)
+        public void encodeRequest(QueryString query, NearbySearchRequest request)
         {
-            checkThat(alchemyRequest, request)
+            checkThat(query, request)
                 .throwing(GooglePlacesBadArgumentException.class)
                 .are(notNull());
                 
-            Location location = request.getLocation();
-            
-            String locationString = String.format("%s,%s", location.latitude, location.longitude);
-            
-            AlchemyRequestSteps.Step3 result = alchemyRequest.usingQueryParam(Parameters.LOCATION, locationString);
+            query.add(Parameters.LOCATION, request.getLocation());
             
             if (request.hasLanguage())
             {
-                result = result.usingQueryParam(Parameters.LANGUAGE, request.getLanguage().code);
+                query.add(Parameters.LANGUAGE, request.getLanguage().code);
             }
             
             if (request.hasKeyword())
             {
-                result = result.usingQueryParam(Parameters.KEYWORD, request.getKeyword());
+                query.add(Parameters.KEYWORD, request.getKeyword());
             }
             
             if (request.hasMinAndMaxPrice())
             {
-                result = result
-                    .usingQueryParam(Parameters.MIN_PRICE, request.getMinPrice().value)
-                    .usingQueryParam(Parameters.MAX_PRICE, request.getMaxPrice().value);
+                query.add(Parameters.MIN_PRICE, request.getMinPrice().value)
+                     .add(Parameters.MAX_PRICE, request.getMaxPrice().value);
             }
             
             if (request.hasName())
             {
-                result = result.usingQueryParam(Parameters.NAME, request.getName());
+                query.add(Parameters.NAME, request.getName());
             }
             
             if (request.hasOnlyOpenNow())
             {
-                result = result.usingQueryParam(Parameters.OPEN_NOW, request.isOnlyOpenNow());
+                query.add(Parameters.OPEN_NOW, request.isOnlyOpenNow());
             }
             
             if (request.hasPageToken())
             {
-                result = result.usingQueryParam(Parameters.PAGE_TOKEN, request.getPageToken());
+                query.add(Parameters.PAGE_TOKEN, request.getPageToken());
             }
             
             if (request.hasRadius())
             {
-                result = result.usingQueryParam(Parameters.RADIUS, request.getRadiusInMeters());
+                query.add(Parameters.RADIUS, request.getRadiusInMeters());
             }
             
             if (request.hasRankBy())
             {
-                result = result.usingQueryParam(Parameters.RANK_BY, request.getRankBy().toString());
+                query.add(Parameters.RANK_BY, request.getRankBy().name());
             }
             
             if (request.hasType())
             {
-                result = result.usingQueryParam(Parameters.TYPE, request.getType().asText());
+                query.add(Parameters.TYPE, request.getType().asText());
             }
-            
-            return result;
         }
 
     }
@@ -116,25 +106,28 @@ final class RequestEncoders
     {
 
         @Override
-        public AlchemyRequestSteps.Step3 encodeRequest(AlchemyRequestSteps.Step3 alchemyRequest, GetPlaceDetailsRequest request)
+        public void encodeRequest(QueryString query, GetPlaceDetailsRequest request)
         {
-            checkThat(alchemyRequest, request)
+            checkThat(query, request)
                 .throwing(GooglePlacesBadArgumentException.class)
                 .are(notNull());
                 
-            AlchemyRequestSteps.Step3 result = alchemyRequest.usingQueryParam(Parameters.PLACE_ID, request.placeId);
+            query.add(Parameters.PLACE_ID, request.placeId);
             
             if (request.hasLanguage())
             {
-                result = result.usingQueryParam(Parameters.LANGUAGE, request.language.code);
+                query.add(Parameters.LANGUAGE, request.language.code);
             }
             
             if (request.hasExtensions())
             {
-                result = result.usingQueryParam(Parameters.EXTENSIONS, request.extensions.asText());
+                query.add(Parameters.EXTENSIONS, request.extensions.asText());
+            }
+
+            if (request.hasFields())
+            {
+                query.add(Parameters.FIELDS, request.fields, PlaceField::asText, ',');
             }
-            
-            return result;
         }
 
     }
@@ -143,50 +136,43 @@ final class RequestEncoders
     {
 
         @Override
-        public AlchemyRequestSteps.Step3 encodeRequest(AlchemyRequestSteps.Step3 alchemyRequest, AutocompletePlaceRequest request)
+        public void encodeRequest(QueryString query, AutocompletePlaceRequest request)
         {
-            checkThat(alchemyRequest, request)
+            checkThat(query, request)
                 .throwing(GooglePlacesBadArgumentException.class)
                 .are(notNull());
             
-            AlchemyRequestSteps.Step3 result = alchemyRequest.usingQueryParam(Parameters.INPUT, request.input);
+            query.add(Parameters.INPUT, request.input);
             
             if (request.hasLanguage())
             {
-                result = result.usingQueryParam(Parameters.LANGUAGE, request.language.code);
+                query.add(Parameters.LANGUAGE, request.language.code);
             }
             
             if (request.hasLocation())
             {
-                String location = String.format("%s,%s", request.location.latitude, request.location.longitude);
-                result = result.usingQueryParam(Parameters.LOCATION, location);
+                query.add(Parameters.LOCATION, request.location);
             }
             
             if (request.hasOffset())
             {
-                result = result.usingQueryParam(Parameters.OFFSET, request.offset);
+                query.add(Parameters.OFFSET, request.offset);
             }
             
             if (request.hasRadius())
             {
-                result = result.usingQueryParam(Parameters.RADIUS, request.radiusInMeters);
+                query.add(Parameters.RADIUS, request.radiusInMeters);
             }
             
             if (request.hasStrictBounds())
             {
-                result = result.usingQueryParam(Parameters.STRICT_BOUNDS, request.strictBounds);
+                query.add(Parameters.STRICT_BOUNDS, request.strictBounds);
             }
             
             if (request.hasTypes())
             {
-                List<String> types = request.types.stream()
-                    .map(Types.AutocompleteType::asText)
-                    .collect(toList());
-
-                result = result.usingQueryParam(Parameters.TYPES, String.join("|", types));
+                query.add(Parameters.TYPES, request.types, Types.AutocompleteType::asText, '|');
             }
-            
-            return result;
         }
 
     }
@@ -195,24 +181,22 @@ final class RequestEncoders
     {
 
         @Override
-        public AlchemyRequestSteps.Step3 encodeRequest(AlchemyRequestSteps.Step3 alchemyRequest, GetPhotoRequest request)
+        public void encodeRequest(QueryString query, GetPhotoRequest request)
         {
-            checkThat(alchemyRequest, request)
+            checkThat(query, request)
                 .throwing(GooglePlacesBadArgumentException.class)
                 .are(notNull());
 
-            AlchemyRequestSteps.Step3 result = alchemyRequest.usingQueryParam(Parameters.PHOTO_REFERENCE, request.photoReference);
+            query.add(Parameters.PHOTO_REFERENCE, request.photoReference);
 
             if (request.hasMaxHeight())
             {
-                result = result.usingQueryParam(GooglePlacesAPIImpl.Keys.HEIGHT, String.valueOf(request.maxHeight));
+                query.add(GooglePlacesAPIImpl.Keys.HEIGHT, request.maxHeight);
             }
             else if (request.hasMaxWidth())
             {
-                result = result.usingQueryParam(GooglePlacesAPIImpl.Keys.WIDTH, String.valueOf(request.maxWidth));
+                query.add(GooglePlacesAPIImpl.Keys.WIDTH, request.maxWidth);
             }
-
-            return result;
         }
 
     }
@@ -223,6 +207,7 @@ final class RequestEncoders
 
         static final String COMPONENTS = "components";
         static final String EXTENSIONS = "extensions";
+        static final String FIELDS = "fields";
         static final String KEYWORD = "keyword";
         static final String INPUT = "input";
         static final String LANGUAGE = "language";
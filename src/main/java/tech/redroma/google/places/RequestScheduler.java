@@ -0,0 +1,359 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import tech.redroma.google.places.SchedulingGooglePlacesAPI.Priority;
+import tech.redroma.google.places.exceptions.GooglePlacesException;
+import tech.redroma.google.places.exceptions.GooglePlacesOperationFailedException;
+import tech.redroma.google.places.exceptions.GooglePlacesOverloadedException;
+import tech.redroma.google.places.exceptions.GooglePlacesTimeoutException;
+import tech.sirwellington.alchemy.annotations.access.Internal;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadSafe;
+
+import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
+import static tech.sirwellington.alchemy.arguments.assertions.Assertions.notNull;
+
+/**
+ * Runs calls on a fixed number of worker threads, taking them from one bounded queue per {@link Priority}.
+ * <p>
+ * Whenever a worker is free, it picks among the non-empty queues by smooth weighted round-robin, so every class gets
+ * turns in proportion to its weight and none is starved. Once too many calls are waiting, calls of the lowest priority
+ * are shed: new ones are rejected, and waiting ones are dropped to make room for higher priorities.
+ * <p>
+ * The workers run until the scheduler is {@linkplain #close() closed}.
+ *
+ * @author SirWellington
+ */
+@Internal
+@ThreadSafe
+final class RequestScheduler
+{
+
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final int LOWEST = PRIORITIES.length - 1;
+
+    private final SchedulerOptions options;
+
+    //Guarded by this
+    private final List<ArrayDeque<Task<?>>> queues = new ArrayList<>(PRIORITIES.length);
+    private final int[] currentWeights = new int[PRIORITIES.length];
+    private final long[] rejected = new long[PRIORITIES.length];
+    private int waiting;
+    private boolean closed;
+
+    RequestScheduler(SchedulerOptions options, ThreadFactory threadFactory)
+    {
+        checkThat(options, threadFactory).are(notNull());
+
+        this.options = options;
+
+        for (Priority priority : PRIORITIES)
+        {
+            queues.add(new ArrayDeque<>());
+        }
+
+        for (int i = 0; i < options.maxConcurrentRequests; ++i)
+        {
+            threadFactory.newThread(this::work).start();
+        }
+    }
+
+    /**
+     * Waits for a turn, then makes {@code call} on a worker thread with the caller's {@link Deadline}. If the deadline
+     * passes while waiting, the call is never made.
+     *
+     * @return The result of the call.
+     * @throws GooglePlacesOverloadedException If there was no room to queue the call, or it was shed.
+     * @throws GooglePlacesTimeoutException    If the caller's deadline passed before the call was made.
+     * @throws GooglePlacesOperationFailedException If the scheduler was closed before the call was made.
+     */
+    <T> T execute(Priority priority, Supplier<T> call) throws GooglePlacesException
+    {
+        Task<T> task = new Task<>(priority, call, Deadline.current());
+        task.deadline.checkNotExpired();
+
+        submit(task);
+        return await(task);
+    }
+
+    synchronized int getWaiting(Priority priority)
+    {
+        return queues.get(priority.ordinal()).size();
+    }
+
+    synchronized long getRejected(Priority priority)
+    {
+        return rejected[priority.ordinal()];
+    }
+
+    private void submit(Task<?> task) throws GooglePlacesOverloadedException
+    {
+        int index = task.priority.ordinal();
+        Task<?> dropped = null;
+
+        synchronized (this)
+        {
+            if (closed)
+            {
+                throw new GooglePlacesOperationFailedException("Scheduler has been closed");
+            }
+
+            ArrayDeque<Task<?>> queue = queues.get(index);
+
+            if (queue.size() >= options.queueCapacities[index])
+            {
+                ++rejected[index];
+                throw new GooglePlacesOverloadedException("Too many " + task.priority + " requests are waiting");
+            }
+
+            if (waiting >= options.sheddingThreshold)
+            {
+                if (index == LOWEST)
+                {
+                    ++rejected[index];
+                    throw new GooglePlacesOverloadedException("Shedding " + task.priority + " requests while saturated");
+                }
+
+                //The newest one has waited the least, and loses the least by being dropped
+                dropped = queues.get(LOWEST).pollLast();
+
+                if (dropped != null)
+                {
+                    --waiting;
+                    ++rejected[LOWEST];
+                }
+            }
+
+            queue.addLast(task);
+            ++waiting;
+            notify();
+        }
+
+        if (dropped != null)
+        {
+            dropped.result.completeExceptionally(new GooglePlacesOverloadedException("Shed to make room for a " + task.priority + " request"));
+        }
+    }
+
+    private <T> T await(Task<T> task) throws GooglePlacesException
+    {
+        try
+        {
+            if (task.deadline.isFinite())
+            {
+                try
+                {
+                    return task.result.get(task.deadline.remaining(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+                }
+                catch (TimeoutException ex)
+                {
+                    if (remove(task))
+                    {
+                        throw new GooglePlacesTimeoutException("Deadline exceeded while waiting for a turn", ex);
+                    }
+
+                    //The call is already running, and is bound by the deadline itself
+                }
+            }
+
+            return task.result.get();
+        }
+        catch (InterruptedException ex)
+        {
+            remove(task);
+            Thread.currentThread().interrupt();
+            throw new GooglePlacesOperationFailedException("Interrupted while waiting for a turn", ex);
+        }
+        catch (ExecutionException ex)
+        {
+            Throwable cause = ex.getCause();
+
+            if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException) cause;
+            }
+
+            if (cause instanceof Error)
+            {
+                throw (Error) cause;
+            }
+
+            throw new GooglePlacesOperationFailedException(cause);
+        }
+    }
+
+    private synchronized boolean remove(Task<?> task)
+    {
+        if (queues.get(task.priority.ordinal()).remove(task))
+        {
+            --waiting;
+            return true;
+        }
+
+        return false;
+    }
+
+    private void work()
+    {
+        while (true)
+        {
+            Task<?> task;
+
+            synchronized (this)
+            {
+                while ((task = poll()) == null)
+                {
+                    if (closed)
+                    {
+                        return;
+                    }
+
+                    try
+                    {
+                        wait();
+                    }
+                    catch (InterruptedException ex)
+                    {
+                        return;
+                    }
+                }
+            }
+
+            task.run();
+        }
+    }
+
+    /**
+     * Stops the workers once they finish the calls they are making. Calls still waiting for a turn, and calls made
+     * afterwards, fail with a {@link GooglePlacesOperationFailedException}.
+     */
+    void close()
+    {
+        List<Task<?>> abandoned = new ArrayList<>();
+
+        synchronized (this)
+        {
+            if (closed)
+            {
+                return;
+            }
+
+            closed = true;
+
+            for (ArrayDeque<Task<?>> queue : queues)
+            {
+                abandoned.addAll(queue);
+                queue.clear();
+            }
+
+            waiting = 0;
+            notifyAll();
+        }
+
+        for (Task<?> task : abandoned)
+        {
+            task.result.completeExceptionally(new GooglePlacesOperationFailedException("Scheduler was closed before the call was made"));
+        }
+    }
+
+    /**
+     * Smooth weighted round-robin over the non-empty queues. Each one earns its weight on every pick, and the chosen
+     * queue pays back the total, which interleaves the classes instead of serving them in bursts.
+     */
+    private Task<?> poll()
+    {
+        int chosen = -1;
+        int totalWeight = 0;
+
+        for (int i = 0; i < PRIORITIES.length; ++i)
+        {
+            if (queues.get(i).isEmpty())
+            {
+                //An idle class neither banks turns nor carries debt into its next burst
+                currentWeights[i] = 0;
+                continue;
+            }
+
+            currentWeights[i] += options.weights[i];
+            totalWeight += options.weights[i];
+
+            if (chosen < 0 || currentWeights[i] > currentWeights[chosen])
+            {
+                chosen = i;
+            }
+        }
+
+        if (chosen < 0)
+        {
+            return null;
+        }
+
+        currentWeights[chosen] -= totalWeight;
+        --waiting;
+        return queues.get(chosen).pollFirst();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "RequestScheduler{" + "options=" + options + '}';
+    }
+
+    private static final class Task<T>
+    {
+
+        private final Priority priority;
+        private final Supplier<T> call;
+        private final Deadline deadline;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        Task(Priority priority, Supplier<T> call, Deadline deadline)
+        {
+            this.priority = priority;
+            this.call = call;
+            this.deadline = deadline;
+        }
+
+        void run()
+        {
+            if (deadline.isExpired())
+            {
+                result.completeExceptionally(new GooglePlacesTimeoutException("Deadline exceeded while waiting for a turn"));
+                return;
+            }
+
+            try (Deadline.Scope scope = deadline.enter())
+            {
+                result.complete(call.get());
+            }
+            catch (Throwable ex)
+            {
+                result.completeExceptionally(ex);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.util.Arrays;
+import tech.redroma.google.places.SchedulingGooglePlacesAPI.Priority;
+import tech.sirwellington.alchemy.annotations.arguments.Positive;
+import tech.sirwellington.alchemy.annotations.arguments.Required;
+import tech.sirwellington.alchemy.annotations.concurrency.Immutable;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadSafe;
+import tech.sirwellington.alchemy.annotations.designs.patterns.BuilderPattern;
+
+import static tech.sirwellington.alchemy.annotations.designs.patterns.BuilderPattern.Role.BUILDER;
+import static tech.sirwellington.alchemy.annotations.designs.patterns.BuilderPattern.Role.PRODUCT;
+import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
+import static tech.sirwellington.alchemy.arguments.assertions.Assertions.notNull;
+import static tech.sirwellington.alchemy.arguments.assertions.NumberAssertions.positiveInteger;
+
+/**
+ * Configures the scheduler of a {@link SchedulingGooglePlacesAPI}.
+ * <p>
+ * See {@link #newBuilder() } to create options.
+ *
+ * @see #newBuilder()
+ * @see Builder
+ * @author SirWellington
+ */
+@Immutable
+@ThreadSafe
+@BuilderPattern(role = PRODUCT)
+public final class SchedulerOptions
+{
+
+    /** The options used when none are specified. */
+    public static final SchedulerOptions DEFAULT = newBuilder().build();
+
+    final int maxConcurrentRequests;
+    final int[] queueCapacities;
+    final int[] weights;
+    final int sheddingThreshold;
+
+    SchedulerOptions(int maxConcurrentRequests, int[] queueCapacities, int[] weights, int sheddingThreshold)
+    {
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.queueCapacities = queueCapacities;
+        this.weights = weights;
+        this.sheddingThreshold = sheddingThreshold;
+    }
+
+    /**
+     * @return The number of requests made to Google at the same time.
+     */
+    public int getMaxConcurrentRequests()
+    {
+        return maxConcurrentRequests;
+    }
+
+    /**
+     * @param priority The priority class.
+     * @return The number of requests of that class that may wait for their turn.
+     * @throws IllegalArgumentException
+     */
+    public int getQueueCapacity(@Required Priority priority) throws IllegalArgumentException
+    {
+        checkThat(priority).is(notNull());
+
+        return queueCapacities[priority.ordinal()];
+    }
+
+    /**
+     * @param priority The priority class.
+     * @return The share of turns given to that class, relative to the others.
+     * @throws IllegalArgumentException
+     */
+    public int getWeight(@Required Priority priority) throws IllegalArgumentException
+    {
+        checkThat(priority).is(notNull());
+
+        return weights[priority.ordinal()];
+    }
+
+    /**
+     * @return The number of waiting requests at which requests of the lowest priority are shed.
+     */
+    public int getSheddingThreshold()
+    {
+        return sheddingThreshold;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "SchedulerOptions{" + "maxConcurrentRequests=" + maxConcurrentRequests + ", queueCapacities=" +
+               Arrays.toString(queueCapacities) + ", weights=" + Arrays.toString(weights) + ", sheddingThreshold=" +
+               sheddingThreshold + '}';
+    }
+
+    public static Builder newBuilder()
+    {
+        return Builder.newInstance();
+    }
+
+    @BuilderPattern(role = BUILDER)
+    public static final class Builder
+    {
+
+        public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 8;
+        public static final int DEFAULT_INTERACTIVE_QUEUE_CAPACITY = 64;
+        public static final int DEFAULT_BATCH_QUEUE_CAPACITY = 1_024;
+        public static final int DEFAULT_PREFETCH_QUEUE_CAPACITY = 256;
+        public static final int DEFAULT_INTERACTIVE_WEIGHT = 8;
+        public static final int DEFAULT_BATCH_WEIGHT = 3;
+        public static final int DEFAULT_PREFETCH_WEIGHT = 1;
+        public static final int DEFAULT_SHEDDING_THRESHOLD = 64;
+
+        private int maxConcurrentRequests = DEFAULT_MAX_CONCURRENT_REQUESTS;
+        private final int[] queueCapacities = { DEFAULT_INTERACTIVE_QUEUE_CAPACITY,
+                                                DEFAULT_BATCH_QUEUE_CAPACITY,
+                                                DEFAULT_PREFETCH_QUEUE_CAPACITY };
+        private final int[] weights = { DEFAULT_INTERACTIVE_WEIGHT, DEFAULT_BATCH_WEIGHT, DEFAULT_PREFETCH_WEIGHT };
+        private int sheddingThreshold = DEFAULT_SHEDDING_THRESHOLD;
+
+        public static Builder newInstance()
+        {
+            return new Builder();
+        }
+
+        /**
+         * Sets how many requests are made to Google at the same time. Requests beyond that wait in the queue of their
+         * priority class.
+         *
+         * @param requests The number of requests.
+         * @return
+         * @throws IllegalArgumentException
+         */
+        public Builder withMaxConcurrentRequests(@Positive int requests) throws IllegalArgumentException
+        {
+            checkThat(requests).is(positiveInteger());
+
+            this.maxConcurrentRequests = requests;
+            return this;
+        }
+
+        /**
+         * Sets how many requests of a priority class may wait for their turn. Requests beyond that fail immediately
+         * with a {@link tech.redroma.google.places.exceptions.GooglePlacesOverloadedException}.
+         *
+         * @param priority The priority class.
+         * @param capacity The number of requests.
+         * @return
+         * @throws IllegalArgumentException
+         */
+        public Builder withQueueCapacity(@Required Priority priority, @Positive int capacity) throws IllegalArgumentException
+        {
+            checkThat(priority).is(notNull());
+            checkThat(capacity).is(positiveInteger());
+
+            this.queueCapacities[priority.ordinal()] = capacity;
+            return this;
+        }
+
+        /**
+         * Sets the share of turns a priority class gets while other classes are also waiting. For example, with weights
+         * of 8, 3 and 1, a waiting batch request is served for every 8 interactive ones, so batch jobs are slowed but
+         * never starved.
+         *
+         * @param priority The priority class.
+         * @param weight   The relative share of turns.
+         * @return
+         * @throws IllegalArgumentException
+         */
+        public Builder withWeight(@Required Priority priority, @Positive int weight) throws IllegalArgumentException
+        {
+            checkThat(priority).is(notNull());
+            checkThat(weight).is(positiveInteger());
+
+            this.weights[priority.ordinal()] = weight;
+            return this;
+        }
+
+        /**
+         * Sets how many requests may be waiting, across all classes, before the scheduler counts as saturated. While
+         * saturated, new requests of the lowest priority are rejected, and waiting ones are dropped to make room for
+         * higher priorities.
+         *
+         * @param waitingRequests The number of waiting requests.
+         * @return
+         * @throws IllegalArgumentException
+         */
+        public Builder withSheddingThreshold(@Positive int waitingRequests) throws IllegalArgumentException
+        {
+            checkThat(waitingRequests).is(positiveInteger());
+
+            this.sheddingThreshold = waitingRequests;
+            return this;
+        }
+
+        /**
+         * Builds the {@link SchedulerOptions}.
+         *
+         * @return
+         */
+        public SchedulerOptions build()
+        {
+            return new SchedulerOptions(maxConcurrentRequests, queueCapacities.clone(), weights.clone(), sheddingThreshold);
+        }
+    }
+
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.io.Closeable;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import tech.redroma.google.places.exceptions.GooglePlacesOverloadedException;
+import tech.sirwellington.alchemy.annotations.arguments.Required;
+
+import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
+import static tech.sirwellington.alchemy.arguments.assertions.Assertions.notNull;
+
+/**
+ * A {@link GooglePlacesAPI} that limits how many requests are made at once, and decides whose turn it is by
+ * {@linkplain Priority priority}.
+ * <p>
+ * Each priority class waits in its own bounded queue, and free turns are shared between the classes by weight, so
+ * user-facing requests stay fast while background jobs soak up whatever capacity is left. When too many requests are
+ * waiting, the lowest class is shed. Requests that cannot be queued fail immediately with a
+ * {@link GooglePlacesOverloadedException}.
+ * <p>
+ * Calls made directly on this API are {@linkplain Priority#INTERACTIVE interactive}. Use {@link #withPriority(Priority) }
+ * for other classes:
+ *
+ * <pre>
+ * SchedulingGooglePlacesAPI api = SchedulingGooglePlacesAPI.create(GooglePlacesAPI.create(apiKey));
+ * GooglePlacesAPI crawler = api.withPriority(Priority.BATCH);
+ * </pre>
+ *
+ * The scheduler's worker threads run until the API is {@linkplain #close() closed}.
+ *
+ * @see #create(tech.redroma.google.places.GooglePlacesAPI, tech.redroma.google.places.SchedulerOptions)
+ * @see SchedulerOptions
+ * @author SirWellington
+ */
+public interface SchedulingGooglePlacesAPI extends GooglePlacesAPI, Closeable
+{
+
+    /**
+     * Priority classes, from highest to lowest.
+     */
+    enum Priority
+    {
+        /** Requests that someone is waiting on. */
+        INTERACTIVE,
+        /** Background jobs, such as crawls, that should finish but are not urgent. */
+        BATCH,
+        /** Speculative requests, which are the first to be shed. */
+        PREFETCH
+    }
+
+    /**
+     * @param priority The priority class of the requests.
+     * @return A view of this API whose requests are scheduled at {@code priority}. It shares the queues and the
+     *         concurrency limit of this API.
+     * @throws IllegalArgumentException
+     */
+    SchedulingGooglePlacesAPI withPriority(@Required Priority priority) throws IllegalArgumentException;
+
+    /**
+     * @param priority The priority class to check.
+     * @return The number of requests of that class waiting for a turn.
+     * @throws IllegalArgumentException
+     */
+    int getWaiting(@Required Priority priority) throws IllegalArgumentException;
+
+    /**
+     * @param priority The priority class to check.
+     * @return The number of requests of that class rejected or shed so far.
+     * @throws IllegalArgumentException
+     */
+    long getRejected(@Required Priority priority) throws IllegalArgumentException;
+
+    /**
+     * Stops the scheduler's worker threads. Requests already being made are finished, while requests still waiting for
+     * a turn, and any made afterwards, fail with a
+     * {@link tech.redroma.google.places.exceptions.GooglePlacesOperationFailedException}. Views returned by
+     * {@link #withPriority(Priority) } share the scheduler, and are closed with it. The delegate is left open.
+     */
+    @Override
+    void close();
+
+    /**
+     * Creates a {@link SchedulingGooglePlacesAPI} using {@linkplain SchedulerOptions#DEFAULT the default options}.
+     *
+     * @param delegate The API to schedule requests to.
+     * @return
+     * @throws IllegalArgumentException
+     */
+    static SchedulingGooglePlacesAPI create(@Required GooglePlacesAPI delegate) throws IllegalArgumentException
+    {
+        return create(delegate, SchedulerOptions.DEFAULT);
+    }
+
+    /**
+     * Creates a {@link SchedulingGooglePlacesAPI}.
+     *
+     * @param delegate The API to schedule requests to.
+     * @param options  Configures the scheduler.
+     * @return
+     * @throws IllegalArgumentException
+     * @see SchedulerOptions#newBuilder()
+     */
+    static SchedulingGooglePlacesAPI create(@Required GooglePlacesAPI delegate, @Required SchedulerOptions options) throws IllegalArgumentException
+    {
+        checkThat(delegate, options).are(notNull());
+
+        RequestScheduler scheduler = new RequestScheduler(options,
+                                                          new ThreadFactoryBuilder()
+                                                              .setDaemon(true)
+                                                              .setNameFormat("google-places-scheduler-%d")
+                                                              .build());
+
+        return new SchedulingGooglePlacesAPIImpl(delegate, scheduler, Priority.INTERACTIVE);
+    }
+}
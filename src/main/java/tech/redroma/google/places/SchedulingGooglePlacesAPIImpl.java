@@ -0,0 +1,122 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.net.URL;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import tech.redroma.google.places.exceptions.GooglePlacesException;
+import tech.redroma.google.places.requests.GetPhotoRequest;
+import tech.redroma.google.places.requests.GetPlaceDetailsRequest;
+import tech.redroma.google.places.requests.NearbySearchRequest;
+import tech.redroma.google.places.responses.GetPlaceDetailsResponse;
+import tech.redroma.google.places.responses.NearbySearchResponse;
+import tech.sirwellington.alchemy.annotations.access.Internal;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadSafe;
+
+import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
+import static tech.sirwellington.alchemy.arguments.assertions.Assertions.notNull;
+
+/**
+ * Runs the calls of the delegate through a shared {@link RequestScheduler}, at a fixed {@link Priority}.
+ *
+ * @author SirWellington
+ */
+@Internal
+@ThreadSafe
+final class SchedulingGooglePlacesAPIImpl implements SchedulingGooglePlacesAPI
+{
+
+    private final GooglePlacesAPI delegate;
+    private final RequestScheduler scheduler;
+    private final Priority priority;
+
+    SchedulingGooglePlacesAPIImpl(GooglePlacesAPI delegate, RequestScheduler scheduler, Priority priority)
+    {
+        checkThat(delegate, scheduler, priority).are(notNull());
+
+        this.delegate = delegate;
+        this.scheduler = scheduler;
+        this.priority = priority;
+    }
+
+    @Override
+    public NearbySearchResponse searchNearbyPlaces(NearbySearchRequest request) throws GooglePlacesException
+    {
+        return scheduler.execute(priority, () -> delegate.searchNearbyPlaces(request));
+    }
+
+    @Override
+    public GetPlaceDetailsResponse getPlaceDetails(GetPlaceDetailsRequest request) throws GooglePlacesException
+    {
+        return scheduler.execute(priority, () -> delegate.getPlaceDetails(request));
+    }
+
+    @Override
+    public URL getPhoto(GetPhotoRequest request) throws GooglePlacesException
+    {
+        return scheduler.execute(priority, () -> delegate.getPhoto(request));
+    }
+
+    /**
+     * Batched photo lookups already run on the delegate's own bounded pool, and only hold a turn while they are
+     * submitted.
+     */
+    @Override
+    public CompletableFuture<Map<GetPhotoRequest, URL>> getPhotos(Collection<GetPhotoRequest> requests) throws GooglePlacesException
+    {
+        return scheduler.execute(priority, () -> delegate.getPhotos(requests));
+    }
+
+    @Override
+    public SchedulingGooglePlacesAPI withPriority(Priority priority) throws IllegalArgumentException
+    {
+        checkThat(priority).is(notNull());
+
+        return priority == this.priority ? this : new SchedulingGooglePlacesAPIImpl(delegate, scheduler, priority);
+    }
+
+    @Override
+    public int getWaiting(Priority priority) throws IllegalArgumentException
+    {
+        checkThat(priority).is(notNull());
+
+        return scheduler.getWaiting(priority);
+    }
+
+    @Override
+    public long getRejected(Priority priority) throws IllegalArgumentException
+    {
+        checkThat(priority).is(notNull());
+
+        return scheduler.getRejected(priority);
+    }
+
+    @Override
+    public void close()
+    {
+        scheduler.close();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "SchedulingGooglePlacesAPIImpl{" + "delegate=" + delegate + ", scheduler=" + scheduler + ", priority=" + priority + '}';
+    }
+
+}
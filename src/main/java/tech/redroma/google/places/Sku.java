@@ -0,0 +1,73 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import tech.redroma.google.places.data.Extensions;
+import tech.redroma.google.places.data.PlaceField;
+
+/**
+ * The kinds of call that Google bills separately. A single {@link Endpoint} may be billed as different SKUs,
+ * depending on the options of the request.
+ * <p>
+ * Some SKUs are {@linkplain #isAddOn() add-ons}, billed on top of a call for the data it returns, rather than being
+ * calls of their own.
+ *
+ * @author SirWellington
+ */
+public enum Sku
+{
+    NEARBY_SEARCH(Endpoint.NEARBY_SEARCH),
+    PLACE_DETAILS(Endpoint.PLACE_DETAILS),
+    /** Place Details requested with {@link Extensions#REVIEW_SUMMARY}. */
+    PLACE_DETAILS_REVIEW_SUMMARY(Endpoint.PLACE_DETAILS),
+    /** Added to Place Details that return any {@linkplain PlaceField.Group#CONTACT contact} field. */
+    CONTACT_DATA(Endpoint.PLACE_DETAILS, true),
+    /** Added to Place Details that return any {@linkplain PlaceField.Group#ATMOSPHERE atmosphere} field. */
+    ATMOSPHERE_DATA(Endpoint.PLACE_DETAILS, true),
+    PHOTO(Endpoint.PHOTO),
+    AUTOCOMPLETE(Endpoint.AUTOCOMPLETE);
+
+    private final Endpoint endpoint;
+    private final boolean addOn;
+
+    private Sku(Endpoint endpoint)
+    {
+        this(endpoint, false);
+    }
+
+    private Sku(Endpoint endpoint, boolean addOn)
+    {
+        this.endpoint = endpoint;
+        this.addOn = addOn;
+    }
+
+    /**
+     * @return The endpoint that calls of this SKU are made to.
+     */
+    public Endpoint getEndpoint()
+    {
+        return endpoint;
+    }
+
+    /**
+     * @return Whether this SKU is billed on top of a call of another SKU, rather than being a call of its own.
+     */
+    public boolean isAddOn()
+    {
+        return addOn;
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package tech.redroma.google.places;
+
+import java.util.concurrent.atomic.LongAdder;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadSafe;
+
+/**
+ * Counts the response bytes a {@link GooglePlacesAPI} receives, before and after decompression, to show how much
+ * bandwidth compression saves.
+ * <p>
+ * Pass one to {@link GooglePlacesAPI.Builder#withTransferMetrics(TransferMetrics) }, and read it at any time.
+ *
+ * @author SirWellington
+ */
+@ThreadSafe
+public final class TransferMetrics
+{
+
+    private final LongAdder responses = new LongAdder();
+    private final LongAdder compressedResponses = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LongAdder bytesDecoded = new LongAdder();
+
+    TransferMetrics()
+    {
+    }
+
+    public static TransferMetrics create()
+    {
+        return new TransferMetrics();
+    }
+
+    void record(boolean compressed, long received, long decoded)
+    {
+        responses.increment();
+        bytesReceived.add(received);
+        bytesDecoded.add(decoded);
+
+        if (compressed)
+        {
+            compressedResponses.increment();
+        }
+    }
+
+    /**
+     * @return The number of response bodies read.
+     */
+    public long getResponses()
+    {
+        return responses.sum();
+    }
+
+    /**
+     * @return The number of response bodies that arrived compressed.
+     */
+    public long getCompressedResponses()
+    {
+        return compressedResponses.sum();
+    }
+
+    /**
+     * @return The number of bytes received over the network.
+     */
+    public long getBytesReceived()
+    {
+        return bytesReceived.sum();
+    }
+
+    /**
+     * @return The number of bytes after decompression; the same as {@link #getBytesReceived() } if nothing was
+     *         compressed.
+     */
+    public long getBytesDecoded()
+    {
+        return bytesDecoded.sum();
+    }
+
+    /**
+     * @return The bytes received as a fraction of the bytes decoded, such as {@code 0.2} when compression saved 80% of
+     *         the bandwidth, or {@code 1.0} if nothing was received yet.
+     */
+    public double getCompressionRatio()
+    {
+        long decoded = getBytesDecoded();
+
+        return decoded == 0 ? 1.0 : (double) getBytesReceived() / decoded;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "TransferMetrics{" + "responses=" + responses + ", compressedResponses=" + compressedResponses +
+               ", bytesReceived=" + bytesReceived + ", bytesDecoded=" + bytesDecoded + '}';
+    }
+
+}
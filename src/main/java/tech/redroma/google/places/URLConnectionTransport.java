@@ -0,0 +1,365 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import tech.sirwellington.alchemy.annotations.access.Internal;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadSafe;
+
+import static com.google.common.base.Strings.isNullOrEmpty;
+import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
+import static tech.sirwellington.alchemy.arguments.assertions.Assertions.notNull;
+import static tech.sirwellington.alchemy.arguments.assertions.NumberAssertions.positiveInteger;
+
+/**
+ * An {@link HttpTransport} that uses the JDK's {@link HttpURLConnection}, which pools and reuses connections on its
+ * own.
+ * <p>
+ * The connect and read timeouts are shortened to fit the {@link Deadline} of each request, and the deadline is checked
+ * again before every read of the response, so that a slow trickle of bytes cannot outlast it.
+ * <p>
+ * Responses are requested compressed with gzip or deflate, and decompressed as they are read.
+ *
+ * @author SirWellington
+ */
+@Internal
+@ThreadSafe
+final class URLConnectionTransport implements HttpTransport
+{
+
+    static final int DEFAULT_CONNECT_TIMEOUT_MILLIS = (int) TimeUnit.SECONDS.toMillis(10);
+    static final int DEFAULT_READ_TIMEOUT_MILLIS = (int) TimeUnit.SECONDS.toMillis(30);
+
+    /** Only the start of an error response is kept, since only its status is read. */
+    static final int MAX_ERROR_BODY_BYTES = 64 * 1024;
+
+    private static final String ACCEPT = "Accept";
+    private static final String ACCEPT_ENCODING = "Accept-Encoding";
+    private static final String COMPRESSED = "gzip, deflate";
+    private static final String GZIP = "gzip";
+    private static final String DEFLATE = "deflate";
+    private static final String JSON = "application/json";
+    private static final String HEAD = "HEAD";
+    private static final String LOCATION = "Location";
+
+    private final int connectTimeoutMillis;
+    private final int readTimeoutMillis;
+    private final boolean compression;
+    private final TransferMetrics metrics;
+
+    URLConnectionTransport()
+    {
+        this(DEFAULT_CONNECT_TIMEOUT_MILLIS, DEFAULT_READ_TIMEOUT_MILLIS);
+    }
+
+    URLConnectionTransport(int connectTimeoutMillis, int readTimeoutMillis)
+    {
+        this(connectTimeoutMillis, readTimeoutMillis, true, TransferMetrics.create());
+    }
+
+    URLConnectionTransport(int connectTimeoutMillis, int readTimeoutMillis, boolean compression, TransferMetrics metrics)
+    {
+        checkThat(connectTimeoutMillis, readTimeoutMillis).are(positiveInteger());
+        checkThat(metrics).is(notNull());
+
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.readTimeoutMillis = readTimeoutMillis;
+        this.compression = compression;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public <T> T get(String url, BodyDecoder<T> decoder, Deadline deadline) throws IOException
+    {
+        HttpURLConnection connection = open(new URL(url), deadline);
+        connection.setRequestProperty(ACCEPT, JSON);
+
+        if (compression)
+        {
+            connection.setRequestProperty(ACCEPT_ENCODING, COMPRESSED);
+        }
+
+        int statusCode = connection.getResponseCode();
+        String encoding = connection.getContentEncoding();
+
+        if (statusCode < 200 || statusCode >= 300)
+        {
+            throw new HttpStatusException(statusCode, readErrorBody(connection, encoding));
+        }
+
+        try (CountingInputStream received = new CountingInputStream(new DeadlineInputStream(connection.getInputStream(), deadline));
+             CountingInputStream decoded = new CountingInputStream(decompress(received, encoding)))
+        {
+            try
+            {
+                return decoder.decode(decoded);
+            }
+            finally
+            {
+                metrics.record(isCompressed(encoding), received.getCount(), decoded.getCount());
+            }
+        }
+    }
+
+    /**
+     * Wraps a body in the decompression named by its {@code Content-Encoding}, if any.
+     */
+    static InputStream decompress(InputStream body, String encoding) throws IOException
+    {
+        if (!isCompressed(encoding))
+        {
+            return body;
+        }
+
+        return GZIP.equals(normalize(encoding)) ? new GZIPInputStream(body) : inflate(body);
+    }
+
+    private static boolean isCompressed(String encoding)
+    {
+        String normalized = normalize(encoding);
+
+        return GZIP.equals(normalized) || DEFLATE.equals(normalized);
+    }
+
+    private static String normalize(String encoding)
+    {
+        return isNullOrEmpty(encoding) ? "" : encoding.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * HTTP's deflate is zlib-wrapped, but some servers send raw deflate data instead, which is told apart by the zlib
+     * header.
+     */
+    private static InputStream inflate(InputStream body) throws IOException
+    {
+        PushbackInputStream in = new PushbackInputStream(body, 2);
+        int first = in.read();
+        int second = first == -1 ? -1 : in.read();
+
+        if (second != -1)
+        {
+            in.unread(second);
+        }
+
+        if (first != -1)
+        {
+            in.unread(first);
+        }
+
+        boolean zlib = first != -1 && second != -1 && (first & 0x0F) == 8 && ((first << 8) | second) % 31 == 0;
+
+        return new InflaterInputStream(in, new Inflater(!zlib));
+    }
+
+    @Override
+    public URL resolveRedirect(URL url, Deadline deadline) throws IOException
+    {
+        URLConnection connection = url.openConnection();
+
+        if (!(connection instanceof HttpURLConnection))
+        {
+            return url;
+        }
+
+        HttpURLConnection httpConnection = (HttpURLConnection) connection;
+        applyTimeouts(httpConnection, deadline);
+        httpConnection.setInstanceFollowRedirects(false);
+        httpConnection.setRequestMethod(HEAD);
+
+        try
+        {
+            int statusCode = httpConnection.getResponseCode();
+
+            //A HEAD response has no body to read the Places status from
+            if (statusCode >= 400)
+            {
+                throw new HttpStatusException(statusCode, null);
+            }
+
+            String redirectURL = httpConnection.getHeaderField(LOCATION);
+
+            return isNullOrEmpty(redirectURL) ? url : new URL(redirectURL);
+        }
+        finally
+        {
+            httpConnection.disconnect();
+        }
+    }
+
+    private HttpURLConnection open(URL url, Deadline deadline) throws IOException
+    {
+        URLConnection connection = url.openConnection();
+
+        if (!(connection instanceof HttpURLConnection))
+        {
+            throw new IOException("Not an HTTP URL: " + url.getProtocol());
+        }
+
+        HttpURLConnection httpConnection = (HttpURLConnection) connection;
+        applyTimeouts(httpConnection, deadline);
+        return httpConnection;
+    }
+
+    private void applyTimeouts(URLConnection connection, Deadline deadline)
+    {
+        connection.setConnectTimeout(deadline.boundTimeout(connectTimeoutMillis));
+        connection.setReadTimeout(deadline.boundTimeout(readTimeoutMillis));
+    }
+
+    private static byte[] readErrorBody(HttpURLConnection connection, String encoding)
+    {
+        InputStream stream = connection.getErrorStream();
+
+        if (stream == null)
+        {
+            return new byte[0];
+        }
+
+        try (InputStream errors = decompress(stream, encoding))
+        {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+
+            while (body.size() < MAX_ERROR_BODY_BYTES && (read = errors.read(buffer)) != -1)
+            {
+                body.write(buffer, 0, read);
+            }
+
+            return body.toByteArray();
+        }
+        catch (IOException ex)
+        {
+            return new byte[0];
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "URLConnectionTransport{" + "connectTimeoutMillis=" + connectTimeoutMillis + ", readTimeoutMillis=" + readTimeoutMillis +
+               ", compression=" + compression + '}';
+    }
+
+    /**
+     * Counts the bytes read through it.
+     */
+    static final class CountingInputStream extends FilterInputStream
+    {
+
+        private long count;
+
+        CountingInputStream(InputStream in)
+        {
+            super(in);
+        }
+
+        long getCount()
+        {
+            return count;
+        }
+
+        @Override
+        public int read() throws IOException
+        {
+            int result = super.read();
+
+            if (result != -1)
+            {
+                count++;
+            }
+
+            return result;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException
+        {
+            int result = super.read(buffer, offset, length);
+
+            if (result > 0)
+            {
+                count += result;
+            }
+
+            return result;
+        }
+
+        @Override
+        public long skip(long n) throws IOException
+        {
+            long result = super.skip(n);
+            count += result;
+            return result;
+        }
+
+        @Override
+        public boolean markSupported()
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Fails a read once the deadline has passed, even if the socket is still delivering bytes.
+     */
+    static final class DeadlineInputStream extends FilterInputStream
+    {
+
+        private final Deadline deadline;
+
+        DeadlineInputStream(InputStream in, Deadline deadline)
+        {
+            super(in);
+            this.deadline = deadline;
+        }
+
+        @Override
+        public int read() throws IOException
+        {
+            deadline.checkNotExpired();
+            return super.read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException
+        {
+            deadline.checkNotExpired();
+            return super.read(buffer, offset, length);
+        }
+
+        @Override
+        public long skip(long n) throws IOException
+        {
+            deadline.checkNotExpired();
+            return super.skip(n);
+        }
+    }
+
+}
@@ -17,13 +17,20 @@
 
 package tech.redroma.google.places;
 
+import tech.sirwellington.alchemy.annotations.arguments.NonEmpty;
+
+import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
+import static tech.sirwellington.alchemy.arguments.assertions.StringAssertions.nonEmptyString;
 
 /**
  * Provides URLs for the Google API.
+ * <p>
+ * Use {@link #fromBase(java.lang.String) } to send requests to a proxy or a local stand-in for Google.
  * 
+ * @see GooglePlacesAPI.Builder#withURLProvider(URLProvider)
  * @author SirWellington
  */
-interface URLProvider 
+public interface URLProvider 
 {
     String getBase();
     
@@ -39,4 +46,20 @@ interface URLProvider
      * Contains production URLs.
      */
     URLProvider PRODUCTION = new URLProviderProduction();
+
+    /**
+     * Creates a {@link URLProvider} whose endpoints have the same paths as Google's, under a different base URL.
+     * For example, {@code http://localhost:8080/place} serves Place Details at
+     * {@code http://localhost:8080/place/details/json}.
+     *
+     * @param baseURL The URL that the endpoints are under, such as {@code https://maps.googleapis.com/maps/api/place}.
+     * @return
+     * @throws IllegalArgumentException
+     */
+    static URLProvider fromBase(@NonEmpty String baseURL) throws IllegalArgumentException
+    {
+        checkThat(baseURL).is(nonEmptyString());
+
+        return new BaseURLProvider(baseURL);
+    }
 }
@@ -0,0 +1,283 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places.data;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import tech.sirwellington.alchemy.annotations.access.Internal;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadUnsafe;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Reads what a {@link BinaryEncoder} wrote, from any {@link ByteBuffer}, including memory-mapped ones.
+ * <p>
+ * Repeated symbols are decoded into the same {@link String} instance.
+ *
+ * @see BinaryEncoder
+ * @author SirWellington
+ */
+@Internal
+@ThreadUnsafe
+final class BinaryDecoder
+{
+
+    private ByteBuffer buffer;
+    private byte[] scratch = new byte[64];
+    private final List<String> symbols = new ArrayList<>();
+
+    BinaryDecoder()
+    {
+        this(ByteBuffer.allocate(0));
+    }
+
+    BinaryDecoder(ByteBuffer buffer)
+    {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Starts reading from {@code buffer}, keeping the symbol table.
+     */
+    void reset(ByteBuffer buffer)
+    {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Forgets all symbols read so far.
+     */
+    void resetSymbols()
+    {
+        symbols.clear();
+    }
+
+    int position()
+    {
+        return buffer.position();
+    }
+
+    boolean hasRemaining()
+    {
+        return buffer.hasRemaining();
+    }
+
+    int readByte()
+    {
+        return buffer.get() & 0xFF;
+    }
+
+    int readInt()
+    {
+        return buffer.getInt();
+    }
+
+    long readLong()
+    {
+        return buffer.getLong();
+    }
+
+    double readDouble()
+    {
+        return buffer.getDouble();
+    }
+
+    long readVarLong()
+    {
+        long result = 0;
+
+        for (int shift = 0; shift < 64; shift += 7)
+        {
+            int b = buffer.get();
+            result |= (long) (b & 0x7F) << shift;
+
+            if ((b & 0x80) == 0)
+            {
+                return result;
+            }
+        }
+
+        throw new IllegalStateException("Malformed varint at position " + buffer.position());
+    }
+
+    int readVarInt()
+    {
+        return (int) readVarLong();
+    }
+
+    boolean readBoolean()
+    {
+        return readByte() != 0;
+    }
+
+    Boolean readNullableBoolean()
+    {
+        switch (readByte())
+        {
+            case 0: return null;
+            case 1: return false;
+            default: return true;
+        }
+    }
+
+    Integer readNullableInt()
+    {
+        long value = readVarLong();
+
+        if (value == 0)
+        {
+            return null;
+        }
+
+        return (int) unZigZag(value - 1);
+    }
+
+    Long readNullableLong()
+    {
+        if (!readBoolean())
+        {
+            return null;
+        }
+
+        return unZigZag(readVarLong());
+    }
+
+    Double readNullableDouble()
+    {
+        if (!readBoolean())
+        {
+            return null;
+        }
+
+        return readDouble();
+    }
+
+    /**
+     * Reads a size written by {@link BinaryEncoder#writeSize(int) }, where {@code -1} represents {@code null}.
+     */
+    int readSize()
+    {
+        return readVarInt() - 1;
+    }
+
+    String readString()
+    {
+        int length = readVarInt();
+
+        if (length == 0)
+        {
+            return null;
+        }
+
+        return readUTF8(length - 1);
+    }
+
+    void skipString()
+    {
+        int length = readVarInt();
+
+        if (length > 0)
+        {
+            skip(length - 1);
+        }
+    }
+
+    /**
+     * Reads a string, comparing its UTF-8 bytes to {@code utf8} without decoding it.
+     */
+    boolean readStringEquals(byte[] utf8)
+    {
+        int length = readVarInt() - 1;
+
+        if (length != utf8.length)
+        {
+            skip(Math.max(length, 0));
+            return false;
+        }
+
+        int start = buffer.position();
+        boolean equal = true;
+
+        for (int i = 0; i < length && equal; ++i)
+        {
+            equal = buffer.get(start + i) == utf8[i];
+        }
+
+        skip(length);
+        return equal;
+    }
+
+    String readSymbol()
+    {
+        int tag = readVarInt();
+
+        if (tag == 0)
+        {
+            return null;
+        }
+
+        if (tag > 1)
+        {
+            return symbols.get(tag - 2);
+        }
+
+        String value = readUTF8(readVarInt());
+
+        if (symbols.size() < BinaryEncoder.MAX_SYMBOLS)
+        {
+            symbols.add(value);
+        }
+
+        return value;
+    }
+
+    void skip(int bytes)
+    {
+        if (bytes > buffer.remaining())
+        {
+            throw new BufferUnderflowException();
+        }
+
+        buffer.position(buffer.position() + bytes);
+    }
+
+    private String readUTF8(int length)
+    {
+        if (buffer.hasArray())
+        {
+            int offset = buffer.arrayOffset() + buffer.position();
+            skip(length);
+            return new String(buffer.array(), offset, length, UTF_8);
+        }
+
+        if (scratch.length < length)
+        {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+
+        buffer.get(scratch, 0, length);
+        return new String(scratch, 0, length, UTF_8);
+    }
+
+    static long unZigZag(long value)
+    {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places.data;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import tech.sirwellington.alchemy.annotations.access.Internal;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadUnsafe;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Writes the primitives of the binary place format into a growable, reusable buffer.
+ * <p>
+ * Integers are written as varints. Strings are either written literally, or as <i>symbols</i>, which are
+ * written once and then referred to by index, so that repeated values such as icon URLs cost a byte or two.
+ *
+ * @see BinaryDecoder
+ * @author SirWellington
+ */
+@Internal
+@ThreadUnsafe
+final class BinaryEncoder
+{
+
+    /** Symbol tables stop growing past this size, so that long streams use bounded memory. */
+    static final int MAX_SYMBOLS = 1 << 16;
+
+    private byte[] buffer;
+    private int size;
+    private final Map<String, Integer> symbols = new HashMap<>();
+
+    BinaryEncoder()
+    {
+        this(256);
+    }
+
+    BinaryEncoder(int initialCapacity)
+    {
+        this.buffer = new byte[initialCapacity];
+    }
+
+    /**
+     * Discards the bytes written so far, but keeps the symbol table.
+     */
+    void reset()
+    {
+        size = 0;
+    }
+
+    /**
+     * Forgets all symbols written so far.
+     */
+    void resetSymbols()
+    {
+        symbols.clear();
+    }
+
+    int size()
+    {
+        return size;
+    }
+
+    byte[] toByteArray()
+    {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    void writeTo(OutputStream out) throws IOException
+    {
+        out.write(buffer, 0, size);
+    }
+
+    void writeByte(int value)
+    {
+        ensureCapacity(1);
+        buffer[size++] = (byte) value;
+    }
+
+    void writeBytes(byte[] bytes)
+    {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+    }
+
+    void writeInt(int value)
+    {
+        ensureCapacity(4);
+        buffer[size++] = (byte) (value >>> 24);
+        buffer[size++] = (byte) (value >>> 16);
+        buffer[size++] = (byte) (value >>> 8);
+        buffer[size++] = (byte) value;
+    }
+
+    void writeLong(long value)
+    {
+        writeInt((int) (value >>> 32));
+        writeInt((int) value);
+    }
+
+    void writeDouble(double value)
+    {
+        writeLong(Double.doubleToLongBits(value));
+    }
+
+    /**
+     * Writes an unsigned variable-length integer, using 7 bits per byte.
+     */
+    void writeVarLong(long value)
+    {
+        ensureCapacity(10);
+
+        while ((value & ~0x7FL) != 0)
+        {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        buffer[size++] = (byte) value;
+    }
+
+    void writeVarInt(int value)
+    {
+        writeVarLong(value & 0xFFFFFFFFL);
+    }
+
+    void writeBoolean(boolean value)
+    {
+        writeByte(value ? 1 : 0);
+    }
+
+    void writeNullableBoolean(Boolean value)
+    {
+        writeByte(value == null ? 0 : value ? 2 : 1);
+    }
+
+    void writeNullableInt(Integer value)
+    {
+        if (value == null)
+        {
+            writeVarLong(0);
+        }
+        else
+        {
+            writeVarLong(zigZag(value) + 1);
+        }
+    }
+
+    void writeNullableLong(Long value)
+    {
+        writeBoolean(value != null);
+
+        if (value != null)
+        {
+            writeVarLong(zigZag(value));
+        }
+    }
+
+    void writeNullableDouble(Double value)
+    {
+        writeBoolean(value != null);
+
+        if (value != null)
+        {
+            writeDouble(value);
+        }
+    }
+
+    /**
+     * Writes a size, where {@code -1} represents {@code null}.
+     */
+    void writeSize(int size)
+    {
+        writeVarInt(size + 1);
+    }
+
+    void writeString(String value)
+    {
+        if (value == null)
+        {
+            writeVarInt(0);
+            return;
+        }
+
+        byte[] bytes = value.getBytes(UTF_8);
+        writeVarInt(bytes.length + 1);
+        writeBytes(bytes);
+    }
+
+    /**
+     * Writes a string that is likely to repeat. The first occurrence is written literally, and later
+     * occurrences only by reference. Callers {@linkplain #resetSymbols() reset the symbols} at every record
+     * boundary, so that a reader which skips part of a record cannot misread the records that follow it.
+     */
+    void writeSymbol(String value)
+    {
+        if (value == null)
+        {
+            writeVarInt(0);
+            return;
+        }
+
+        Integer index = symbols.get(value);
+
+        if (index != null)
+        {
+            writeVarInt(index + 2);
+            return;
+        }
+
+        if (symbols.size() < MAX_SYMBOLS)
+        {
+            symbols.put(value, symbols.size());
+        }
+
+        byte[] bytes = value.getBytes(UTF_8);
+        writeVarInt(1);
+        writeVarInt(bytes.length);
+        writeBytes(bytes);
+    }
+
+    private void ensureCapacity(int additional)
+    {
+        int required = size + additional;
+
+        if (required > buffer.length)
+        {
+            buffer = Arrays.copyOf(buffer, Math.max(required, buffer.length * 2));
+        }
+    }
+
+    static long zigZag(long value)
+    {
+        return (value << 1) ^ (value >> 63);
+    }
+
+}
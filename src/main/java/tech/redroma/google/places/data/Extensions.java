@@ -31,8 +31,10 @@ public enum Extensions
     @SerializedName("review_summary")
     REVIEW_SUMMARY;
 
+    private final String text = this.toString().toLowerCase();
+
     public String asText()
     {
-        return this.toString().toLowerCase();
+        return text;
     }
 }
@@ -0,0 +1,364 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package tech.redroma.google.places.data;
+
+import java.util.Objects;
+import tech.sirwellington.alchemy.annotations.arguments.Required;
+import tech.sirwellington.alchemy.annotations.concurrency.Immutable;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadSafe;
+
+import static com.google.common.base.Strings.isNullOrEmpty;
+import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
+import static tech.sirwellington.alchemy.arguments.assertions.Assertions.notNull;
+
+/**
+ * A compact, immutable copy of a {@link Place}, that can be kept in a cache and shared between threads without
+ * copying.
+ * <p>
+ * The geometry is kept as plain coordinates, the price level as a single byte, and the types as a {@link TypeSet}.
+ * Photos and opening hours are not kept; look them up with a Place Details request when they are needed.
+ * <p>
+ * To create an instance, see {@link #copyOf(Place) }.
+ *
+ * @see #copyOf(Place)
+ * @author SirWellington
+ */
+@Immutable
+@ThreadSafe
+public final class ImmutablePlace
+{
+
+    private static final byte NO_PRICE_LEVEL = -1;
+
+    private final String placeId;
+    private final String name;
+    private final String iconURL;
+    private final String vicinity;
+    private final String formattedAddress;
+
+    /** The location and viewport of the place, or NaN where the place has none. */
+    private final double latitude;
+    private final double longitude;
+    private final double northEastLatitude;
+    private final double northEastLongitude;
+    private final double southWestLatitude;
+    private final double southWestLongitude;
+
+    /** NaN if the place has no rating. */
+    private final double rating;
+
+    /** {@link #NO_PRICE_LEVEL} if the place has no price level. */
+    private final byte priceLevel;
+
+    private final boolean permanentlyClosed;
+
+    private final TypeSet types;
+
+    private ImmutablePlace(Place place)
+    {
+        this.placeId = place.placeId;
+        this.name = place.name;
+        this.iconURL = place.iconURL;
+        this.vicinity = place.vicinity;
+        this.formattedAddress = place.formattedAddress;
+
+        Location location = place.hasGeometry() ? place.geometry.location : null;
+        Viewport viewport = place.hasGeometry() ? place.geometry.viewport : null;
+        Location northEast = viewport != null ? viewport.northEast : null;
+        Location southWest = viewport != null ? viewport.southWest : null;
+
+        this.latitude = latitudeOf(location);
+        this.longitude = longitudeOf(location);
+        this.northEastLatitude = latitudeOf(northEast);
+        this.northEastLongitude = longitudeOf(northEast);
+        this.southWestLatitude = latitudeOf(southWest);
+        this.southWestLongitude = longitudeOf(southWest);
+
+        this.rating = place.hasRating() ? place.rating : Double.NaN;
+        this.priceLevel = place.hasPriceLevel() ? (byte) place.priceLevel.value : NO_PRICE_LEVEL;
+        this.permanentlyClosed = place.isPermanentlyClosed();
+        this.types = TypeSet.copyOf(place.types);
+    }
+
+    /**
+     * Creates a compact, immutable copy of a {@link Place}.
+     *
+     * @param place The place to copy.
+     * @return
+     * @throws IllegalArgumentException
+     */
+    public static ImmutablePlace copyOf(@Required Place place) throws IllegalArgumentException
+    {
+        checkThat(place).is(notNull());
+
+        return new ImmutablePlace(place);
+    }
+
+    static double latitudeOf(Location location)
+    {
+        return location != null ? location.latitude : Double.NaN;
+    }
+
+    static double longitudeOf(Location location)
+    {
+        return location != null ? location.longitude : Double.NaN;
+    }
+
+    static Viewport viewportOf(double northEastLatitude,
+                               double northEastLongitude,
+                               double southWestLatitude,
+                               double southWestLongitude)
+    {
+        if (Double.isNaN(northEastLatitude) && Double.isNaN(southWestLatitude))
+        {
+            return null;
+        }
+
+        Viewport viewport = new Viewport();
+
+        if (!Double.isNaN(northEastLatitude))
+        {
+            viewport.northEast = new Location(northEastLatitude, northEastLongitude);
+        }
+
+        if (!Double.isNaN(southWestLatitude))
+        {
+            viewport.southWest = new Location(southWestLatitude, southWestLongitude);
+        }
+
+        return viewport;
+    }
+
+    public String getPlaceId()
+    {
+        return placeId;
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public String getIconURL()
+    {
+        return iconURL;
+    }
+
+    public String getVicinity()
+    {
+        return vicinity;
+    }
+
+    public String getFormattedAddress()
+    {
+        return formattedAddress;
+    }
+
+    public boolean hasLocation()
+    {
+        return !Double.isNaN(latitude);
+    }
+
+    public double getLatitude()
+    {
+        return latitude;
+    }
+
+    public double getLongitude()
+    {
+        return longitude;
+    }
+
+    /**
+     * @return A new {@link Location} for this place, or null if it has none.
+     */
+    public Location getLocation()
+    {
+        return hasLocation() ? new Location(latitude, longitude) : null;
+    }
+
+    public boolean hasViewport()
+    {
+        return !Double.isNaN(northEastLatitude) || !Double.isNaN(southWestLatitude);
+    }
+
+    /**
+     * @return A new {@link Viewport} for this place, or null if it has none.
+     */
+    public Viewport getViewport()
+    {
+        return viewportOf(northEastLatitude, northEastLongitude, southWestLatitude, southWestLongitude);
+    }
+
+    public boolean hasRating()
+    {
+        return !Double.isNaN(rating);
+    }
+
+    /**
+     * @return The rating of the place, from 1.0 to 5.0, or NaN if it has none.
+     */
+    public double getRating()
+    {
+        return rating;
+    }
+
+    public boolean hasPriceLevel()
+    {
+        return priceLevel != NO_PRICE_LEVEL;
+    }
+
+    /**
+     * @return The price level of the place, or null if it has none.
+     */
+    public PriceLevel getPriceLevel()
+    {
+        return hasPriceLevel() ? PriceLevel.fromValue(priceLevel) : null;
+    }
+
+    public boolean isPermanentlyClosed()
+    {
+        return permanentlyClosed;
+    }
+
+    public boolean hasTypes()
+    {
+        return !types.isEmpty();
+    }
+
+    /**
+     * @return The known types of this place.
+     */
+    public TypeSet getTypes()
+    {
+        return types;
+    }
+
+    public boolean hasIcon()
+    {
+        return !isNullOrEmpty(iconURL);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        int hash = 7;
+        hash = 29 * hash + Objects.hashCode(this.placeId);
+        hash = 29 * hash + Objects.hashCode(this.name);
+        hash = 29 * hash + Objects.hashCode(this.iconURL);
+        hash = 29 * hash + Objects.hashCode(this.vicinity);
+        hash = 29 * hash + Objects.hashCode(this.formattedAddress);
+        hash = 29 * hash + Double.hashCode(this.latitude);
+        hash = 29 * hash + Double.hashCode(this.longitude);
+        hash = 29 * hash + Double.hashCode(this.northEastLatitude);
+        hash = 29 * hash + Double.hashCode(this.northEastLongitude);
+        hash = 29 * hash + Double.hashCode(this.southWestLatitude);
+        hash = 29 * hash + Double.hashCode(this.southWestLongitude);
+        hash = 29 * hash + Double.hashCode(this.rating);
+        hash = 29 * hash + this.priceLevel;
+        hash = 29 * hash + (this.permanentlyClosed ? 1 : 0);
+        hash = 29 * hash + Objects.hashCode(this.types);
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj)
+        {
+            return true;
+        }
+        if (obj == null)
+        {
+            return false;
+        }
+        if (getClass() != obj.getClass())
+        {
+            return false;
+        }
+        final ImmutablePlace other = (ImmutablePlace) obj;
+        if (Double.compare(this.latitude, other.latitude) != 0)
+        {
+            return false;
+        }
+        if (Double.compare(this.longitude, other.longitude) != 0)
+        {
+            return false;
+        }
+        if (Double.compare(this.northEastLatitude, other.northEastLatitude) != 0)
+        {
+            return false;
+        }
+        if (Double.compare(this.northEastLongitude, other.northEastLongitude) != 0)
+        {
+            return false;
+        }
+        if (Double.compare(this.southWestLatitude, other.southWestLatitude) != 0)
+        {
+            return false;
+        }
+        if (Double.compare(this.southWestLongitude, other.southWestLongitude) != 0)
+        {
+            return false;
+        }
+        if (Double.compare(this.rating, other.rating) != 0)
+        {
+            return false;
+        }
+        if (this.priceLevel != other.priceLevel)
+        {
+            return false;
+        }
+        if (this.permanentlyClosed != other.permanentlyClosed)
+        {
+            return false;
+        }
+        if (!Objects.equals(this.placeId, other.placeId))
+        {
+            return false;
+        }
+        if (!Objects.equals(this.name, other.name))
+        {
+            return false;
+        }
+        if (!Objects.equals(this.iconURL, other.iconURL))
+        {
+            return false;
+        }
+        if (!Objects.equals(this.vicinity, other.vicinity))
+        {
+            return false;
+        }
+        if (!Objects.equals(this.formattedAddress, other.formattedAddress))
+        {
+            return false;
+        }
+        if (!Objects.equals(this.types, other.types))
+        {
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ImmutablePlace{" + "placeId=" + placeId + ", name=" + name + ", iconURL=" + iconURL + ", vicinity=" + vicinity + ", formattedAddress=" + formattedAddress + ", latitude=" + latitude + ", longitude=" + longitude + ", rating=" + rating + ", priceLevel=" + priceLevel + ", permanentlyClosed=" + permanentlyClosed + ", types=" + types + '}';
+    }
+
+}
@@ -0,0 +1,352 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package tech.redroma.google.places.data;
+
+import java.util.Objects;
+import tech.sirwellington.alchemy.annotations.arguments.Required;
+import tech.sirwellington.alchemy.annotations.concurrency.Immutable;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadSafe;
+
+import static tech.redroma.google.places.data.ImmutablePlace.latitudeOf;
+import static tech.redroma.google.places.data.ImmutablePlace.longitudeOf;
+import static tech.redroma.google.places.data.ImmutablePlace.viewportOf;
+import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
+import static tech.sirwellington.alchemy.arguments.assertions.Assertions.notNull;
+
+/**
+ * A compact, immutable copy of {@link PlaceDetails}, that can be kept in a cache and shared between threads without
+ * copying.
+ * <p>
+ * The geometry is kept as plain coordinates, and the types as a {@link TypeSet}. Address components, opening hours,
+ * photos and reviews are not kept.
+ * <p>
+ * To create an instance, see {@link #copyOf(PlaceDetails) }.
+ *
+ * @see #copyOf(PlaceDetails)
+ * @author SirWellington
+ */
+@Immutable
+@ThreadSafe
+public final class ImmutablePlaceDetails
+{
+
+    private static final int NO_UTC_OFFSET = Integer.MIN_VALUE;
+
+    private final String placeId;
+    private final String name;
+    private final String formattedAddress;
+    private final String formattedPhoneNumber;
+    private final String internationalPhoneNumber;
+    private final String iconURL;
+    private final String url;
+    private final String vicinity;
+    private final String website;
+
+    /** The location and viewport of the place, or NaN where the place has none. */
+    private final double latitude;
+    private final double longitude;
+    private final double northEastLatitude;
+    private final double northEastLongitude;
+    private final double southWestLatitude;
+    private final double southWestLongitude;
+
+    /** NaN if the place has no rating. */
+    private final double rating;
+
+    /** {@link #NO_UTC_OFFSET} if the place has no offset. */
+    private final int utcOffset;
+
+    private final TypeSet types;
+
+    private ImmutablePlaceDetails(PlaceDetails details)
+    {
+        this.placeId = details.placeId;
+        this.name = details.name;
+        this.formattedAddress = details.formattedAddress;
+        this.formattedPhoneNumber = details.formattedPhoneNumber;
+        this.internationalPhoneNumber = details.internationalPhoneNumber;
+        this.iconURL = details.iconURL;
+        this.url = details.url;
+        this.vicinity = details.vicinity;
+        this.website = details.website;
+
+        Geometry geometry = details.geometry;
+        Location location = geometry != null ? geometry.location : null;
+        Viewport viewport = geometry != null ? geometry.viewport : null;
+        Location northEast = viewport != null ? viewport.northEast : null;
+        Location southWest = viewport != null ? viewport.southWest : null;
+
+        this.latitude = latitudeOf(location);
+        this.longitude = longitudeOf(location);
+        this.northEastLatitude = latitudeOf(northEast);
+        this.northEastLongitude = longitudeOf(northEast);
+        this.southWestLatitude = latitudeOf(southWest);
+        this.southWestLongitude = longitudeOf(southWest);
+
+        this.rating = details.rating != null ? details.rating : Double.NaN;
+        this.utcOffset = details.utcOffset != null ? details.utcOffset : NO_UTC_OFFSET;
+        this.types = TypeSet.copyOf(details.types);
+    }
+
+    /**
+     * Creates a compact, immutable copy of {@link PlaceDetails}.
+     *
+     * @param details The details to copy.
+     * @return
+     * @throws IllegalArgumentException
+     */
+    public static ImmutablePlaceDetails copyOf(@Required PlaceDetails details) throws IllegalArgumentException
+    {
+        checkThat(details).is(notNull());
+
+        return new ImmutablePlaceDetails(details);
+    }
+
+    public String getPlaceId()
+    {
+        return placeId;
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public String getFormattedAddress()
+    {
+        return formattedAddress;
+    }
+
+    public String getFormattedPhoneNumber()
+    {
+        return formattedPhoneNumber;
+    }
+
+    public String getInternationalPhoneNumber()
+    {
+        return internationalPhoneNumber;
+    }
+
+    public String getIconURL()
+    {
+        return iconURL;
+    }
+
+    public String getUrl()
+    {
+        return url;
+    }
+
+    public String getVicinity()
+    {
+        return vicinity;
+    }
+
+    public String getWebsite()
+    {
+        return website;
+    }
+
+    public boolean hasLocation()
+    {
+        return !Double.isNaN(latitude);
+    }
+
+    public double getLatitude()
+    {
+        return latitude;
+    }
+
+    public double getLongitude()
+    {
+        return longitude;
+    }
+
+    /**
+     * @return A new {@link Location} for this place, or null if it has none.
+     */
+    public Location getLocation()
+    {
+        return hasLocation() ? new Location(latitude, longitude) : null;
+    }
+
+    /**
+     * @return A new {@link Viewport} for this place, or null if it has none.
+     */
+    public Viewport getViewport()
+    {
+        return viewportOf(northEastLatitude, northEastLongitude, southWestLatitude, southWestLongitude);
+    }
+
+    public boolean hasRating()
+    {
+        return !Double.isNaN(rating);
+    }
+
+    /**
+     * @return The rating of the place, or NaN if it has none.
+     */
+    public double getRating()
+    {
+        return rating;
+    }
+
+    public boolean hasUtcOffset()
+    {
+        return utcOffset != NO_UTC_OFFSET;
+    }
+
+    /**
+     * @return The offset of the place from UTC, in minutes. Only meaningful if {@link #hasUtcOffset() }.
+     */
+    public int getUtcOffset()
+    {
+        return utcOffset;
+    }
+
+    /**
+     * @return The known types of this place.
+     */
+    public TypeSet getTypes()
+    {
+        return types;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        int hash = 5;
+        hash = 71 * hash + Objects.hashCode(this.placeId);
+        hash = 71 * hash + Objects.hashCode(this.name);
+        hash = 71 * hash + Objects.hashCode(this.formattedAddress);
+        hash = 71 * hash + Objects.hashCode(this.formattedPhoneNumber);
+        hash = 71 * hash + Objects.hashCode(this.internationalPhoneNumber);
+        hash = 71 * hash + Objects.hashCode(this.iconURL);
+        hash = 71 * hash + Objects.hashCode(this.url);
+        hash = 71 * hash + Objects.hashCode(this.vicinity);
+        hash = 71 * hash + Objects.hashCode(this.website);
+        hash = 71 * hash + Double.hashCode(this.latitude);
+        hash = 71 * hash + Double.hashCode(this.longitude);
+        hash = 71 * hash + Double.hashCode(this.northEastLatitude);
+        hash = 71 * hash + Double.hashCode(this.northEastLongitude);
+        hash = 71 * hash + Double.hashCode(this.southWestLatitude);
+        hash = 71 * hash + Double.hashCode(this.southWestLongitude);
+        hash = 71 * hash + Double.hashCode(this.rating);
+        hash = 71 * hash + this.utcOffset;
+        hash = 71 * hash + Objects.hashCode(this.types);
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj)
+        {
+            return true;
+        }
+        if (obj == null)
+        {
+            return false;
+        }
+        if (getClass() != obj.getClass())
+        {
+            return false;
+        }
+        final ImmutablePlaceDetails other = (ImmutablePlaceDetails) obj;
+        if (Double.compare(this.latitude, other.latitude) != 0)
+        {
+            return false;
+        }
+        if (Double.compare(this.longitude, other.longitude) != 0)
+        {
+            return false;
+        }
+        if (Double.compare(this.northEastLatitude, other.northEastLatitude) != 0)
+        {
+            return false;
+        }
+        if (Double.compare(this.northEastLongitude, other.northEastLongitude) != 0)
+        {
+            return false;
+        }
+        if (Double.compare(this.southWestLatitude, other.southWestLatitude) != 0)
+        {
+            return false;
+        }
+        if (Double.compare(this.southWestLongitude, other.southWestLongitude) != 0)
+        {
+            return false;
+        }
+        if (Double.compare(this.rating, other.rating) != 0)
+        {
+            return false;
+        }
+        if (this.utcOffset != other.utcOffset)
+        {
+            return false;
+        }
+        if (!Objects.equals(this.placeId, other.placeId))
+        {
+            return false;
+        }
+        if (!Objects.equals(this.name, other.name))
+        {
+            return false;
+        }
+        if (!Objects.equals(this.formattedAddress, other.formattedAddress))
+        {
+            return false;
+        }
+        if (!Objects.equals(this.formattedPhoneNumber, other.formattedPhoneNumber))
+        {
+            return false;
+        }
+        if (!Objects.equals(this.internationalPhoneNumber, other.internationalPhoneNumber))
+        {
+            return false;
+        }
+        if (!Objects.equals(this.iconURL, other.iconURL))
+        {
+            return false;
+        }
+        if (!Objects.equals(this.url, other.url))
+        {
+            return false;
+        }
+        if (!Objects.equals(this.vicinity, other.vicinity))
+        {
+            return false;
+        }
+        if (!Objects.equals(this.website, other.website))
+        {
+            return false;
+        }
+        if (!Objects.equals(this.types, other.types))
+        {
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ImmutablePlaceDetails{" + "placeId=" + placeId + ", name=" + name + ", formattedAddress=" + formattedAddress + ", formattedPhoneNumber=" + formattedPhoneNumber + ", internationalPhoneNumber=" + internationalPhoneNumber + ", iconURL=" + iconURL + ", url=" + url + ", vicinity=" + vicinity + ", website=" + website + ", latitude=" + latitude + ", longitude=" + longitude + ", rating=" + rating + ", utcOffset=" + utcOffset + ", types=" + types + '}';
+    }
+
+}
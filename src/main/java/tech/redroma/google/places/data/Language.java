@@ -17,6 +17,9 @@
 package tech.redroma.google.places.data;
 
 import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSerializer;
 import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -158,4 +161,23 @@ public enum Language
             }
         };
     }
+
+    /**
+     * Writes a {@link Language} as its {@linkplain #code code}, so that it can be read back by
+     * {@link #createDeserializer() }.
+     *
+     * @return
+     */
+    public static JsonSerializer<Language> createSerializer()
+    {
+        return (language, type, context) ->
+        {
+            if (language == null)
+            {
+                return JsonNull.INSTANCE;
+            }
+
+            return new JsonPrimitive(language.code);
+        };
+    }
 }
@@ -0,0 +1,627 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places.data;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Objects;
+import tech.sirwellington.alchemy.annotations.arguments.Optional;
+import tech.sirwellington.alchemy.annotations.arguments.Required;
+import tech.sirwellington.alchemy.annotations.concurrency.Immutable;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadSafe;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadUnsafe;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
+import static tech.sirwellington.alchemy.arguments.assertions.Assertions.notNull;
+import static tech.sirwellington.alchemy.arguments.assertions.StringAssertions.nonEmptyString;
+
+/**
+ * A read-only store of {@link PlaceDetails}, looked up by {@linkplain PlaceDetails#getPlaceId() Place ID}.
+ * <p>
+ * The store is a single file which is memory-mapped when opened. Records stay in their compact binary form off the
+ * Java heap, and are looked up through a hash index that also lives in the file, so opening a store is near-instant
+ * regardless of its size, and the heap only holds the records that are actually in use.
+ * <p>
+ * Lookups return a {@link PlaceView}, which decodes fields from the file as they are requested.
+ *
+ * <pre>
+ * try (MappedPlaceStore.Writer writer = MappedPlaceStore.writer(path))
+ * {
+ *     writer.addAll(details);
+ * }
+ *
+ * MappedPlaceStore store = MappedPlaceStore.open(path);
+ * MappedPlaceStore.PlaceView place = store.get(placeId);
+ * </pre>
+ *
+ * @author SirWellington
+ */
+@ThreadSafe
+public final class MappedPlaceStore implements Closeable
+{
+
+    /*
+     * File layout:
+     *
+     *   preamble (64 bytes) | snapshot header | records | index
+     *
+     * Records never straddle a segment boundary, so each can be read from a single mapped buffer. The index is an
+     * open-addressing hash table of 16-byte slots, each holding the hash of a Place ID and the offset of its record.
+     * An offset of 0 marks an empty slot.
+     */
+
+    private static final int MAGIC = 0x47504D53;
+    private static final int VERSION = 1;
+    private static final int PREAMBLE_SIZE = 64;
+    private static final int SLOT_SIZE = 16;
+    private static final int DEFAULT_SEGMENT_SHIFT = 30;
+
+    private final ByteBuffer[] segments;
+    private final int segmentShift;
+    private final long segmentMask;
+    private final long count;
+    private final long indexOffset;
+    private final long slotMask;
+    private final PlaceBinaryCodec codec;
+    private volatile boolean closed;
+
+    private MappedPlaceStore(ByteBuffer[] segments, int segmentShift, long count, long indexOffset, long slots) throws IOException
+    {
+        this.segments = segments;
+        this.segmentShift = segmentShift;
+        this.segmentMask = (1L << segmentShift) - 1;
+        this.count = count;
+        this.indexOffset = indexOffset;
+        this.slotMask = slots - 1;
+
+        try
+        {
+            this.codec = PlaceBinaryCodec.readHeader(decoderAt(PREAMBLE_SIZE), PlaceBinaryCodec.PLACE_DETAILS);
+        }
+        catch (RuntimeException ex)
+        {
+            throw new IOException("Corrupt place store header", ex);
+        }
+    }
+
+    /**
+     * Opens a store previously created with a {@link Writer}.
+     *
+     * @param file The store file.
+     * @return
+     * @throws IOException If the file cannot be read, or is not a place store.
+     * @throws IllegalArgumentException
+     */
+    public static MappedPlaceStore open(@Required Path file) throws IOException, IllegalArgumentException
+    {
+        checkThat(file).is(notNull());
+
+        try (FileChannel channel = FileChannel.open(file, READ))
+        {
+            long size = channel.size();
+
+            if (size < PREAMBLE_SIZE)
+            {
+                throw new IOException("Not a place store: " + file);
+            }
+
+            ByteBuffer preamble = channel.map(FileChannel.MapMode.READ_ONLY, 0, PREAMBLE_SIZE);
+
+            if (preamble.getInt(0) != MAGIC)
+            {
+                throw new IOException("Not a place store: " + file);
+            }
+
+            int version = preamble.getInt(4);
+
+            if (version > VERSION)
+            {
+                throw new IOException("Unsupported place store version: " + version + ". Latest supported: " + VERSION);
+            }
+
+            int segmentShift = preamble.getInt(8);
+            long count = preamble.getLong(16);
+            long indexOffset = preamble.getLong(24);
+            long slots = preamble.getLong(32);
+
+            if (segmentShift < 10 || segmentShift > 30 || Long.bitCount(slots) != 1 || indexOffset + slots * SLOT_SIZE != size)
+            {
+                throw new IOException("Corrupt place store: " + file);
+            }
+
+            return new MappedPlaceStore(map(channel, FileChannel.MapMode.READ_ONLY, size, segmentShift),
+                                        segmentShift,
+                                        count,
+                                        indexOffset,
+                                        slots);
+        }
+    }
+
+    /**
+     * Creates a {@link Writer} that builds a new store at {@code file}, replacing any existing file.
+     *
+     * @param file The file to create.
+     * @return
+     * @throws IOException
+     * @throws IllegalArgumentException
+     */
+    public static Writer writer(@Required Path file) throws IOException, IllegalArgumentException
+    {
+        return new Writer(file, DEFAULT_SEGMENT_SHIFT);
+    }
+
+    /**
+     * Looks up a place.
+     *
+     * @param placeId The Place ID to look up.
+     * @return A view of the place, or {@code null} if it is not in the store.
+     * @throws IllegalArgumentException If {@code placeId} is empty.
+     * @throws IllegalStateException If the store has been closed.
+     */
+    public PlaceView get(@Required String placeId) throws IllegalArgumentException, IllegalStateException
+    {
+        checkThat(placeId)
+            .usingMessage("placeId cannot be empty")
+            .is(nonEmptyString());
+
+        checkOpen();
+
+        long offset = find(placeId);
+
+        return offset > 0 ? new PlaceView(offset) : null;
+    }
+
+    /**
+     * Looks up a place, and decodes all of its details.
+     *
+     * @param placeId The Place ID to look up.
+     * @return The details of the place, or {@code null} if it is not in the store.
+     * @throws IllegalArgumentException If {@code placeId} is empty.
+     * @throws IllegalStateException If the store has been closed.
+     */
+    public PlaceDetails getDetails(@Required String placeId) throws IllegalArgumentException, IllegalStateException
+    {
+        PlaceView view = get(placeId);
+        return view != null ? view.toPlaceDetails() : null;
+    }
+
+    public boolean contains(@Required String placeId) throws IllegalArgumentException, IllegalStateException
+    {
+        return get(placeId) != null;
+    }
+
+    /**
+     * @return The number of distinct places in the store.
+     */
+    public long size()
+    {
+        return count;
+    }
+
+    /**
+     * Closes the store. Views obtained from the store can no longer be read afterwards.
+     * <p>
+     * The mapped memory itself is released once it is garbage collected.
+     */
+    @Override
+    public void close()
+    {
+        closed = true;
+        Arrays.fill(segments, null);
+    }
+
+    private long find(String placeId)
+    {
+        byte[] key = placeId.getBytes(UTF_8);
+        long hash = hash(key);
+
+        for (long slot = hash & slotMask; ; slot = (slot + 1) & slotMask)
+        {
+            long position = indexOffset + slot * SLOT_SIZE;
+            long offset = getLong(position + 8);
+
+            if (offset == 0)
+            {
+                return -1;
+            }
+
+            if (getLong(position) == hash && decoderAt(offset).readStringEquals(key))
+            {
+                return offset;
+            }
+        }
+    }
+
+    private long getLong(long position)
+    {
+        return segment(position).getLong((int) (position & segmentMask));
+    }
+
+    private BinaryDecoder decoderAt(long position)
+    {
+        ByteBuffer buffer = segment(position).duplicate();
+        buffer.position((int) (position & segmentMask));
+        return new BinaryDecoder(buffer);
+    }
+
+    private ByteBuffer segment(long position)
+    {
+        ByteBuffer segment = segments[(int) (position >>> segmentShift)];
+
+        if (segment == null)
+        {
+            throw new IllegalStateException("Place store is closed");
+        }
+
+        return segment;
+    }
+
+    private void checkOpen()
+    {
+        if (closed)
+        {
+            throw new IllegalStateException("Place store is closed");
+        }
+    }
+
+    private static MappedByteBuffer[] map(FileChannel channel, FileChannel.MapMode mode, long size, int segmentShift) throws IOException
+    {
+        long segmentSize = 1L << segmentShift;
+        int count = (int) ((size + segmentSize - 1) >>> segmentShift);
+        MappedByteBuffer[] segments = new MappedByteBuffer[Math.max(count, 1)];
+
+        for (int i = 0; i < segments.length; ++i)
+        {
+            long start = i * segmentSize;
+            segments[i] = channel.map(mode, start, Math.min(segmentSize, size - start));
+        }
+
+        return segments;
+    }
+
+    /**
+     * 64-bit FNV-1a. Place IDs are random enough that this spreads well, and it needs no allocation.
+     */
+    static long hash(byte[] key)
+    {
+        long hash = 0xcbf29ce484222325L;
+
+        for (byte b : key)
+        {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+
+        //Slots are chosen by the low bits, so fold the high bits into them
+        return hash ^ (hash >>> 32);
+    }
+
+    /**
+     * A lightweight view of a place in a {@link MappedPlaceStore}. Each field is decoded from the store when it is
+     * requested, so reading the name of a place does not decode its reviews or photos.
+     */
+    @Immutable
+    @ThreadSafe
+    public final class PlaceView
+    {
+
+        private final long offset;
+
+        private PlaceView(long offset)
+        {
+            this.offset = offset;
+        }
+
+        public String getPlaceId()
+        {
+            return decoderAt(offset).readString();
+        }
+
+        public String getName()
+        {
+            BinaryDecoder in = decoderAt(offset);
+            in.skipString();
+            return in.readString();
+        }
+
+        /**
+         * @return The location of the place, or {@code null} if it has none.
+         */
+        @Optional
+        public Location getLocation()
+        {
+            BinaryDecoder in = decoderAt(offset);
+
+            //placeId, name, id, reference
+            in.skipString();
+            in.skipString();
+            in.skipString();
+            in.skipString();
+            //iconURL
+            in.readSymbol();
+
+            Geometry geometry = codec.readGeometry(in);
+            return geometry != null ? geometry.location : null;
+        }
+
+        /**
+         * Decodes all of the details of this place. Each call returns a new copy.
+         *
+         * @return
+         */
+        public PlaceDetails toPlaceDetails()
+        {
+            return PlaceBinaryCodec.PLACE_DETAILS.read(codec, decoderAt(offset));
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(System.identityHashCode(MappedPlaceStore.this), offset);
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (this == obj)
+            {
+                return true;
+            }
+
+            if (obj == null || getClass() != obj.getClass())
+            {
+                return false;
+            }
+
+            final PlaceView other = (PlaceView) obj;
+            return this.offset == other.offset && store() == other.store();
+        }
+
+        @Override
+        public String toString()
+        {
+            return "PlaceView{" + "placeId=" + getPlaceId() + ", offset=" + offset + '}';
+        }
+
+        private MappedPlaceStore store()
+        {
+            return MappedPlaceStore.this;
+        }
+
+    }
+
+    /**
+     * Builds a {@link MappedPlaceStore} file. Records are streamed to disk as they are added, and the index is
+     * written when the writer is closed. If the same Place ID is added more than once, the last record wins.
+     */
+    @ThreadUnsafe
+    public static final class Writer implements Closeable
+    {
+
+        private final FileChannel channel;
+        private final OutputStream out;
+        private final int segmentShift;
+        private final long segmentSize;
+        private final BinaryEncoder encoder = new BinaryEncoder(4 * 1024);
+
+        private long position;
+        private long[] hashes = new long[1024];
+        private long[] offsets = new long[1024];
+        private int added;
+        private boolean closed;
+
+        Writer(Path file, int segmentShift) throws IOException
+        {
+            checkThat(file).is(notNull());
+
+            this.channel = FileChannel.open(file, CREATE, TRUNCATE_EXISTING, READ, WRITE);
+            this.out = new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024);
+            this.segmentShift = segmentShift;
+            this.segmentSize = 1L << segmentShift;
+
+            write(new byte[PREAMBLE_SIZE]);
+
+            PlaceBinaryCodec.writeHeader(encoder, PlaceBinaryCodec.PLACE_DETAILS);
+            write(encoder.toByteArray());
+        }
+
+        /**
+         * Adds a place to the store.
+         *
+         * @param details The place to add. It must have a Place ID.
+         * @throws IOException
+         * @throws IllegalArgumentException If {@code details} has no Place ID.
+         */
+        public void add(@Required PlaceDetails details) throws IOException, IllegalArgumentException
+        {
+            checkThat(details).is(notNull());
+            checkThat(details.placeId)
+                .usingMessage("placeId cannot be empty")
+                .is(nonEmptyString());
+
+            if (closed)
+            {
+                throw new IllegalStateException("Writer is closed");
+            }
+
+            encoder.reset();
+            encoder.resetSymbols();
+            PlaceBinaryCodec.PLACE_DETAILS.write(PlaceBinaryCodec.CURRENT, encoder, details);
+
+            if (encoder.size() > segmentSize)
+            {
+                throw new IOException("Place is too large to store: " + details.placeId);
+            }
+
+            long remainingInSegment = segmentSize - (position & (segmentSize - 1));
+
+            if (encoder.size() > remainingInSegment)
+            {
+                pad(remainingInSegment);
+            }
+
+            if (added == offsets.length)
+            {
+                hashes = Arrays.copyOf(hashes, added * 2);
+                offsets = Arrays.copyOf(offsets, added * 2);
+            }
+
+            hashes[added] = hash(details.placeId.getBytes(UTF_8));
+            offsets[added] = position;
+            ++added;
+
+            encoder.writeTo(out);
+            position += encoder.size();
+        }
+
+        public void addAll(@Required Iterable<? extends PlaceDetails> details) throws IOException, IllegalArgumentException
+        {
+            checkThat(details).is(notNull());
+
+            for (PlaceDetails place : details)
+            {
+                add(place);
+            }
+        }
+
+        /**
+         * Writes the index and completes the store.
+         *
+         * @throws IOException
+         */
+        @Override
+        public void close() throws IOException
+        {
+            if (closed)
+            {
+                return;
+            }
+
+            closed = true;
+
+            try
+            {
+                pad(-position & (SLOT_SIZE - 1));
+                out.flush();
+
+                long indexOffset = position;
+                long slots = Long.highestOneBit(Math.max(added, 1) * 2L - 1) << 1;
+                long size = indexOffset + slots * SLOT_SIZE;
+
+                MappedByteBuffer[] segments = map(channel, FileChannel.MapMode.READ_WRITE, size, segmentShift);
+                long distinct = writeIndex(segments, indexOffset, slots);
+
+                ByteBuffer preamble = segments[0];
+                preamble.putInt(0, MAGIC);
+                preamble.putInt(4, VERSION);
+                preamble.putInt(8, segmentShift);
+                preamble.putLong(16, distinct);
+                preamble.putLong(24, indexOffset);
+                preamble.putLong(32, slots);
+
+                for (MappedByteBuffer segment : segments)
+                {
+                    segment.force();
+                }
+            }
+            finally
+            {
+                channel.close();
+            }
+        }
+
+        private long writeIndex(ByteBuffer[] segments, long indexOffset, long slots)
+        {
+            long mask = slots - 1;
+            long segmentMask = segmentSize - 1;
+            long distinct = 0;
+
+            for (int i = 0; i < added; ++i)
+            {
+                long hash = hashes[i];
+                long offset = offsets[i];
+
+                for (long slot = hash & mask; ; slot = (slot + 1) & mask)
+                {
+                    long position = indexOffset + slot * SLOT_SIZE;
+                    ByteBuffer segment = segments[(int) (position >>> segmentShift)];
+                    int index = (int) (position & segmentMask);
+                    long existing = segment.getLong(index + 8);
+
+                    if (existing == 0)
+                    {
+                        segment.putLong(index, hash);
+                        segment.putLong(index + 8, offset);
+                        ++distinct;
+                        break;
+                    }
+
+                    if (segment.getLong(index) == hash && samePlaceId(segments, existing, offset))
+                    {
+                        segment.putLong(index + 8, offset);
+                        break;
+                    }
+                }
+            }
+
+            return distinct;
+        }
+
+        private boolean samePlaceId(ByteBuffer[] segments, long first, long second)
+        {
+            return Objects.equals(readPlaceId(segments, first), readPlaceId(segments, second));
+        }
+
+        private String readPlaceId(ByteBuffer[] segments, long offset)
+        {
+            ByteBuffer buffer = segments[(int) (offset >>> segmentShift)].duplicate();
+            buffer.position((int) (offset & (segmentSize - 1)));
+            return new BinaryDecoder(buffer).readString();
+        }
+
+        private void pad(long bytes) throws IOException
+        {
+            for (long i = 0; i < bytes; ++i)
+            {
+                out.write(0);
+            }
+
+            position += bytes;
+        }
+
+        private void write(byte[] bytes) throws IOException
+        {
+            out.write(bytes);
+            position += bytes.length;
+        }
+
+    }
+
+}
@@ -17,7 +17,9 @@
 package tech.redroma.google.places.data;
 
 import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonNull;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonSerializer;
 import com.google.gson.annotations.SerializedName;
 import java.util.List;
 import java.util.Objects;
@@ -148,6 +150,17 @@ public class OpeningHours
         private Integer day;
         private String time;
 
+        public Period()
+        {
+        }
+
+        Period(Boolean open, Integer day, String time)
+        {
+            this.open = open;
+            this.day = day;
+            this.time = time;
+        }
+
         public Boolean getOpen()
         {
             return open;
@@ -262,6 +275,44 @@ public class OpeningHours
                 };
         }
 
+        /**
+         * Writes a {@link Period} in the shape expected by {@link #createDeserializer() }.
+         *
+         * @return
+         */
+        public static JsonSerializer<Period> createSerializer()
+        {
+            return (period, type, context) ->
+                {
+                    if (period == null)
+                    {
+                        return JsonNull.INSTANCE;
+                    }
+
+                    JsonObject object = new JsonObject();
+
+                    if (period.open == null)
+                    {
+                        return object;
+                    }
+
+                    JsonObject periodObject = new JsonObject();
+
+                    if (period.day != null)
+                    {
+                        periodObject.addProperty("day", period.day);
+                    }
+
+                    if (period.time != null)
+                    {
+                        periodObject.addProperty("time", period.time);
+                    }
+
+                    object.add(period.open ? "open" : "closed", periodObject);
+                    return object;
+                };
+        }
+
     }
 
 }
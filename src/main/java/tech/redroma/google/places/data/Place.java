@@ -20,6 +20,7 @@ import com.google.gson.annotations.SerializedName;
 import java.util.List;
 import java.util.Objects;
 import sir.wellington.alchemy.collections.lists.Lists;
+import tech.sirwellington.alchemy.annotations.arguments.Required;
 import tech.sirwellington.alchemy.annotations.concurrency.Mutable;
 import tech.sirwellington.alchemy.annotations.concurrency.ThreadUnsafe;
 import tech.sirwellington.alchemy.annotations.objects.Pojo;
@@ -106,6 +107,11 @@ public final class Place
      */
     public List<Types.ReturnedPlaceType> types;
 
+    /**
+     * A frozen copy of {@link #types}, which keeps its {@link TypeSet}, made again only if the list is replaced.
+     */
+    private transient List<Types.ReturnedPlaceType> frozenTypes;
+
     /**
      * Contains a feature name of a nearby location. Often this feature refers to a street or neighborhood within the given
      * results. The vicinity property is only returned for a NearbySearchRequest.
@@ -188,6 +194,42 @@ public final class Place
     {
         return !Lists.isEmpty(types);
     }
+
+    /**
+     * @return The known {@linkplain #types types} of this place. Unknown types are left out. The set is made once per
+     *         list, so replace {@link #types} rather than changing it in place.
+     */
+    public TypeSet getTypeSet()
+    {
+        List<Types.ReturnedPlaceType> frozen = TypeSet.freeze(frozenTypes, types);
+        frozenTypes = frozen;
+        return TypeSet.copyOf(frozen);
+    }
+
+    public boolean hasType(Types.ReturnedPlaceType type)
+    {
+        return getTypeSet().contains(type);
+    }
+
+    /**
+     * @param types The types to look for; see {@link TypeSet#of(Types.ReturnedPlaceType...) }.
+     * @return True if this place has at least one of the given types.
+     * @throws IllegalArgumentException
+     */
+    public boolean hasAnyType(@Required TypeSet types) throws IllegalArgumentException
+    {
+        return getTypeSet().containsAny(types);
+    }
+
+    /**
+     * @param types The types to look for; see {@link TypeSet#of(Types.ReturnedPlaceType...) }.
+     * @return True if this place has every one of the given types.
+     * @throws IllegalArgumentException
+     */
+    public boolean hasAllTypes(@Required TypeSet types) throws IllegalArgumentException
+    {
+        return getTypeSet().containsAll(types);
+    }
     
     public boolean hasVicinity()
     {
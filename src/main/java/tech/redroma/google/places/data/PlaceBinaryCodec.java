@@ -0,0 +1,647 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places.data;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import tech.sirwellington.alchemy.annotations.access.Internal;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadSafe;
+
+/**
+ * Defines the compact binary format used to store {@link Place} and {@link PlaceDetails} snapshots.
+ * <p>
+ * A snapshot begins with a header:
+ * <pre>
+ *   magic (4 bytes) | version (varint) | record kind (1 byte) | enum dictionaries
+ * </pre>
+ * The enum dictionaries list the names of every {@link Types.ReturnedPlaceType}, {@link Language} and {@link PriceLevel}
+ * known to the writer. Records refer to enum values by their index in these dictionaries, so snapshots remain readable
+ * after enum values are added or reordered; values unknown to the reader are decoded as {@code null}.
+ * <p>
+ * Fields are written in a fixed order. New fields may only be appended to the end of a top-level record, which older
+ * readers then skip.
+ * <p>
+ * Strings written as symbols are only referenced from within the record that introduced them; writers and readers
+ * reset their symbol tables at every record boundary. A reader that skips an appended field therefore never loses
+ * track of the symbols used by later records. Version 1 snapshots shared a single symbol table across the whole
+ * stream, and are still read that way.
+ *
+ * @author SirWellington
+ */
+@Internal
+@ThreadSafe
+final class PlaceBinaryCodec
+{
+
+    static final int MAGIC = 0x47504C53;
+    static final int VERSION = 2;
+
+    /** The first version whose symbol tables are scoped to a single record. */
+    private static final int RECORD_SYMBOLS_VERSION = 2;
+
+    static final RecordType<Place> PLACES = new RecordType<>(1,
+                                                             (codec, out, place) -> codec.writePlace(out, place),
+                                                             (codec, in) -> codec.readPlace(in));
+
+    static final RecordType<PlaceDetails> PLACE_DETAILS = new RecordType<>(2,
+                                                                           (codec, out, details) -> codec.writePlaceDetails(out, details),
+                                                                           (codec, in) -> codec.readPlaceDetails(in));
+
+    /** Writes using the enum values of this version of the library. */
+    static final PlaceBinaryCodec CURRENT = new PlaceBinaryCodec(VERSION,
+                                                                 Types.ReturnedPlaceType.values(),
+                                                                 Language.values(),
+                                                                 PriceLevel.values());
+
+    private final int version;
+    private final Types.ReturnedPlaceType[] placeTypes;
+    private final Language[] languages;
+    private final PriceLevel[] priceLevels;
+
+    private PlaceBinaryCodec(int version, Types.ReturnedPlaceType[] placeTypes, Language[] languages, PriceLevel[] priceLevels)
+    {
+        this.version = version;
+        this.placeTypes = placeTypes;
+        this.languages = languages;
+        this.priceLevels = priceLevels;
+    }
+
+    //==========================================
+    // Header
+    //==========================================
+
+    static void writeHeader(BinaryEncoder out, RecordType<?> type)
+    {
+        out.writeInt(MAGIC);
+        out.writeVarInt(VERSION);
+        out.writeByte(type.kind);
+
+        writeDictionary(out, Types.ReturnedPlaceType.values());
+        writeDictionary(out, Language.values());
+        writeDictionary(out, PriceLevel.values());
+    }
+
+    /**
+     * Reads and validates a header, returning a codec that understands the writer's enum dictionaries.
+     */
+    static PlaceBinaryCodec readHeader(BinaryDecoder in, RecordType<?> expectedType) throws IOException
+    {
+        int magic = in.readInt();
+
+        if (magic != MAGIC)
+        {
+            throw new IOException("Not a place snapshot. Unexpected magic number: " + Integer.toHexString(magic));
+        }
+
+        int version = in.readVarInt();
+
+        if (version > VERSION)
+        {
+            throw new IOException("Unsupported snapshot version: " + version + ". Latest supported: " + VERSION);
+        }
+
+        int kind = in.readByte();
+
+        if (kind != expectedType.kind)
+        {
+            throw new IOException("Unexpected record kind: " + kind + ". Expected: " + expectedType.kind);
+        }
+
+        Types.ReturnedPlaceType[] placeTypes = readDictionary(in, Types.ReturnedPlaceType.class);
+        Language[] languages = readDictionary(in, Language.class);
+        PriceLevel[] priceLevels = readDictionary(in, PriceLevel.class);
+
+        return new PlaceBinaryCodec(version, placeTypes, languages, priceLevels);
+    }
+
+    /**
+     * @return True if the symbol table must be reset before each record is read; false if it spans the whole stream,
+     * as in version 1 snapshots.
+     */
+    boolean hasRecordScopedSymbols()
+    {
+        return version >= RECORD_SYMBOLS_VERSION;
+    }
+
+    private static void writeDictionary(BinaryEncoder out, Enum<?>[] values)
+    {
+        out.writeVarInt(values.length);
+
+        for (Enum<?> value : values)
+        {
+            out.writeString(value.name());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Enum<E>> E[] readDictionary(BinaryDecoder in, Class<E> enumClass)
+    {
+        int size = in.readVarInt();
+        E[] values = (E[]) java.lang.reflect.Array.newInstance(enumClass, size);
+
+        for (int i = 0; i < size; ++i)
+        {
+            String name = in.readString();
+
+            try
+            {
+                values[i] = Enum.valueOf(enumClass, name);
+            }
+            catch (IllegalArgumentException | NullPointerException ex)
+            {
+                values[i] = null;
+            }
+        }
+
+        return values;
+    }
+
+    //==========================================
+    // Place
+    //==========================================
+
+    void writePlace(BinaryEncoder out, Place place)
+    {
+        out.writeString(place.placeId);
+        out.writeString(place.name);
+        out.writeSymbol(place.iconURL);
+        writeGeometry(out, place.geometry);
+        writeOpeningHours(out, place.openingHours);
+        writeList(out, place.photos, this::writePhoto);
+        out.writeNullableDouble(place.rating);
+        writeEnum(out, place.priceLevel);
+        writeList(out, place.types, this::writeEnum);
+        out.writeString(place.vicinity);
+        out.writeString(place.formattedAddress);
+        out.writeNullableBoolean(place.permanentlyClosed);
+    }
+
+    Place readPlace(BinaryDecoder in)
+    {
+        Place place = new Place();
+
+        place.placeId = in.readString();
+        place.name = in.readString();
+        place.iconURL = in.readSymbol();
+        place.geometry = readGeometry(in);
+        place.openingHours = readOpeningHours(in);
+        place.photos = readList(in, this::readPhoto);
+        place.rating = in.readNullableDouble();
+        place.priceLevel = readEnum(in, priceLevels);
+        place.types = TypeSet.freeze(readList(in, this::readPlaceType));
+        place.vicinity = in.readString();
+        place.formattedAddress = in.readString();
+        place.permanentlyClosed = in.readNullableBoolean();
+
+        return place;
+    }
+
+    //==========================================
+    // Place Details
+    //==========================================
+
+    void writePlaceDetails(BinaryEncoder out, PlaceDetails details)
+    {
+        out.writeString(details.placeId);
+        out.writeString(details.name);
+        out.writeString(details.id);
+        out.writeString(details.reference);
+        out.writeSymbol(details.iconURL);
+        writeGeometry(out, details.geometry);
+        writeList(out, details.addressComponents, this::writeAddressComponent);
+        out.writeString(details.formattedAddress);
+        out.writeString(details.formattedPhoneNumber);
+        out.writeString(details.internationalPhoneNumber);
+        writeOpeningHours(out, details.openingHours);
+        writeList(out, details.photos, this::writePhoto);
+        out.writeNullableInt(details.rating);
+        writeList(out, details.reviews, this::writeReview);
+        writeList(out, details.types, this::writeEnum);
+        out.writeString(details.url);
+        out.writeNullableInt(details.utcOffset);
+        out.writeString(details.vicinity);
+        out.writeString(details.website);
+    }
+
+    PlaceDetails readPlaceDetails(BinaryDecoder in)
+    {
+        PlaceDetails details = new PlaceDetails();
+
+        details.placeId = in.readString();
+        details.name = in.readString();
+        details.id = in.readString();
+        details.reference = in.readString();
+        details.iconURL = in.readSymbol();
+        details.geometry = readGeometry(in);
+        details.addressComponents = readList(in, this::readAddressComponent);
+        details.formattedAddress = in.readString();
+        details.formattedPhoneNumber = in.readString();
+        details.internationalPhoneNumber = in.readString();
+        details.openingHours = readOpeningHours(in);
+        details.photos = readList(in, this::readPhoto);
+        details.rating = in.readNullableInt();
+        details.reviews = readList(in, this::readReview);
+        details.types = TypeSet.freeze(readList(in, this::readPlaceType));
+        details.url = in.readString();
+        details.utcOffset = in.readNullableInt();
+        details.vicinity = in.readString();
+        details.website = in.readString();
+
+        return details;
+    }
+
+    private void writeAddressComponent(BinaryEncoder out, PlaceDetails.AddressComponent component)
+    {
+        if (!writePresence(out, component))
+        {
+            return;
+        }
+
+        out.writeSymbol(component.longName);
+        out.writeSymbol(component.shortName);
+        writeList(out, component.types, this::writeEnum);
+    }
+
+    private PlaceDetails.AddressComponent readAddressComponent(BinaryDecoder in)
+    {
+        if (!in.readBoolean())
+        {
+            return null;
+        }
+
+        PlaceDetails.AddressComponent component = new PlaceDetails.AddressComponent();
+        component.longName = in.readSymbol();
+        component.shortName = in.readSymbol();
+        component.types = TypeSet.freeze(readList(in, this::readPlaceType));
+
+        return component;
+    }
+
+    //==========================================
+    // Reviews
+    //==========================================
+
+    void writeReview(BinaryEncoder out, Review review)
+    {
+        if (!writePresence(out, review))
+        {
+            return;
+        }
+
+        out.writeSymbol(review.authorName);
+        out.writeSymbol(review.authorURL);
+        writeEnum(out, review.language);
+        out.writeSymbol(review.authorPhotoURL);
+        out.writeNullableInt(review.rating);
+        out.writeSymbol(review.relativeTimeDescription);
+        out.writeString(review.text);
+        out.writeNullableLong(review.time);
+        writeList(out, review.aspects, this::writeAspectRating);
+    }
+
+    Review readReview(BinaryDecoder in)
+    {
+        if (!in.readBoolean())
+        {
+            return null;
+        }
+
+        Review review = new Review();
+        review.authorName = in.readSymbol();
+        review.authorURL = in.readSymbol();
+        review.language = readEnum(in, languages);
+        review.authorPhotoURL = in.readSymbol();
+        review.rating = in.readNullableInt();
+        review.relativeTimeDescription = in.readSymbol();
+        review.text = in.readString();
+        review.time = in.readNullableLong();
+        review.aspects = readList(in, this::readAspectRating);
+
+        return review;
+    }
+
+    private void writeAspectRating(BinaryEncoder out, Review.AspectRating aspect)
+    {
+        if (!writePresence(out, aspect))
+        {
+            return;
+        }
+
+        out.writeNullableInt(aspect.rating);
+        out.writeSymbol(aspect.aspect);
+    }
+
+    private Review.AspectRating readAspectRating(BinaryDecoder in)
+    {
+        if (!in.readBoolean())
+        {
+            return null;
+        }
+
+        Review.AspectRating aspect = new Review.AspectRating();
+        aspect.rating = in.readNullableInt();
+        aspect.aspect = in.readSymbol();
+
+        return aspect;
+    }
+
+    //==========================================
+    // Photos
+    //==========================================
+
+    void writePhoto(BinaryEncoder out, Photo photo)
+    {
+        if (!writePresence(out, photo))
+        {
+            return;
+        }
+
+        out.writeString(photo.photoReference);
+        out.writeNullableInt(photo.width);
+        out.writeNullableInt(photo.height);
+        writeList(out, photo.htmlAttributions, BinaryEncoder::writeSymbol);
+    }
+
+    Photo readPhoto(BinaryDecoder in)
+    {
+        if (!in.readBoolean())
+        {
+            return null;
+        }
+
+        Photo photo = new Photo();
+        photo.photoReference = in.readString();
+        photo.width = in.readNullableInt();
+        photo.height = in.readNullableInt();
+        photo.htmlAttributions = readList(in, BinaryDecoder::readSymbol);
+
+        return photo;
+    }
+
+    //==========================================
+    // Opening Hours
+    //==========================================
+
+    void writeOpeningHours(BinaryEncoder out, OpeningHours hours)
+    {
+        if (!writePresence(out, hours))
+        {
+            return;
+        }
+
+        out.writeNullableBoolean(hours.openNow);
+        writeList(out, hours.weekdayText, BinaryEncoder::writeSymbol);
+        writeList(out, hours.periods, this::writePeriod);
+    }
+
+    OpeningHours readOpeningHours(BinaryDecoder in)
+    {
+        if (!in.readBoolean())
+        {
+            return null;
+        }
+
+        OpeningHours hours = new OpeningHours();
+        hours.openNow = in.readNullableBoolean();
+        hours.weekdayText = readList(in, BinaryDecoder::readSymbol);
+        hours.periods = readList(in, this::readPeriod);
+
+        return hours;
+    }
+
+    private void writePeriod(BinaryEncoder out, OpeningHours.Period period)
+    {
+        if (!writePresence(out, period))
+        {
+            return;
+        }
+
+        out.writeNullableBoolean(period.getOpen());
+        out.writeNullableInt(period.getDay());
+        out.writeSymbol(period.getTime());
+    }
+
+    private OpeningHours.Period readPeriod(BinaryDecoder in)
+    {
+        if (!in.readBoolean())
+        {
+            return null;
+        }
+
+        Boolean open = in.readNullableBoolean();
+        Integer day = in.readNullableInt();
+        String time = in.readSymbol();
+
+        return new OpeningHours.Period(open, day, time);
+    }
+
+    //==========================================
+    // Geometry
+    //==========================================
+
+    void writeGeometry(BinaryEncoder out, Geometry geometry)
+    {
+        if (!writePresence(out, geometry))
+        {
+            return;
+        }
+
+        writeLocation(out, geometry.location);
+
+        Viewport viewport = geometry.viewport;
+
+        if (writePresence(out, viewport))
+        {
+            writeLocation(out, viewport.northEast);
+            writeLocation(out, viewport.southWest);
+        }
+    }
+
+    Geometry readGeometry(BinaryDecoder in)
+    {
+        if (!in.readBoolean())
+        {
+            return null;
+        }
+
+        Geometry geometry = new Geometry();
+        geometry.location = readLocation(in);
+
+        if (in.readBoolean())
+        {
+            Viewport viewport = new Viewport();
+            viewport.northEast = readLocation(in);
+            viewport.southWest = readLocation(in);
+            geometry.viewport = viewport;
+        }
+
+        return geometry;
+    }
+
+    private void writeLocation(BinaryEncoder out, Location location)
+    {
+        if (!writePresence(out, location))
+        {
+            return;
+        }
+
+        out.writeDouble(location.latitude);
+        out.writeDouble(location.longitude);
+    }
+
+    private Location readLocation(BinaryDecoder in)
+    {
+        if (!in.readBoolean())
+        {
+            return null;
+        }
+
+        Location location = new Location();
+        location.latitude = in.readDouble();
+        location.longitude = in.readDouble();
+
+        return location;
+    }
+
+    //==========================================
+    // Common
+    //==========================================
+
+    private static boolean writePresence(BinaryEncoder out, Object value)
+    {
+        boolean present = value != null;
+        out.writeBoolean(present);
+        return present;
+    }
+
+    /**
+     * Enums are always written using the {@linkplain #CURRENT current} dictionary, which is the one written to the header.
+     */
+    private void writeEnum(BinaryEncoder out, Enum<?> value)
+    {
+        out.writeVarInt(value == null ? 0 : value.ordinal() + 1);
+    }
+
+    private static <E> E readEnum(BinaryDecoder in, E[] dictionary)
+    {
+        int code = in.readVarInt();
+
+        if (code == 0 || code > dictionary.length)
+        {
+            return null;
+        }
+
+        return dictionary[code - 1];
+    }
+
+    private Types.ReturnedPlaceType readPlaceType(BinaryDecoder in)
+    {
+        return readEnum(in, placeTypes);
+    }
+
+    private static <E> void writeList(BinaryEncoder out, List<E> list, ElementWriter<E> writer)
+    {
+        if (list == null)
+        {
+            out.writeSize(-1);
+            return;
+        }
+
+        out.writeSize(list.size());
+
+        for (E element : list)
+        {
+            writer.write(out, element);
+        }
+    }
+
+    private static <E> List<E> readList(BinaryDecoder in, ElementReader<E> reader)
+    {
+        int size = in.readSize();
+
+        if (size < 0)
+        {
+            return null;
+        }
+
+        List<E> list = new ArrayList<>(size);
+
+        for (int i = 0; i < size; ++i)
+        {
+            list.add(reader.read(in));
+        }
+
+        return Collections.unmodifiableList(list);
+    }
+
+    @FunctionalInterface
+    private interface ElementWriter<E>
+    {
+        void write(BinaryEncoder out, E element);
+    }
+
+    @FunctionalInterface
+    private interface ElementReader<E>
+    {
+        E read(BinaryDecoder in);
+    }
+
+    /**
+     * A kind of top-level record that can be stored in a snapshot.
+     *
+     * @param <T> The type of the record.
+     */
+    static final class RecordType<T>
+    {
+
+        final int kind;
+        private final Writer<T> writer;
+        private final Reader<T> reader;
+
+        private RecordType(int kind, Writer<T> writer, Reader<T> reader)
+        {
+            this.kind = kind;
+            this.writer = writer;
+            this.reader = reader;
+        }
+
+        void write(PlaceBinaryCodec codec, BinaryEncoder out, T value)
+        {
+            writer.write(codec, out, value);
+        }
+
+        T read(PlaceBinaryCodec codec, BinaryDecoder in)
+        {
+            return reader.read(codec, in);
+        }
+
+        @FunctionalInterface
+        private interface Writer<T>
+        {
+            void write(PlaceBinaryCodec codec, BinaryEncoder out, T value);
+        }
+
+        @FunctionalInterface
+        private interface Reader<T>
+        {
+            T read(PlaceBinaryCodec codec, BinaryDecoder in);
+        }
+    }
+
+}
@@ -20,6 +20,7 @@ import com.google.gson.annotations.SerializedName;
 import java.util.List;
 import java.util.Objects;
 import sir.wellington.alchemy.collections.lists.Lists;
+import tech.sirwellington.alchemy.annotations.arguments.Required;
 import tech.sirwellington.alchemy.annotations.concurrency.Mutable;
 import tech.sirwellington.alchemy.annotations.concurrency.ThreadUnsafe;
 import tech.sirwellington.alchemy.annotations.objects.Pojo;
@@ -68,6 +69,9 @@ public final class PlaceDetails
     
     List<Types.ReturnedPlaceType> types;
     
+    /** A frozen copy of {@link #types}, which keeps its {@link TypeSet}, made again only if the list is replaced. */
+    private transient List<Types.ReturnedPlaceType> frozenTypes;
+    
     String url;
     
     Integer utcOffset;
@@ -84,7 +88,7 @@ public final class PlaceDetails
         }
         else        
         {
-            return Lists.immutableCopyOf(addressComponents);
+            return addressComponents;
         }
     }
     
@@ -136,7 +140,7 @@ public final class PlaceDetails
         }
         else        
         {
-            return Lists.immutableCopyOf(photos);
+            return photos;
         }
     }
     
@@ -163,7 +167,7 @@ public final class PlaceDetails
         }
         else        
         {
-            return Lists.immutableCopyOf(reviews);
+            return reviews;
         }
     }
     
@@ -175,6 +179,41 @@ public final class PlaceDetails
             .collect(toList());
     }
     
+    /**
+     * @return The known {@linkplain #getTypes() types} of this place. Unknown types are left out.
+     */
+    public TypeSet getTypeSet()
+    {
+        List<Types.ReturnedPlaceType> frozen = TypeSet.freeze(frozenTypes, types);
+        frozenTypes = frozen;
+        return TypeSet.copyOf(frozen);
+    }
+
+    public boolean hasType(Types.ReturnedPlaceType type)
+    {
+        return getTypeSet().contains(type);
+    }
+
+    /**
+     * @param types The types to look for; see {@link TypeSet#of(Types.ReturnedPlaceType...) }.
+     * @return True if this place has at least one of the given types.
+     * @throws IllegalArgumentException
+     */
+    public boolean hasAnyType(@Required TypeSet types) throws IllegalArgumentException
+    {
+        return getTypeSet().containsAny(types);
+    }
+
+    /**
+     * @param types The types to look for; see {@link TypeSet#of(Types.ReturnedPlaceType...) }.
+     * @return True if this place has every one of the given types.
+     * @throws IllegalArgumentException
+     */
+    public boolean hasAllTypes(@Required TypeSet types) throws IllegalArgumentException
+    {
+        return getTypeSet().containsAll(types);
+    }
+
     public String getUrl()
     {
         return url;
@@ -362,7 +401,14 @@ public final class PlaceDetails
         
         public List<Types.ReturnedPlaceType> getTypes()
         {
-            return Lists.immutableCopyOf(types);
+            if (Lists.isEmpty(types))
+            {
+                return Lists.emptyList();
+            }
+            else
+            {
+                return types;
+            }
         }
         
         @Override
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package tech.redroma.google.places.data;
+
+/**
+ * The fields of a {@link PlaceDetails} that can be requested, so that Google returns, and the client reads, only those.
+ *
+ * @see tech.redroma.google.places.requests.GetPlaceDetailsRequest.Builder#withFields(PlaceField...)
+ * @see <a href="https://developers.google.com/places/web-service/details#fields">Place Details Fields</a>
+ * @author SirWellington
+ */
+public enum PlaceField
+{
+    ADDRESS_COMPONENTS("address_component", "address_components", Group.BASIC),
+    FORMATTED_ADDRESS("formatted_address", Group.BASIC),
+    FORMATTED_PHONE_NUMBER("formatted_phone_number", Group.CONTACT),
+    GEOMETRY("geometry", Group.BASIC),
+    ICON("icon", Group.BASIC),
+    ID("id", Group.BASIC),
+    INTERNATIONAL_PHONE_NUMBER("international_phone_number", Group.CONTACT),
+    NAME("name", Group.BASIC),
+    OPENING_HOURS("opening_hours", Group.CONTACT),
+    PHOTOS("photo", "photos", Group.BASIC),
+    PLACE_ID("place_id", Group.BASIC),
+    RATING("rating", Group.ATMOSPHERE),
+    REFERENCE("reference", Group.BASIC),
+    REVIEWS("review", "reviews", Group.ATMOSPHERE),
+    TYPES("type", "types", Group.BASIC),
+    URL("url", Group.BASIC),
+    UTC_OFFSET("utc_offset", Group.BASIC),
+    VICINITY("vicinity", Group.BASIC),
+    WEBSITE("website", Group.CONTACT);
+
+    /**
+     * The groups that Google bills the fields of a Place Details request by.
+     *
+     * @see <a href="https://developers.google.com/places/web-service/usage-and-billing#data-skus">Data SKUs</a>
+     */
+    public enum Group
+    {
+        /** Included in the price of a Place Details call. */
+        BASIC,
+        /** Billed as Contact Data on top of the call. */
+        CONTACT,
+        /** Billed as Atmosphere Data on top of the call. */
+        ATMOSPHERE
+    }
+
+    private final String text;
+    private final String jsonName;
+    private final Group group;
+
+    private PlaceField(String text, Group group)
+    {
+        this(text, text, group);
+    }
+
+    private PlaceField(String text, String jsonName, Group group)
+    {
+        this.text = text;
+        this.jsonName = jsonName;
+        this.group = group;
+    }
+
+    /**
+     * @return The name of this field in the {@code fields} parameter of a request.
+     */
+    public String asText()
+    {
+        return text;
+    }
+
+    /**
+     * @return The name of this field in the JSON response, which is plural for lists.
+     */
+    public String getJsonName()
+    {
+        return jsonName;
+    }
+
+    /**
+     * @return The group that Google bills this field by.
+     */
+    public Group getGroup()
+    {
+        return group;
+    }
+}
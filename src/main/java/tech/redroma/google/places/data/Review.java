@@ -102,7 +102,14 @@ public final class Review
 
     public List<AspectRating> getAspects()
     {
-        return Lists.copy(aspects);
+        if (Lists.isEmpty(aspects))
+        {
+            return Lists.emptyList();
+        }
+        else
+        {
+            return aspects;
+        }
     }
 
     @Override
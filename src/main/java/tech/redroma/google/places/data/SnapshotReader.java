@@ -0,0 +1,216 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places.data;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+import tech.sirwellington.alchemy.annotations.arguments.Required;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadUnsafe;
+
+import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
+import static tech.sirwellington.alchemy.arguments.assertions.Assertions.notNull;
+
+/**
+ * Streams records back out of a snapshot created by a {@link SnapshotWriter}.
+ * <p>
+ * Only one record is held in memory at a time, so snapshots of any size can be read.
+ *
+ * <pre>
+ * try (SnapshotReader&lt;PlaceDetails&gt; reader = SnapshotReader.forPlaceDetails(in))
+ * {
+ *     reader.forEachRemaining(details -&gt; cache.put(details.getPlaceId(), details));
+ * }
+ * </pre>
+ *
+ * @param <T> The type of record in the snapshot.
+ * @see SnapshotWriter
+ * @author SirWellington
+ */
+@ThreadUnsafe
+public final class SnapshotReader<T> implements Closeable
+{
+
+    private static final int MAX_HEADER_SIZE = 1024 * 1024;
+
+    private final DataInputStream in;
+    private final PlaceBinaryCodec.RecordType<T> type;
+    private final PlaceBinaryCodec codec;
+    private final BinaryDecoder decoder = new BinaryDecoder();
+    private byte[] buffer = new byte[1024];
+
+    SnapshotReader(InputStream in, PlaceBinaryCodec.RecordType<T> type) throws IOException
+    {
+        checkThat(in, type).are(notNull());
+
+        this.in = new DataInputStream(in instanceof BufferedInputStream ? in : new BufferedInputStream(in, 64 * 1024));
+        this.type = type;
+
+        try
+        {
+            this.codec = PlaceBinaryCodec.readHeader(new BinaryDecoder(ByteBuffer.wrap(readHeader())), type);
+        }
+        catch (RuntimeException ex)
+        {
+            throw new IOException("Corrupt snapshot header", ex);
+        }
+    }
+
+    /**
+     * Creates a reader of {@link Place} snapshots.
+     *
+     * @param in The stream to read from. It is closed when the reader is closed.
+     * @return
+     * @throws IOException If the stream does not contain a {@link Place} snapshot.
+     * @throws IllegalArgumentException
+     */
+    public static SnapshotReader<Place> forPlaces(@Required InputStream in) throws IOException, IllegalArgumentException
+    {
+        return new SnapshotReader<>(in, PlaceBinaryCodec.PLACES);
+    }
+
+    /**
+     * Creates a reader of {@link PlaceDetails} snapshots.
+     *
+     * @param in The stream to read from. It is closed when the reader is closed.
+     * @return
+     * @throws IOException If the stream does not contain a {@link PlaceDetails} snapshot.
+     * @throws IllegalArgumentException
+     */
+    public static SnapshotReader<PlaceDetails> forPlaceDetails(@Required InputStream in) throws IOException, IllegalArgumentException
+    {
+        return new SnapshotReader<>(in, PlaceBinaryCodec.PLACE_DETAILS);
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return The next record, or {@code null} if the end of the snapshot has been reached.
+     * @throws IOException If the snapshot is truncated or corrupt.
+     */
+    public T read() throws IOException
+    {
+        int length = readRecordLength();
+
+        if (length < 0)
+        {
+            return null;
+        }
+
+        if (buffer.length < length)
+        {
+            buffer = new byte[Math.max(length, buffer.length * 2)];
+        }
+
+        in.readFully(buffer, 0, length);
+        decoder.reset(ByteBuffer.wrap(buffer, 0, length));
+
+        if (codec.hasRecordScopedSymbols())
+        {
+            decoder.resetSymbols();
+        }
+
+        try
+        {
+            return type.read(codec, decoder);
+        }
+        catch (RuntimeException ex)
+        {
+            throw new IOException("Corrupt snapshot record", ex);
+        }
+    }
+
+    /**
+     * Reads every remaining record, passing each one to {@code action}.
+     *
+     * @param action Called once for each record.
+     * @throws IOException
+     */
+    public void forEachRemaining(@Required Consumer<? super T> action) throws IOException
+    {
+        checkThat(action).is(notNull());
+
+        T next;
+
+        while ((next = read()) != null)
+        {
+            action.accept(next);
+        }
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        in.close();
+    }
+
+    private byte[] readHeader() throws IOException
+    {
+        int length = readRecordLength();
+
+        if (length < 0 || length > MAX_HEADER_SIZE)
+        {
+            throw new IOException("Not a place snapshot. Unexpected header length: " + length);
+        }
+
+        byte[] header = new byte[length];
+        in.readFully(header);
+
+        return header;
+    }
+
+    /**
+     * @return The length of the next record, or {@code -1} at the end of the stream.
+     */
+    private int readRecordLength() throws IOException
+    {
+        int first = in.read();
+
+        if (first < 0)
+        {
+            return -1;
+        }
+
+        long result = first & 0x7F;
+        int b = first;
+
+        for (int shift = 7; (b & 0x80) != 0; shift += 7)
+        {
+            if (shift > 28)
+            {
+                throw new IOException("Corrupt snapshot record length");
+            }
+
+            b = in.read();
+
+            if (b < 0)
+            {
+                throw new EOFException("Snapshot truncated");
+            }
+
+            result |= (long) (b & 0x7F) << shift;
+        }
+
+        return (int) result;
+    }
+
+}
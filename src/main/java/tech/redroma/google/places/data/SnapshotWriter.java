@@ -0,0 +1,162 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places.data;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import tech.sirwellington.alchemy.annotations.arguments.Required;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadUnsafe;
+
+import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
+import static tech.sirwellington.alchemy.arguments.assertions.Assertions.notNull;
+
+/**
+ * Streams {@link Place} or {@link PlaceDetails} records into a compact binary snapshot, which is several times smaller
+ * and much faster to load than the equivalent JSON.
+ * <p>
+ * Records are written one at a time, so snapshots of any size can be written without holding them in memory.
+ * Read snapshots back with a {@link SnapshotReader}.
+ *
+ * <pre>
+ * try (SnapshotWriter&lt;PlaceDetails&gt; writer = SnapshotWriter.forPlaceDetails(out))
+ * {
+ *     writer.writeAll(details);
+ * }
+ * </pre>
+ *
+ * @param <T> The type of record in the snapshot.
+ * @see SnapshotReader
+ * @author SirWellington
+ */
+@ThreadUnsafe
+public final class SnapshotWriter<T> implements Closeable, Flushable
+{
+
+    private final OutputStream out;
+    private final PlaceBinaryCodec.RecordType<T> type;
+    private final BinaryEncoder record = new BinaryEncoder(1024);
+    private final BinaryEncoder lengthPrefix = new BinaryEncoder(8);
+    private long count;
+
+    SnapshotWriter(OutputStream out, PlaceBinaryCodec.RecordType<T> type) throws IOException
+    {
+        checkThat(out, type).are(notNull());
+
+        this.out = out instanceof BufferedOutputStream ? out : new BufferedOutputStream(out, 64 * 1024);
+        this.type = type;
+
+        //The header is framed like a record, so that readers can buffer it before parsing it
+        record.reset();
+        PlaceBinaryCodec.writeHeader(record, type);
+        writeFramed(record);
+    }
+
+    /**
+     * Creates a writer of {@link Place} snapshots.
+     *
+     * @param out The stream to write to. It is closed when the writer is closed.
+     * @return
+     * @throws IOException
+     * @throws IllegalArgumentException
+     */
+    public static SnapshotWriter<Place> forPlaces(@Required OutputStream out) throws IOException, IllegalArgumentException
+    {
+        return new SnapshotWriter<>(out, PlaceBinaryCodec.PLACES);
+    }
+
+    /**
+     * Creates a writer of {@link PlaceDetails} snapshots.
+     *
+     * @param out The stream to write to. It is closed when the writer is closed.
+     * @return
+     * @throws IOException
+     * @throws IllegalArgumentException
+     */
+    public static SnapshotWriter<PlaceDetails> forPlaceDetails(@Required OutputStream out) throws IOException, IllegalArgumentException
+    {
+        return new SnapshotWriter<>(out, PlaceBinaryCodec.PLACE_DETAILS);
+    }
+
+    /**
+     * Appends a record to the snapshot.
+     *
+     * @param value The record to write.
+     * @throws IOException
+     * @throws IllegalArgumentException If {@code value} is null.
+     */
+    public void write(@Required T value) throws IOException, IllegalArgumentException
+    {
+        checkThat(value).is(notNull());
+
+        //Symbols never cross a record boundary, so readers that skip appended fields stay in sync
+        record.reset();
+        record.resetSymbols();
+        type.write(PlaceBinaryCodec.CURRENT, record, value);
+        writeFramed(record);
+
+        ++count;
+    }
+
+    /**
+     * Appends all of the records to the snapshot.
+     *
+     * @param values The records to write.
+     * @throws IOException
+     * @throws IllegalArgumentException
+     */
+    public void writeAll(@Required Iterable<? extends T> values) throws IOException, IllegalArgumentException
+    {
+        checkThat(values).is(notNull());
+
+        for (T value : values)
+        {
+            write(value);
+        }
+    }
+
+    /**
+     * @return The number of records written so far.
+     */
+    public long getCount()
+    {
+        return count;
+    }
+
+    @Override
+    public void flush() throws IOException
+    {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        out.close();
+    }
+
+    private void writeFramed(BinaryEncoder frame) throws IOException
+    {
+        lengthPrefix.reset();
+        lengthPrefix.writeVarInt(frame.size());
+        lengthPrefix.writeTo(out);
+        frame.writeTo(out);
+    }
+
+}
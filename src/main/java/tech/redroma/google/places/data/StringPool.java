@@ -0,0 +1,235 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package tech.redroma.google.places.data;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import tech.sirwellington.alchemy.annotations.arguments.Positive;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadSafe;
+
+import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
+import static tech.sirwellington.alchemy.arguments.assertions.NumberAssertions.greaterThan;
+
+/**
+ * Shares one instance of each distinct String among decoded objects. Values such as icon URLs, opening hours,
+ * address component names and photo attributions repeat across many places, and would otherwise be kept once for
+ * every place that holds them.
+ * <p>
+ * A pool holds at most {@linkplain #getMaximumSize() a fixed number} of Strings. Once full, new values are kept as
+ * they are, so that a pool shared by a long-lived cache cannot grow without bound.
+ * <p>
+ * Register {@link #createTypeAdapterFactory() } with a {@link com.google.gson.GsonBuilder} to pool the Strings of
+ * the {@link Place Places}, {@link PlaceDetails}, {@link OpeningHours} and {@link Photo Photos} it reads.
+ *
+ * @author SirWellington
+ */
+@ThreadSafe
+public final class StringPool
+{
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 100_000;
+
+    private final int maximumSize;
+    private final ConcurrentMap<String, String> strings = new ConcurrentHashMap<>();
+
+    private StringPool(int maximumSize)
+    {
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * @return A pool that holds up to {@link #DEFAULT_MAXIMUM_SIZE} Strings.
+     */
+    public static StringPool create()
+    {
+        return new StringPool(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * @param maximumSize The maximum number of distinct Strings to keep.
+     * @return
+     * @throws IllegalArgumentException
+     */
+    public static StringPool create(@Positive int maximumSize) throws IllegalArgumentException
+    {
+        checkThat(maximumSize).is(greaterThan(0));
+
+        return new StringPool(maximumSize);
+    }
+
+    /**
+     * @param value The String to pool. May be null.
+     * @return The pooled String equal to {@code value}, or {@code value} itself if there is none and the pool is
+     *         full.
+     */
+    public String intern(String value)
+    {
+        if (value == null)
+        {
+            return null;
+        }
+
+        String pooled = strings.get(value);
+
+        if (pooled != null)
+        {
+            return pooled;
+        }
+
+        if (strings.size() >= maximumSize)
+        {
+            return value;
+        }
+
+        pooled = strings.putIfAbsent(value, value);
+        return pooled != null ? pooled : value;
+    }
+
+    /**
+     * @return The number of distinct Strings currently pooled.
+     */
+    public int size()
+    {
+        return strings.size();
+    }
+
+    public int getMaximumSize()
+    {
+        return maximumSize;
+    }
+
+    /**
+     * @return A factory that pools the low-cardinality Strings of each {@link Place}, {@link PlaceDetails},
+     *         {@link PlaceDetails.AddressComponent}, {@link OpeningHours} and {@link Photo} as it is read.
+     */
+    public TypeAdapterFactory createTypeAdapterFactory()
+    {
+        return new InterningTypeAdapterFactory();
+    }
+
+    /**
+     * Lists read by the Places API are unmodifiable, so the pooled values are collected into a new one.
+     */
+    private List<String> internAll(List<String> values)
+    {
+        if (values == null || values.isEmpty())
+        {
+            return values;
+        }
+
+        String[] pooled = new String[values.size()];
+
+        for (int i = 0; i < pooled.length; ++i)
+        {
+            pooled[i] = intern(values.get(i));
+        }
+
+        return Collections.unmodifiableList(Arrays.asList(pooled));
+    }
+
+    /**
+     * Addresses, such as the vicinity, are nearly unique to each place, and would only fill the pool.
+     */
+    private void internStrings(Object value)
+    {
+        if (value instanceof Place)
+        {
+            Place place = (Place) value;
+            place.iconURL = intern(place.iconURL);
+        }
+        else if (value instanceof PlaceDetails)
+        {
+            PlaceDetails details = (PlaceDetails) value;
+            details.iconURL = intern(details.iconURL);
+        }
+        else if (value instanceof PlaceDetails.AddressComponent)
+        {
+            PlaceDetails.AddressComponent component = (PlaceDetails.AddressComponent) value;
+            component.longName = intern(component.longName);
+            component.shortName = intern(component.shortName);
+        }
+        else if (value instanceof OpeningHours)
+        {
+            OpeningHours hours = (OpeningHours) value;
+            hours.weekdayText = internAll(hours.weekdayText);
+        }
+        else if (value instanceof Photo)
+        {
+            Photo photo = (Photo) value;
+            photo.htmlAttributions = internAll(photo.htmlAttributions);
+        }
+    }
+
+    private static boolean isPooled(Class<?> type)
+    {
+        return type == Place.class ||
+               type == PlaceDetails.class ||
+               type == PlaceDetails.AddressComponent.class ||
+               type == OpeningHours.class ||
+               type == Photo.class;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "StringPool{" + "maximumSize=" + maximumSize + ", size=" + strings.size() + '}';
+    }
+
+    private final class InterningTypeAdapterFactory implements TypeAdapterFactory
+    {
+
+        @Override
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type)
+        {
+            if (!isPooled(type.getRawType()))
+            {
+                return null;
+            }
+
+            TypeAdapter<T> delegate = gson.getDelegateAdapter(this, type);
+
+            return new TypeAdapter<T>()
+            {
+                @Override
+                public void write(JsonWriter out, T value) throws IOException
+                {
+                    delegate.write(out, value);
+                }
+
+                @Override
+                public T read(JsonReader in) throws IOException
+                {
+                    T value = delegate.read(in);
+                    internStrings(value);
+                    return value;
+                }
+            };
+        }
+    }
+
+}
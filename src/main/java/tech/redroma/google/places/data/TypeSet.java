@@ -0,0 +1,440 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package tech.redroma.google.places.data;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import tech.sirwellington.alchemy.annotations.arguments.Required;
+import tech.sirwellington.alchemy.annotations.concurrency.Immutable;
+import tech.sirwellington.alchemy.annotations.concurrency.ThreadSafe;
+
+import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
+import static tech.sirwellington.alchemy.arguments.assertions.Assertions.notNull;
+
+/**
+ * An immutable set of {@linkplain Types.ReturnedPlaceType place types}, kept as a bitmask with one bit per type.
+ * Checking whether a place has a type, or any or all of several types, takes a few bitwise operations instead of a
+ * scan of its list of types.
+ * <p>
+ * The types of each {@link Place} and {@link PlaceDetails} read by the Places API are turned into a {@link TypeSet}
+ * once, as they are read; see {@link Place#getTypeSet() }. Unknown types are left out.
+ * <p>
+ * To filter many places at once, create the set of types to look for once, and use {@link #filterAny(Collection) }
+ * or {@link #filterAll(Collection) }:
+ * <pre>
+ * TypeSet food = TypeSet.of(RESTAURANT, CAFE, BAKERY);
+ * List&lt;Place&gt; places = food.filterAny(results);
+ * </pre>
+ *
+ * @author SirWellington
+ */
+@Immutable
+@ThreadSafe
+public final class TypeSet extends AbstractSet<Types.ReturnedPlaceType>
+{
+
+    private static final Types.ReturnedPlaceType[] VALUES = Types.ReturnedPlaceType.values();
+    private static final int WORDS = (VALUES.length + 63) >>> 6;
+
+    /** The set without any types. */
+    public static final TypeSet EMPTY = new TypeSet(new long[WORDS]);
+
+    private final long[] words;
+
+    private TypeSet(long[] words)
+    {
+        this.words = words;
+    }
+
+    /**
+     * @param types The types in the set.
+     * @return
+     */
+    public static TypeSet of(Types.ReturnedPlaceType... types)
+    {
+        if (types == null || types.length == 0)
+        {
+            return EMPTY;
+        }
+
+        long[] words = new long[WORDS];
+
+        for (Types.ReturnedPlaceType type : types)
+        {
+            add(words, type);
+        }
+
+        return new TypeSet(words);
+    }
+
+    /**
+     * @param types The types in the set. Null elements are left out.
+     * @return
+     */
+    public static TypeSet copyOf(Collection<Types.ReturnedPlaceType> types)
+    {
+        if (types instanceof TypeSet)
+        {
+            return (TypeSet) types;
+        }
+
+        if (types instanceof TypeList)
+        {
+            return ((TypeList) types).typeSet;
+        }
+
+        if (types == null || types.isEmpty())
+        {
+            return EMPTY;
+        }
+
+        long[] words = new long[WORDS];
+
+        for (Types.ReturnedPlaceType type : types)
+        {
+            add(words, type);
+        }
+
+        return new TypeSet(words);
+    }
+
+    private static void add(long[] words, Types.ReturnedPlaceType type)
+    {
+        if (type != null)
+        {
+            int ordinal = type.ordinal();
+            words[ordinal >>> 6] |= 1L << ordinal;
+        }
+    }
+
+    /**
+     * Makes an unmodifiable copy of a list of types that keeps its {@link TypeSet}, so that it is only worked out once.
+     */
+    static List<Types.ReturnedPlaceType> freeze(List<Types.ReturnedPlaceType> types)
+    {
+        if (types == null || types instanceof TypeList)
+        {
+            return types;
+        }
+
+        return new TypeList(types.toArray(new Types.ReturnedPlaceType[types.size()]), null);
+    }
+
+    /**
+     * Like {@link #freeze(List) }, but reuses {@code frozen} if it was made from the same list, so that the
+     * {@link TypeSet} of a list that was not read with its types is still only worked out once.
+     *
+     * @param frozen A list returned by an earlier call, or null.
+     * @param types  The list to freeze.
+     */
+    static List<Types.ReturnedPlaceType> freeze(List<Types.ReturnedPlaceType> frozen, List<Types.ReturnedPlaceType> types)
+    {
+        if (frozen instanceof TypeList && ((TypeList) frozen).source == types)
+        {
+            return frozen;
+        }
+
+        if (types == null || types instanceof TypeList)
+        {
+            return types;
+        }
+
+        return new TypeList(types.toArray(new Types.ReturnedPlaceType[types.size()]), types);
+    }
+
+    /**
+     * Creates a factory that reads each list of {@linkplain Types.ReturnedPlaceType place types} with its
+     * {@link TypeSet}, so that {@link Place#getTypeSet() } does not have to work it out again.
+     *
+     * @return
+     */
+    public static TypeAdapterFactory createTypeAdapterFactory()
+    {
+        return new TypeListAdapterFactory();
+    }
+
+    public boolean contains(Types.ReturnedPlaceType type)
+    {
+        if (type == null)
+        {
+            return false;
+        }
+
+        int ordinal = type.ordinal();
+        return (words[ordinal >>> 6] & (1L << ordinal)) != 0;
+    }
+
+    @Override
+    public boolean contains(Object object)
+    {
+        return object instanceof Types.ReturnedPlaceType && contains((Types.ReturnedPlaceType) object);
+    }
+
+    /**
+     * @param types The types to look for.
+     * @return True if this set has at least one of the given types.
+     * @throws IllegalArgumentException
+     */
+    public boolean containsAny(@Required TypeSet types) throws IllegalArgumentException
+    {
+        checkThat(types).is(notNull());
+
+        long common = 0;
+
+        for (int i = 0; i < WORDS; ++i)
+        {
+            common |= words[i] & types.words[i];
+        }
+
+        return common != 0;
+    }
+
+    /**
+     * @param types The types to look for.
+     * @return True if this set has every one of the given types.
+     * @throws IllegalArgumentException
+     */
+    public boolean containsAll(@Required TypeSet types) throws IllegalArgumentException
+    {
+        checkThat(types).is(notNull());
+
+        long missing = 0;
+
+        for (int i = 0; i < WORDS; ++i)
+        {
+            missing |= types.words[i] & ~words[i];
+        }
+
+        return missing == 0;
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> collection)
+    {
+        if (collection instanceof TypeSet)
+        {
+            return containsAll((TypeSet) collection);
+        }
+
+        return super.containsAll(collection);
+    }
+
+    /**
+     * @param places The places to filter. Null places are left out.
+     * @return A new list of the places that have at least one of the types in this set, in their original order.
+     * @throws IllegalArgumentException
+     */
+    public List<Place> filterAny(@Required Collection<Place> places) throws IllegalArgumentException
+    {
+        checkThat(places).is(notNull());
+
+        List<Place> result = new ArrayList<>(places.size());
+
+        for (Place place : places)
+        {
+            if (place != null && place.getTypeSet().containsAny(this))
+            {
+                result.add(place);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @param places The places to filter. Null places are left out.
+     * @return A new list of the places that have every one of the types in this set, in their original order.
+     * @throws IllegalArgumentException
+     */
+    public List<Place> filterAll(@Required Collection<Place> places) throws IllegalArgumentException
+    {
+        checkThat(places).is(notNull());
+
+        List<Place> result = new ArrayList<>(places.size());
+
+        for (Place place : places)
+        {
+            if (place != null && place.getTypeSet().containsAll(this))
+            {
+                result.add(place);
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        for (long word : words)
+        {
+            if (word != 0)
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public int size()
+    {
+        int size = 0;
+
+        for (long word : words)
+        {
+            size += Long.bitCount(word);
+        }
+
+        return size;
+    }
+
+    @Override
+    public Iterator<Types.ReturnedPlaceType> iterator()
+    {
+        return new Iterator<Types.ReturnedPlaceType>()
+        {
+            private int next = nextOrdinal(0);
+
+            @Override
+            public boolean hasNext()
+            {
+                return next >= 0;
+            }
+
+            @Override
+            public Types.ReturnedPlaceType next()
+            {
+                if (next < 0)
+                {
+                    throw new NoSuchElementException();
+                }
+
+                Types.ReturnedPlaceType type = VALUES[next];
+                next = nextOrdinal(next + 1);
+                return type;
+            }
+        };
+    }
+
+    private int nextOrdinal(int from)
+    {
+        int index = from >>> 6;
+
+        if (index >= WORDS)
+        {
+            return -1;
+        }
+
+        long word = words[index] & (-1L << from);
+
+        while (true)
+        {
+            if (word != 0)
+            {
+                return (index << 6) + Long.numberOfTrailingZeros(word);
+            }
+
+            if (++index >= WORDS)
+            {
+                return -1;
+            }
+
+            word = words[index];
+        }
+    }
+
+    /**
+     * A read-only list of types, as they were received, along with their {@link TypeSet}.
+     */
+    private static final class TypeList extends AbstractList<Types.ReturnedPlaceType> implements RandomAccess
+    {
+
+        private final Types.ReturnedPlaceType[] elements;
+        private final TypeSet typeSet;
+        /** The list this was copied from, if it is kept in place of one that may be replaced. */
+        private final List<Types.ReturnedPlaceType> source;
+
+        private TypeList(Types.ReturnedPlaceType[] elements, List<Types.ReturnedPlaceType> source)
+        {
+            this.elements = elements;
+            this.typeSet = TypeSet.of(elements);
+            this.source = source;
+        }
+
+        @Override
+        public Types.ReturnedPlaceType get(int index)
+        {
+            return elements[index];
+        }
+
+        @Override
+        public int size()
+        {
+            return elements.length;
+        }
+    }
+
+    private static final class TypeListAdapterFactory implements TypeAdapterFactory
+    {
+
+        private static final TypeToken<List<Types.ReturnedPlaceType>> TYPE_LIST = new TypeToken<List<Types.ReturnedPlaceType>>() {};
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type)
+        {
+            if (!TYPE_LIST.equals(type))
+            {
+                return null;
+            }
+
+            TypeAdapter<List<Types.ReturnedPlaceType>> delegate = gson.getDelegateAdapter(this, TYPE_LIST);
+
+            return (TypeAdapter<T>) new TypeAdapter<List<Types.ReturnedPlaceType>>()
+            {
+                @Override
+                public void write(JsonWriter out, List<Types.ReturnedPlaceType> value) throws IOException
+                {
+                    delegate.write(out, value);
+                }
+
+                @Override
+                public List<Types.ReturnedPlaceType> read(JsonReader in) throws IOException
+                {
+                    return freeze(delegate.read(in));
+                }
+            };
+        }
+    }
+
+}
@@ -144,9 +144,11 @@ public class Types
         VETERINARY_CARE,
         ZOO;
 
+        private final String text = this.toString().toLowerCase();
+
         public String asText()
         {
-            return this.toString().toLowerCase();
+            return text;
         }
 
         public static PlaceType from(@NonEmpty String string) throws IllegalArgumentException
@@ -299,9 +301,11 @@ public class Types
         SUBLOCALITY_LEVEL_1,
         SUBPREMISE,;
 
+        private final String text = this.toString().toLowerCase();
+
         public String asText()
         {
-            return this.toString().toLowerCase();
+            return text;
         }
 
         public static ReturnedPlaceType from(@NonEmpty String text) throws IllegalArgumentException
@@ -352,21 +356,22 @@ public class Types
      */
     public static enum AutocompleteType
     {
-        GEOCODE,
-        ADDRESS,
-        ESTABLISHMENT,
-        REGIONS,
-        CITIES;
+        GEOCODE("geocode"),
+        ADDRESS("address"),
+        ESTABLISHMENT("establishment"),
+        REGIONS("(regions)"),
+        CITIES("(cities)");
+
+        private final String text;
+
+        private AutocompleteType(String text)
+        {
+            this.text = text;
+        }
 
         public String asText()
         {
-            switch (this)
-            {
-                case REGIONS: return "(regions)";
-                case CITIES : return "(cities)";
-            }
-            
-            return this.toString().toLowerCase();
+            return text;
         }
 
         public static AutocompleteType from(@NonEmpty String string) throws IllegalArgumentException
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places.exceptions;
+
+/**
+ * Thrown instead of calling Google while an endpoint is failing, so that callers fail immediately rather than
+ * waiting on a request that is unlikely to succeed.
+ *
+ * @author SirWellington
+ */
+public class GooglePlacesCircuitOpenException extends GooglePlacesOperationFailedException
+{
+
+    public GooglePlacesCircuitOpenException()
+    {
+    }
+
+    public GooglePlacesCircuitOpenException(String message)
+    {
+        super(message);
+    }
+
+    public GooglePlacesCircuitOpenException(String message, Throwable cause)
+    {
+        super(message, cause);
+    }
+
+    public GooglePlacesCircuitOpenException(Throwable cause)
+    {
+        super(cause);
+    }
+
+}
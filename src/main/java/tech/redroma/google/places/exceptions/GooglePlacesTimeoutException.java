@@ -0,0 +1,47 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places.exceptions;
+
+/**
+ * Thrown when a request does not complete before its {@linkplain tech.redroma.google.places.Deadline deadline}, or
+ * when Google takes too long to respond.
+ *
+ * @author SirWellington
+ */
+public class GooglePlacesTimeoutException extends GooglePlacesOperationFailedException
+{
+
+    public GooglePlacesTimeoutException()
+    {
+    }
+
+    public GooglePlacesTimeoutException(String message)
+    {
+        super(message);
+    }
+
+    public GooglePlacesTimeoutException(String message, Throwable cause)
+    {
+        super(message, cause);
+    }
+
+    public GooglePlacesTimeoutException(Throwable cause)
+    {
+        super(cause);
+    }
+
+}
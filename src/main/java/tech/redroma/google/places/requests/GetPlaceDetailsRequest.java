@@ -17,10 +17,17 @@
 package tech.redroma.google.places.requests;
 
 import com.google.gson.annotations.SerializedName;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import tech.redroma.google.places.data.Extensions;
 import tech.redroma.google.places.data.Language;
 import tech.redroma.google.places.data.Place;
+import tech.redroma.google.places.data.PlaceDetails;
+import tech.redroma.google.places.data.PlaceField;
 import tech.sirwellington.alchemy.annotations.arguments.NonEmpty;
 import tech.sirwellington.alchemy.annotations.arguments.Required;
 import tech.sirwellington.alchemy.annotations.concurrency.Immutable;
@@ -33,6 +40,8 @@ import static tech.sirwellington.alchemy.annotations.designs.patterns.BuilderPat
 import static tech.sirwellington.alchemy.annotations.designs.patterns.BuilderPattern.Role.PRODUCT;
 import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
 import static tech.sirwellington.alchemy.arguments.assertions.Assertions.notNull;
+import static tech.sirwellington.alchemy.arguments.assertions.CollectionAssertions.nonEmptyCollection;
+import static tech.sirwellington.alchemy.arguments.assertions.BooleanAssertions.falseStatement;
 import static tech.sirwellington.alchemy.arguments.assertions.StringAssertions.nonEmptyString;
 
 /**
@@ -55,8 +64,12 @@ public final class GetPlaceDetailsRequest
     public final String placeId;
     public final Extensions extensions;
     public final Language language;
+    /**
+     * The fields of the result to request, or an empty set to request all of them.
+     */
+    public final Set<PlaceField> fields;
 
-    GetPlaceDetailsRequest(String placeId, Extensions extensions, Language language)
+    GetPlaceDetailsRequest(String placeId, Extensions extensions, Language language, Set<PlaceField> fields)
     {
         checkThat(placeId)
             .usingMessage("placeId is required")
@@ -65,6 +78,7 @@ public final class GetPlaceDetailsRequest
         this.placeId = placeId;
         this.extensions = extensions;
         this.language = language;
+        this.fields = fields;
     }
 
     public boolean hasPlaceId()
@@ -82,6 +96,14 @@ public final class GetPlaceDetailsRequest
         return Objects.nonNull(language);
     }
 
+    /**
+     * @return {@code true} if only some fields of the result are requested.
+     */
+    public boolean hasFields()
+    {
+        return fields != null && !fields.isEmpty();
+    }
+
     @Override
     public int hashCode()
     {
@@ -89,6 +111,7 @@ public final class GetPlaceDetailsRequest
         hash = 37 * hash + Objects.hashCode(this.placeId);
         hash = 37 * hash + Objects.hashCode(this.extensions);
         hash = 37 * hash + Objects.hashCode(this.language);
+        hash = 37 * hash + Objects.hashCode(this.fields);
         return hash;
     }
 
@@ -120,13 +143,17 @@ public final class GetPlaceDetailsRequest
         {
             return false;
         }
+        if (!Objects.equals(this.fields, other.fields))
+        {
+            return false;
+        }
         return true;
     }
 
     @Override
     public String toString()
     {
-        return "GetPlaceDetailsRequest{" + "placeId=" + placeId + ", extensions=" + extensions + ", language=" + language + '}';
+        return "GetPlaceDetailsRequest{" + "placeId=" + placeId + ", extensions=" + extensions + ", language=" + language + ", fields=" + fields + '}';
     }
 
     public static Builder newBuilder()
@@ -146,6 +173,7 @@ public final class GetPlaceDetailsRequest
         private String placeId;
         private Extensions extensions;
         private Language language;
+        private final Set<PlaceField> fields = EnumSet.noneOf(PlaceField.class);
 
         public static Builder newInstance()
         {
@@ -207,6 +235,32 @@ public final class GetPlaceDetailsRequest
             return this;
         }
 
+        /**
+         * Requests only some fields of the {@link PlaceDetails}. The others are neither sent by Google nor read by the
+         * client, which makes responses smaller and faster to read. Large fields, such as
+         * {@linkplain PlaceField#REVIEWS reviews} and {@linkplain PlaceField#PHOTOS photos}, are best left out when
+         * they are not needed.
+         * <p>
+         * By default, all fields are requested.
+         *
+         * @param fields The fields to request.
+         * @return
+         * @throws IllegalArgumentException
+         */
+        public Builder withFields(@NonEmpty PlaceField... fields) throws IllegalArgumentException
+        {
+            checkThat(fields).is(notNull());
+
+            List<PlaceField> list = Arrays.asList(fields);
+            checkThat(list).is(nonEmptyCollection());
+            checkThat(list.contains(null))
+                .usingMessage("fields cannot contain null")
+                .is(falseStatement());
+
+            this.fields.addAll(list);
+            return this;
+        }
+
         /**
          * Builds the {@link GetPlaceDetailsRequest} object from the specified information.
          *
@@ -219,7 +273,11 @@ public final class GetPlaceDetailsRequest
                 .usingMessage("placeID is required")
                 .is(nonEmptyString());
 
-            return new GetPlaceDetailsRequest(placeId, extensions, language);
+            Set<PlaceField> fields = this.fields.isEmpty()
+                                     ? Collections.emptySet()
+                                     : Collections.unmodifiableSet(EnumSet.copyOf(this.fields));
+
+            return new GetPlaceDetailsRequest(placeId, extensions, language, fields);
         }
 
     }
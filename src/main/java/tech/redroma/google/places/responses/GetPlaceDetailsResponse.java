@@ -66,6 +66,15 @@ public final class GetPlaceDetailsResponse
         return status;
     }
 
+    /**
+     * @return The {@linkplain #getStatus() status} of this response, or {@code null} if it is missing or not
+     *         recognized.
+     */
+    public PlacesStatus getPlacesStatus()
+    {
+        return PlacesStatus.fromCode(status);
+    }
+
     @Override
     public int hashCode()
     {
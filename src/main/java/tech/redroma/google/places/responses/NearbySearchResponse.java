@@ -62,14 +62,34 @@ public final class NearbySearchResponse
         return nextPageToken;
     }
 
+    /**
+     * @return The attributions to display with the results. The list is unmodifiable, and is not copied.
+     */
     public List<String> getHtmlAttributions()
     {
-        return Lists.immutableCopyOf(htmlAttributions);
+        if (Lists.isEmpty(htmlAttributions))
+        {
+            return Lists.emptyList();
+        }
+        else
+        {
+            return htmlAttributions;
+        }
     }
 
+    /**
+     * @return The places found. The list is unmodifiable, and is not copied.
+     */
     public List<Place> getResults()
     {
-        return Lists.immutableCopyOf(results);
+        if (Lists.isEmpty(results))
+        {
+            return Lists.emptyList();
+        }
+        else
+        {
+            return results;
+        }
     }
 
     public String getStatus()
@@ -77,6 +97,15 @@ public final class NearbySearchResponse
         return status;
     }
 
+    /**
+     * @return The {@linkplain #getStatus() status} of this response, or {@code null} if it is missing or not
+     *         recognized.
+     */
+    public PlacesStatus getPlacesStatus()
+    {
+        return PlacesStatus.fromCode(status);
+    }
+
     @Override
     public int hashCode()
     {
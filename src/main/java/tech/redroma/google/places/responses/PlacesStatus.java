@@ -0,0 +1,129 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places.responses;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import java.io.IOException;
+import java.util.Map;
+import sir.wellington.alchemy.collections.maps.Maps;
+import tech.sirwellington.alchemy.annotations.arguments.Optional;
+import tech.sirwellington.alchemy.annotations.arguments.Required;
+
+import static com.google.common.base.Strings.isNullOrEmpty;
+import static tech.sirwellington.alchemy.arguments.Arguments.checkThat;
+import static tech.sirwellington.alchemy.arguments.assertions.Assertions.notNull;
+
+/**
+ * The {@code status} codes that the Google Places API returns at the top level of every response.
+ * <p>
+ * Google reports most failures with a {@code 200 OK} and one of these codes, so the HTTP status alone is not enough
+ * to tell whether a request succeeded.
+ *
+ * @author SirWellington
+ * @see <a href="https://developers.google.com/places/web-service/search#PlaceSearchStatusCodes">Status Codes</a>
+ */
+public enum PlacesStatus
+{
+    OK(false),
+    /** The request succeeded, but nothing matched it. */
+    ZERO_RESULTS(false),
+    OVER_QUERY_LIMIT(true),
+    OVER_DAILY_LIMIT(true),
+    REQUEST_DENIED(true),
+    INVALID_REQUEST(true),
+    NOT_FOUND(true),
+    UNKNOWN_ERROR(true)
+    ;
+
+    private final boolean error;
+
+    private PlacesStatus(boolean error)
+    {
+        this.error = error;
+    }
+
+    /**
+     * @return Whether this status means the request failed.
+     */
+    public boolean isError()
+    {
+        return error;
+    }
+
+    /**
+     * @param code The value of a {@code status} field, such as {@code "ZERO_RESULTS"}.
+     * @return The matching status, or {@code null} if the code is missing or not recognized.
+     */
+    public static PlacesStatus fromCode(@Optional String code)
+    {
+        if (isNullOrEmpty(code))
+        {
+            return null;
+        }
+
+        return CODE_TO_STATUS.get(code);
+    }
+
+    /**
+     * Reads the top-level {@code status} field of a response, without reading the rest of it. Every other field is
+     * skipped over as it is encountered, and reading stops as soon as the status is found.
+     *
+     * @param reader Positioned at the start of the response.
+     * @return The status of the response, or {@code null} if it does not have a recognized one.
+     * @throws IOException If the response is not a JSON object, or cannot be read.
+     */
+    public static PlacesStatus readFrom(@Required JsonReader reader) throws IOException
+    {
+        checkThat(reader).is(notNull());
+
+        if (reader.peek() != JsonToken.BEGIN_OBJECT)
+        {
+            return null;
+        }
+
+        reader.beginObject();
+
+        while (reader.hasNext())
+        {
+            String name = reader.nextName();
+
+            if ("status".equals(name) && reader.peek() == JsonToken.STRING)
+            {
+                return fromCode(reader.nextString());
+            }
+
+            reader.skipValue();
+        }
+
+        return null;
+    }
+
+    private final static Map<String, PlacesStatus> CODE_TO_STATUS = createMapping();
+
+    private static Map<String, PlacesStatus> createMapping()
+    {
+        Map<String, PlacesStatus> map = Maps.create();
+
+        for (PlacesStatus status : PlacesStatus.values())
+        {
+            map.put(status.name(), status);
+        }
+
+        return map;
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import tech.redroma.google.places.ApiKeyPool.KeyUsage;
+import tech.redroma.google.places.exceptions.GooglePlacesAuthenticationException;
+import tech.redroma.google.places.exceptions.GooglePlacesBadArgumentException;
+import tech.redroma.google.places.exceptions.GooglePlacesLimitExceededException;
+import tech.sirwellington.alchemy.test.junit.runners.AlchemyTestRunner;
+import tech.sirwellington.alchemy.test.junit.runners.Repeat;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static tech.sirwellington.alchemy.generator.AlchemyGenerator.Get.one;
+import static tech.sirwellington.alchemy.generator.NumberGenerators.integers;
+import static tech.sirwellington.alchemy.generator.StringGenerators.hexadecimalString;
+import static tech.sirwellington.alchemy.test.junit.ThrowableAssertion.assertThrows;
+
+/**
+ *
+ * @author SirWellington
+ */
+@Repeat(10)
+@RunWith(AlchemyTestRunner.class)
+public class ApiKeyPoolTest
+{
+
+    private static final long LIMIT_EVICTION_MILLIS = TimeUnit.SECONDS.toMillis(60);
+    private static final long AUTH_EVICTION_MILLIS = TimeUnit.MINUTES.toMillis(60);
+
+    private Clock clock;
+    private long now;
+
+    private String first;
+    private String second;
+    private int weight;
+
+    private ApiKeyPool instance;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        now = one(integers(0, Integer.MAX_VALUE));
+        clock = mock(Clock.class);
+        when(clock.millis()).thenAnswer(i -> now);
+
+        first = one(hexadecimalString(32));
+        second = one(hexadecimalString(32));
+        weight = one(integers(1, 5));
+
+        instance = ApiKeyPool.newBuilder()
+            .withKey(first)
+            .withKey(second, weight)
+            .withLimitExceededEviction(LIMIT_EVICTION_MILLIS, TimeUnit.MILLISECONDS)
+            .withAuthenticationEviction(AUTH_EVICTION_MILLIS, TimeUnit.MILLISECONDS)
+            .withClock(clock)
+            .build();
+    }
+
+    @Test
+    public void testAcquireIsWeighted() throws Exception
+    {
+        Map<String, Integer> counts = acquire((1 + weight) * 10);
+
+        assertThat(counts.get(first), is(10));
+        assertThat(counts.get(second), is(weight * 10));
+    }
+
+    @Test
+    public void testAcquireInterleavesKeys() throws Exception
+    {
+        instance = ApiKeyPool.of(first, second);
+
+        String previous = instance.acquire();
+
+        for (int i = 0; i < 10; ++i)
+        {
+            String next = instance.acquire();
+            assertThat(next, not(is(previous)));
+            previous = next;
+        }
+    }
+
+    @Test
+    public void testLimitExceededEvictsKey() throws Exception
+    {
+        instance.onFailure(second, new GooglePlacesLimitExceededException());
+
+        Map<String, Integer> counts = acquire(10);
+        assertThat(counts.get(first), is(10));
+
+        now += LIMIT_EVICTION_MILLIS;
+        counts = acquire(1 + weight);
+        assertThat(counts.get(second), is(weight));
+    }
+
+    @Test
+    public void testIsAvailable() throws Exception
+    {
+        assertThat(instance.isAvailable(first), is(true));
+        assertThat(instance.isAvailable(second), is(true));
+        assertThat(instance.isAvailable(one(hexadecimalString(31))), is(false));
+
+        instance.onFailure(second, new GooglePlacesLimitExceededException());
+        assertThat(instance.isAvailable(first), is(true));
+        assertThat(instance.isAvailable(second), is(false));
+
+        now += LIMIT_EVICTION_MILLIS;
+        assertThat(instance.isAvailable(second), is(true));
+    }
+
+    @Test
+    public void testAuthenticationFailureEvictsKey() throws Exception
+    {
+        instance.onFailure(first, new GooglePlacesAuthenticationException());
+
+        now += LIMIT_EVICTION_MILLIS;
+        Map<String, Integer> counts = acquire(10);
+        assertThat(counts.get(second), is(10));
+    }
+
+    @Test
+    public void testOtherFailuresDoNotEvict() throws Exception
+    {
+        instance.onFailure(first, new GooglePlacesBadArgumentException());
+
+        KeyUsage usage = instance.getUsage().get(0);
+        assertThat(usage.getFailures(), is(1L));
+        assertThat(usage.getEvictions(), is(0L));
+        assertThat(usage.isAvailable(), is(true));
+    }
+
+    @Test
+    public void testWhenAllKeysAreEvicted() throws Exception
+    {
+        instance.onFailure(first, new GooglePlacesAuthenticationException());
+        instance.onFailure(second, new GooglePlacesLimitExceededException());
+
+        //The key that returns soonest is used, rather than failing outright
+        assertThat(instance.acquire(), is(second));
+    }
+
+    @Test
+    public void testGetUsage() throws Exception
+    {
+        acquire(1 + weight).forEach((key, times) ->
+        {
+            for (int i = 0; i < times; ++i)
+            {
+                instance.onSent(key);
+            }
+        });
+        instance.onFailure(first, new GooglePlacesLimitExceededException());
+
+        List<KeyUsage> usage = instance.getUsage();
+        assertThat(usage.size(), is(2));
+
+        KeyUsage firstUsage = usage.get(0);
+        assertThat(firstUsage.getKey(), is(first));
+        assertThat(firstUsage.getRequests(), is(1L));
+        assertThat(firstUsage.getFailures(), is(1L));
+        assertThat(firstUsage.getEvictions(), is(1L));
+        assertThat(firstUsage.isAvailable(), is(false));
+
+        KeyUsage secondUsage = usage.get(1);
+        assertThat(secondUsage.getRequests(), is((long) weight));
+        assertThat(secondUsage.isAvailable(), is(true));
+    }
+
+    @Test
+    public void testOnlySentRequestsAreCounted() throws Exception
+    {
+        acquire(1 + weight);
+
+        for (KeyUsage usage : instance.getUsage())
+        {
+            assertThat(usage.getRequests(), is(0L));
+        }
+    }
+
+    @Test
+    public void testUsageDoesNotPrintKey() throws Exception
+    {
+        String result = instance.getUsage().get(0).toString();
+
+        assertThat(result, not(containsString(first)));
+    }
+
+    @Test
+    public void testWithBadArgs() throws Exception
+    {
+        ApiKeyPool.Builder builder = ApiKeyPool.newBuilder();
+
+        assertThrows(builder::build)
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> builder.withKey(""))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> builder.withKey(first, 0))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> builder.withKey(first).withKey(first))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> builder.withLimitExceededEviction(-1, TimeUnit.SECONDS))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> builder.withAuthenticationEviction(1, null))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Map<String, Integer> acquire(int times)
+    {
+        Map<String, Integer> counts = new HashMap<>();
+
+        for (int i = 0; i < times; ++i)
+        {
+            counts.merge(instance.acquire(), 1, Integer::sum);
+        }
+
+        return counts;
+    }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package tech.redroma.google.places;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import tech.sirwellington.alchemy.test.junit.runners.AlchemyTestRunner;
+import tech.sirwellington.alchemy.test.junit.runners.Repeat;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static tech.sirwellington.alchemy.generator.AlchemyGenerator.Get.one;
+import static tech.sirwellington.alchemy.generator.NumberGenerators.integers;
+import static tech.sirwellington.alchemy.test.junit.ThrowableAssertion.assertThrows;
+
+/**
+ *
+ * @author SirWellington
+ */
+@Repeat(5)
+@RunWith(AlchemyTestRunner.class)
+public class BaseURLProviderTest
+{
+
+    private String base;
+
+    private URLProvider instance;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        base = "http://localhost:" + one(integers(1024, 65_000)) + "/maps/api/place";
+
+        instance = URLProvider.fromBase(base);
+    }
+
+    @Test
+    public void testGetBase()
+    {
+        assertThat(instance.getBase(), is(base));
+    }
+
+    @Test
+    public void testEndpoints()
+    {
+        assertThat(instance.getPhotoAPI(), is(base + "/photo"));
+        assertThat(instance.getPlaceDetails(), is(base + "/details/json"));
+        assertThat(instance.getNearbySearch(), is(base + "/nearbysearch/json"));
+        assertThat(instance.getAutocomplete(), is(base + "/autocomplete/json"));
+    }
+
+    @Test
+    public void testWithTrailingSlash()
+    {
+        instance = URLProvider.fromBase(base + "/");
+
+        assertThat(instance.getBase(), is(base));
+        assertThat(instance.getPlaceDetails(), is(base + "/details/json"));
+    }
+
+    @Test
+    public void testMatchesProduction()
+    {
+        URLProvider production = URLProvider.PRODUCTION;
+        instance = URLProvider.fromBase(production.getBase());
+
+        assertThat(instance.getPhotoAPI(), is(production.getPhotoAPI()));
+        assertThat(instance.getPlaceDetails(), is(production.getPlaceDetails()));
+        assertThat(instance.getNearbySearch(), is(production.getNearbySearch()));
+        assertThat(instance.getAutocomplete(), is(production.getAutocomplete()));
+    }
+
+    @Test
+    public void testFromBaseWithBadArgs()
+    {
+        assertThrows(() -> URLProvider.fromBase(""))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> URLProvider.fromBase(null))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
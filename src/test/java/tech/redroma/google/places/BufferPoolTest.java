@@ -0,0 +1,116 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package tech.redroma.google.places;
+
+import java.nio.ByteBuffer;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import tech.sirwellington.alchemy.test.junit.runners.AlchemyTestRunner;
+import tech.sirwellington.alchemy.test.junit.runners.Repeat;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static tech.sirwellington.alchemy.generator.AlchemyGenerator.Get.one;
+import static tech.sirwellington.alchemy.generator.NumberGenerators.integers;
+import static tech.sirwellington.alchemy.test.junit.ThrowableAssertion.assertThrows;
+
+/**
+ *
+ * @author SirWellington
+ */
+@Repeat(10)
+@RunWith(AlchemyTestRunner.class)
+public class BufferPoolTest
+{
+
+    private int bufferSize;
+
+    private int capacity;
+
+    private BufferPool instance;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        bufferSize = one(integers(16, 1_024));
+        capacity = one(integers(1, 10));
+
+        instance = new BufferPool(bufferSize, capacity);
+    }
+
+    @Test
+    public void testAcquire() throws Exception
+    {
+        ByteBuffer result = instance.acquire();
+
+        assertThat(result.capacity(), is(bufferSize));
+        assertThat(result.position(), is(0));
+        assertThat(result.remaining(), is(bufferSize));
+    }
+
+    @Test
+    public void testReleasedBuffersAreReused() throws Exception
+    {
+        ByteBuffer buffer = instance.acquire();
+        buffer.put((byte) 1).flip();
+
+        instance.release(buffer);
+        assertThat(instance.getPooled(), is(1));
+
+        ByteBuffer result = instance.acquire();
+        assertThat(result, sameInstance(buffer));
+        assertThat(result.position(), is(0));
+        assertThat(result.remaining(), is(bufferSize));
+        assertThat(instance.getPooled(), is(0));
+    }
+
+    @Test
+    public void testReleaseBeyondCapacity() throws Exception
+    {
+        for (int i = 0; i < capacity + 5; i++)
+        {
+            instance.release(ByteBuffer.allocate(bufferSize));
+        }
+
+        assertThat(instance.getPooled(), is(capacity));
+    }
+
+    @Test
+    public void testReleaseWithOtherSizes() throws Exception
+    {
+        instance.release(ByteBuffer.allocate(bufferSize + 1));
+        instance.release(null);
+
+        assertThat(instance.getPooled(), is(0));
+        assertThat(instance.acquire(), not(sameInstance(instance.acquire())));
+    }
+
+    @Test
+    public void testWithBadArgs() throws Exception
+    {
+        assertThrows(() -> new BufferPool(0, capacity))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> new BufferPool(bufferSize, 0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
@@ -0,0 +1,342 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import tech.redroma.google.places.BulkPhotoDownloaderImpl.Downloader;
+import tech.redroma.google.places.data.Generators;
+import tech.redroma.google.places.exceptions.GooglePlacesBadArgumentException;
+import tech.redroma.google.places.exceptions.GooglePlacesException;
+import tech.redroma.google.places.exceptions.GooglePlacesTimeoutException;
+import tech.redroma.google.places.requests.GetPhotoRequest;
+import tech.sirwellington.alchemy.test.junit.runners.AlchemyTestRunner;
+import tech.sirwellington.alchemy.test.junit.runners.Repeat;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static tech.sirwellington.alchemy.test.junit.ThrowableAssertion.assertThrows;
+
+/**
+ *
+ * @author SirWellington
+ */
+@Repeat(10)
+@RunWith(AlchemyTestRunner.class)
+public class BulkPhotoDownloaderImplTest
+{
+
+    private static final int MAX_IN_FLIGHT = 8;
+    private static final int MAX_PER_HOST = 2;
+
+    private GooglePlacesAPI api;
+    private ExecutorService executor;
+    private URL url;
+
+    private List<GetPhotoRequest> requests;
+    private Map<GetPhotoRequest, byte[]> images;
+    private Map<GetPhotoRequest, GooglePlacesException> errors;
+
+    private AtomicInteger concurrentDownloads;
+    private AtomicInteger maxConcurrentDownloads;
+
+    private BulkPhotoDownloaderImpl instance;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        url = new URL("https://lh3.googleusercontent.com/photo");
+
+        api = mock(GooglePlacesAPI.class);
+        when(api.getPhoto(any())).thenReturn(url);
+
+        executor = Executors.newFixedThreadPool(MAX_IN_FLIGHT);
+
+        requests = new ArrayList<>();
+        for (int i = 0; i < 20; ++i)
+        {
+            requests.add(Generators.createGetPhotoRequest());
+        }
+
+        images = new ConcurrentHashMap<>();
+        errors = new ConcurrentHashMap<>();
+        concurrentDownloads = new AtomicInteger();
+        maxConcurrentDownloads = new AtomicInteger();
+
+        instance = new BulkPhotoDownloaderImpl(api, this::download, executor, MAX_IN_FLIGHT, MAX_PER_HOST);
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testDownloadAll() throws Exception
+    {
+        instance.downloadAll(requests, new Collector()).get(5, TimeUnit.SECONDS);
+
+        assertThat(images.size(), is(requests.size()));
+        assertThat(errors.size(), is(0));
+        assertThat(maxConcurrentDownloads.get(), lessThanOrEqualTo(MAX_PER_HOST));
+    }
+
+    @Test
+    public void testDownloadAllWhenDownloadFails() throws Exception
+    {
+        instance = new BulkPhotoDownloaderImpl(api, (u, d) -> { throw new IOException(); }, executor, MAX_IN_FLIGHT, MAX_PER_HOST);
+
+        instance.downloadAll(requests, new Collector()).get(5, TimeUnit.SECONDS);
+
+        assertThat(images.size(), is(0));
+        assertThat(errors.size(), is(requests.size()));
+    }
+
+    @Test
+    public void testDownloadAllWhenLookupThrowsUnchecked() throws Exception
+    {
+        when(api.getPhoto(any())).thenThrow(new IllegalArgumentException());
+
+        instance.downloadAll(requests, new Collector()).get(5, TimeUnit.SECONDS);
+
+        assertThat(images.size(), is(0));
+        assertThat(errors.size(), is(requests.size()));
+        errors.values().forEach(ex -> assertThat(ex, instanceOf(GooglePlacesBadArgumentException.class)));
+    }
+
+    @Test
+    public void testDownloadAllWhenDownloaderThrowsUnchecked() throws Exception
+    {
+        instance = new BulkPhotoDownloaderImpl(api, (u, d) -> { throw new IllegalStateException(); }, executor, MAX_IN_FLIGHT, MAX_PER_HOST);
+
+        instance.downloadAll(requests, new Collector()).get(5, TimeUnit.SECONDS);
+
+        assertThat(images.size(), is(0));
+        assertThat(errors.size(), is(requests.size()));
+    }
+
+    @Test
+    public void testDownloadAllWhenExecutorRejects() throws Exception
+    {
+        AtomicInteger accepted = new AtomicInteger();
+        Executor rejecting = task ->
+        {
+            if (accepted.incrementAndGet() > 5)
+            {
+                throw new RejectedExecutionException();
+            }
+
+            executor.execute(task);
+        };
+
+        instance = new BulkPhotoDownloaderImpl(api, this::download, rejecting, MAX_IN_FLIGHT, MAX_PER_HOST);
+
+        instance.downloadAll(requests, new Collector()).get(5, TimeUnit.SECONDS);
+
+        assertThat(images.size(), is(5));
+        assertThat(errors.size(), is(requests.size() - 5));
+    }
+
+    @Test
+    public void testClose() throws Exception
+    {
+        ExecutorService owned = Executors.newFixedThreadPool(MAX_IN_FLIGHT);
+        instance = new BulkPhotoDownloaderImpl(api, this::download, owned, MAX_IN_FLIGHT, MAX_PER_HOST, true);
+
+        instance.close();
+        assertTrue(owned.isShutdown());
+
+        instance.downloadAll(requests, new Collector()).get(5, TimeUnit.SECONDS);
+        assertThat(errors.size(), is(requests.size()));
+    }
+
+    @Test
+    public void testCloseLeavesCallersExecutorRunning() throws Exception
+    {
+        instance.close();
+
+        assertFalse(executor.isShutdown());
+    }
+
+    @Test
+    public void testDownloadAllKeepsCallersDeadline() throws Exception
+    {
+        List<Deadline> lookups = new CopyOnWriteArrayList<>();
+        List<Deadline> downloads = new CopyOnWriteArrayList<>();
+
+        when(api.getPhoto(any())).thenAnswer(i ->
+        {
+            lookups.add(Deadline.current());
+            return url;
+        });
+
+        instance = new BulkPhotoDownloaderImpl(api, (u, d) ->
+        {
+            downloads.add(d);
+            return new byte[0];
+        }, executor, MAX_IN_FLIGHT, MAX_PER_HOST);
+
+        Deadline deadline = Deadline.after(1, TimeUnit.MINUTES);
+        deadline.run(() -> instance.downloadAll(requests, new Collector())).get(5, TimeUnit.SECONDS);
+
+        assertThat(lookups.size(), is(requests.size()));
+        assertThat(downloads.size(), is(requests.size()));
+
+        for (Deadline seen : lookups)
+        {
+            assertThat(seen.remaining(TimeUnit.MILLISECONDS), lessThanOrEqualTo(deadline.remaining(TimeUnit.MILLISECONDS)));
+        }
+
+        for (Deadline seen : downloads)
+        {
+            assertThat(seen.remaining(TimeUnit.MILLISECONDS), lessThanOrEqualTo(deadline.remaining(TimeUnit.MILLISECONDS)));
+        }
+    }
+
+    @Test
+    public void testWaitingForHostStopsAtDeadline() throws Exception
+    {
+        CountDownLatch hung = new CountDownLatch(1);
+
+        instance = new BulkPhotoDownloaderImpl(api, (u, d) ->
+        {
+            try
+            {
+                hung.await();
+            }
+            catch (InterruptedException ex)
+            {
+                throw new IOException(ex);
+            }
+
+            return new byte[0];
+        }, executor, MAX_IN_FLIGHT, MAX_PER_HOST);
+
+        CompletableFuture<Void> done = Deadline.after(50, TimeUnit.MILLISECONDS)
+            .run(() -> instance.downloadAll(requests, new Collector()));
+
+        //Every request but those holding the host's slots gives up waiting for one
+        while (errors.size() < requests.size() - MAX_PER_HOST)
+        {
+            Thread.sleep(5);
+        }
+
+        hung.countDown();
+        done.get(5, TimeUnit.SECONDS);
+
+        assertThat(images.size(), is(MAX_PER_HOST));
+        errors.values().forEach(ex -> assertThat(ex, instanceOf(GooglePlacesTimeoutException.class)));
+    }
+
+    @Test
+    public void testDownloaderUsesClientsTransport() throws Exception
+    {
+        HttpTransport transport = mock(HttpTransport.class);
+        byte[] image = { 1, 2, 3 };
+        Deadline deadline = Deadline.after(1, TimeUnit.MINUTES);
+        when(transport.get(eq(url.toString()), any(), eq(deadline))).thenReturn(image);
+
+        GooglePlacesAPI client = GooglePlacesAPI.newBuilder()
+            .withApiKey("key")
+            .withTransport(transport)
+            .build();
+
+        assertThat(Downloader.of(client).download(url, deadline), is(image));
+    }
+
+    @Test
+    public void testDownloadAllWithNoRequests() throws Exception
+    {
+        instance.downloadAll(new ArrayList<>(), new Collector()).get(1, TimeUnit.SECONDS);
+
+        assertThat(images.size(), is(0));
+    }
+
+    @Test
+    public void testDownloadAllWithBadArgs() throws Exception
+    {
+        assertThrows(() -> instance.downloadAll(null, new Collector()))
+            .isInstanceOf(GooglePlacesException.class);
+
+        assertThrows(() -> instance.downloadAll(requests, null))
+            .isInstanceOf(GooglePlacesException.class);
+    }
+
+    private byte[] download(URL url, Deadline deadline) throws IOException
+    {
+        int current = concurrentDownloads.incrementAndGet();
+        maxConcurrentDownloads.accumulateAndGet(current, Math::max);
+
+        try
+        {
+            Thread.sleep(2);
+        }
+        catch (InterruptedException ex)
+        {
+            throw new IOException(ex);
+        }
+        finally
+        {
+            concurrentDownloads.decrementAndGet();
+        }
+
+        return new byte[] { 1, 2, 3 };
+    }
+
+    private class Collector implements BulkPhotoDownloader.Callback
+    {
+
+        @Override
+        public void onPhoto(GetPhotoRequest request, byte[] image)
+        {
+            images.put(request, image);
+        }
+
+        @Override
+        public void onError(GetPhotoRequest request, GooglePlacesException ex)
+        {
+            errors.put(request, ex);
+        }
+    }
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import tech.sirwellington.alchemy.test.junit.runners.AlchemyTestRunner;
+import tech.sirwellington.alchemy.test.junit.runners.Repeat;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static tech.sirwellington.alchemy.generator.AlchemyGenerator.Get.one;
+import static tech.sirwellington.alchemy.generator.NumberGenerators.integers;
+import static tech.sirwellington.alchemy.test.junit.ThrowableAssertion.assertThrows;
+
+/**
+ *
+ * @author SirWellington
+ */
+@Repeat(10)
+@RunWith(AlchemyTestRunner.class)
+public class CacheOptionsTest
+{
+
+    @Test
+    public void testDefaults()
+    {
+        CacheOptions result = CacheOptions.newBuilder().build();
+
+        assertThat(result.getTimeToLiveMillis(), is(TimeUnit.MINUTES.toMillis(CacheOptions.Builder.DEFAULT_TIME_TO_LIVE_MINUTES)));
+        assertThat(result.getMaximumSize(), is(CacheOptions.Builder.DEFAULT_MAXIMUM_SIZE));
+        assertThat(result.getNegativeTimeToLiveMillis(), is(0L));
+    }
+
+    @Test
+    public void testBuild()
+    {
+        int minutes = one(integers(1, 1_000));
+        int size = one(integers(1, 100_000));
+
+        CacheOptions result = CacheOptions.newBuilder()
+            .withTimeToLive(minutes, TimeUnit.MINUTES)
+            .withMaximumSize(size)
+            .build();
+
+        assertThat(result.getTimeToLiveMillis(), is(TimeUnit.MINUTES.toMillis(minutes)));
+        assertThat(result.getMaximumSize(), is((long) size));
+    }
+
+    @Test
+    public void testBackgroundRefresh()
+    {
+        int stale = one(integers(1, 100));
+        int refreshAhead = one(integers(1, 30));
+
+        CacheOptions result = CacheOptions.newBuilder()
+            .withTimeToLive(30, TimeUnit.MINUTES)
+            .withStaleWhileRevalidate(stale, TimeUnit.MINUTES)
+            .withRefreshAhead(refreshAhead - 1, TimeUnit.MINUTES)
+            .build();
+
+        assertThat(result.getStaleWhileRevalidateMillis(), is(TimeUnit.MINUTES.toMillis(stale)));
+        assertThat(result.getRefreshAheadMillis(), is(TimeUnit.MINUTES.toMillis(refreshAhead - 1)));
+    }
+
+    @Test
+    public void testNegativeTimeToLive()
+    {
+        int minutes = one(integers(1, 100));
+
+        CacheOptions result = CacheOptions.newBuilder()
+            .withNegativeTimeToLive(minutes, TimeUnit.MINUTES)
+            .build();
+
+        assertThat(result.getNegativeTimeToLiveMillis(), is(TimeUnit.MINUTES.toMillis(minutes)));
+    }
+
+    @Test
+    public void testRefreshAheadMustBeLessThanTimeToLive()
+    {
+        CacheOptions.Builder builder = CacheOptions.newBuilder()
+            .withTimeToLive(30, TimeUnit.MINUTES)
+            .withRefreshAhead(30, TimeUnit.MINUTES);
+
+        assertThrows(builder::build)
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testWithBadArgs()
+    {
+        CacheOptions.Builder builder = CacheOptions.newBuilder();
+
+        assertThrows(() -> builder.withTimeToLive(0, TimeUnit.MINUTES))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> builder.withTimeToLive(1, null))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> builder.withMaximumSize(-1))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> builder.withStaleWhileRevalidate(-1, TimeUnit.MINUTES))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> builder.withRefreshAhead(-1, TimeUnit.MINUTES))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> builder.withNegativeTimeToLive(-1, TimeUnit.MINUTES))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
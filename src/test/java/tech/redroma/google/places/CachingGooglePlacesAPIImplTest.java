@@ -0,0 +1,509 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import com.google.common.io.CharStreams;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import tech.redroma.google.places.data.Generators;
+import tech.redroma.google.places.exceptions.GooglePlacesBadArgumentException;
+import tech.redroma.google.places.exceptions.GooglePlacesOperationFailedException;
+import tech.redroma.google.places.requests.GetPhotoRequest;
+import tech.redroma.google.places.requests.GetPlaceDetailsRequest;
+import tech.redroma.google.places.requests.NearbySearchRequest;
+import tech.redroma.google.places.responses.GetPlaceDetailsResponse;
+import tech.redroma.google.places.responses.NearbySearchResponse;
+import tech.sirwellington.alchemy.test.junit.runners.AlchemyTestRunner;
+import tech.sirwellington.alchemy.test.junit.runners.GeneratePojo;
+import tech.sirwellington.alchemy.test.junit.runners.Repeat;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static tech.sirwellington.alchemy.test.junit.ThrowableAssertion.assertThrows;
+
+/**
+ *
+ * @author SirWellington
+ */
+@Repeat(10)
+@RunWith(AlchemyTestRunner.class)
+public class CachingGooglePlacesAPIImplTest
+{
+
+    private static final long TTL = TimeUnit.MINUTES.toMillis(30);
+    private static final long STALE = TimeUnit.MINUTES.toMillis(10);
+    private static final long REFRESH_AHEAD = TimeUnit.MINUTES.toMillis(5);
+    private static final long NEGATIVE_TTL = TimeUnit.MINUTES.toMillis(1);
+
+    private GooglePlacesAPI delegate;
+    private Clock clock;
+    private long now;
+
+    private GetPlaceDetailsRequest detailsRequest;
+    private NearbySearchRequest searchRequest;
+    private GetPhotoRequest photoRequest;
+
+    @GeneratePojo
+    private GetPlaceDetailsResponse detailsResponse;
+
+    @GeneratePojo
+    private GetPlaceDetailsResponse newDetailsResponse;
+
+    @GeneratePojo
+    private NearbySearchResponse searchResponse;
+
+    private List<Runnable> backgroundTasks;
+
+    private Path snapshot;
+
+    private CachingGooglePlacesAPIImpl instance;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        detailsRequest = Generators.createGetPlaceDetailsRequest();
+        searchRequest = Generators.createNearbySearchRequest();
+        photoRequest = Generators.createGetPhotoRequest();
+
+        delegate = mock(GooglePlacesAPI.class);
+        when(delegate.getPlaceDetails(detailsRequest)).thenReturn(detailsResponse);
+        when(delegate.searchNearbyPlaces(searchRequest)).thenReturn(searchResponse);
+
+        now = System.currentTimeMillis();
+        clock = mock(Clock.class);
+        when(clock.millis()).thenAnswer(i -> now);
+
+        backgroundTasks = new ArrayList<>();
+
+        snapshot = Files.createTempFile("cache", ".snapshot");
+        Files.delete(snapshot);
+
+        instance = newInstance();
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        Files.deleteIfExists(snapshot);
+    }
+
+    private void rewriteVersion(int version) throws IOException
+    {
+        String json;
+
+        try (Reader reader = new InputStreamReader(new GZIPInputStream(Files.newInputStream(snapshot)), UTF_8))
+        {
+            json = CharStreams.toString(reader);
+        }
+
+        json = json.replace("\"version\":" + CachingGooglePlacesAPIImpl.SNAPSHOT_VERSION, "\"version\":" + version);
+
+        try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(snapshot)), UTF_8))
+        {
+            writer.write(json);
+        }
+    }
+
+    private CachingGooglePlacesAPIImpl newInstance()
+    {
+        CacheOptions options = CacheOptions.newBuilder()
+            .withTimeToLive(TTL, TimeUnit.MILLISECONDS)
+            .build();
+
+        return new CachingGooglePlacesAPIImpl(delegate, options, clock, Runnable::run, InternalResources.GSON);
+    }
+
+    private CachingGooglePlacesAPIImpl newInstanceWithBackgroundRefresh()
+    {
+        CacheOptions options = CacheOptions.newBuilder()
+            .withTimeToLive(TTL, TimeUnit.MILLISECONDS)
+            .withStaleWhileRevalidate(STALE, TimeUnit.MILLISECONDS)
+            .withRefreshAhead(REFRESH_AHEAD, TimeUnit.MILLISECONDS)
+            .build();
+
+        return new CachingGooglePlacesAPIImpl(delegate, options, clock, backgroundTasks::add, InternalResources.GSON);
+    }
+
+    private CachingGooglePlacesAPIImpl newInstanceWithNegativeCache()
+    {
+        CacheOptions options = CacheOptions.newBuilder()
+            .withTimeToLive(TTL, TimeUnit.MILLISECONDS)
+            .withNegativeTimeToLive(NEGATIVE_TTL, TimeUnit.MILLISECONDS)
+            .build();
+
+        return new CachingGooglePlacesAPIImpl(delegate, options, clock, Runnable::run, InternalResources.GSON);
+    }
+
+    private void runBackgroundTasks()
+    {
+        List<Runnable> tasks = new ArrayList<>(backgroundTasks);
+        backgroundTasks.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    @Test
+    public void testGetPlaceDetailsIsCached() throws Exception
+    {
+        assertThat(instance.getPlaceDetails(detailsRequest), sameInstance(detailsResponse));
+        assertThat(instance.getPlaceDetails(detailsRequest), sameInstance(detailsResponse));
+
+        verify(delegate, times(1)).getPlaceDetails(detailsRequest);
+    }
+
+    @Test
+    public void testSearchNearbyPlacesIsCached() throws Exception
+    {
+        assertThat(instance.searchNearbyPlaces(searchRequest), sameInstance(searchResponse));
+        assertThat(instance.searchNearbyPlaces(searchRequest), sameInstance(searchResponse));
+
+        verify(delegate, times(1)).searchNearbyPlaces(searchRequest);
+    }
+
+    @Test
+    public void testEntriesExpire() throws Exception
+    {
+        instance.getPlaceDetails(detailsRequest);
+
+        now += TTL;
+        instance.getPlaceDetails(detailsRequest);
+
+        verify(delegate, times(2)).getPlaceDetails(detailsRequest);
+    }
+
+    @Test
+    public void testFailuresAreNotCached() throws Exception
+    {
+        when(delegate.getPlaceDetails(detailsRequest)).thenThrow(new GooglePlacesOperationFailedException());
+
+        assertThrows(() -> instance.getPlaceDetails(detailsRequest))
+            .isInstanceOf(GooglePlacesOperationFailedException.class);
+
+        assertThat(instance.size(), is(0L));
+    }
+
+    @Test
+    public void testSnapshotRoundTrip() throws Exception
+    {
+        instance.getPlaceDetails(detailsRequest);
+        instance.searchNearbyPlaces(searchRequest);
+        instance.saveSnapshot(snapshot);
+
+        CachingGooglePlacesAPIImpl restored = newInstance();
+        int loaded = restored.loadSnapshot(snapshot).get(5, TimeUnit.SECONDS);
+
+        assertThat(loaded, is(2));
+        assertThat(restored.getPlaceDetails(detailsRequest), is(detailsResponse));
+        assertThat(restored.searchNearbyPlaces(searchRequest), is(searchResponse));
+
+        verify(delegate, times(1)).getPlaceDetails(detailsRequest);
+        verify(delegate, times(1)).searchNearbyPlaces(searchRequest);
+    }
+
+    @Test
+    public void testSnapshotPreservesAge() throws Exception
+    {
+        instance.getPlaceDetails(detailsRequest);
+        instance.saveSnapshot(snapshot);
+
+        now += TTL - 1;
+        CachingGooglePlacesAPIImpl restored = newInstance();
+        restored.loadSnapshot(snapshot).get(5, TimeUnit.SECONDS);
+        restored.getPlaceDetails(detailsRequest);
+
+        verify(delegate, times(1)).getPlaceDetails(detailsRequest);
+
+        now += 1;
+        restored.getPlaceDetails(detailsRequest);
+
+        verify(delegate, times(2)).getPlaceDetails(detailsRequest);
+    }
+
+    @Test
+    public void testLoadSnapshotSkipsExpiredEntries() throws Exception
+    {
+        instance.getPlaceDetails(detailsRequest);
+        instance.saveSnapshot(snapshot);
+
+        now += TTL;
+        int loaded = newInstance().loadSnapshot(snapshot).get(5, TimeUnit.SECONDS);
+
+        assertThat(loaded, is(0));
+    }
+
+    @Test
+    public void testLoadSnapshotSkipsDetailsSavedWithoutFields() throws Exception
+    {
+        instance.getPlaceDetails(detailsRequest);
+        instance.searchNearbyPlaces(searchRequest);
+        instance.saveSnapshot(snapshot);
+        rewriteVersion(1);
+
+        CachingGooglePlacesAPIImpl restored = newInstance();
+        int loaded = restored.loadSnapshot(snapshot).get(5, TimeUnit.SECONDS);
+
+        assertThat(loaded, is(1));
+        restored.getPlaceDetails(detailsRequest);
+        restored.searchNearbyPlaces(searchRequest);
+
+        verify(delegate, times(2)).getPlaceDetails(detailsRequest);
+        verify(delegate, times(1)).searchNearbyPlaces(searchRequest);
+    }
+
+    @Test
+    public void testLoadSnapshotWhenMissing() throws Exception
+    {
+        int loaded = instance.loadSnapshot(snapshot).get(5, TimeUnit.SECONDS);
+
+        assertThat(loaded, is(0));
+    }
+
+    @Test
+    public void testStaleWhileRevalidate() throws Exception
+    {
+        instance = newInstanceWithBackgroundRefresh();
+        instance.getPlaceDetails(detailsRequest);
+
+        when(delegate.getPlaceDetails(detailsRequest)).thenReturn(newDetailsResponse);
+        now += TTL + STALE - 1;
+
+        //The stale response is served, and only one refresh is started
+        assertThat(instance.getPlaceDetails(detailsRequest), sameInstance(detailsResponse));
+        assertThat(instance.getPlaceDetails(detailsRequest), sameInstance(detailsResponse));
+        assertThat(backgroundTasks.size(), is(1));
+        verify(delegate, times(1)).getPlaceDetails(detailsRequest);
+
+        runBackgroundTasks();
+
+        assertThat(instance.getPlaceDetails(detailsRequest), sameInstance(newDetailsResponse));
+        verify(delegate, times(2)).getPlaceDetails(detailsRequest);
+    }
+
+    @Test
+    public void testRefreshAhead() throws Exception
+    {
+        instance = newInstanceWithBackgroundRefresh();
+        instance.searchNearbyPlaces(searchRequest);
+
+        now += TTL - REFRESH_AHEAD - 1;
+        instance.searchNearbyPlaces(searchRequest);
+        assertThat(backgroundTasks.size(), is(0));
+
+        now += 1;
+        assertThat(instance.searchNearbyPlaces(searchRequest), sameInstance(searchResponse));
+        assertThat(backgroundTasks.size(), is(1));
+
+        runBackgroundTasks();
+        verify(delegate, times(2)).searchNearbyPlaces(searchRequest);
+
+        //The refreshed entry is fresh again
+        now += TTL - REFRESH_AHEAD - 1;
+        instance.searchNearbyPlaces(searchRequest);
+        assertThat(backgroundTasks.size(), is(0));
+    }
+
+    @Test
+    public void testAfterStaleWindow() throws Exception
+    {
+        instance = newInstanceWithBackgroundRefresh();
+        instance.getPlaceDetails(detailsRequest);
+
+        when(delegate.getPlaceDetails(detailsRequest)).thenReturn(newDetailsResponse);
+        now += TTL + STALE;
+
+        assertThat(instance.getPlaceDetails(detailsRequest), sameInstance(newDetailsResponse));
+        assertThat(backgroundTasks.size(), is(0));
+    }
+
+    @Test
+    public void testWhenBackgroundRefreshFails() throws Exception
+    {
+        instance = newInstanceWithBackgroundRefresh();
+        instance.getPlaceDetails(detailsRequest);
+
+        when(delegate.getPlaceDetails(detailsRequest)).thenThrow(new GooglePlacesOperationFailedException());
+        now += TTL;
+
+        instance.getPlaceDetails(detailsRequest);
+        runBackgroundTasks();
+
+        //The stale response is still served, and another refresh can be started
+        assertThat(instance.getPlaceDetails(detailsRequest), sameInstance(detailsResponse));
+        assertThat(backgroundTasks.size(), is(1));
+    }
+
+    @Test
+    public void testRejectionsAreRemembered() throws Exception
+    {
+        instance = newInstanceWithNegativeCache();
+        when(delegate.getPlaceDetails(detailsRequest)).thenThrow(new GooglePlacesBadArgumentException());
+
+        assertThrows(() -> instance.getPlaceDetails(detailsRequest))
+            .isInstanceOf(GooglePlacesBadArgumentException.class);
+
+        now += NEGATIVE_TTL - 1;
+        assertThrows(() -> instance.getPlaceDetails(detailsRequest))
+            .isInstanceOf(GooglePlacesBadArgumentException.class);
+
+        verify(delegate, times(1)).getPlaceDetails(detailsRequest);
+
+        now += 1;
+        assertThrows(() -> instance.getPlaceDetails(detailsRequest))
+            .isInstanceOf(GooglePlacesBadArgumentException.class);
+
+        verify(delegate, times(2)).getPlaceDetails(detailsRequest);
+    }
+
+    @Test
+    public void testPhotoRejectionsAreRemembered() throws Exception
+    {
+        instance = newInstanceWithNegativeCache();
+        when(delegate.getPhoto(photoRequest)).thenThrow(new GooglePlacesBadArgumentException());
+
+        assertThrows(() -> instance.getPhoto(photoRequest))
+            .isInstanceOf(GooglePlacesBadArgumentException.class);
+
+        assertThrows(() -> instance.getPhoto(photoRequest))
+            .isInstanceOf(GooglePlacesBadArgumentException.class);
+
+        verify(delegate, times(1)).getPhoto(photoRequest);
+    }
+
+    @Test
+    public void testRejectionsAreNotRememberedByDefault() throws Exception
+    {
+        when(delegate.getPlaceDetails(detailsRequest)).thenThrow(new GooglePlacesBadArgumentException());
+
+        assertThrows(() -> instance.getPlaceDetails(detailsRequest))
+            .isInstanceOf(GooglePlacesBadArgumentException.class);
+
+        assertThrows(() -> instance.getPlaceDetails(detailsRequest))
+            .isInstanceOf(GooglePlacesBadArgumentException.class);
+
+        verify(delegate, times(2)).getPlaceDetails(detailsRequest);
+    }
+
+    @Test
+    public void testOtherFailuresAreNotRemembered() throws Exception
+    {
+        instance = newInstanceWithNegativeCache();
+        when(delegate.getPlaceDetails(detailsRequest)).thenThrow(new GooglePlacesOperationFailedException());
+
+        assertThrows(() -> instance.getPlaceDetails(detailsRequest))
+            .isInstanceOf(GooglePlacesOperationFailedException.class);
+
+        assertThrows(() -> instance.getPlaceDetails(detailsRequest))
+            .isInstanceOf(GooglePlacesOperationFailedException.class);
+
+        verify(delegate, times(2)).getPlaceDetails(detailsRequest);
+    }
+
+    @Test
+    public void testInvalidateAll() throws Exception
+    {
+        instance.getPlaceDetails(detailsRequest);
+        instance.invalidateAll();
+        instance.getPlaceDetails(detailsRequest);
+
+        verify(delegate, times(2)).getPlaceDetails(detailsRequest);
+    }
+
+    @Test
+    public void testCloseStopsOwnedExecutor() throws Exception
+    {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        instance = new CachingGooglePlacesAPIImpl(delegate, CacheOptions.DEFAULT, clock, executor, InternalResources.GSON, true);
+
+        instance.getPlaceDetails(detailsRequest);
+        instance.close();
+
+        assertThat(executor.isShutdown(), is(true));
+        assertThat(instance.getPlaceDetails(detailsRequest), sameInstance(detailsResponse));
+
+        try
+        {
+            instance.loadSnapshot(snapshot).get(5, TimeUnit.SECONDS);
+            fail("Expected the load to fail");
+        }
+        catch (ExecutionException ex)
+        {
+            assertThat(ex.getCause(), instanceOf(RejectedExecutionException.class));
+        }
+    }
+
+    @Test
+    public void testCloseLeavesCallersExecutor() throws Exception
+    {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try
+        {
+            instance = new CachingGooglePlacesAPIImpl(delegate, CacheOptions.DEFAULT, clock, executor, InternalResources.GSON);
+            instance.close();
+
+            assertThat(executor.isShutdown(), is(false));
+            assertThat(instance.loadSnapshot(snapshot).get(5, TimeUnit.SECONDS), is(0));
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testWithBadArgs() throws Exception
+    {
+        assertThrows(() -> instance.getPlaceDetails(null))
+            .isInstanceOf(GooglePlacesBadArgumentException.class);
+
+        assertThrows(() -> instance.searchNearbyPlaces(null))
+            .isInstanceOf(GooglePlacesBadArgumentException.class);
+
+        assertThrows(() -> instance.getPhoto(null))
+            .isInstanceOf(GooglePlacesBadArgumentException.class);
+
+        assertThrows(() -> instance.saveSnapshot(null))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
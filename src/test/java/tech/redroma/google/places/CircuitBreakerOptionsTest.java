@@ -0,0 +1,112 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import tech.sirwellington.alchemy.test.junit.runners.AlchemyTestRunner;
+import tech.sirwellington.alchemy.test.junit.runners.Repeat;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static tech.sirwellington.alchemy.generator.AlchemyGenerator.Get.one;
+import static tech.sirwellington.alchemy.generator.NumberGenerators.integers;
+import static tech.sirwellington.alchemy.test.junit.ThrowableAssertion.assertThrows;
+
+/**
+ *
+ * @author SirWellington
+ */
+@Repeat(10)
+@RunWith(AlchemyTestRunner.class)
+public class CircuitBreakerOptionsTest
+{
+
+    @Test
+    public void testDefaults()
+    {
+        CircuitBreakerOptions result = CircuitBreakerOptions.newBuilder().build();
+
+        assertThat(result.getFailureRateThreshold(), is(CircuitBreakerOptions.Builder.DEFAULT_FAILURE_RATE_THRESHOLD));
+        assertThat(result.getSlidingWindowSize(), is(CircuitBreakerOptions.Builder.DEFAULT_SLIDING_WINDOW_SIZE));
+        assertThat(result.getMinimumNumberOfCalls(), is(CircuitBreakerOptions.Builder.DEFAULT_MINIMUM_NUMBER_OF_CALLS));
+        assertThat(result.getPermittedCallsInHalfOpenState(), is(CircuitBreakerOptions.Builder.DEFAULT_PERMITTED_CALLS_IN_HALF_OPEN_STATE));
+    }
+
+    @Test
+    public void testBuild()
+    {
+        int failureRate = one(integers(1, 101));
+        int slowRate = one(integers(1, 101));
+        int slowMillis = one(integers(1, 10_000));
+        int window = one(integers(10, 100));
+        int minimum = one(integers(1, window + 1));
+        int waitSeconds = one(integers(1, 100));
+        int halfOpen = one(integers(1, 10));
+
+        CircuitBreakerOptions result = CircuitBreakerOptions.newBuilder()
+            .withFailureRateThreshold(failureRate)
+            .withSlowCallRateThreshold(slowRate, slowMillis, TimeUnit.MILLISECONDS)
+            .withSlidingWindowSize(window)
+            .withMinimumNumberOfCalls(minimum)
+            .withWaitDurationInOpenState(waitSeconds, TimeUnit.SECONDS)
+            .withPermittedCallsInHalfOpenState(halfOpen)
+            .build();
+
+        assertThat(result.getFailureRateThreshold(), is(failureRate));
+        assertThat(result.getSlowCallRateThreshold(), is(slowRate));
+        assertThat(result.getSlowCallDurationMillis(), is((long) slowMillis));
+        assertThat(result.getSlidingWindowSize(), is(window));
+        assertThat(result.getMinimumNumberOfCalls(), is(minimum));
+        assertThat(result.getWaitDurationInOpenStateMillis(), is(TimeUnit.SECONDS.toMillis(waitSeconds)));
+        assertThat(result.getPermittedCallsInHalfOpenState(), is(halfOpen));
+    }
+
+    @Test
+    public void testMinimumCallsMustFitInWindow()
+    {
+        CircuitBreakerOptions.Builder builder = CircuitBreakerOptions.newBuilder()
+            .withSlidingWindowSize(10)
+            .withMinimumNumberOfCalls(11);
+
+        assertThrows(builder::build)
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testWithBadArgs()
+    {
+        CircuitBreakerOptions.Builder builder = CircuitBreakerOptions.newBuilder();
+
+        assertThrows(() -> builder.withFailureRateThreshold(0))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> builder.withFailureRateThreshold(101))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> builder.withSlowCallRateThreshold(50, 0, TimeUnit.SECONDS))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> builder.withSlidingWindowSize(0))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> builder.withWaitDurationInOpenState(1, null))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
@@ -0,0 +1,461 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import tech.redroma.google.places.CircuitBreakingGooglePlacesAPI.State;
+import tech.redroma.google.places.data.Generators;
+import tech.redroma.google.places.exceptions.GooglePlacesBadArgumentException;
+import tech.redroma.google.places.exceptions.GooglePlacesCircuitOpenException;
+import tech.redroma.google.places.exceptions.GooglePlacesOperationFailedException;
+import tech.redroma.google.places.exceptions.GooglePlacesOverloadedException;
+import tech.redroma.google.places.exceptions.GooglePlacesServerErrorException;
+import tech.redroma.google.places.exceptions.GooglePlacesTimeoutException;
+import tech.redroma.google.places.requests.GetPhotoRequest;
+import tech.redroma.google.places.requests.GetPlaceDetailsRequest;
+import tech.redroma.google.places.requests.NearbySearchRequest;
+import tech.redroma.google.places.responses.GetPlaceDetailsResponse;
+import tech.redroma.google.places.responses.PlacesStatus;
+import tech.sirwellington.alchemy.test.junit.runners.AlchemyTestRunner;
+import tech.sirwellington.alchemy.test.junit.runners.GeneratePojo;
+import tech.sirwellington.alchemy.test.junit.runners.Repeat;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static tech.sirwellington.alchemy.test.junit.ThrowableAssertion.assertThrows;
+
+/**
+ *
+ * @author SirWellington
+ */
+@Repeat(10)
+@RunWith(AlchemyTestRunner.class)
+public class CircuitBreakingGooglePlacesAPIImplTest
+{
+
+    private static final int WINDOW = 10;
+    private static final int MINIMUM_CALLS = 4;
+    private static final int HALF_OPEN_CALLS = 2;
+    private static final long WAIT = TimeUnit.SECONDS.toMillis(30);
+    private static final long SLOW = TimeUnit.SECONDS.toMillis(2);
+
+    private GooglePlacesAPI delegate;
+    private Clock clock;
+    private long now;
+
+    private GetPlaceDetailsRequest detailsRequest;
+    private NearbySearchRequest searchRequest;
+    private GetPhotoRequest photoRequest;
+    private URL photoURL;
+
+    @GeneratePojo
+    private GetPlaceDetailsResponse detailsResponse;
+
+    private List<String> transitions;
+
+    private CircuitBreakingGooglePlacesAPIImpl instance;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        detailsRequest = Generators.createGetPlaceDetailsRequest();
+        searchRequest = Generators.createNearbySearchRequest();
+        photoRequest = Generators.createGetPhotoRequest();
+        photoURL = new URL("https://lh3.googleusercontent.com/photo");
+
+        delegate = mock(GooglePlacesAPI.class);
+        when(delegate.getPlaceDetails(detailsRequest)).thenReturn(detailsResponse);
+
+        now = System.currentTimeMillis();
+        clock = mock(Clock.class);
+        when(clock.millis()).thenAnswer(i -> now);
+
+        CircuitBreakerOptions options = CircuitBreakerOptions.newBuilder()
+            .withFailureRateThreshold(50)
+            .withSlowCallRateThreshold(50, SLOW, TimeUnit.MILLISECONDS)
+            .withSlidingWindowSize(WINDOW)
+            .withMinimumNumberOfCalls(MINIMUM_CALLS)
+            .withWaitDurationInOpenState(WAIT, TimeUnit.MILLISECONDS)
+            .withPermittedCallsInHalfOpenState(HALF_OPEN_CALLS)
+            .build();
+
+        instance = new CircuitBreakingGooglePlacesAPIImpl(delegate, options, clock);
+
+        transitions = new ArrayList<>();
+        instance.addListener((endpoint, from, to) -> transitions.add(endpoint + ":" + from + "->" + to));
+    }
+
+    private void failDetails(int times)
+    {
+        when(delegate.getPlaceDetails(detailsRequest)).thenThrow(new GooglePlacesOperationFailedException(new IOException("Connection reset")));
+
+        for (int i = 0; i < times; ++i)
+        {
+            assertThrows(() -> instance.getPlaceDetails(detailsRequest))
+                .isInstanceOf(GooglePlacesOperationFailedException.class);
+        }
+    }
+
+    private void openDetailsCircuit()
+    {
+        failDetails(MINIMUM_CALLS);
+        assertThat(instance.getState(Endpoint.PLACE_DETAILS), is(State.OPEN));
+    }
+
+    @Test
+    public void testClosedByDefault() throws Exception
+    {
+        for (Endpoint endpoint : Endpoint.values())
+        {
+            assertThat(instance.getState(endpoint), is(State.CLOSED));
+        }
+
+        assertThat(instance.getPlaceDetails(detailsRequest), sameInstance(detailsResponse));
+    }
+
+    @Test
+    public void testOpensWhenFailureRateIsReached() throws Exception
+    {
+        failDetails(MINIMUM_CALLS - 1);
+        assertThat(instance.getState(Endpoint.PLACE_DETAILS), is(State.CLOSED));
+
+        failDetails(1);
+        assertThat(instance.getState(Endpoint.PLACE_DETAILS), is(State.OPEN));
+        assertThat(transitions, contains("PLACE_DETAILS:CLOSED->OPEN"));
+
+        assertThrows(() -> instance.getPlaceDetails(detailsRequest))
+            .isInstanceOf(GooglePlacesCircuitOpenException.class);
+
+        verify(delegate, times(MINIMUM_CALLS)).getPlaceDetails(detailsRequest);
+    }
+
+    @Test
+    public void testEndpointsAreIndependent() throws Exception
+    {
+        openDetailsCircuit();
+
+        instance.searchNearbyPlaces(searchRequest);
+        verify(delegate).searchNearbyPlaces(searchRequest);
+        assertThat(instance.getState(Endpoint.NEARBY_SEARCH), is(State.CLOSED));
+    }
+
+    @Test
+    public void testBadArgumentsAreNotFailures() throws Exception
+    {
+        when(delegate.getPlaceDetails(detailsRequest)).thenThrow(new GooglePlacesBadArgumentException());
+
+        for (int i = 0; i < WINDOW; ++i)
+        {
+            assertThrows(() -> instance.getPlaceDetails(detailsRequest))
+                .isInstanceOf(GooglePlacesBadArgumentException.class);
+        }
+
+        assertThat(instance.getState(Endpoint.PLACE_DETAILS), is(State.CLOSED));
+    }
+
+    @Test
+    public void testServerErrorsAreFailures() throws Exception
+    {
+        when(delegate.getPlaceDetails(detailsRequest)).thenThrow(new GooglePlacesOperationFailedException(new HttpStatusException(503, null)));
+
+        for (int i = 0; i < MINIMUM_CALLS; ++i)
+        {
+            assertThrows(() -> instance.getPlaceDetails(detailsRequest))
+                .isInstanceOf(GooglePlacesOperationFailedException.class);
+        }
+
+        assertThat(instance.getState(Endpoint.PLACE_DETAILS), is(State.OPEN));
+    }
+
+    @Test
+    public void testUnknownErrorsAreFailures() throws Exception
+    {
+        //Google reports its own faults with a 200, so there is no HTTP status or IOException to go by
+        when(delegate.getPlaceDetails(detailsRequest)).thenThrow(ExceptionMapper.mapStatus(PlacesStatus.UNKNOWN_ERROR, null));
+
+        for (int i = 0; i < MINIMUM_CALLS; ++i)
+        {
+            assertThrows(() -> instance.getPlaceDetails(detailsRequest))
+                .isInstanceOf(GooglePlacesServerErrorException.class);
+        }
+
+        assertThat(instance.getState(Endpoint.PLACE_DETAILS), is(State.OPEN));
+    }
+
+    @Test
+    public void testSocketTimeoutsAreFailures() throws Exception
+    {
+        when(delegate.getPlaceDetails(detailsRequest)).thenThrow(new GooglePlacesTimeoutException(new SocketTimeoutException()));
+
+        for (int i = 0; i < MINIMUM_CALLS; ++i)
+        {
+            assertThrows(() -> instance.getPlaceDetails(detailsRequest))
+                .isInstanceOf(GooglePlacesTimeoutException.class);
+        }
+
+        assertThat(instance.getState(Endpoint.PLACE_DETAILS), is(State.OPEN));
+    }
+
+    @Test
+    public void testClientErrorsAreNotFailures() throws Exception
+    {
+        when(delegate.getPlaceDetails(detailsRequest)).thenThrow(new GooglePlacesOperationFailedException(new HttpStatusException(403, null)));
+
+        for (int i = 0; i < WINDOW; ++i)
+        {
+            assertThrows(() -> instance.getPlaceDetails(detailsRequest))
+                .isInstanceOf(GooglePlacesOperationFailedException.class);
+        }
+
+        assertThat(instance.getState(Endpoint.PLACE_DETAILS), is(State.CLOSED));
+    }
+
+    @Test
+    public void testSheddingIsNotFailure() throws Exception
+    {
+        when(delegate.getPlaceDetails(detailsRequest)).thenThrow(new GooglePlacesOverloadedException("Too many requests queued"));
+
+        for (int i = 0; i < WINDOW; ++i)
+        {
+            assertThrows(() -> instance.getPlaceDetails(detailsRequest))
+                .isInstanceOf(GooglePlacesOverloadedException.class);
+        }
+
+        assertThat(instance.getState(Endpoint.PLACE_DETAILS), is(State.CLOSED));
+    }
+
+    @Test
+    public void testExpiredDeadlinesAreNotFailures() throws Exception
+    {
+        //Even a socket timeout says nothing about the endpoint, once it was cut short by the caller's deadline
+        when(delegate.getPlaceDetails(detailsRequest)).thenThrow(new GooglePlacesTimeoutException(new SocketTimeoutException()));
+
+        Deadline expired = Deadline.after(0, TimeUnit.MILLISECONDS);
+
+        for (int i = 0; i < WINDOW; ++i)
+        {
+            assertThrows(() -> expired.run(() -> instance.getPlaceDetails(detailsRequest)))
+                .isInstanceOf(GooglePlacesTimeoutException.class);
+        }
+
+        assertThat(instance.getState(Endpoint.PLACE_DETAILS), is(State.CLOSED));
+    }
+
+    @Test
+    public void testPhotosOpenWhenSlow() throws Exception
+    {
+        //A photo that cannot be resolved falls back to its unresolved URL, after waiting out the timeout
+        when(delegate.getPhoto(photoRequest)).thenAnswer(i ->
+        {
+            now += SLOW;
+            return photoURL;
+        });
+
+        for (int i = 0; i < MINIMUM_CALLS; ++i)
+        {
+            assertThat(instance.getPhoto(photoRequest), is(photoURL));
+        }
+
+        assertThat(instance.getState(Endpoint.PHOTO), is(State.OPEN));
+        assertThat(instance.getState(Endpoint.PLACE_DETAILS), is(State.CLOSED));
+
+        assertThrows(() -> instance.getPhoto(photoRequest))
+            .isInstanceOf(GooglePlacesCircuitOpenException.class);
+
+        assertThrows(() -> instance.getPhotos(Collections.singleton(photoRequest)))
+            .isInstanceOf(GooglePlacesCircuitOpenException.class);
+
+        verify(delegate, times(MINIMUM_CALLS)).getPhoto(photoRequest);
+    }
+
+    @Test
+    public void testPhotoBatchesOpenWhenSlow() throws Exception
+    {
+        Collection<GetPhotoRequest> requests = Collections.singleton(photoRequest);
+
+        for (int i = 0; i < MINIMUM_CALLS; ++i)
+        {
+            CompletableFuture<Map<GetPhotoRequest, URL>> batch = new CompletableFuture<>();
+            when(delegate.getPhotos(requests)).thenReturn(batch);
+
+            CompletableFuture<Map<GetPhotoRequest, URL>> result = instance.getPhotos(requests);
+            assertThat(instance.getState(Endpoint.PHOTO), is(State.CLOSED));
+
+            now += SLOW;
+            batch.complete(Collections.singletonMap(photoRequest, photoURL));
+            assertThat(result.get().get(photoRequest), is(photoURL));
+        }
+
+        assertThat(instance.getState(Endpoint.PHOTO), is(State.OPEN));
+    }
+
+    @Test
+    public void testFastPhotosStayClosed() throws Exception
+    {
+        when(delegate.getPhoto(photoRequest)).thenReturn(photoURL);
+
+        for (int i = 0; i < WINDOW; ++i)
+        {
+            instance.getPhoto(photoRequest);
+        }
+
+        assertThat(instance.getState(Endpoint.PHOTO), is(State.CLOSED));
+    }
+
+    @Test
+    public void testOpensWhenCallsAreSlow() throws Exception
+    {
+        when(delegate.getPlaceDetails(detailsRequest)).thenAnswer(i ->
+        {
+            now += SLOW;
+            return detailsResponse;
+        });
+
+        for (int i = 0; i < MINIMUM_CALLS; ++i)
+        {
+            instance.getPlaceDetails(detailsRequest);
+        }
+
+        assertThat(instance.getState(Endpoint.PLACE_DETAILS), is(State.OPEN));
+    }
+
+    @Test
+    public void testHalfOpenThenClosed() throws Exception
+    {
+        openDetailsCircuit();
+
+        now += WAIT;
+        when(delegate.getPlaceDetails(detailsRequest)).thenReturn(detailsResponse);
+
+        for (int i = 0; i < HALF_OPEN_CALLS; ++i)
+        {
+            instance.getPlaceDetails(detailsRequest);
+        }
+
+        assertThat(instance.getState(Endpoint.PLACE_DETAILS), is(State.CLOSED));
+        assertThat(transitions, contains("PLACE_DETAILS:CLOSED->OPEN",
+                                         "PLACE_DETAILS:OPEN->HALF_OPEN",
+                                         "PLACE_DETAILS:HALF_OPEN->CLOSED"));
+    }
+
+    @Test
+    public void testHalfOpenThenOpenAgain() throws Exception
+    {
+        openDetailsCircuit();
+
+        now += WAIT;
+        failDetails(HALF_OPEN_CALLS);
+
+        assertThat(instance.getState(Endpoint.PLACE_DETAILS), is(State.OPEN));
+
+        assertThrows(() -> instance.getPlaceDetails(detailsRequest))
+            .isInstanceOf(GooglePlacesCircuitOpenException.class);
+    }
+
+    @Test
+    public void testHalfOpenLimitsTrialCalls() throws Exception
+    {
+        openDetailsCircuit();
+        now += WAIT;
+
+        //Each trial call makes the next one while it is still outstanding
+        AtomicInteger trials = new AtomicInteger();
+        when(delegate.getPlaceDetails(detailsRequest)).thenAnswer(i ->
+        {
+            if (trials.incrementAndGet() < HALF_OPEN_CALLS)
+            {
+                instance.getPlaceDetails(detailsRequest);
+            }
+            else
+            {
+                assertThrows(() -> instance.getPlaceDetails(detailsRequest))
+                    .isInstanceOf(GooglePlacesCircuitOpenException.class);
+            }
+
+            return detailsResponse;
+        });
+
+        instance.getPlaceDetails(detailsRequest);
+
+        assertThat(trials.get(), is(HALF_OPEN_CALLS));
+        assertThat(instance.getState(Endpoint.PLACE_DETAILS), is(State.CLOSED));
+    }
+
+    @Test
+    public void testErrorsReturnTrialPermits() throws Exception
+    {
+        openDetailsCircuit();
+        now += WAIT;
+
+        when(delegate.getPlaceDetails(detailsRequest)).thenThrow(new StackOverflowError());
+
+        for (int i = 0; i < HALF_OPEN_CALLS; ++i)
+        {
+            assertThrows(() -> instance.getPlaceDetails(detailsRequest))
+                .isInstanceOf(StackOverflowError.class);
+        }
+
+        //Each trial call reported its result, so the circuit is not left waiting for them
+        assertThat(instance.getState(Endpoint.PLACE_DETAILS), is(State.CLOSED));
+    }
+
+    @Test
+    public void testListenerFailuresAreIgnored() throws Exception
+    {
+        instance.addListener((endpoint, from, to) ->
+        {
+            throw new RuntimeException();
+        });
+
+        openDetailsCircuit();
+        assertThat(transitions.isEmpty(), is(false));
+    }
+
+    @Test
+    public void testWithBadArgs() throws Exception
+    {
+        assertThrows(() -> instance.getState(null))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> instance.addListener(null))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(transitions, is(empty()));
+    }
+
+}
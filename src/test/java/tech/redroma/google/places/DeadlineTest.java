@@ -0,0 +1,174 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import tech.redroma.google.places.exceptions.GooglePlacesTimeoutException;
+import tech.sirwellington.alchemy.test.junit.runners.AlchemyTestRunner;
+import tech.sirwellington.alchemy.test.junit.runners.Repeat;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static tech.sirwellington.alchemy.generator.AlchemyGenerator.Get.one;
+import static tech.sirwellington.alchemy.generator.NumberGenerators.integers;
+import static tech.sirwellington.alchemy.test.junit.ThrowableAssertion.assertThrows;
+
+/**
+ *
+ * @author SirWellington
+ */
+@Repeat(10)
+@RunWith(AlchemyTestRunner.class)
+public class DeadlineTest
+{
+
+    private long nanos;
+    private int millis;
+
+    private Deadline instance;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        nanos = one(integers(0, Integer.MAX_VALUE));
+        millis = one(integers(10, 10_000));
+        instance = Deadline.after(millis, TimeUnit.MILLISECONDS, () -> nanos);
+    }
+
+    @Test
+    public void testRemaining() throws Exception
+    {
+        assertThat(instance.remaining(TimeUnit.MILLISECONDS), is((long) millis));
+        assertThat(instance.isExpired(), is(false));
+
+        nanos += TimeUnit.MILLISECONDS.toNanos(millis);
+        assertThat(instance.remaining(TimeUnit.MILLISECONDS), is(0L));
+        assertThat(instance.isExpired(), is(true));
+
+        assertThrows(instance::checkNotExpired)
+            .isInstanceOf(GooglePlacesTimeoutException.class);
+    }
+
+    @Test
+    public void testNone() throws Exception
+    {
+        assertThat(Deadline.NONE.isFinite(), is(false));
+        assertThat(Deadline.NONE.isExpired(), is(false));
+        assertThat(Deadline.NONE.remaining(TimeUnit.DAYS), is(Long.MAX_VALUE));
+        assertThat(Deadline.NONE.boundTimeout(millis), is(millis));
+    }
+
+    @Test
+    public void testBoundTimeout() throws Exception
+    {
+        assertThat(instance.boundTimeout(millis * 2), is(millis));
+        assertThat(instance.boundTimeout(millis / 2), is(millis / 2));
+
+        //0 means no timeout at all
+        assertThat(instance.boundTimeout(0), is(millis));
+
+        //Less than a millisecond left is rounded up, rather than becoming "no timeout"
+        nanos += TimeUnit.MILLISECONDS.toNanos(millis) - 1;
+        assertThat(instance.boundTimeout(0), is(1));
+    }
+
+    @Test
+    public void testBoundTimeoutWhenExpired() throws Exception
+    {
+        nanos += TimeUnit.MILLISECONDS.toNanos(millis);
+
+        assertThrows(() -> instance.boundTimeout(millis))
+            .isInstanceOf(GooglePlacesTimeoutException.class);
+    }
+
+    @Test
+    public void testVeryLongDeadlineDoesNotOverflow() throws Exception
+    {
+        Deadline result = Deadline.after(Long.MAX_VALUE, TimeUnit.DAYS, () -> nanos);
+
+        assertThat(result.isExpired(), is(false));
+    }
+
+    @Test
+    public void testWithNegativeClock() throws Exception
+    {
+        //System.nanoTime() may be negative, and may wrap around while a deadline is in effect
+        nanos = Long.MIN_VALUE + one(integers(0, Integer.MAX_VALUE));
+        Deadline result = Deadline.after(millis, TimeUnit.MILLISECONDS, () -> nanos);
+
+        assertThat(result.isFinite(), is(true));
+        assertThat(result.remaining(TimeUnit.MILLISECONDS), is((long) millis));
+        assertThat(result.isExpired(), is(false));
+
+        nanos = Long.MAX_VALUE - TimeUnit.MILLISECONDS.toNanos(millis) / 2;
+        Deadline wrapping = Deadline.after(millis, TimeUnit.MILLISECONDS, () -> nanos);
+        Deadline sooner = Deadline.after(millis / 2, TimeUnit.MILLISECONDS, () -> nanos);
+
+        assertThat(wrapping.earliest(sooner), sameInstance(sooner));
+        assertThat(sooner.earliest(wrapping), sameInstance(sooner));
+        assertThat(wrapping.earliest(Deadline.NONE), sameInstance(wrapping));
+
+        nanos += TimeUnit.MILLISECONDS.toNanos(millis);
+        assertThat(wrapping.remaining(TimeUnit.MILLISECONDS), is(0L));
+        assertThat(wrapping.isExpired(), is(true));
+    }
+
+    @Test
+    public void testEnter() throws Exception
+    {
+        assertThat(Deadline.current(), sameInstance(Deadline.NONE));
+
+        try (Deadline.Scope scope = instance.enter())
+        {
+            assertThat(Deadline.current(), sameInstance(instance));
+        }
+
+        assertThat(Deadline.current(), sameInstance(Deadline.NONE));
+    }
+
+    @Test
+    public void testNestedDeadlinesKeepTheEarliest() throws Exception
+    {
+        Deadline later = Deadline.after(millis * 2, TimeUnit.MILLISECONDS, () -> nanos);
+        Deadline sooner = Deadline.after(millis / 2, TimeUnit.MILLISECONDS, () -> nanos);
+
+        try (Deadline.Scope outer = instance.enter())
+        {
+            assertThat(later.run(Deadline::current), sameInstance(instance));
+            assertThat(sooner.run(Deadline::current), sameInstance(sooner));
+            assertThat(Deadline.current(), sameInstance(instance));
+        }
+    }
+
+    @Test
+    public void testWithBadArgs() throws Exception
+    {
+        assertThrows(() -> Deadline.after(-1, TimeUnit.SECONDS))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> Deadline.after(1, null))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> instance.run(null))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
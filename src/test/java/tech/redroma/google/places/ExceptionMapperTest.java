@@ -0,0 +1,117 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.net.SocketTimeoutException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import tech.redroma.google.places.exceptions.GooglePlacesAuthenticationException;
+import tech.redroma.google.places.exceptions.GooglePlacesBadArgumentException;
+import tech.redroma.google.places.exceptions.GooglePlacesException;
+import tech.redroma.google.places.exceptions.GooglePlacesLimitExceededException;
+import tech.redroma.google.places.exceptions.GooglePlacesOperationFailedException;
+import tech.redroma.google.places.exceptions.GooglePlacesServerErrorException;
+import tech.redroma.google.places.exceptions.GooglePlacesTimeoutException;
+import tech.redroma.google.places.responses.PlacesStatus;
+import tech.sirwellington.alchemy.test.junit.runners.AlchemyTestRunner;
+import tech.sirwellington.alchemy.test.junit.runners.Repeat;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.sameInstance;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertThat;
+
+/**
+ *
+ * @author SirWellington
+ */
+@Repeat(10)
+@RunWith(AlchemyTestRunner.class)
+public class ExceptionMapperTest
+{
+
+    private ExceptionMapper instance;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        instance = ExceptionMapper.INSTANCE;
+    }
+
+    @Test
+    public void testMapStatus() throws Exception
+    {
+        assertThat(ExceptionMapper.mapStatus(PlacesStatus.OVER_QUERY_LIMIT, null), instanceOf(GooglePlacesLimitExceededException.class));
+        assertThat(ExceptionMapper.mapStatus(PlacesStatus.OVER_DAILY_LIMIT, null), instanceOf(GooglePlacesLimitExceededException.class));
+        assertThat(ExceptionMapper.mapStatus(PlacesStatus.REQUEST_DENIED, null), instanceOf(GooglePlacesAuthenticationException.class));
+        assertThat(ExceptionMapper.mapStatus(PlacesStatus.INVALID_REQUEST, null), instanceOf(GooglePlacesBadArgumentException.class));
+        assertThat(ExceptionMapper.mapStatus(PlacesStatus.NOT_FOUND, null), instanceOf(GooglePlacesBadArgumentException.class));
+        assertThat(ExceptionMapper.mapStatus(PlacesStatus.UNKNOWN_ERROR, null), instanceOf(GooglePlacesServerErrorException.class));
+    }
+
+    @Test
+    public void testMapStatusCode() throws Exception
+    {
+        assertThat(ExceptionMapper.mapStatusCode(400, null), instanceOf(GooglePlacesBadArgumentException.class));
+        assertThat(ExceptionMapper.mapStatusCode(404, null), instanceOf(GooglePlacesBadArgumentException.class));
+        assertThat(ExceptionMapper.mapStatusCode(401, null), instanceOf(GooglePlacesAuthenticationException.class));
+        assertThat(ExceptionMapper.mapStatusCode(500, null), instanceOf(GooglePlacesServerErrorException.class));
+        assertThat(ExceptionMapper.mapStatusCode(403, null), instanceOf(GooglePlacesOperationFailedException.class));
+    }
+
+    @Test
+    public void testMapHttpStatusException() throws Exception
+    {
+        byte[] body = "{\"status\":\"OVER_DAILY_LIMIT\"}".getBytes(UTF_8);
+        HttpStatusException ex = new HttpStatusException(403, body);
+
+        GooglePlacesException result = instance.mapException(ex);
+
+        assertThat(result, instanceOf(GooglePlacesLimitExceededException.class));
+        assertThat(result.getCause(), sameInstance(ex));
+    }
+
+    @Test
+    public void testMapHttpStatusExceptionWithoutStatus() throws Exception
+    {
+        HttpStatusException ex = new HttpStatusException(401, "Unauthorized".getBytes(UTF_8));
+
+        assertThat(instance.mapException(ex), instanceOf(GooglePlacesAuthenticationException.class));
+    }
+
+    @Test
+    public void testMapHttpStatusExceptionWhenStatusIsNotAnError() throws Exception
+    {
+        byte[] body = "{\"status\":\"ZERO_RESULTS\"}".getBytes(UTF_8);
+        HttpStatusException ex = new HttpStatusException(404, body);
+
+        assertThat(instance.mapException(ex), instanceOf(GooglePlacesBadArgumentException.class));
+    }
+
+    @Test
+    public void testMapSocketTimeout() throws Exception
+    {
+        SocketTimeoutException ex = new SocketTimeoutException();
+
+        GooglePlacesException result = instance.mapException(ex);
+
+        assertThat(result, instanceOf(GooglePlacesTimeoutException.class));
+        assertThat(result.getCause(), sameInstance(ex));
+    }
+
+}
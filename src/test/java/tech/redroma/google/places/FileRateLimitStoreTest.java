@@ -0,0 +1,124 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import tech.sirwellington.alchemy.test.junit.runners.AlchemyTestRunner;
+import tech.sirwellington.alchemy.test.junit.runners.Repeat;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static tech.sirwellington.alchemy.generator.AlchemyGenerator.Get.one;
+import static tech.sirwellington.alchemy.generator.NumberGenerators.integers;
+import static tech.sirwellington.alchemy.generator.StringGenerators.alphabeticStrings;
+import static tech.sirwellington.alchemy.test.junit.ThrowableAssertion.assertThrows;
+
+/**
+ *
+ * @author SirWellington
+ */
+@Repeat(10)
+@RunWith(AlchemyTestRunner.class)
+public class FileRateLimitStoreTest
+{
+
+    private Path path;
+    private String bucket;
+    private long window;
+    private int limit;
+
+    private FileRateLimitStore instance;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        path = Files.createTempFile("rate-limits", ".txt");
+        bucket = one(alphabeticStrings());
+        window = one(integers(1, Integer.MAX_VALUE));
+        limit = one(integers(10, 1_000));
+
+        instance = new FileRateLimitStore(path);
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    public void testLeaseUpToTheLimit() throws Exception
+    {
+        assertThat(instance.lease(bucket, window, limit - 1, limit), is((long) limit - 1));
+        assertThat(instance.lease(bucket, window, 5, limit), is(1L));
+        assertThat(instance.lease(bucket, window, 5, limit), is(0L));
+    }
+
+    @Test
+    public void testCountsAreSharedThroughTheFile() throws Exception
+    {
+        instance.lease(bucket, window, limit, limit);
+
+        FileRateLimitStore other = new FileRateLimitStore(path);
+        assertThat(other.lease(bucket, window, 1, limit), is(0L));
+    }
+
+    @Test
+    public void testNewWindowStartsOver() throws Exception
+    {
+        instance.lease(bucket, window, limit, limit);
+
+        assertThat(instance.lease(bucket, window + 1, limit, limit), is((long) limit));
+
+        //An earlier window is over, and has nothing left to give
+        assertThat(instance.lease(bucket, window, 1, limit), is(0L));
+    }
+
+    @Test
+    public void testBucketsAreSeparate() throws Exception
+    {
+        String otherBucket = bucket + " other";
+
+        instance.lease(bucket, window, limit, limit);
+
+        assertThat(instance.lease(otherBucket, window, limit, limit), is((long) limit));
+    }
+
+    @Test
+    public void testWithMissingFile() throws Exception
+    {
+        Files.delete(path);
+
+        assertThat(instance.lease(bucket, window, 1, limit), is(1L));
+    }
+
+    @Test
+    public void testWithBadArgs() throws Exception
+    {
+        assertThrows(() -> new FileRateLimitStore(null))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> instance.lease("two\nlines", window, 1, limit))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package tech.redroma.google.places;
+
+import com.google.gson.FieldNamingPolicy;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import tech.redroma.google.places.data.Place;
+import tech.redroma.google.places.responses.NearbySearchResponse;
+import tech.sirwellington.alchemy.test.junit.runners.AlchemyTestRunner;
+import tech.sirwellington.alchemy.test.junit.runners.Repeat;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static tech.sirwellington.alchemy.generator.AlchemyGenerator.Get.one;
+import static tech.sirwellington.alchemy.generator.StringGenerators.alphabeticStrings;
+import static tech.sirwellington.alchemy.test.junit.ThrowableAssertion.assertThrows;
+
+/**
+ *
+ * @author SirWellington
+ */
+@Repeat(10)
+@RunWith(AlchemyTestRunner.class)
+public class FrozenListTypeAdapterFactoryTest
+{
+
+    private Gson gson;
+
+    private String name;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        gson = InternalResources.newGsonBuilder().create();
+        name = one(alphabeticStrings());
+    }
+
+    @Test
+    public void testReadListsAreUnmodifiable()
+    {
+        String json = "{\"name\":\"" + name + "\",\"types\":[\"bar\"],\"photos\":[{\"html_attributions\":[\"" + name + "\"]}]}";
+
+        Place result = gson.fromJson(json, Place.class);
+
+        assertThat(result.name, is(name));
+        assertThat(result.photos.get(0).htmlAttributions, is(Collections.singletonList(name)));
+
+        assertThrows(() -> result.types.clear())
+            .isInstanceOf(UnsupportedOperationException.class);
+
+        assertThrows(() -> result.photos.add(null))
+            .isInstanceOf(UnsupportedOperationException.class);
+
+        assertThrows(() -> result.photos.get(0).htmlAttributions.set(0, name))
+            .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    public void testGettersDoNotCopy()
+    {
+        String json = "{\"status\":\"OK\",\"html_attributions\":[\"" + name + "\"],\"results\":[{\"name\":\"" + name + "\"}]}";
+
+        NearbySearchResponse result = gson.fromJson(json, NearbySearchResponse.class);
+
+        assertThat(result.getResults(), sameInstance(result.getResults()));
+        assertThat(result.getHtmlAttributions(), sameInstance(result.getHtmlAttributions()));
+        assertThat(result.getResults().get(0).name, is(name));
+    }
+
+    @Test
+    public void testMissingLists()
+    {
+        NearbySearchResponse result = gson.fromJson("{\"status\":\"ZERO_RESULTS\",\"results\":[]}", NearbySearchResponse.class);
+
+        assertThat(result.getResults(), is(empty()));
+        assertThat(result.getHtmlAttributions(), is(empty()));
+    }
+
+    @Test
+    public void testFreeze()
+    {
+        List<String> list = new ArrayList<>(Arrays.asList(name, name));
+
+        List<String> result = FrozenListTypeAdapterFactory.freeze(list);
+        list.clear();
+
+        assertThat(result, is(Arrays.asList(name, name)));
+        assertThrows(() -> result.add(name))
+            .isInstanceOf(UnsupportedOperationException.class);
+
+        assertThat(FrozenListTypeAdapterFactory.freeze(null), is(nullValue()));
+        assertThat(FrozenListTypeAdapterFactory.freeze(new ArrayList<>()), is(empty()));
+    }
+
+    @Test
+    public void testFreezing()
+    {
+        assertThat(FrozenListTypeAdapterFactory.freezing(gson), sameInstance(gson));
+
+        Gson plain = new GsonBuilder().create();
+        Gson result = FrozenListTypeAdapterFactory.freezing(plain);
+
+        List<Place> places = result.fromJson("[{\"name\":\"" + name + "\"}]", new TypeToken<List<Place>>(){}.getType());
+        assertThat(places.get(0).name, is(name));
+
+        assertThrows(() -> places.clear())
+            .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    public void testCodecWithPlainGson() throws Exception
+    {
+        Gson plain = new GsonBuilder()
+            .setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES)
+            .create();
+
+        String json = "{\"status\":\"OK\",\"html_attributions\":[\"" + name + "\"],\"results\":[{\"name\":\"" + name + "\"}]}";
+        NearbySearchResponse result = JsonCodec.gson(plain)
+            .decode(new ByteArrayInputStream(json.getBytes(UTF_8)), NearbySearchResponse.class);
+
+        assertThat(result.getResults().get(0).name, is(name));
+
+        assertThrows(() -> result.getResults().clear())
+            .isInstanceOf(UnsupportedOperationException.class);
+
+        assertThrows(() -> result.getHtmlAttributions().add(name))
+            .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    public void testWrite()
+    {
+        String json = "{\"name\":\"" + name + "\",\"types\":[\"bar\"]}";
+        Place place = gson.fromJson(json, Place.class);
+
+        Place result = gson.fromJson(gson.toJson(place), Place.class);
+
+        assertThat(result, is(place));
+    }
+
+}
@@ -0,0 +1,411 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import tech.redroma.google.places.ApiKeyPool.KeyUsage;
+import tech.redroma.google.places.data.Generators;
+import tech.redroma.google.places.data.PlaceDetails;
+import tech.redroma.google.places.data.PlaceField;
+import tech.redroma.google.places.exceptions.GooglePlacesBadArgumentException;
+import tech.redroma.google.places.exceptions.GooglePlacesLimitExceededException;
+import tech.redroma.google.places.exceptions.GooglePlacesOperationFailedException;
+import tech.redroma.google.places.requests.GetPhotoRequest;
+import tech.redroma.google.places.requests.GetPlaceDetailsRequest;
+import tech.redroma.google.places.requests.NearbySearchRequest;
+import tech.redroma.google.places.responses.GetPlaceDetailsResponse;
+import tech.redroma.google.places.responses.NearbySearchResponse;
+import tech.sirwellington.alchemy.test.junit.runners.AlchemyTestRunner;
+import tech.sirwellington.alchemy.test.junit.runners.Repeat;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static tech.sirwellington.alchemy.test.junit.ThrowableAssertion.assertThrows;
+
+/**
+ *
+ * @author SirWellington
+ */
+@Repeat(10)
+@RunWith(AlchemyTestRunner.class)
+public class GooglePlacesAPIImplTest
+{
+
+    private static final String BASE = "https://places.example.com/api";
+    private static final String FIRST_KEY = "first-key";
+    private static final String SECOND_KEY = "second-key";
+
+    private ApiKeyPool keys;
+    private FakeTransport transport;
+    private List<Interceptor> interceptors;
+
+    private NearbySearchRequest searchRequest;
+    private GetPlaceDetailsRequest detailsRequest;
+    private GetPhotoRequest photoRequest;
+
+    private GooglePlacesAPIImpl instance;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        keys = ApiKeyPool.of(FIRST_KEY, SECOND_KEY);
+        transport = new FakeTransport();
+        interceptors = new ArrayList<>();
+
+        searchRequest = Generators.createNearbySearchRequest();
+        detailsRequest = Generators.createGetPlaceDetailsRequest();
+        photoRequest = Generators.createGetPhotoRequest();
+
+        instance = new GooglePlacesAPIImpl(keys,
+                                           transport,
+                                           JsonCodec.DEFAULT,
+                                           ExceptionMapper.INSTANCE,
+                                           new RequestEncoders.NearbySearchEncoder(),
+                                           new RequestEncoders.GetPlaceDetailsEncoder(),
+                                           new RequestEncoders.AutocompleteEncoder(),
+                                           new BaseURLProvider(BASE),
+                                           PhotoRedirectCache.create(MoreExecutors.directExecutor()),
+                                           interceptors);
+    }
+
+    @Test
+    public void testSearchNearbyPlaces() throws Exception
+    {
+        transport.respond("{\"status\":\"OK\",\"results\":[{\"place_id\":\"abc\",\"name\":\"Cafe\"}]}");
+
+        NearbySearchResponse result = instance.searchNearbyPlaces(searchRequest);
+
+        assertThat(result.getResults(), hasSize(1));
+        assertThat(result.getResults().get(0).placeId, is("abc"));
+        assertThat(transport.urls.get(0), containsString(BASE + "/nearbysearch/json"));
+    }
+
+    @Test
+    public void testErrorStatusIsChecked() throws Exception
+    {
+        transport.respond("{\"status\":\"INVALID_REQUEST\",\"results\":[]}");
+
+        assertThrows(() -> instance.searchNearbyPlaces(searchRequest))
+            .isInstanceOf(GooglePlacesBadArgumentException.class);
+    }
+
+    @Test
+    public void testHttpErrorIsMapped() throws Exception
+    {
+        transport.failWith(new HttpStatusException(503, null));
+
+        assertThrows(() -> instance.getPlaceDetails(detailsRequest))
+            .isInstanceOf(GooglePlacesOperationFailedException.class);
+    }
+
+    @Test
+    public void testEmptyResponse() throws Exception
+    {
+        transport.respond("");
+
+        assertThrows(() -> instance.getPlaceDetails(detailsRequest))
+            .isInstanceOf(GooglePlacesOperationFailedException.class);
+    }
+
+    @Test
+    public void testFieldsAreProjected() throws Exception
+    {
+        GetPlaceDetailsRequest request = GetPlaceDetailsRequest.newBuilder()
+            .withPlaceID(detailsRequest.placeId)
+            .withFields(PlaceField.NAME)
+            .build();
+
+        transport.respond("{\"status\":\"OK\",\"result\":{\"name\":\"Cafe\",\"formatted_address\":\"1 Main St\"}}");
+
+        GetPlaceDetailsResponse result = instance.getPlaceDetails(request);
+        PlaceDetails details = result.getResult();
+
+        assertThat(details.getName(), is("Cafe"));
+        assertThat(details.getFormattedAddress(), nullValue());
+        assertThat(transport.urls.get(0), containsString("fields=name"));
+    }
+
+    @Test
+    public void testKeysAreRotated() throws Exception
+    {
+        transport.respond("{\"status\":\"OK\",\"results\":[]}");
+
+        instance.searchNearbyPlaces(searchRequest);
+        instance.searchNearbyPlaces(searchRequest);
+
+        assertThat(transport.urls.get(0), containsString("key=" + FIRST_KEY));
+        assertThat(transport.urls.get(1), containsString("key=" + SECOND_KEY));
+    }
+
+    @Test
+    public void testKeyOverLimitIsEvicted() throws Exception
+    {
+        transport.respond("{\"status\":\"OVER_QUERY_LIMIT\",\"results\":[]}");
+
+        assertThrows(() -> instance.searchNearbyPlaces(searchRequest))
+            .isInstanceOf(GooglePlacesLimitExceededException.class);
+
+        transport.respond("{\"status\":\"OK\",\"results\":[]}");
+        instance.searchNearbyPlaces(searchRequest);
+        instance.searchNearbyPlaces(searchRequest);
+
+        assertThat(transport.urls.get(1), containsString("key=" + SECOND_KEY));
+        assertThat(transport.urls.get(2), containsString("key=" + SECOND_KEY));
+    }
+
+    @Test
+    public void testInterceptorsSeeEachCall() throws Exception
+    {
+        List<Endpoint> endpoints = new ArrayList<>();
+        interceptors.add(chain ->
+        {
+            endpoints.add(chain.getEndpoint());
+            return chain.proceed(chain.getUrl() + "&rewritten=true");
+        });
+
+        transport.respond("{\"status\":\"OK\",\"result\":{\"name\":\"Cafe\"}}");
+        instance.getPlaceDetails(detailsRequest);
+
+        transport.redirect("https://lh3.googleusercontent.com/photo");
+        instance.getPhoto(photoRequest);
+
+        assertThat(endpoints, contains(Endpoint.PLACE_DETAILS, Endpoint.PHOTO));
+        assertThat(transport.urls.get(0), containsString("&rewritten=true"));
+        assertThat(transport.urls.get(1), containsString("&rewritten=true"));
+    }
+
+    @Test
+    public void testInterceptorCanAnswer() throws Exception
+    {
+        NearbySearchResponse answer = new NearbySearchResponse();
+        interceptors.add(chain -> answer);
+
+        assertThat(instance.searchNearbyPlaces(searchRequest), is(answer));
+        assertThat(transport.urls.isEmpty(), is(true));
+    }
+
+    @Test
+    public void testOnlySentRequestsCountAgainstKeys() throws Exception
+    {
+        NearbySearchResponse answer = new NearbySearchResponse();
+        interceptors.add(chain -> answer);
+        instance.searchNearbyPlaces(searchRequest);
+
+        assertThat(requestsSent(), is(0L));
+
+        interceptors.clear();
+        transport.respond("{\"status\":\"OK\",\"results\":[]}");
+        instance.searchNearbyPlaces(searchRequest);
+
+        assertThat(requestsSent(), is(1L));
+    }
+
+    @Test
+    public void testInterceptorsSeeMappedFailures() throws Exception
+    {
+        List<Exception> seen = new ArrayList<>();
+        interceptors.add(chain ->
+        {
+            try
+            {
+                return chain.proceed();
+            }
+            catch (Exception ex)
+            {
+                seen.add(ex);
+                throw ex;
+            }
+        });
+
+        transport.failWith(new HttpStatusException(503, null));
+        assertThrows(() -> instance.getPlaceDetails(detailsRequest))
+            .isInstanceOf(GooglePlacesOperationFailedException.class);
+
+        transport.respond("{\"status\":\"INVALID_REQUEST\",\"results\":[]}");
+        assertThrows(() -> instance.searchNearbyPlaces(searchRequest))
+            .isInstanceOf(GooglePlacesBadArgumentException.class);
+
+        transport.failWith(new HttpStatusException(404, null));
+        assertThrows(() -> instance.getPhoto(photoRequest))
+            .isInstanceOf(GooglePlacesBadArgumentException.class);
+
+        assertThat(seen, hasSize(3));
+        assertThat(seen.get(0), instanceOf(GooglePlacesOperationFailedException.class));
+        assertThat(seen.get(1), instanceOf(GooglePlacesBadArgumentException.class));
+        assertThat(seen.get(2), instanceOf(GooglePlacesBadArgumentException.class));
+    }
+
+    @Test
+    public void testGetPhoto() throws Exception
+    {
+        URL redirect = new URL("https://lh3.googleusercontent.com/photo");
+        transport.redirect(redirect.toString());
+
+        assertThat(instance.getPhoto(photoRequest), is(redirect));
+
+        //Served from the cache the second time
+        assertThat(instance.getPhoto(photoRequest), is(redirect));
+        assertThat(transport.urls, hasSize(1));
+    }
+
+    @Test
+    public void testGetPhotoWhenRejected() throws Exception
+    {
+        transport.failWith(new HttpStatusException(400, null));
+
+        assertThrows(() -> instance.getPhoto(photoRequest))
+            .isInstanceOf(GooglePlacesBadArgumentException.class);
+    }
+
+    @Test
+    public void testGetPhotoFallsBack() throws Exception
+    {
+        transport.failWith(new IOException("Connection reset"));
+
+        URL result = instance.getPhoto(photoRequest);
+
+        assertThat(result.toString(), containsString(BASE + "/photo"));
+    }
+
+    @Test
+    public void testGetPhotoWithoutRedirect() throws Exception
+    {
+        //The unresolved URL carries the key, so it is never cached
+        instance.getPhoto(photoRequest);
+        instance.getPhoto(photoRequest);
+
+        assertThat(transport.urls, hasSize(2));
+    }
+
+    @Test
+    public void testPhotoFailuresEvictTheKey() throws Exception
+    {
+        transport.failWith(new HttpStatusException(403, "{\"status\":\"OVER_QUERY_LIMIT\"}".getBytes(UTF_8)));
+
+        URL result = instance.getPhoto(photoRequest);
+
+        assertThat(transport.urls.get(0), containsString("key=" + FIRST_KEY));
+        assertThat(keys.isAvailable(FIRST_KEY), is(false));
+        assertThat(result.toString(), containsString("key=" + SECOND_KEY));
+
+        //Once every key is evicted, there is no usable URL to fall back to
+        assertThrows(() -> instance.getPhoto(photoRequest))
+            .isInstanceOf(GooglePlacesOperationFailedException.class);
+
+        assertThat(keys.isAvailable(SECOND_KEY), is(false));
+    }
+
+    @Test
+    public void testGetPhotos() throws Exception
+    {
+        transport.redirect("https://lh3.googleusercontent.com/photo");
+
+        Map<GetPhotoRequest, URL> result = instance.getPhotos(Collections.singletonList(photoRequest)).get();
+
+        assertThat(result.get(photoRequest), is(new URL("https://lh3.googleusercontent.com/photo")));
+    }
+
+    @Test
+    public void testWithBadArgs() throws Exception
+    {
+        assertThrows(() -> instance.searchNearbyPlaces(null))
+            .isInstanceOf(GooglePlacesBadArgumentException.class);
+
+        assertThrows(() -> instance.getPlaceDetails(null))
+            .isInstanceOf(GooglePlacesBadArgumentException.class);
+
+        assertThrows(() -> instance.getPhoto(null))
+            .isInstanceOf(GooglePlacesBadArgumentException.class);
+    }
+
+    private long requestsSent()
+    {
+        return keys.getUsage().stream().mapToLong(KeyUsage::getRequests).sum();
+    }
+
+    /**
+     * Answers every request with the same canned response, and remembers the URLs requested.
+     */
+    private static final class FakeTransport implements HttpTransport
+    {
+
+        private final List<String> urls = new ArrayList<>();
+        private String body = "";
+        private String location;
+        private IOException failure;
+
+        void respond(String body)
+        {
+            this.body = body;
+            this.failure = null;
+        }
+
+        void redirect(String location)
+        {
+            this.location = location;
+            this.failure = null;
+        }
+
+        void failWith(IOException failure)
+        {
+            this.failure = failure;
+        }
+
+        @Override
+        public <T> T get(String url, BodyDecoder<T> decoder, Deadline deadline) throws IOException
+        {
+            urls.add(url);
+
+            if (failure != null)
+            {
+                throw failure;
+            }
+
+            return decoder.decode(new ByteArrayInputStream(body.getBytes(UTF_8)));
+        }
+
+        @Override
+        public URL resolveRedirect(URL url, Deadline deadline) throws IOException
+        {
+            urls.add(url.toString());
+
+            if (failure != null)
+            {
+                throw failure;
+            }
+
+            return location != null ? new URL(location) : url;
+        }
+    }
+
+}
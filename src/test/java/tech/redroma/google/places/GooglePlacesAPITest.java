@@ -16,22 +16,41 @@
 
 package tech.redroma.google.places;
 
+import java.io.ByteArrayInputStream;
 import java.net.URL;
+import java.util.concurrent.TimeUnit;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import tech.redroma.google.places.data.Generators;
 import tech.redroma.google.places.exceptions.GooglePlacesException;
 import tech.redroma.google.places.requests.GetPhotoRequest;
 import tech.redroma.google.places.requests.GetPlaceDetailsRequest;
 import tech.redroma.google.places.requests.NearbySearchRequest;
 import tech.redroma.google.places.responses.GetPlaceDetailsResponse;
 import tech.redroma.google.places.responses.NearbySearchResponse;
+import tech.redroma.google.places.responses.PlacesStatus;
 import tech.sirwellington.alchemy.test.junit.runners.AlchemyTestRunner;
 import tech.sirwellington.alchemy.test.junit.runners.GenerateString;
 import tech.sirwellington.alchemy.test.junit.runners.Repeat;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.Matchers.startsWith;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+import static tech.sirwellington.alchemy.generator.AlchemyGenerator.Get.one;
+import static tech.sirwellington.alchemy.generator.NumberGenerators.integers;
+import static tech.sirwellington.alchemy.test.junit.ThrowableAssertion.assertThrows;
 import static tech.sirwellington.alchemy.test.junit.runners.GenerateString.Type.HEXADECIMAL;
 
 
@@ -79,6 +98,122 @@ public class GooglePlacesAPITest
         assertThat(instance, notNullValue());
     }
 
+    @Test
+    public void testCreateWithKeyPool() throws Exception
+    {
+        GooglePlacesAPI result = GooglePlacesAPI.create(ApiKeyPool.of(apiKey));
+        assertThat(result, notNullValue());
+    }
+
+    @Test
+    public void testBuilder() throws Exception
+    {
+        HttpTransport transport = mock(HttpTransport.class);
+        byte[] json = "{\"status\":\"OK\",\"results\":[]}".getBytes(UTF_8);
+
+        when(transport.get(anyString(), any(), any()))
+            .thenAnswer(i -> ((HttpTransport.BodyDecoder<?>) i.getArgument(1)).decode(new ByteArrayInputStream(json)));
+
+        String baseURL = "http://localhost:" + one(integers(1024, 65_000)) + "/place";
+
+        GooglePlacesAPI result = GooglePlacesAPI.newBuilder()
+            .withApiKey(apiKey)
+            .withTransport(transport)
+            .withBaseURL(baseURL)
+            .withGson(JsonCodec.newGsonBuilder().create())
+            .build();
+
+        NearbySearchResponse response = result.searchNearbyPlaces(Generators.createNearbySearchRequest());
+        assertThat(response.getPlacesStatus(), is(PlacesStatus.OK));
+
+        ArgumentCaptor<String> url = ArgumentCaptor.forClass(String.class);
+        verify(transport).get(url.capture(), any(), any());
+        assertThat(url.getValue(), startsWith(baseURL + "/nearbysearch/json?"));
+        assertThat(url.getValue(), containsString(apiKey));
+    }
+
+    @Test
+    public void testBuilderWithInterceptor() throws Exception
+    {
+        HttpTransport transport = mock(HttpTransport.class);
+        GetPlaceDetailsResponse cached = new GetPlaceDetailsResponse();
+
+        GooglePlacesAPI result = GooglePlacesAPI.newBuilder()
+            .withApiKey(apiKey)
+            .withTransport(transport)
+            .withInterceptor(chain -> chain.getEndpoint() == Endpoint.PLACE_DETAILS ? cached : chain.proceed())
+            .build();
+
+        GetPlaceDetailsResponse response = result.getPlaceDetails(Generators.createGetPlaceDetailsRequest());
+        assertThat(response, sameInstance(cached));
+        verifyZeroInteractions(transport);
+    }
+
+    @Test
+    public void testBuilderWithDefaults() throws Exception
+    {
+        GooglePlacesAPI result = GooglePlacesAPI.newBuilder()
+            .withApiKeys(ApiKeyPool.of(apiKey))
+            .withTimeouts(1, 5, TimeUnit.SECONDS)
+            .withCompression(false)
+            .withTransferMetrics(TransferMetrics.create())
+            .withPhotoThreads(one(integers(1, 10)))
+            .build();
+
+        assertThat(result, notNullValue());
+    }
+
+    @Test
+    public void testBuilderWithoutApiKey() throws Exception
+    {
+        GooglePlacesAPI.Builder builder = GooglePlacesAPI.newBuilder();
+
+        assertThrows(builder::build)
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testBuilderWithBadArgs() throws Exception
+    {
+        GooglePlacesAPI.Builder builder = GooglePlacesAPI.newBuilder();
+
+        assertThrows(() -> builder.withApiKey(""))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> builder.withApiKeys(null))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> builder.withTransport(null))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> builder.withTimeouts(0, 1, TimeUnit.SECONDS))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> builder.withTimeouts(1, 1, TimeUnit.NANOSECONDS))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> builder.withTimeouts(30, 1, TimeUnit.DAYS))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> builder.withTransferMetrics(null))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> builder.withJsonCodec(null))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> builder.withBaseURL(""))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> builder.withExecutor(null))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> builder.withInterceptor(null))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> builder.withPhotoThreads(0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
     public void testSearchNearbyPlaces()
     {
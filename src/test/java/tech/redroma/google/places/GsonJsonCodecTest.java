@@ -0,0 +1,208 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package tech.redroma.google.places;
+
+import com.google.gson.FieldNamingPolicy;
+import com.google.gson.annotations.SerializedName;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import tech.redroma.google.places.data.PlaceDetails;
+import tech.redroma.google.places.data.PlaceField;
+import tech.redroma.google.places.responses.GetPlaceDetailsResponse;
+import tech.redroma.google.places.responses.PlacesStatus;
+import tech.sirwellington.alchemy.test.junit.runners.AlchemyTestRunner;
+import tech.sirwellington.alchemy.test.junit.runners.Repeat;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toSet;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static tech.sirwellington.alchemy.generator.AlchemyGenerator.Get.one;
+import static tech.sirwellington.alchemy.generator.StringGenerators.alphabeticStrings;
+import static tech.sirwellington.alchemy.test.junit.ThrowableAssertion.assertThrows;
+
+/**
+ *
+ * @author SirWellington
+ */
+@Repeat(10)
+@RunWith(AlchemyTestRunner.class)
+public class GsonJsonCodecTest
+{
+
+    private String name;
+
+    private String json;
+
+    private JsonCodec instance;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        name = one(alphabeticStrings());
+
+        json = "{\"html_attributions\":[],\"status\":\"OK\",\"result\":{" +
+               "\"name\":\"" + name + "\"," +
+               "\"website\":\"https://example.com\"," +
+               "\"geometry\":{\"location\":{\"lat\":1.5,\"lng\":2.5}}," +
+               "\"reviews\":[{\"author_name\":\"A\",\"text\":\"Good\",\"nested\":{\"a\":[1,2,{\"b\":null}]}}]," +
+               "\"photos\":[{\"photo_reference\":\"ref\",\"width\":10,\"height\":20}]," +
+               "\"address_components\":[{\"long_name\":\"Main\",\"short_name\":\"M\"}]}}";
+
+        instance = JsonCodec.DEFAULT;
+    }
+
+    @Test
+    public void testDecode() throws Exception
+    {
+        GetPlaceDetailsResponse result = instance.decode(body(json), GetPlaceDetailsResponse.class);
+
+        assertThat(result.getPlacesStatus(), is(PlacesStatus.OK));
+        assertThat(result.getResult().getName(), is(name));
+        assertThat(result.getResult().getReviews().size(), is(1));
+        assertThat(result.getResult().getPhotos().size(), is(1));
+    }
+
+    @Test
+    public void testDecodeWithFields() throws Exception
+    {
+        GetPlaceDetailsResponse result = instance.decode(body(json),
+                                                         GetPlaceDetailsResponse.class,
+                                                         EnumSet.of(PlaceField.NAME, PlaceField.GEOMETRY));
+
+        assertThat(result.getPlacesStatus(), is(PlacesStatus.OK));
+
+        PlaceDetails details = result.getResult();
+        assertThat(details.getName(), is(name));
+        assertThat(details.getGeometry(), notNullValue());
+        assertThat(details.getReviews(), is(empty()));
+        assertThat(details.getPhotos(), is(empty()));
+        assertThat(details.getAddressComponents(), is(empty()));
+    }
+
+    @Test
+    public void testDecodeWithWebsite() throws Exception
+    {
+        GetPlaceDetailsResponse result = instance.decode(body(json),
+                                                         GetPlaceDetailsResponse.class,
+                                                         EnumSet.of(PlaceField.WEBSITE));
+
+        assertThat(result.getResult().getWebsite(), is("https://example.com"));
+        assertThat(result.getResult().getName(), nullValue());
+    }
+
+    @Test
+    public void testEveryMemberCanBeRequested() throws Exception
+    {
+        Set<String> requestable = EnumSet.allOf(PlaceField.class).stream()
+            .map(PlaceField::getJsonName)
+            .collect(toSet());
+
+        for (Field field : PlaceDetails.class.getDeclaredFields())
+        {
+            if (Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers()))
+            {
+                continue;
+            }
+
+            SerializedName serializedName = field.getAnnotation(SerializedName.class);
+            String jsonName = serializedName != null
+                              ? serializedName.value()
+                              : FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES.translateName(field);
+
+            assertThat(requestable, hasItem(jsonName));
+        }
+    }
+
+    @Test
+    public void testDecodeWithListFields() throws Exception
+    {
+        GetPlaceDetailsResponse result = instance.decode(body(json),
+                                                         GetPlaceDetailsResponse.class,
+                                                         EnumSet.of(PlaceField.PHOTOS));
+
+        PlaceDetails details = result.getResult();
+        assertThat(details.getPhotos().size(), is(1));
+        assertThat(details.getName(), nullValue());
+        assertThat(details.getReviews(), is(empty()));
+    }
+
+    @Test
+    public void testDecodeWithFieldsWhenLazy() throws Exception
+    {
+        instance = JsonCodec.LAZY;
+
+        GetPlaceDetailsResponse result = instance.decode(body(json),
+                                                         GetPlaceDetailsResponse.class,
+                                                         EnumSet.of(PlaceField.PHOTOS, PlaceField.NAME));
+
+        PlaceDetails details = result.getResult();
+        assertThat(details.getName(), is(name));
+        assertThat(details.getPhotos(), instanceOf(LazyJsonList.class));
+        assertThat(details.getPhotos().get(0).photoReference, is("ref"));
+        assertThat(details.getReviews(), is(empty()));
+    }
+
+    @Test
+    public void testDecodeWithoutFields() throws Exception
+    {
+        GetPlaceDetailsResponse result = instance.decode(body(json), GetPlaceDetailsResponse.class, Collections.emptySet());
+
+        assertThat(result.getResult().getReviews().size(), is(1));
+    }
+
+    @Test
+    public void testDecodeWithFieldsWhenEmpty() throws Exception
+    {
+        GetPlaceDetailsResponse result = instance.decode(body(""), GetPlaceDetailsResponse.class, EnumSet.of(PlaceField.NAME));
+
+        assertThat(result, nullValue());
+    }
+
+    @Test
+    public void testDecodeWithMalformedBody() throws Exception
+    {
+        String malformed = json.substring(0, json.length() / 2);
+
+        assertThrows(() -> instance.decode(body(malformed), GetPlaceDetailsResponse.class))
+            .isInstanceOf(IOException.class);
+
+        assertThrows(() -> instance.decode(body(malformed), GetPlaceDetailsResponse.class, EnumSet.of(PlaceField.NAME)))
+            .isInstanceOf(IOException.class);
+    }
+
+    private InputStream body(String json)
+    {
+        return new ByteArrayInputStream(json.getBytes(UTF_8));
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import tech.sirwellington.alchemy.test.junit.runners.AlchemyTestRunner;
+import tech.sirwellington.alchemy.test.junit.runners.Repeat;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static tech.sirwellington.alchemy.generator.AlchemyGenerator.Get.one;
+import static tech.sirwellington.alchemy.generator.NumberGenerators.integers;
+import static tech.sirwellington.alchemy.generator.StringGenerators.alphabeticStrings;
+
+/**
+ *
+ * @author SirWellington
+ */
+@Repeat(10)
+@RunWith(AlchemyTestRunner.class)
+public class InMemoryRateLimitStoreTest
+{
+
+    private String bucket;
+    private long window;
+    private int limit;
+
+    private InMemoryRateLimitStore instance;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        bucket = one(alphabeticStrings());
+        window = one(integers(1, Integer.MAX_VALUE));
+        limit = one(integers(10, 1_000));
+
+        instance = new InMemoryRateLimitStore();
+    }
+
+    @Test
+    public void testLeaseUpToTheLimit() throws Exception
+    {
+        assertThat(instance.lease(bucket, window, limit - 1, limit), is((long) limit - 1));
+        assertThat(instance.lease(bucket, window, 5, limit), is(1L));
+        assertThat(instance.lease(bucket, window, 5, limit), is(0L));
+    }
+
+    @Test
+    public void testNewWindowStartsOver() throws Exception
+    {
+        instance.lease(bucket, window, limit, limit);
+
+        assertThat(instance.lease(bucket, window + 1, limit, limit), is((long) limit));
+        assertThat(instance.lease(bucket, window, 1, limit), is(0L));
+    }
+
+    @Test
+    public void testConcurrentLeasesNeverExceedTheLimit() throws Exception
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Long>> leases = new ArrayList<>();
+        Callable<Long> lease = () -> instance.lease(bucket, window, 3, limit);
+
+        for (int i = 0; i < limit; ++i)
+        {
+            leases.add(executor.submit(lease));
+        }
+
+        long granted = 0;
+
+        for (Future<Long> future : leases)
+        {
+            granted += future.get();
+        }
+
+        executor.shutdown();
+        assertThat(granted, is((long) limit));
+    }
+
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package tech.redroma.google.places;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import tech.redroma.google.places.data.Generators;
+import tech.redroma.google.places.exceptions.GooglePlacesException;
+import tech.redroma.google.places.exceptions.GooglePlacesOperationFailedException;
+import tech.redroma.google.places.requests.GetPlaceDetailsRequest;
+import tech.redroma.google.places.responses.GetPlaceDetailsResponse;
+import tech.sirwellington.alchemy.test.junit.runners.AlchemyTestRunner;
+import tech.sirwellington.alchemy.test.junit.runners.GenerateString;
+import tech.sirwellington.alchemy.test.junit.runners.Repeat;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static tech.sirwellington.alchemy.test.junit.ThrowableAssertion.assertThrows;
+import static tech.sirwellington.alchemy.test.junit.runners.GenerateString.Type.ALPHABETIC;
+
+/**
+ *
+ * @author SirWellington
+ */
+@Repeat(10)
+@RunWith(AlchemyTestRunner.class)
+public class InterceptorChainTest
+{
+
+    @GenerateString(ALPHABETIC)
+    private String url;
+
+    private GetPlaceDetailsRequest request;
+
+    private GetPlaceDetailsResponse response;
+
+    private List<String> calls;
+
+    private InterceptorChain.Call<GetPlaceDetailsResponse> call;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        request = Generators.createGetPlaceDetailsRequest();
+        response = new GetPlaceDetailsResponse();
+        calls = new ArrayList<>();
+
+        call = u ->
+        {
+            calls.add("call:" + u);
+            return response;
+        };
+    }
+
+    @Test
+    public void testDispatchWithoutInterceptors() throws Exception
+    {
+        GetPlaceDetailsResponse result = dispatch(Collections.emptyList());
+
+        assertThat(result, sameInstance(response));
+        assertThat(calls, contains("call:" + url));
+    }
+
+    @Test
+    public void testInterceptorsRunInOrder() throws Exception
+    {
+        GetPlaceDetailsResponse result = dispatch(Arrays.asList(recording("first"), recording("second")));
+
+        assertThat(result, sameInstance(response));
+        assertThat(calls, contains("first:before", "second:before", "call:" + url, "second:after", "first:after"));
+    }
+
+    @Test
+    public void testInterceptorSeesTheCall() throws Exception
+    {
+        Interceptor interceptor = chain ->
+        {
+            assertThat(chain.getEndpoint(), is(Endpoint.PLACE_DETAILS));
+            assertThat(chain.getRequest(), sameInstance(request));
+            assertThat(chain.getUrl(), is(url));
+            assertThat(chain.getResponseType(), sameInstance(GetPlaceDetailsResponse.class));
+
+            return chain.proceed();
+        };
+
+        dispatch(Collections.singletonList(interceptor));
+        assertThat(calls, contains("call:" + url));
+    }
+
+    @Test
+    public void testShortCircuit() throws Exception
+    {
+        GetPlaceDetailsResponse cached = new GetPlaceDetailsResponse();
+
+        GetPlaceDetailsResponse result = dispatch(Arrays.asList(chain -> cached, recording("second")));
+
+        assertThat(result, sameInstance(cached));
+        assertThat(calls, is(empty()));
+    }
+
+    @Test
+    public void testRewriteUrl() throws Exception
+    {
+        String rewritten = url + "&language=fr";
+
+        dispatch(Arrays.asList(chain -> chain.proceed(rewritten), recording("second")));
+
+        assertThat(calls, contains("second:before", "call:" + rewritten, "second:after"));
+    }
+
+    @Test
+    public void testInterceptorSeesFailures() throws Exception
+    {
+        call = u ->
+        {
+            throw new GooglePlacesOperationFailedException();
+        };
+
+        List<Throwable> seen = new ArrayList<>();
+        Interceptor interceptor = chain ->
+        {
+            try
+            {
+                return chain.proceed();
+            }
+            catch (GooglePlacesException ex)
+            {
+                seen.add(ex);
+                throw ex;
+            }
+        };
+
+        assertThrows(() -> dispatch(Collections.singletonList(interceptor)))
+            .isInstanceOf(GooglePlacesOperationFailedException.class);
+
+        assertThat(seen.size(), is(1));
+    }
+
+    @Test
+    public void testInterceptorReturningWrongType() throws Exception
+    {
+        assertThrows(() -> dispatch(Collections.singletonList(chain -> url)))
+            .isInstanceOf(GooglePlacesOperationFailedException.class);
+
+        assertThrows(() -> dispatch(Collections.singletonList(chain -> null)))
+            .isInstanceOf(GooglePlacesOperationFailedException.class);
+    }
+
+    private GetPlaceDetailsResponse dispatch(List<Interceptor> interceptors) throws Exception
+    {
+        return InterceptorChain.dispatch(interceptors, Endpoint.PLACE_DETAILS, request, url, GetPlaceDetailsResponse.class, call);
+    }
+
+    private Interceptor recording(String name)
+    {
+        return chain ->
+        {
+            calls.add(name + ":before");
+            Object result = chain.proceed();
+            calls.add(name + ":after");
+
+            return result;
+        };
+    }
+
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package tech.redroma.google.places;
+
+import com.google.gson.Gson;
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.lang.reflect.Field;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import tech.redroma.google.places.data.Photo;
+import tech.redroma.google.places.data.Place;
+import tech.redroma.google.places.data.PlaceDetails;
+import tech.redroma.google.places.data.Review;
+import tech.redroma.google.places.exceptions.GooglePlacesOperationFailedException;
+import tech.redroma.google.places.responses.GetPlaceDetailsResponse;
+import tech.sirwellington.alchemy.test.junit.runners.AlchemyTestRunner;
+import tech.sirwellington.alchemy.test.junit.runners.Repeat;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static tech.sirwellington.alchemy.generator.AlchemyGenerator.Get.one;
+import static tech.sirwellington.alchemy.generator.NumberGenerators.integers;
+import static tech.sirwellington.alchemy.generator.StringGenerators.alphabeticStrings;
+
+/**
+ *
+ * @author SirWellington
+ */
+@Repeat(10)
+@RunWith(AlchemyTestRunner.class)
+public class LazyListTypeAdapterFactoryTest
+{
+
+    private String author;
+
+    private int width;
+
+    private String json;
+
+    private Gson gson;
+
+    private Gson eager;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        author = one(alphabeticStrings());
+        width = one(integers(1, 1_000));
+
+        json = "{\"name\":\"place\"," +
+               "\"reviews\":[{\"author_name\":\"" + author + "\",\"rating\":4,\"text\":\"\\\"quoted\\\"\"," +
+               "\"aspects\":[{\"type\":\"food\",\"rating\":3}],\"extra\":[null,true,1.5e3]}]," +
+               "\"photos\":[{\"photo_reference\":\"ref\",\"width\":" + width + ",\"height\":20}]," +
+               "\"address_components\":[{\"long_name\":\"Main\",\"short_name\":\"M\"}]}";
+
+        gson = InternalResources.newGsonBuilder()
+            .registerTypeAdapterFactory(new LazyListTypeAdapterFactory(Review.class, Photo.class))
+            .create();
+
+        eager = InternalResources.GSON;
+    }
+
+    @Test
+    public void testListsAreDecodedOnFirstUse() throws Exception
+    {
+        PlaceDetails result = read(json, PlaceDetails.class);
+
+        LazyJsonList<?> reviews = (LazyJsonList<?>) fieldOf(result, "reviews");
+        LazyJsonList<?> photos = (LazyJsonList<?>) fieldOf(result, "photos");
+        assertFalse(reviews.isDecoded());
+        assertFalse(photos.isDecoded());
+
+        assertThat(result.getReviews().get(0).getAuthorName(), is(author));
+        assertTrue(reviews.isDecoded());
+        assertFalse(photos.isDecoded());
+
+        assertThat(result.getPhotos().get(0).width, is(width));
+        assertTrue(photos.isDecoded());
+    }
+
+    @Test
+    public void testOtherListsAreNotLazy() throws Exception
+    {
+        PlaceDetails result = read(json, PlaceDetails.class);
+
+        assertThat(fieldOf(result, "addressComponents"), not(instanceOf(LazyJsonList.class)));
+        assertThat(result.getAddressComponents().size(), is(1));
+    }
+
+    @Test
+    public void testPlacePhotosAreLazy() throws Exception
+    {
+        Place result = read(json, Place.class);
+
+        assertThat(result.photos, instanceOf(LazyJsonList.class));
+        assertThat(result.photos.get(0).width, is(width));
+    }
+
+    @Test
+    public void testMatchesEagerDecoding() throws Exception
+    {
+        PlaceDetails lazy = read(json, PlaceDetails.class);
+        PlaceDetails expected = eager.fromJson(json, PlaceDetails.class);
+
+        assertThat(lazy, is(expected));
+        assertThat(lazy.hashCode(), is(expected.hashCode()));
+        assertThat(lazy.getReviews(), is(expected.getReviews()));
+    }
+
+    @Test
+    public void testWrite() throws Exception
+    {
+        PlaceDetails lazy = read(json, PlaceDetails.class);
+        String written = gson.toJson(lazy);
+
+        assertThat(eager.fromJson(written, PlaceDetails.class), is(eager.fromJson(json, PlaceDetails.class)));
+    }
+
+    @Test
+    public void testWithMissingLists() throws Exception
+    {
+        PlaceDetails result = read("{\"name\":\"place\",\"reviews\":null}", PlaceDetails.class);
+
+        assertThat(fieldOf(result, "reviews"), is(nullValue()));
+        assertThat(result.getReviews().size(), is(0));
+        assertThat(result.getPhotos().size(), is(0));
+    }
+
+    @Test
+    public void testWithMalformedElements() throws Exception
+    {
+        PlaceDetails result = read("{\"reviews\":[{\"rating\":\"excellent\"}]}", PlaceDetails.class);
+
+        try
+        {
+            result.getReviews();
+            fail("Expected an exception");
+        }
+        catch (GooglePlacesOperationFailedException ex)
+        {
+            assertThat(ex.getMessage(), not(containsString("excellent")));
+        }
+    }
+
+    @Test
+    public void testLazyCodec() throws Exception
+    {
+        String response = "{\"status\":\"OK\",\"result\":" + json + "}";
+        GetPlaceDetailsResponse result = JsonCodec.LAZY.decode(new ByteArrayInputStream(response.getBytes(UTF_8)),
+                                                               GetPlaceDetailsResponse.class);
+
+        assertThat(fieldOf(result.getResult(), "reviews"), instanceOf(LazyJsonList.class));
+        assertThat(result.getResult().getReviews().get(0).getAuthorName(), is(author));
+    }
+
+    @Test
+    public void testWithOtherReaders() throws Exception
+    {
+        PlaceDetails result = gson.fromJson(json, PlaceDetails.class);
+
+        assertThat(fieldOf(result, "reviews"), not(instanceOf(LazyJsonList.class)));
+        assertThat(result, is(eager.fromJson(json, PlaceDetails.class)));
+    }
+
+    private <T> T read(String json, Class<T> type)
+    {
+        return gson.fromJson(new RecordingJsonReader(new StringReader(json)), type);
+    }
+
+    private static List<?> fieldOf(Object object, String name) throws Exception
+    {
+        Field field = object.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+
+        return (List<?>) field.get(object);
+    }
+
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import tech.redroma.google.places.data.Generators;
+import tech.redroma.google.places.exceptions.GooglePlacesBadArgumentException;
+import tech.redroma.google.places.requests.GetPhotoRequest;
+import tech.sirwellington.alchemy.test.junit.runners.AlchemyTestRunner;
+import tech.sirwellington.alchemy.test.junit.runners.Repeat;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static tech.sirwellington.alchemy.test.junit.ThrowableAssertion.assertThrows;
+
+/**
+ *
+ * @author SirWellington
+ */
+@Repeat(10)
+@RunWith(AlchemyTestRunner.class)
+public class PhotoRedirectCacheTest
+{
+
+    private GetPhotoRequest request;
+    private URL redirect;
+    private URL fallback;
+
+    private AtomicInteger resolutions;
+
+    private PhotoRedirectCache instance;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        request = Generators.createGetPhotoRequest();
+        redirect = new URL("https://lh3.googleusercontent.com/" + request.photoReference);
+        fallback = new URL("https://maps.googleapis.com/maps/api/place/photo");
+        resolutions = new AtomicInteger();
+
+        instance = new PhotoRedirectCache(1, TimeUnit.HOURS, 100, 2, Runnable::run);
+    }
+
+    @Test
+    public void testGetResolvesOnlyOnce() throws Exception
+    {
+        URL first = instance.get(request, this::resolve);
+        URL second = instance.get(request, this::resolve);
+
+        assertThat(first, is(redirect));
+        assertThat(second, is(redirect));
+        assertThat(resolutions.get(), is(1));
+    }
+
+    @Test
+    public void testGetWhenResolutionFails() throws Exception
+    {
+        assertThrows(() -> instance.get(request, r -> { throw new IOException(); }))
+            .isInstanceOf(IOException.class);
+
+        assertThat(instance.getIfPresent(request), nullValue());
+    }
+
+    @Test
+    public void testGetWhenResolutionFailsUnchecked() throws Exception
+    {
+        assertThrows(() -> instance.get(request, r -> { throw new GooglePlacesBadArgumentException(); }))
+            .isInstanceOf(GooglePlacesBadArgumentException.class);
+
+        assertThat(instance.getIfPresent(request), nullValue());
+    }
+
+    @Test
+    public void testGetIfPresent() throws Exception
+    {
+        assertThat(instance.getIfPresent(request), nullValue());
+
+        instance.get(request, this::resolve);
+        assertThat(instance.getIfPresent(request), is(redirect));
+    }
+
+    @Test
+    public void testResolveAll() throws Exception
+    {
+        GetPhotoRequest other = Generators.createGetPhotoRequest();
+        GetPhotoRequest third = Generators.createGetPhotoRequest();
+        List<GetPhotoRequest> requests = Arrays.asList(request, other, third);
+
+        instance.get(request, this::resolve);
+
+        Map<GetPhotoRequest, URL> results = instance.resolveAll(requests, this::resolve, (r, ex) -> fallback).get();
+
+        assertThat(results.size(), is(3));
+        assertThat(results.get(request), is(redirect));
+        assertThat(results.get(other), is(redirect));
+        assertThat(results.get(third), is(redirect));
+        assertThat(resolutions.get(), is(3));
+    }
+
+    @Test
+    public void testResolveAllWhenResolutionFails() throws Exception
+    {
+        GetPhotoRequest other = Generators.createGetPhotoRequest();
+        List<GetPhotoRequest> requests = Arrays.asList(request, other);
+        IOException failure = new IOException();
+
+        Map<GetPhotoRequest, URL> results = instance.resolveAll(requests, r -> { throw failure; }, (r, ex) ->
+        {
+            assertThat(ex, sameInstance(failure));
+
+            if (r.equals(other))
+            {
+                throw new GooglePlacesBadArgumentException();
+            }
+
+            return fallback;
+        }).get();
+
+        assertThat(results.get(request), is(fallback));
+        assertThat(results.containsKey(other), is(true));
+        assertThat(results.get(other), nullValue());
+        assertThat(instance.getIfPresent(request), nullValue());
+    }
+
+    @Test
+    public void testInvalidateAll() throws Exception
+    {
+        instance.get(request, this::resolve);
+        assertThat(instance.getIfPresent(request), notNullValue());
+
+        instance.invalidateAll();
+        assertThat(instance.size(), is(0L));
+    }
+
+    @Test
+    public void testNewExecutorThreadsExitWhenIdle() throws Exception
+    {
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) PhotoRedirectCache.newExecutor(2);
+
+        try
+        {
+            assertThat(executor.getMaximumPoolSize(), is(2));
+            assertThat(executor.allowsCoreThreadTimeOut(), is(true));
+            assertThat(executor.getKeepAliveTime(TimeUnit.SECONDS), is(PhotoRedirectCache.IDLE_THREAD_SECONDS));
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testConstructorWithBadArgs() throws Exception
+    {
+        assertThrows(() -> new PhotoRedirectCache(0, TimeUnit.HOURS, 100, 2, Runnable::run))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> new PhotoRedirectCache(1, TimeUnit.HOURS, 100, 0, Runnable::run))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> new PhotoRedirectCache(1, TimeUnit.HOURS, 100, 2, null))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private URL resolve(GetPhotoRequest request)
+    {
+        resolutions.incrementAndGet();
+        return redirect;
+    }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package tech.redroma.google.places;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import tech.sirwellington.alchemy.test.junit.runners.AlchemyTestRunner;
+import tech.sirwellington.alchemy.test.junit.runners.Repeat;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static tech.sirwellington.alchemy.generator.AlchemyGenerator.Get.one;
+import static tech.sirwellington.alchemy.generator.NumberGenerators.integers;
+import static tech.sirwellington.alchemy.test.junit.ThrowableAssertion.assertThrows;
+
+/**
+ *
+ * @author SirWellington
+ */
+@Repeat(50)
+@RunWith(AlchemyTestRunner.class)
+public class PooledUtf8ReaderTest
+{
+
+    private String text;
+
+    private BufferPool pool;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        StringBuilder builder = new StringBuilder();
+        int length = one(integers(0, 500));
+
+        for (int i = 0; i < length; i++)
+        {
+            switch (one(integers(0, 4)))
+            {
+                case 0:
+                    builder.append('a');
+                    break;
+                case 1:
+                    //Two bytes in UTF-8
+                    builder.append('\u00e9');
+                    break;
+                case 2:
+                    //Three bytes
+                    builder.append('\u4e2d');
+                    break;
+                default:
+                    //Four bytes, and a surrogate pair
+                    builder.appendCodePoint(0x1F600 + one(integers(0, 50)));
+            }
+        }
+
+        text = builder.toString();
+
+        //Small buffers, so that characters are split across reads
+        pool = new BufferPool(one(integers(4, 32)), 1);
+    }
+
+    @Test
+    public void testRead() throws Exception
+    {
+        Reader instance = new PooledUtf8Reader(slowly(text.getBytes(UTF_8)), pool);
+
+        assertThat(readAll(instance, one(integers(2, 64))), is(text));
+    }
+
+    @Test
+    public void testReadOneCharAtATime() throws Exception
+    {
+        Reader instance = new PooledUtf8Reader(slowly(text.getBytes(UTF_8)), pool);
+
+        assertThat(readAll(instance, 1), is(text));
+    }
+
+    @Test
+    public void testReadMalformedInput() throws Exception
+    {
+        byte[] malformed = { 'a', (byte) 0xC3, 'b', (byte) 0xE4, (byte) 0xB8 };
+        Reader instance = new PooledUtf8Reader(new ByteArrayInputStream(malformed), pool);
+
+        assertThat(readAll(instance, 16), is(new String(malformed, UTF_8)));
+    }
+
+    @Test
+    public void testCloseReleasesBuffer() throws Exception
+    {
+        Reader instance = new PooledUtf8Reader(slowly(text.getBytes(UTF_8)), pool);
+        assertThat(pool.getPooled(), is(0));
+
+        instance.close();
+        instance.close();
+        assertThat(pool.getPooled(), is(1));
+
+        assertThrows(() -> instance.read(new char[8], 0, 8))
+            .isInstanceOf(IOException.class);
+    }
+
+    private static String readAll(Reader reader, int chunk) throws IOException
+    {
+        StringBuilder builder = new StringBuilder();
+        char[] buffer = new char[chunk];
+        int read;
+
+        while ((read = reader.read(buffer, 0, chunk)) != -1)
+        {
+            builder.append(buffer, 0, read);
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Returns at most 3 bytes per read, as a slow network would.
+     */
+    private static InputStream slowly(byte[] bytes)
+    {
+        return new ByteArrayInputStream(bytes)
+        {
+            @Override
+            public synchronized int read(byte[] b, int off, int len)
+            {
+                return super.read(b, off, Math.min(len, 3));
+            }
+        };
+    }
+
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.net.URLEncoder;
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import tech.redroma.google.places.data.Location;
+import tech.redroma.google.places.data.Types;
+import tech.sirwellington.alchemy.test.junit.runners.AlchemyTestRunner;
+import tech.sirwellington.alchemy.test.junit.runners.Repeat;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+import static tech.redroma.google.places.data.Generators.createLocation;
+import static tech.sirwellington.alchemy.generator.AlchemyGenerator.Get.one;
+import static tech.sirwellington.alchemy.generator.NumberGenerators.integers;
+import static tech.sirwellington.alchemy.generator.StringGenerators.alphabeticStrings;
+import static tech.sirwellington.alchemy.generator.StringGenerators.strings;
+
+/**
+ *
+ * @author SirWellington
+ */
+@Repeat(50)
+@RunWith(AlchemyTestRunner.class)
+public class QueryStringTest
+{
+
+    private String url;
+    private String name;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        url = "https://maps.googleapis.com/" + one(alphabeticStrings());
+        name = one(alphabeticStrings());
+    }
+
+    @Test
+    public void testEncodesLikeURLEncoder() throws Exception
+    {
+        String value = one(strings());
+        String result = QueryString.begin(url).add(name, value).toString();
+
+        assertThat(result, is(url + "?" + name + "=" + URLEncoder.encode(value, "UTF-8")));
+    }
+
+    @Test
+    public void testEncodesReservedCharacters() throws Exception
+    {
+        String value = "a b&c=d/e?f+(g)|h,\u00e9\u20ac\ud83d\ude00";
+        String result = QueryString.begin(url).add(name, value).toString();
+
+        assertThat(result, is(url + "?" + name + "=" + URLEncoder.encode(value, "UTF-8")));
+    }
+
+    @Test
+    public void testAddSeveralParameters() throws Exception
+    {
+        int number = one(integers(-1_000, 1_000));
+        Location location = createLocation();
+
+        String result = QueryString.begin(url)
+            .add("number", number)
+            .add("flag", true)
+            .add("location", location)
+            .toString();
+
+        String expected = url + "?number=" + number + "&flag=true&location=" +
+                          URLEncoder.encode(location.latitude + "," + location.longitude, "UTF-8");
+
+        assertThat(result, is(expected));
+    }
+
+    @Test
+    public void testAddJoinedValues() throws Exception
+    {
+        String result = QueryString.begin(url)
+            .add("types", Arrays.asList(Types.AutocompleteType.GEOCODE, Types.AutocompleteType.CITIES),
+                 Types.AutocompleteType::asText, '|')
+            .toString();
+
+        assertThat(result, is(url + "?types=" + URLEncoder.encode("geocode|(cities)", "UTF-8")));
+    }
+
+    @Test
+    public void testBufferIsReset() throws Exception
+    {
+        String first = one(alphabeticStrings());
+        QueryString.begin(url).add(name, first).toString();
+
+        String result = QueryString.begin(url).add("other", 1).toString();
+
+        assertThat(result, is(url + "?other=1"));
+        assertThat(result, not(containsString(first)));
+    }
+
+    @Test
+    public void testLargeBuffersAreNotKept() throws Exception
+    {
+        char[] large = new char[QueryString.MAX_RETAINED_CAPACITY * 2];
+        Arrays.fill(large, 'a');
+
+        String result = QueryString.begin(url).add(name, new String(large)).toString();
+        assertThat(result.length(), is(url.length() + name.length() + 2 + large.length));
+
+        String next = QueryString.begin(url).add(name, 1).toString();
+        assertThat(next, is(url + "?" + name + "=1"));
+    }
+
+}
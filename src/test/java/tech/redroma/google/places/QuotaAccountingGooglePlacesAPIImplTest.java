@@ -0,0 +1,364 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import java.net.URL;
+import java.time.Clock;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import tech.redroma.google.places.QuotaAccountingGooglePlacesAPI.Window;
+import tech.redroma.google.places.data.Generators;
+import tech.redroma.google.places.data.PlaceField;
+import tech.redroma.google.places.exceptions.GooglePlacesBadArgumentException;
+import tech.redroma.google.places.exceptions.GooglePlacesBudgetExceededException;
+import tech.redroma.google.places.requests.GetPhotoRequest;
+import tech.redroma.google.places.requests.GetPlaceDetailsRequest;
+import tech.redroma.google.places.requests.NearbySearchRequest;
+import tech.redroma.google.places.responses.GetPlaceDetailsResponse;
+import tech.redroma.google.places.responses.NearbySearchResponse;
+import tech.sirwellington.alchemy.test.junit.runners.AlchemyTestRunner;
+import tech.sirwellington.alchemy.test.junit.runners.GeneratePojo;
+import tech.sirwellington.alchemy.test.junit.runners.Repeat;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static tech.sirwellington.alchemy.test.junit.ThrowableAssertion.assertThrows;
+
+/**
+ *
+ * @author SirWellington
+ */
+@Repeat(10)
+@RunWith(AlchemyTestRunner.class)
+public class QuotaAccountingGooglePlacesAPIImplTest
+{
+
+    private static final long HOURLY_SOFT = 4;
+    private static final long HOURLY_HARD = 6;
+    private static final long DAILY_SOFT = 8;
+    private static final long DAILY_HARD = 10;
+    private static final long DETAILS_COST = 2;
+
+    private GooglePlacesAPI delegate;
+    private Clock clock;
+    private long now;
+
+    private GetPlaceDetailsRequest detailsRequest;
+    private GetPlaceDetailsRequest basicDetailsRequest;
+    private NearbySearchRequest searchRequest;
+    private GetPhotoRequest photoRequest;
+
+    @GeneratePojo
+    private GetPlaceDetailsResponse detailsResponse;
+
+    private List<String> warnings;
+
+    private QuotaOptions options;
+    private HttpTransport transport;
+    private URL photoURL;
+
+    private QuotaAccountingGooglePlacesAPIImpl instance;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        detailsRequest = Generators.createGetPlaceDetailsRequest();
+        basicDetailsRequest = GetPlaceDetailsRequest.newBuilder().withPlaceID(detailsRequest.placeId).build();
+        searchRequest = Generators.createNearbySearchRequest();
+        photoRequest = Generators.createGetPhotoRequest();
+
+        delegate = mock(GooglePlacesAPI.class);
+        when(delegate.getPlaceDetails(detailsRequest)).thenReturn(detailsResponse);
+
+        //Start of a day, in UTC
+        now = ZonedDateTime.of(2016, 10, 1, 0, 0, 0, 0, ZoneOffset.UTC).toInstant().toEpochMilli();
+        clock = mock(Clock.class);
+        when(clock.millis()).thenAnswer(i -> now);
+
+        options = QuotaOptions.newBuilder()
+            .withHourlyBudget(HOURLY_SOFT, HOURLY_HARD)
+            .withDailyBudget(DAILY_SOFT, DAILY_HARD)
+            .withCost(Sku.PLACE_DETAILS_REVIEW_SUMMARY, DETAILS_COST)
+            .withTimeZone(ZoneOffset.UTC)
+            .build();
+
+        instance = new QuotaAccountingGooglePlacesAPIImpl(delegate, new QuotaAccountant(options, clock));
+
+        warnings = new ArrayList<>();
+        instance.addListener((window, spent) -> warnings.add(window + ":" + spent));
+
+        photoURL = new URL("https://lh3.example.com/photo");
+        transport = mock(HttpTransport.class);
+        when(transport.resolveRedirect(any(), any())).thenReturn(photoURL);
+    }
+
+    private GetPlaceDetailsRequest detailsRequestWith(PlaceField... fields)
+    {
+        return GetPlaceDetailsRequest.newBuilder()
+            .withPlaceID(detailsRequest.placeId)
+            .withFields(fields)
+            .build();
+    }
+
+    private QuotaAccountingGooglePlacesAPIImpl buildInstance(GooglePlacesAPI.Builder builder)
+    {
+        builder.withApiKey("key")
+            .withTransport(transport)
+            .withExecutor(MoreExecutors.directExecutor());
+
+        return QuotaAccountingGooglePlacesAPIImpl.build(builder, new QuotaAccountant(options, clock));
+    }
+
+    @Test
+    public void testCallsAreCountedBySku() throws Exception
+    {
+        GetPlaceDetailsResponse result = instance.getPlaceDetails(detailsRequest);
+        assertThat(result, sameInstance(detailsResponse));
+
+        instance.getPlaceDetails(basicDetailsRequest);
+        instance.searchNearbyPlaces(searchRequest);
+
+        assertThat(instance.getCalls(Sku.PLACE_DETAILS_REVIEW_SUMMARY), is(1L));
+        assertThat(instance.getCalls(Sku.PLACE_DETAILS), is(1L));
+        assertThat(instance.getCalls(Sku.NEARBY_SEARCH), is(1L));
+        assertThat(instance.getCalls(Endpoint.PLACE_DETAILS), is(2L));
+        assertThat(instance.getCalls(Endpoint.PHOTO), is(0L));
+
+        assertThat(instance.getSpent(Window.HOURLY), is(DETAILS_COST + 2));
+        assertThat(instance.getRemaining(Window.DAILY), is(DAILY_HARD - DETAILS_COST - 2));
+    }
+
+    @Test
+    public void testDetailsAreChargedForTheirFields() throws Exception
+    {
+        instance = new QuotaAccountingGooglePlacesAPIImpl(delegate, new QuotaAccountant(QuotaOptions.newBuilder()
+            .withCost(Sku.CONTACT_DATA, 3)
+            .withCost(Sku.ATMOSPHERE_DATA, 5)
+            .build(), clock));
+
+        instance.getPlaceDetails(detailsRequestWith(PlaceField.NAME, PlaceField.GEOMETRY, PlaceField.PHOTOS));
+        assertThat(instance.getSpent(Window.DAILY), is(1L));
+
+        instance.getPlaceDetails(detailsRequestWith(PlaceField.NAME, PlaceField.WEBSITE, PlaceField.OPENING_HOURS));
+        assertThat(instance.getSpent(Window.DAILY), is(1L + 1 + 3));
+
+        instance.getPlaceDetails(detailsRequestWith(PlaceField.REVIEWS, PlaceField.FORMATTED_PHONE_NUMBER));
+        assertThat(instance.getSpent(Window.DAILY), is(1L + 1 + 3 + 1 + 3 + 5));
+
+        assertThat(instance.getCalls(Sku.PLACE_DETAILS), is(3L));
+        assertThat(instance.getCalls(Sku.CONTACT_DATA), is(2L));
+        assertThat(instance.getCalls(Sku.ATMOSPHERE_DATA), is(1L));
+        assertThat(instance.getCalls(Endpoint.PLACE_DETAILS), is(3L));
+    }
+
+    @Test
+    public void testDetailsWithoutFieldsAreChargedForEveryGroup() throws Exception
+    {
+        instance.getPlaceDetails(basicDetailsRequest);
+
+        assertThat(instance.getCalls(Sku.PLACE_DETAILS), is(1L));
+        assertThat(instance.getCalls(Sku.CONTACT_DATA), is(1L));
+        assertThat(instance.getCalls(Sku.ATMOSPHERE_DATA), is(1L));
+        assertThat(instance.getCalls(Endpoint.PLACE_DETAILS), is(1L));
+
+        //Add-ons are free unless priced
+        assertThat(instance.getSpent(Window.DAILY), is(1L));
+    }
+
+    @Test
+    public void testSoftLimitWarnsOnce() throws Exception
+    {
+        instance.getPlaceDetails(detailsRequest);
+        assertThat(warnings, is(empty()));
+
+        instance.getPlaceDetails(detailsRequest);
+        instance.getPhoto(photoRequest);
+
+        assertThat(warnings, contains(Window.HOURLY + ":" + HOURLY_SOFT));
+        verify(delegate).getPhoto(photoRequest);
+    }
+
+    @Test
+    public void testHourlyHardLimit() throws Exception
+    {
+        for (int i = 0; i < HOURLY_HARD / DETAILS_COST; ++i)
+        {
+            instance.getPlaceDetails(detailsRequest);
+        }
+
+        assertThrows(() -> instance.getPlaceDetails(detailsRequest))
+            .isInstanceOf(GooglePlacesBudgetExceededException.class);
+
+        verify(delegate, times((int) (HOURLY_HARD / DETAILS_COST))).getPlaceDetails(detailsRequest);
+        assertThat(instance.getRemaining(Window.HOURLY), is(0L));
+
+        //A new hour brings a new hourly budget, with the same daily one
+        now += TimeUnit.HOURS.toMillis(1);
+        assertThat(instance.getRemaining(Window.HOURLY), is(HOURLY_HARD));
+        assertThat(instance.getRemaining(Window.DAILY), is(DAILY_HARD - HOURLY_HARD));
+
+        instance.getPlaceDetails(detailsRequest);
+        instance.getPlaceDetails(detailsRequest);
+
+        assertThrows(() -> instance.getPlaceDetails(detailsRequest))
+            .isInstanceOf(GooglePlacesBudgetExceededException.class);
+
+        assertThat(warnings, contains(Window.HOURLY + ":" + HOURLY_SOFT, Window.DAILY + ":" + DAILY_SOFT,
+                                      Window.HOURLY + ":" + HOURLY_SOFT));
+    }
+
+    @Test
+    public void testNewDayResetsCounts() throws Exception
+    {
+        instance.getPlaceDetails(detailsRequest);
+
+        now += TimeUnit.DAYS.toMillis(1);
+
+        assertThat(instance.getCalls(Sku.PLACE_DETAILS_REVIEW_SUMMARY), is(0L));
+        assertThat(instance.getSpent(Window.DAILY), is(0L));
+    }
+
+    @Test
+    public void testGetPhotosChargesEveryPhoto() throws Exception
+    {
+        List<GetPhotoRequest> requests = Arrays.asList(photoRequest, Generators.createGetPhotoRequest());
+
+        instance.getPhotos(requests);
+
+        assertThat(instance.getCalls(Sku.PHOTO), is(2L));
+        verify(delegate).getPhotos(requests);
+    }
+
+    @Test
+    public void testGetPhotosChargesDuplicatesOnce() throws Exception
+    {
+        List<GetPhotoRequest> requests = Arrays.asList(photoRequest, photoRequest);
+
+        instance.getPhotos(requests);
+
+        assertThat(instance.getCalls(Sku.PHOTO), is(1L));
+    }
+
+    @Test
+    public void testCachedPhotosAreFreeWhenBuilt() throws Exception
+    {
+        instance = buildInstance(GooglePlacesAPI.newBuilder());
+
+        assertThat(instance.getPhoto(photoRequest), is(photoURL));
+        assertThat(instance.getPhoto(photoRequest), is(photoURL));
+
+        List<GetPhotoRequest> requests = Arrays.asList(photoRequest, Generators.createGetPhotoRequest(), photoRequest);
+        instance.getPhotos(requests).get();
+
+        assertThat(instance.getCalls(Sku.PHOTO), is(2L));
+    }
+
+    @Test
+    public void testCallsAnsweredBeforeSendingAreFreeWhenBuilt() throws Exception
+    {
+        NearbySearchResponse response = new NearbySearchResponse();
+        instance = buildInstance(GooglePlacesAPI.newBuilder().withInterceptor(chain -> response));
+
+        assertThat(instance.searchNearbyPlaces(searchRequest), sameInstance(response));
+
+        assertThat(instance.getCalls(Sku.NEARBY_SEARCH), is(0L));
+        verify(transport, never()).get(any(), any(), any());
+    }
+
+    @Test
+    public void testHardLimitWhenBuilt() throws Exception
+    {
+        instance = buildInstance(GooglePlacesAPI.newBuilder());
+
+        for (int i = 0; i < HOURLY_HARD; ++i)
+        {
+            instance.getPhoto(Generators.createGetPhotoRequest());
+        }
+
+        //The unresolved URL would cost a call over the budget, so it is not handed out instead
+        assertThrows(() -> instance.getPhoto(photoRequest))
+            .isInstanceOf(GooglePlacesBudgetExceededException.class);
+
+        assertThat(instance.getCalls(Sku.PHOTO), is(HOURLY_HARD));
+        verify(transport, times((int) HOURLY_HARD)).resolveRedirect(any(), any());
+
+        //The key is not to blame
+        now += TimeUnit.HOURS.toMillis(1);
+        assertThat(instance.getPhoto(photoRequest), is(photoURL));
+    }
+
+    @Test
+    public void testRefusedCallsAreNotCharged() throws Exception
+    {
+        List<GetPhotoRequest> requests = new ArrayList<>();
+
+        for (int i = 0; i <= HOURLY_HARD; ++i)
+        {
+            requests.add(Generators.createGetPhotoRequest());
+        }
+
+        assertThrows(() -> instance.getPhotos(requests))
+            .isInstanceOf(GooglePlacesBudgetExceededException.class);
+
+        assertThat(instance.getSpent(Window.HOURLY), is(0L));
+        verify(delegate, never()).getPhotos(requests);
+    }
+
+    @Test
+    public void testUnlimitedByDefault() throws Exception
+    {
+        QuotaAccountingGooglePlacesAPI unlimited = QuotaAccountingGooglePlacesAPI.create(delegate);
+
+        assertThat(unlimited.getRemaining(Window.DAILY), is(QuotaOptions.UNLIMITED));
+    }
+
+    @Test
+    public void testWithBadArgs() throws Exception
+    {
+        assertThrows(() -> instance.getPlaceDetails(null))
+            .isInstanceOf(GooglePlacesBadArgumentException.class);
+
+        assertThrows(() -> instance.getCalls((Sku) null))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> instance.getRemaining(null))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> instance.addListener(null))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(instance.getSpent(Window.DAILY), is(0L));
+    }
+
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.time.ZoneId;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import tech.sirwellington.alchemy.test.junit.runners.AlchemyTestRunner;
+import tech.sirwellington.alchemy.test.junit.runners.GenerateEnum;
+import tech.sirwellington.alchemy.test.junit.runners.Repeat;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static tech.sirwellington.alchemy.generator.AlchemyGenerator.Get.one;
+import static tech.sirwellington.alchemy.generator.NumberGenerators.integers;
+import static tech.sirwellington.alchemy.test.junit.ThrowableAssertion.assertThrows;
+
+/**
+ *
+ * @author SirWellington
+ */
+@Repeat(10)
+@RunWith(AlchemyTestRunner.class)
+public class QuotaOptionsTest
+{
+
+    @GenerateEnum
+    private Sku sku;
+
+    @Test
+    public void testDefaults()
+    {
+        QuotaOptions result = QuotaOptions.newBuilder().build();
+
+        assertThat(result.getDailyHardLimit(), is(QuotaOptions.UNLIMITED));
+        assertThat(result.getHourlySoftLimit(), is(QuotaOptions.UNLIMITED));
+        assertThat(result.getCost(sku), is(sku.isAddOn() ? 0L : QuotaOptions.Builder.DEFAULT_COST));
+        assertThat(result.getTimeZone(), is(QuotaOptions.Builder.DEFAULT_TIME_ZONE));
+    }
+
+    @Test
+    public void testBuild()
+    {
+        int soft = one(integers(1, 1_000));
+        int hard = soft + one(integers(0, 1_000));
+        int cost = one(integers(0, 100));
+
+        QuotaOptions result = QuotaOptions.newBuilder()
+            .withDailyBudget(soft, hard)
+            .withHourlyBudget(soft, hard)
+            .withCost(sku, cost)
+            .withTimeZone(ZoneId.of("UTC"))
+            .build();
+
+        assertThat(result.getDailySoftLimit(), is((long) soft));
+        assertThat(result.getDailyHardLimit(), is((long) hard));
+        assertThat(result.getHourlySoftLimit(), is((long) soft));
+        assertThat(result.getHourlyHardLimit(), is((long) hard));
+        assertThat(result.getCost(sku), is((long) cost));
+        assertThat(result.getTimeZone(), is(ZoneId.of("UTC")));
+    }
+
+    @Test
+    public void testWithBadArgs()
+    {
+        QuotaOptions.Builder builder = QuotaOptions.newBuilder();
+
+        assertThrows(() -> builder.withDailyBudget(0, 10))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> builder.withHourlyBudget(11, 10))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> builder.withCost(null, 1))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> builder.withCost(sku, -1))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> builder.withTimeZone(null))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import tech.sirwellington.alchemy.test.junit.runners.AlchemyTestRunner;
+import tech.sirwellington.alchemy.test.junit.runners.Repeat;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static tech.sirwellington.alchemy.generator.AlchemyGenerator.Get.one;
+import static tech.sirwellington.alchemy.generator.NumberGenerators.integers;
+import static tech.sirwellington.alchemy.generator.StringGenerators.alphabeticStrings;
+import static tech.sirwellington.alchemy.test.junit.ThrowableAssertion.assertThrows;
+
+/**
+ *
+ * @author SirWellington
+ */
+@Repeat(10)
+@RunWith(AlchemyTestRunner.class)
+public class RateLimitOptionsTest
+{
+
+    @Test
+    public void testDefaults()
+    {
+        RateLimitOptions result = RateLimitOptions.newBuilder()
+            .withLimit(100, 1, TimeUnit.SECONDS)
+            .build();
+
+        assertThat(result.getPermits(), is(100L));
+        assertThat(result.getWindowMillis(), is(1_000L));
+        assertThat(result.getBatchSize(), is(RateLimitOptions.Builder.DEFAULT_BATCH_SIZE));
+        assertThat(result.getBucket(), is(RateLimitOptions.Builder.DEFAULT_BUCKET));
+    }
+
+    @Test
+    public void testBuild()
+    {
+        int permits = one(integers(1, 10_000));
+        int batchSize = one(integers(1, 100));
+        String bucket = one(alphabeticStrings());
+
+        RateLimitOptions result = RateLimitOptions.newBuilder()
+            .withLimit(permits, 1, TimeUnit.MINUTES)
+            .withBatchSize(batchSize)
+            .withBucket(bucket)
+            .build();
+
+        assertThat(result.getPermits(), is((long) permits));
+        assertThat(result.getWindowMillis(), is(TimeUnit.MINUTES.toMillis(1)));
+        assertThat(result.getBatchSize(), is(batchSize));
+        assertThat(result.getBucket(), is(bucket));
+    }
+
+    @Test
+    public void testLimitIsRequired()
+    {
+        assertThrows(() -> RateLimitOptions.newBuilder().build())
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testWithBadArgs()
+    {
+        RateLimitOptions.Builder builder = RateLimitOptions.newBuilder();
+
+        assertThrows(() -> builder.withLimit(0, 1, TimeUnit.SECONDS))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> builder.withLimit(1, 10, TimeUnit.MICROSECONDS))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> builder.withLimit(1, 1, null))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> builder.withBatchSize(0))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> builder.withBucket(""))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import tech.redroma.google.places.data.Generators;
+import tech.redroma.google.places.exceptions.GooglePlacesBadArgumentException;
+import tech.redroma.google.places.exceptions.GooglePlacesTimeoutException;
+import tech.redroma.google.places.requests.GetPhotoRequest;
+import tech.redroma.google.places.requests.GetPlaceDetailsRequest;
+import tech.redroma.google.places.responses.GetPlaceDetailsResponse;
+import tech.sirwellington.alchemy.test.junit.runners.AlchemyTestRunner;
+import tech.sirwellington.alchemy.test.junit.runners.GeneratePojo;
+import tech.sirwellington.alchemy.test.junit.runners.Repeat;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static tech.sirwellington.alchemy.test.junit.ThrowableAssertion.assertThrows;
+
+/**
+ * Time only moves when a caller sleeps, so that windows can be stepped through exactly.
+ *
+ * @author SirWellington
+ */
+@Repeat(10)
+@RunWith(AlchemyTestRunner.class)
+public class RateLimitingGooglePlacesAPIImplTest
+{
+
+    private static final long LIMIT = 20;
+    private static final int BATCH = 5;
+    private static final long WINDOW = TimeUnit.SECONDS.toMillis(1);
+
+    private GooglePlacesAPI delegate;
+    private Clock clock;
+    private long now;
+    private List<Long> sleeps;
+
+    private CountingStore store;
+    private RateLimitOptions options;
+
+    private GetPlaceDetailsRequest request;
+
+    @GeneratePojo
+    private GetPlaceDetailsResponse response;
+
+    private RateLimitingGooglePlacesAPIImpl instance;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        request = Generators.createGetPlaceDetailsRequest();
+
+        delegate = mock(GooglePlacesAPI.class);
+        when(delegate.getPlaceDetails(request)).thenReturn(response);
+
+        now = TimeUnit.DAYS.toMillis(17_000);
+        clock = mock(Clock.class);
+        when(clock.millis()).thenAnswer(i -> now);
+        sleeps = new ArrayList<>();
+
+        store = new CountingStore(new InMemoryRateLimitStore());
+        options = RateLimitOptions.newBuilder()
+            .withLimit(LIMIT, WINDOW, TimeUnit.MILLISECONDS)
+            .withBatchSize(BATCH)
+            .build();
+
+        instance = newClient();
+    }
+
+    @Test
+    public void testPermitsAreLeasedInBatches() throws Exception
+    {
+        for (int i = 0; i < BATCH * 2; ++i)
+        {
+            assertThat(instance.getPlaceDetails(request), sameInstance(response));
+        }
+
+        assertThat(store.leases, is(2));
+        assertThat(sleeps, is(empty()));
+    }
+
+    @Test
+    public void testClientsShareTheLimit() throws Exception
+    {
+        RateLimitingGooglePlacesAPIImpl other = newClient();
+
+        for (int i = 0; i < LIMIT / 2; ++i)
+        {
+            instance.getPlaceDetails(request);
+            other.getPlaceDetails(request);
+        }
+
+        //The window is used up, so the next call waits for the following one
+        instance.getPlaceDetails(request);
+
+        assertThat(sleeps, contains(WINDOW));
+        verify(delegate, times((int) LIMIT + 1)).getPlaceDetails(request);
+    }
+
+    @Test
+    public void testWaitsOnlyUntilTheNextWindow() throws Exception
+    {
+        now += WINDOW / 4;
+
+        for (int i = 0; i <= LIMIT; ++i)
+        {
+            instance.getPlaceDetails(request);
+        }
+
+        assertThat(sleeps, contains(WINDOW - WINDOW / 4));
+    }
+
+    @Test
+    public void testDeadlineTooShortToWait() throws Exception
+    {
+        for (int i = 0; i < LIMIT; ++i)
+        {
+            instance.getPlaceDetails(request);
+        }
+
+        Deadline deadline = Deadline.after(WINDOW / 2, TimeUnit.MILLISECONDS);
+
+        assertThrows(() -> deadline.run(() -> instance.getPlaceDetails(request)))
+            .isInstanceOf(GooglePlacesTimeoutException.class);
+
+        verify(delegate, times((int) LIMIT)).getPlaceDetails(request);
+    }
+
+    @Test
+    public void testGetPhotosTakesAPermitPerPhoto() throws Exception
+    {
+        List<GetPhotoRequest> requests = Arrays.asList(Generators.createGetPhotoRequest(), Generators.createGetPhotoRequest());
+
+        for (int i = 0; i < LIMIT / 2; ++i)
+        {
+            instance.getPhotos(requests);
+        }
+
+        assertThat(sleeps, is(empty()));
+
+        instance.getPhotos(requests);
+        assertThat(sleeps, contains(WINDOW));
+    }
+
+    @Test
+    public void testWhenStoreIsUnavailable() throws Exception
+    {
+        store.failing = true;
+
+        for (int i = 0; i < LIMIT * 2; ++i)
+        {
+            instance.getPlaceDetails(request);
+        }
+
+        assertThat(sleeps, is(empty()));
+    }
+
+    @Test
+    public void testOneLeaseAtATime() throws Exception
+    {
+        store.stalled = new CountDownLatch(1);
+
+        CompletableFuture<?> first = CompletableFuture.runAsync(() -> instance.getPlaceDetails(request));
+        store.entered.await();
+
+        CompletableFuture<?> second = CompletableFuture.runAsync(() -> instance.getPlaceDetails(request));
+
+        //Callers with a deadline give up rather than wait out a slow store
+        Deadline deadline = Deadline.after(50, TimeUnit.MILLISECONDS);
+        assertThrows(() -> deadline.run(() -> instance.getPlaceDetails(request)))
+            .isInstanceOf(GooglePlacesTimeoutException.class);
+
+        store.stalled.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+
+        //The second caller waited for the first one's batch instead of leasing its own
+        assertThat(store.leases, is(1));
+        verify(delegate, times(2)).getPlaceDetails(request);
+    }
+
+    @Test
+    public void testWithBadArgs() throws Exception
+    {
+        assertThrows(() -> instance.getPlaceDetails(null))
+            .isInstanceOf(GooglePlacesBadArgumentException.class);
+
+        assertThrows(() -> RateLimitingGooglePlacesAPI.create(delegate, null, options))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        verify(delegate, never()).getPlaceDetails(null);
+        assertThat(store.leases, is(0));
+    }
+
+    private RateLimitingGooglePlacesAPIImpl newClient()
+    {
+        RateLimiter limiter = new RateLimiter(store, options, clock, millis ->
+        {
+            sleeps.add(millis);
+            now += millis;
+        });
+
+        return new RateLimitingGooglePlacesAPIImpl(delegate, limiter);
+    }
+
+    private static final class CountingStore implements RateLimitStore
+    {
+
+        private final RateLimitStore delegate;
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private volatile int leases;
+        private boolean failing;
+        private CountDownLatch stalled;
+
+        CountingStore(RateLimitStore delegate)
+        {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public long lease(String bucket, long windowStart, long requested, long limit) throws IOException
+        {
+            if (failing)
+            {
+                throw new IOException("unavailable");
+            }
+
+            ++leases;
+            entered.countDown();
+
+            if (stalled != null)
+            {
+                try
+                {
+                    stalled.await();
+                }
+                catch (InterruptedException ex)
+                {
+                    throw new IOException(ex);
+                }
+            }
+
+            return delegate.lease(bucket, windowStart, requested, limit);
+        }
+    }
+
+}
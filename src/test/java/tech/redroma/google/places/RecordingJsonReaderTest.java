@@ -0,0 +1,94 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package tech.redroma.google.places;
+
+import java.io.StringReader;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import tech.sirwellington.alchemy.test.junit.runners.AlchemyTestRunner;
+import tech.sirwellington.alchemy.test.junit.runners.Repeat;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static tech.sirwellington.alchemy.generator.AlchemyGenerator.Get.one;
+import static tech.sirwellington.alchemy.generator.NumberGenerators.integers;
+import static tech.sirwellington.alchemy.generator.StringGenerators.alphabeticStrings;
+import static tech.sirwellington.alchemy.test.junit.ThrowableAssertion.assertThrows;
+
+/**
+ *
+ * @author SirWellington
+ */
+@Repeat(50)
+@RunWith(AlchemyTestRunner.class)
+public class RecordingJsonReaderTest
+{
+
+    private String array;
+
+    private String json;
+
+    private RecordingJsonReader instance;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        StringBuilder builder = new StringBuilder("[ ");
+        int length = one(integers(1, 300));
+
+        for (int i = 0; i < length; i++)
+        {
+            builder.append(i == 0 ? "" : ", ")
+                .append("{\"text\": \"").append(one(alphabeticStrings())).append(" [\\\"]} \",")
+                .append("\"values\": [1.5e3, null, true, []]}");
+        }
+
+        array = builder.append(" ]").toString();
+        json = "{\"before\": [0], \"array\": " + array + ", \"after\": [\"x\"]}";
+
+        instance = new RecordingJsonReader(new StringReader(json));
+    }
+
+    @Test
+    public void testNextRawArray() throws Exception
+    {
+        instance.beginObject();
+        assertThat(instance.nextName(), is("before"));
+        instance.skipValue();
+        assertThat(instance.nextName(), is("array"));
+
+        assertThat(instance.nextRawArray(), is(array));
+
+        assertThat(instance.nextName(), is("after"));
+        instance.beginArray();
+        assertThat(instance.nextString(), is("x"));
+        instance.endArray();
+        instance.endObject();
+    }
+
+    @Test
+    public void testNextRawArrayWhenNotAnArray() throws Exception
+    {
+        instance.beginObject();
+
+        assertThrows(instance::nextRawArray)
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.net.URLEncoder;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import tech.redroma.google.places.data.Generators;
+import tech.redroma.google.places.data.Location;
+import tech.redroma.google.places.data.PlaceField;
+import tech.redroma.google.places.exceptions.GooglePlacesBadArgumentException;
+import tech.redroma.google.places.requests.GetPhotoRequest;
+import tech.redroma.google.places.requests.GetPlaceDetailsRequest;
+import tech.redroma.google.places.requests.NearbySearchRequest;
+import tech.sirwellington.alchemy.test.junit.runners.AlchemyTestRunner;
+import tech.sirwellington.alchemy.test.junit.runners.Repeat;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+import static tech.sirwellington.alchemy.test.junit.ThrowableAssertion.assertThrows;
+
+/**
+ *
+ * @author SirWellington
+ */
+@Repeat(10)
+@RunWith(AlchemyTestRunner.class)
+public class RequestEncodersTest
+{
+
+    private static final String URL = "https://maps.googleapis.com/maps/api/place/json";
+
+    private QueryString query;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        query = QueryString.begin(URL);
+    }
+
+    @Test
+    public void testNearbySearchEncoder() throws Exception
+    {
+        NearbySearchRequest request = Generators.createNearbySearchRequest();
+        new RequestEncoders.NearbySearchEncoder().encodeRequest(query, request);
+
+        Location location = request.getLocation();
+        String result = query.toString();
+
+        assertThat(result, startsWith(URL + "?location=" + encode(location.latitude + "," + location.longitude)));
+        assertThat(result, containsString("&language=" + encode(request.getLanguage().code)));
+        assertThat(result, containsString("&keyword=" + encode(request.getKeyword())));
+        assertThat(result, containsString("&opennow=true"));
+        assertThat(result, containsString("&radius=" + request.getRadiusInMeters()));
+    }
+
+    @Test
+    public void testGetPlaceDetailsEncoder() throws Exception
+    {
+        GetPlaceDetailsRequest request = Generators.createGetPlaceDetailsRequest();
+        new RequestEncoders.GetPlaceDetailsEncoder().encodeRequest(query, request);
+
+        String expected = URL +
+                          "?placeid=" + request.placeId +
+                          "&language=" + encode(request.language.code) +
+                          "&extensions=" + request.extensions.asText();
+
+        assertThat(query.toString(), is(expected));
+    }
+
+    @Test
+    public void testGetPlaceDetailsEncoderWithFields() throws Exception
+    {
+        GetPlaceDetailsRequest request = GetPlaceDetailsRequest.newBuilder()
+            .withPlaceID(Generators.createGetPlaceDetailsRequest().placeId)
+            .withFields(PlaceField.REVIEWS, PlaceField.NAME, PlaceField.GEOMETRY)
+            .build();
+
+        new RequestEncoders.GetPlaceDetailsEncoder().encodeRequest(query, request);
+
+        String expected = URL +
+                          "?placeid=" + request.placeId +
+                          "&fields=" + encode("geometry,name,review");
+
+        assertThat(query.toString(), is(expected));
+    }
+
+    @Test
+    public void testGetPhotoRequestEncoder() throws Exception
+    {
+        GetPhotoRequest request = Generators.createGetPhotoRequest();
+        new RequestEncoders.GetPhotoRequestEncoder().encodeRequest(query, request);
+
+        String expected = URL + "?photoreference=" + request.photoReference + "&maxheight=" + request.maxHeight;
+
+        assertThat(query.toString(), is(expected));
+    }
+
+    @Test
+    public void testWithBadArgs() throws Exception
+    {
+        assertThrows(() -> new RequestEncoders.GetPlaceDetailsEncoder().encodeRequest(query, null))
+            .isInstanceOf(GooglePlacesBadArgumentException.class);
+
+        assertThrows(() -> new RequestEncoders.NearbySearchEncoder().encodeRequest(null, Generators.createNearbySearchRequest()))
+            .isInstanceOf(GooglePlacesBadArgumentException.class);
+    }
+
+    private static String encode(String value) throws Exception
+    {
+        return URLEncoder.encode(value, "UTF-8");
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import tech.redroma.google.places.SchedulingGooglePlacesAPI.Priority;
+import tech.sirwellington.alchemy.test.junit.runners.AlchemyTestRunner;
+import tech.sirwellington.alchemy.test.junit.runners.GenerateEnum;
+import tech.sirwellington.alchemy.test.junit.runners.Repeat;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static tech.sirwellington.alchemy.generator.AlchemyGenerator.Get.one;
+import static tech.sirwellington.alchemy.generator.NumberGenerators.integers;
+import static tech.sirwellington.alchemy.test.junit.ThrowableAssertion.assertThrows;
+
+/**
+ *
+ * @author SirWellington
+ */
+@Repeat(10)
+@RunWith(AlchemyTestRunner.class)
+public class SchedulerOptionsTest
+{
+
+    @GenerateEnum
+    private Priority priority;
+
+    @Test
+    public void testDefaults()
+    {
+        SchedulerOptions result = SchedulerOptions.newBuilder().build();
+
+        assertThat(result.getMaxConcurrentRequests(), is(SchedulerOptions.Builder.DEFAULT_MAX_CONCURRENT_REQUESTS));
+        assertThat(result.getQueueCapacity(Priority.INTERACTIVE), is(SchedulerOptions.Builder.DEFAULT_INTERACTIVE_QUEUE_CAPACITY));
+        assertThat(result.getQueueCapacity(Priority.BATCH), is(SchedulerOptions.Builder.DEFAULT_BATCH_QUEUE_CAPACITY));
+        assertThat(result.getQueueCapacity(Priority.PREFETCH), is(SchedulerOptions.Builder.DEFAULT_PREFETCH_QUEUE_CAPACITY));
+        assertThat(result.getWeight(Priority.INTERACTIVE), is(SchedulerOptions.Builder.DEFAULT_INTERACTIVE_WEIGHT));
+        assertThat(result.getWeight(Priority.BATCH), is(SchedulerOptions.Builder.DEFAULT_BATCH_WEIGHT));
+        assertThat(result.getWeight(Priority.PREFETCH), is(SchedulerOptions.Builder.DEFAULT_PREFETCH_WEIGHT));
+        assertThat(result.getSheddingThreshold(), is(SchedulerOptions.Builder.DEFAULT_SHEDDING_THRESHOLD));
+    }
+
+    @Test
+    public void testBuild()
+    {
+        int concurrency = one(integers(1, 100));
+        int capacity = one(integers(1, 10_000));
+        int weight = one(integers(1, 100));
+        int threshold = one(integers(1, 10_000));
+
+        SchedulerOptions result = SchedulerOptions.newBuilder()
+            .withMaxConcurrentRequests(concurrency)
+            .withQueueCapacity(priority, capacity)
+            .withWeight(priority, weight)
+            .withSheddingThreshold(threshold)
+            .build();
+
+        assertThat(result.getMaxConcurrentRequests(), is(concurrency));
+        assertThat(result.getQueueCapacity(priority), is(capacity));
+        assertThat(result.getWeight(priority), is(weight));
+        assertThat(result.getSheddingThreshold(), is(threshold));
+    }
+
+    @Test
+    public void testBuildersDoNotShareState()
+    {
+        SchedulerOptions.Builder builder = SchedulerOptions.newBuilder();
+        SchedulerOptions first = builder.build();
+
+        builder.withWeight(priority, 1_000);
+
+        assertThat(first.getWeight(priority) == 1_000, is(false));
+    }
+
+    @Test
+    public void testWithBadArgs()
+    {
+        SchedulerOptions.Builder builder = SchedulerOptions.newBuilder();
+
+        assertThrows(() -> builder.withMaxConcurrentRequests(0))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> builder.withQueueCapacity(null, 1))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> builder.withQueueCapacity(priority, 0))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> builder.withWeight(priority, -1))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> builder.withSheddingThreshold(0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
@@ -0,0 +1,392 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import tech.redroma.google.places.SchedulingGooglePlacesAPI.Priority;
+import tech.redroma.google.places.data.Generators;
+import tech.redroma.google.places.exceptions.GooglePlacesBadArgumentException;
+import tech.redroma.google.places.exceptions.GooglePlacesOperationFailedException;
+import tech.redroma.google.places.exceptions.GooglePlacesOverloadedException;
+import tech.redroma.google.places.exceptions.GooglePlacesTimeoutException;
+import tech.redroma.google.places.requests.GetPlaceDetailsRequest;
+import tech.redroma.google.places.responses.GetPlaceDetailsResponse;
+import tech.sirwellington.alchemy.test.junit.runners.AlchemyTestRunner;
+import tech.sirwellington.alchemy.test.junit.runners.GeneratePojo;
+import tech.sirwellington.alchemy.test.junit.runners.Repeat;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static tech.sirwellington.alchemy.test.junit.ThrowableAssertion.assertThrows;
+
+/**
+ * Uses a single worker, which is kept busy while requests queue up behind it, so that the order in which they are
+ * served can be observed.
+ *
+ * @author SirWellington
+ */
+@Repeat(5)
+@RunWith(AlchemyTestRunner.class)
+public class SchedulingGooglePlacesAPIImplTest
+{
+
+    private static final ThreadFactory DAEMONS = task ->
+    {
+        Thread thread = new Thread(task);
+        thread.setDaemon(true);
+        return thread;
+    };
+
+    private GooglePlacesAPI delegate;
+
+    @GeneratePojo
+    private GetPlaceDetailsResponse response;
+
+    private GetPlaceDetailsRequest blockingRequest;
+    private CountDownLatch started;
+    private CountDownLatch release;
+
+    private List<GetPlaceDetailsRequest> served;
+    private ExecutorService callers;
+    private List<Thread> workers;
+
+    private SchedulingGooglePlacesAPIImpl instance;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        delegate = mock(GooglePlacesAPI.class);
+        served = Collections.synchronizedList(new ArrayList<>());
+        callers = Executors.newCachedThreadPool(DAEMONS);
+        workers = Collections.synchronizedList(new ArrayList<>());
+
+        started = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+        blockingRequest = Generators.createGetPlaceDetailsRequest();
+        when(delegate.getPlaceDetails(blockingRequest)).thenAnswer(i ->
+        {
+            started.countDown();
+            release.await();
+            return response;
+        });
+
+        SchedulerOptions options = SchedulerOptions.newBuilder()
+            .withMaxConcurrentRequests(1)
+            .withWeight(Priority.INTERACTIVE, 3)
+            .withWeight(Priority.BATCH, 1)
+            .withQueueCapacity(Priority.INTERACTIVE, 8)
+            .withQueueCapacity(Priority.BATCH, 8)
+            .withQueueCapacity(Priority.PREFETCH, 4)
+            .withSheddingThreshold(12)
+            .build();
+
+        ThreadFactory threadFactory = task ->
+        {
+            Thread worker = DAEMONS.newThread(task);
+            workers.add(worker);
+            return worker;
+        };
+
+        instance = new SchedulingGooglePlacesAPIImpl(delegate, new RequestScheduler(options, threadFactory), Priority.INTERACTIVE);
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        release.countDown();
+        callers.shutdownNow();
+        instance.close();
+    }
+
+    @Test
+    public void testGetPlaceDetails() throws Exception
+    {
+        GetPlaceDetailsRequest request = request();
+
+        GetPlaceDetailsResponse result = instance.getPlaceDetails(request);
+
+        assertThat(result, sameInstance(response));
+        assertThat(served, contains(request));
+    }
+
+    @Test
+    public void testFailuresArePassedThrough() throws Exception
+    {
+        GetPlaceDetailsRequest request = Generators.createGetPlaceDetailsRequest();
+        GooglePlacesBadArgumentException ex = new GooglePlacesBadArgumentException();
+        when(delegate.getPlaceDetails(request)).thenThrow(ex);
+
+        try
+        {
+            instance.getPlaceDetails(request);
+            fail("Expected an exception");
+        }
+        catch (GooglePlacesBadArgumentException thrown)
+        {
+            assertThat(thrown, sameInstance(ex));
+        }
+    }
+
+    @Test
+    public void testTurnsAreSharedByWeight() throws Exception
+    {
+        SchedulingGooglePlacesAPI batch = instance.withPriority(Priority.BATCH);
+        occupyWorker();
+
+        List<GetPlaceDetailsRequest> interactive = new ArrayList<>();
+        List<GetPlaceDetailsRequest> background = new ArrayList<>();
+        List<Future<?>> calls = new ArrayList<>();
+
+        for (int i = 0; i < 2; ++i)
+        {
+            background.add(request());
+            calls.add(callAsync(batch, background.get(i)));
+        }
+        awaitWaiting(Priority.BATCH, 2);
+
+        for (int i = 0; i < 6; ++i)
+        {
+            interactive.add(request());
+            calls.add(callAsync(instance, interactive.get(i)));
+        }
+        awaitWaiting(Priority.INTERACTIVE, 6);
+
+        release.countDown();
+        for (Future<?> call : calls)
+        {
+            call.get(5, TimeUnit.SECONDS);
+        }
+
+        //With weights of 3 and 1, batch requests are served after every 3 interactive ones, and are never starved
+        assertThat(served, contains(interactive.get(0), interactive.get(1), background.get(0), interactive.get(2),
+                                    interactive.get(3), interactive.get(4), background.get(1), interactive.get(5)));
+    }
+
+    @Test
+    public void testFullQueueIsRejected() throws Exception
+    {
+        SchedulingGooglePlacesAPI prefetch = instance.withPriority(Priority.PREFETCH);
+        occupyWorker();
+
+        for (int i = 0; i < 4; ++i)
+        {
+            callAsync(prefetch, request());
+        }
+        awaitWaiting(Priority.PREFETCH, 4);
+
+        assertThrows(() -> prefetch.getPlaceDetails(request()))
+            .isInstanceOf(GooglePlacesOverloadedException.class);
+
+        assertThat(instance.getRejected(Priority.PREFETCH), is(1L));
+    }
+
+    @Test
+    public void testLowestPriorityIsShedWhenSaturated() throws Exception
+    {
+        SchedulingGooglePlacesAPI prefetch = instance.withPriority(Priority.PREFETCH);
+        SchedulingGooglePlacesAPI batch = instance.withPriority(Priority.BATCH);
+        occupyWorker();
+
+        Future<?> oldest = callAsync(prefetch, request());
+        awaitWaiting(Priority.PREFETCH, 1);
+        Future<?> newest = callAsync(prefetch, request());
+        awaitWaiting(Priority.PREFETCH, 2);
+
+        for (int i = 0; i < 8; ++i)
+        {
+            callAsync(batch, request());
+        }
+        awaitWaiting(Priority.BATCH, 8);
+
+        for (int i = 0; i < 2; ++i)
+        {
+            callAsync(instance, request());
+        }
+        awaitWaiting(Priority.INTERACTIVE, 2);
+
+        //Saturated: new prefetches are rejected...
+        assertThrows(() -> prefetch.getPlaceDetails(request()))
+            .isInstanceOf(GooglePlacesOverloadedException.class);
+
+        //...and waiting ones make room for higher priorities, newest first
+        callAsync(instance, request());
+        assertFailsWith(newest, GooglePlacesOverloadedException.class);
+        assertThat(instance.getWaiting(Priority.PREFETCH), is(1));
+
+        callAsync(instance, request());
+        assertFailsWith(oldest, GooglePlacesOverloadedException.class);
+        assertThat(instance.getRejected(Priority.PREFETCH), is(3L));
+    }
+
+    @Test
+    public void testDeadlineExpiresWhileWaiting() throws Exception
+    {
+        occupyWorker();
+        GetPlaceDetailsRequest request = request();
+
+        Deadline deadline = Deadline.after(50, TimeUnit.MILLISECONDS);
+
+        assertThrows(() -> deadline.run(() -> instance.getPlaceDetails(request)))
+            .isInstanceOf(GooglePlacesTimeoutException.class);
+
+        assertThat(instance.getWaiting(Priority.INTERACTIVE), is(0));
+
+        release.countDown();
+        verify(delegate, never()).getPlaceDetails(request);
+    }
+
+    @Test
+    public void testDeadlineIsPropagatedToWorker() throws Exception
+    {
+        GetPlaceDetailsRequest request = Generators.createGetPlaceDetailsRequest();
+        List<Deadline> seen = new ArrayList<>();
+        when(delegate.getPlaceDetails(request)).thenAnswer(i ->
+        {
+            seen.add(Deadline.current());
+            return response;
+        });
+
+        Deadline deadline = Deadline.after(1, TimeUnit.MINUTES);
+        deadline.run(() -> instance.getPlaceDetails(request));
+
+        assertThat(seen, contains(deadline));
+    }
+
+    @Test
+    public void testClose() throws Exception
+    {
+        Future<?> running = occupyWorker();
+        Future<?> waiting = callAsync(instance.withPriority(Priority.BATCH), request());
+        awaitWaiting(Priority.BATCH, 1);
+
+        instance.close();
+        instance.close();
+
+        assertFailsWith(waiting, GooglePlacesOperationFailedException.class);
+        assertThat(instance.getWaiting(Priority.BATCH), is(0));
+
+        assertThrows(() -> instance.getPlaceDetails(request()))
+            .isInstanceOf(GooglePlacesOperationFailedException.class);
+
+        //The call already being made is allowed to finish, and then the worker stops
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS), sameInstance(response));
+
+        for (Thread worker : workers)
+        {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+            assertThat(worker.isAlive(), is(false));
+        }
+    }
+
+    @Test
+    public void testWithPriority() throws Exception
+    {
+        assertThat(instance.withPriority(Priority.INTERACTIVE), sameInstance(instance));
+        assertThat(instance.withPriority(Priority.BATCH), instanceOf(SchedulingGooglePlacesAPIImpl.class));
+    }
+
+    @Test
+    public void testWithBadArgs() throws Exception
+    {
+        assertThrows(() -> instance.withPriority(null))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> instance.getWaiting(null))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> instance.getRejected(null))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> SchedulingGooglePlacesAPI.create(null))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private GetPlaceDetailsRequest request()
+    {
+        GetPlaceDetailsRequest request = Generators.createGetPlaceDetailsRequest();
+        when(delegate.getPlaceDetails(request)).thenAnswer(i ->
+        {
+            served.add(request);
+            return response;
+        });
+
+        return request;
+    }
+
+    private Future<?> occupyWorker() throws Exception
+    {
+        Future<?> call = callAsync(instance, blockingRequest);
+        assertThat(started.await(5, TimeUnit.SECONDS), is(true));
+        return call;
+    }
+
+    private Future<?> callAsync(GooglePlacesAPI api, GetPlaceDetailsRequest request)
+    {
+        return callers.submit(() -> api.getPlaceDetails(request));
+    }
+
+    private void awaitWaiting(Priority priority, int count) throws Exception
+    {
+        long giveUpAt = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+
+        while (instance.getWaiting(priority) < count)
+        {
+            if (System.currentTimeMillis() > giveUpAt)
+            {
+                fail("Requests never started waiting");
+            }
+
+            Thread.sleep(1);
+        }
+    }
+
+    private static void assertFailsWith(Future<?> call, Class<? extends Throwable> type) throws Exception
+    {
+        try
+        {
+            call.get(5, TimeUnit.SECONDS);
+            fail("Expected " + type.getSimpleName());
+        }
+        catch (ExecutionException ex)
+        {
+            assertThat(ex.getCause(), instanceOf(type));
+        }
+    }
+
+}
@@ -0,0 +1,333 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places;
+
+import com.google.common.io.ByteStreams;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import tech.redroma.google.places.exceptions.GooglePlacesTimeoutException;
+import tech.redroma.google.places.responses.PlacesStatus;
+import tech.sirwellington.alchemy.test.junit.runners.AlchemyTestRunner;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * Runs against a local HTTP server, so that slow and failing responses can be produced on demand.
+ *
+ * @author SirWellington
+ */
+@RunWith(AlchemyTestRunner.class)
+public class URLConnectionTransportTest
+{
+
+    private static final String BODY = "{\"status\":\"OK\"}";
+    private static final long SLOW_MILLIS = 2_000;
+    private static final String LARGE_BODY = "{\"status\":\"OK\",\"results\":[" +
+                                             String.join(",", Collections.nCopies(200, "{\"name\":\"Cafe\",\"rating\":4}")) +
+                                             "]}";
+
+    private HttpServer server;
+    private String baseURL;
+
+    private TransferMetrics metrics;
+
+    private URLConnectionTransport instance;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+
+        server.createContext("/ok", exchange ->
+        {
+            byte[] body = BODY.getBytes(UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+
+            try (OutputStream out = exchange.getResponseBody())
+            {
+                out.write(body);
+            }
+        });
+
+        server.createContext("/denied", exchange ->
+        {
+            byte[] body = "{\"status\":\"REQUEST_DENIED\"}".getBytes(UTF_8);
+            exchange.sendResponseHeaders(403, body.length);
+
+            try (OutputStream out = exchange.getResponseBody())
+            {
+                out.write(body);
+            }
+        });
+
+        server.createContext("/large", exchange ->
+        {
+            String accepted = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            String encoding = accepted != null && accepted.contains("gzip") ? "gzip" : null;
+
+            respond(exchange, 200, LARGE_BODY, encoding);
+        });
+
+        server.createContext("/deflate", exchange -> respond(exchange, 200, LARGE_BODY, "deflate"));
+
+        server.createContext("/raw-deflate", exchange -> respond(exchange, 200, LARGE_BODY, "raw-deflate"));
+
+        server.createContext("/denied-gzip", exchange -> respond(exchange, 403, "{\"status\":\"REQUEST_DENIED\"}", "gzip"));
+
+        server.createContext("/slow", exchange ->
+        {
+            try
+            {
+                Thread.sleep(SLOW_MILLIS);
+                exchange.sendResponseHeaders(200, -1);
+            }
+            catch (InterruptedException ex)
+            {
+                Thread.currentThread().interrupt();
+            }
+            finally
+            {
+                exchange.close();
+            }
+        });
+
+        server.createContext("/redirect", exchange ->
+        {
+            exchange.getResponseHeaders().add("Location", "https://lh3.googleusercontent.com/photo");
+            exchange.sendResponseHeaders(302, -1);
+            exchange.close();
+        });
+
+        server.createContext("/missing", exchange ->
+        {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+
+        server.start();
+        baseURL = "http://localhost:" + server.getAddress().getPort();
+
+        metrics = TransferMetrics.create();
+        instance = new URLConnectionTransport(1_000, 5_000, true, metrics);
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        server.stop(0);
+    }
+
+    @Test
+    public void testGet() throws Exception
+    {
+        String result = instance.get(baseURL + "/ok", body -> new String(ByteStreams.toByteArray(body), UTF_8), Deadline.NONE);
+
+        assertThat(result, is(BODY));
+    }
+
+    @Test
+    public void testGetCompressed() throws Exception
+    {
+        String result = instance.get(baseURL + "/large", body -> new String(ByteStreams.toByteArray(body), UTF_8), Deadline.NONE);
+
+        assertThat(result, is(LARGE_BODY));
+        assertThat(metrics.getResponses(), is(1L));
+        assertThat(metrics.getCompressedResponses(), is(1L));
+        assertThat(metrics.getBytesDecoded(), is((long) LARGE_BODY.length()));
+        assertThat(metrics.getBytesReceived(), lessThan(metrics.getBytesDecoded()));
+        assertThat(metrics.getCompressionRatio(), lessThan(1.0));
+    }
+
+    @Test
+    public void testGetWithCompressionDisabled() throws Exception
+    {
+        instance = new URLConnectionTransport(1_000, 5_000, false, metrics);
+
+        String result = instance.get(baseURL + "/large", body -> new String(ByteStreams.toByteArray(body), UTF_8), Deadline.NONE);
+
+        assertThat(result, is(LARGE_BODY));
+        assertThat(metrics.getCompressedResponses(), is(0L));
+        assertThat(metrics.getBytesReceived(), is(metrics.getBytesDecoded()));
+    }
+
+    @Test
+    public void testGetDeflated() throws Exception
+    {
+        String zlib = instance.get(baseURL + "/deflate", body -> new String(ByteStreams.toByteArray(body), UTF_8), Deadline.NONE);
+        String raw = instance.get(baseURL + "/raw-deflate", body -> new String(ByteStreams.toByteArray(body), UTF_8), Deadline.NONE);
+
+        assertThat(zlib, is(LARGE_BODY));
+        assertThat(raw, is(LARGE_BODY));
+        assertThat(metrics.getCompressedResponses(), is(2L));
+    }
+
+    @Test
+    public void testGetWithCompressedErrorCode() throws Exception
+    {
+        try
+        {
+            instance.get(baseURL + "/denied-gzip", body -> null, Deadline.NONE);
+            fail("Expected an HttpStatusException");
+        }
+        catch (HttpStatusException ex)
+        {
+            assertThat(ex.getStatusCode(), is(403));
+            assertThat(ex.getPlacesStatus(), is(PlacesStatus.REQUEST_DENIED));
+        }
+    }
+
+    @Test
+    public void testGetWithErrorCode() throws Exception
+    {
+        try
+        {
+            instance.get(baseURL + "/denied", body -> null, Deadline.NONE);
+            fail("Expected an HttpStatusException");
+        }
+        catch (HttpStatusException ex)
+        {
+            assertThat(ex.getStatusCode(), is(403));
+            assertThat(ex.getPlacesStatus(), is(PlacesStatus.REQUEST_DENIED));
+        }
+    }
+
+    @Test
+    public void testGetIsBoundedByDeadline() throws Exception
+    {
+        Deadline deadline = Deadline.after(200, TimeUnit.MILLISECONDS);
+        long start = System.nanoTime();
+
+        try
+        {
+            instance.get(baseURL + "/slow", body -> null, deadline);
+            fail("Expected a timeout");
+        }
+        catch (SocketTimeoutException ex)
+        {
+        }
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), lessThan(SLOW_MILLIS));
+    }
+
+    @Test(expected = GooglePlacesTimeoutException.class)
+    public void testGetWhenDeadlineHasExpired() throws Exception
+    {
+        instance.get(baseURL + "/ok", body -> null, Deadline.after(0, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testGetCountsUncompressedResponses() throws Exception
+    {
+        instance.get(baseURL + "/ok", body -> new String(ByteStreams.toByteArray(body), UTF_8), Deadline.NONE);
+
+        assertThat(metrics.getResponses(), is(1L));
+        assertThat(metrics.getCompressedResponses(), is(0L));
+        assertThat(metrics.getBytesReceived(), is((long) BODY.length()));
+        assertThat(metrics.getBytesDecoded(), is((long) BODY.length()));
+    }
+
+    @Test
+    public void testResolveRedirect() throws Exception
+    {
+        URL result = instance.resolveRedirect(new URL(baseURL + "/redirect"), Deadline.NONE);
+
+        assertThat(result, is(new URL("https://lh3.googleusercontent.com/photo")));
+    }
+
+    @Test
+    public void testResolveRedirectWithoutRedirect() throws Exception
+    {
+        URL url = new URL(baseURL + "/ok");
+
+        assertThat(instance.resolveRedirect(url, Deadline.NONE), is(url));
+    }
+
+    @Test
+    public void testResolveRedirectWithErrorCode() throws Exception
+    {
+        try
+        {
+            instance.resolveRedirect(new URL(baseURL + "/missing"), Deadline.NONE);
+            fail("Expected an HttpStatusException");
+        }
+        catch (HttpStatusException ex)
+        {
+            assertThat(ex.getStatusCode(), is(404));
+            assertThat(ex.getPlacesStatus(), nullValue());
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int statusCode, String body, String encoding) throws IOException
+    {
+        byte[] bytes = body.getBytes(UTF_8);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+
+        if ("gzip".equals(encoding))
+        {
+            try (OutputStream out = new GZIPOutputStream(compressed))
+            {
+                out.write(bytes);
+            }
+        }
+        else if (encoding != null)
+        {
+            //Some servers send raw deflate data, without the zlib wrapper
+            Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, "raw-deflate".equals(encoding));
+
+            try (OutputStream out = new DeflaterOutputStream(compressed, deflater))
+            {
+                out.write(bytes);
+            }
+
+            encoding = "deflate";
+        }
+
+        if (encoding != null)
+        {
+            exchange.getResponseHeaders().add("Content-Encoding", encoding);
+            bytes = compressed.toByteArray();
+        }
+
+        exchange.sendResponseHeaders(statusCode, bytes.length);
+
+        try (OutputStream out = exchange.getResponseBody())
+        {
+            out.write(bytes);
+        }
+    }
+
+}
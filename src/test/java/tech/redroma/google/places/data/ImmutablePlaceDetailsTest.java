@@ -0,0 +1,101 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package tech.redroma.google.places.data;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import tech.sirwellington.alchemy.test.junit.runners.AlchemyTestRunner;
+import tech.sirwellington.alchemy.test.junit.runners.Repeat;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static tech.sirwellington.alchemy.generator.AlchemyGenerator.Get.one;
+import static tech.sirwellington.alchemy.generator.NumberGenerators.integers;
+import static tech.sirwellington.alchemy.generator.StringGenerators.alphabeticStrings;
+import static tech.sirwellington.alchemy.test.junit.ThrowableAssertion.assertThrows;
+
+/**
+ *
+ * @author SirWellington
+ */
+@Repeat(50)
+@RunWith(AlchemyTestRunner.class)
+public class ImmutablePlaceDetailsTest
+{
+
+    private PlaceDetails details;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        details = new PlaceDetails();
+        details.placeId = one(alphabeticStrings());
+        details.name = one(alphabeticStrings());
+        details.formattedAddress = one(alphabeticStrings());
+        details.formattedPhoneNumber = one(alphabeticStrings());
+        details.website = one(alphabeticStrings());
+        details.geometry = Generators.createGeometry();
+        details.rating = one(integers(1, 6));
+        details.utcOffset = one(integers(-720, 840));
+        details.types = Arrays.asList(Types.ReturnedPlaceType.RESTAURANT, null);
+    }
+
+    @Test
+    public void testCopyOf()
+    {
+        ImmutablePlaceDetails result = ImmutablePlaceDetails.copyOf(details);
+
+        assertThat(result.getPlaceId(), is(details.placeId));
+        assertThat(result.getName(), is(details.name));
+        assertThat(result.getFormattedAddress(), is(details.formattedAddress));
+        assertThat(result.getFormattedPhoneNumber(), is(details.formattedPhoneNumber));
+        assertThat(result.getWebsite(), is(details.website));
+        assertThat(result.getLocation(), is(details.geometry.location));
+        assertThat(result.getViewport(), is(details.geometry.viewport));
+        assertThat(result.getRating(), is((double) details.rating));
+        assertThat(result.getUtcOffset(), is(details.utcOffset));
+        assertThat(result.getTypes(), is(EnumSet.of(Types.ReturnedPlaceType.RESTAURANT)));
+        assertThat(result, is(ImmutablePlaceDetails.copyOf(details)));
+    }
+
+    @Test
+    public void testCopyOfWithMissingValues()
+    {
+        ImmutablePlaceDetails result = ImmutablePlaceDetails.copyOf(new PlaceDetails());
+
+        assertFalse(result.hasLocation());
+        assertThat(result.getLocation(), is(nullValue()));
+        assertFalse(result.hasRating());
+        assertFalse(result.hasUtcOffset());
+        assertThat(result.getTypes(), is(empty()));
+    }
+
+    @Test
+    public void testCopyOfWithBadArgs()
+    {
+        assertThrows(() -> ImmutablePlaceDetails.copyOf(null))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package tech.redroma.google.places.data;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import tech.sirwellington.alchemy.test.junit.runners.AlchemyTestRunner;
+import tech.sirwellington.alchemy.test.junit.runners.Repeat;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static tech.sirwellington.alchemy.generator.AlchemyGenerator.Get.one;
+import static tech.sirwellington.alchemy.generator.EnumGenerators.enumValueOf;
+import static tech.sirwellington.alchemy.generator.NumberGenerators.doubles;
+import static tech.sirwellington.alchemy.generator.StringGenerators.alphabeticStrings;
+import static tech.sirwellington.alchemy.test.junit.ThrowableAssertion.assertThrows;
+
+/**
+ *
+ * @author SirWellington
+ */
+@Repeat(50)
+@RunWith(AlchemyTestRunner.class)
+public class ImmutablePlaceTest
+{
+
+    private Place place;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        place = new Place();
+        place.placeId = one(alphabeticStrings());
+        place.name = one(alphabeticStrings());
+        place.iconURL = one(alphabeticStrings());
+        place.vicinity = one(alphabeticStrings());
+        place.geometry = Generators.createGeometry();
+        place.rating = one(doubles(1.0, 5.0));
+        place.priceLevel = enumValueOf(PriceLevel.class).get();
+        place.types = Arrays.asList(Types.ReturnedPlaceType.BAR, null, Types.ReturnedPlaceType.CAFE, Types.ReturnedPlaceType.BAR);
+    }
+
+    @Test
+    public void testCopyOf()
+    {
+        ImmutablePlace result = ImmutablePlace.copyOf(place);
+
+        assertThat(result.getPlaceId(), is(place.placeId));
+        assertThat(result.getName(), is(place.name));
+        assertThat(result.getIconURL(), is(place.iconURL));
+        assertThat(result.getVicinity(), is(place.vicinity));
+        assertThat(result.getLocation(), is(place.geometry.location));
+        assertThat(result.getLatitude(), is(place.geometry.location.latitude));
+        assertThat(result.getLongitude(), is(place.geometry.location.longitude));
+        assertThat(result.getViewport(), is(place.geometry.viewport));
+        assertThat(result.getRating(), is(place.rating));
+        assertThat(result.getPriceLevel(), is(place.priceLevel));
+        assertThat(result.getTypes(), is(EnumSet.of(Types.ReturnedPlaceType.BAR, Types.ReturnedPlaceType.CAFE)));
+        assertFalse(result.isPermanentlyClosed());
+    }
+
+    @Test
+    public void testCopyOfWithMissingValues()
+    {
+        place.geometry = null;
+        place.rating = null;
+        place.priceLevel = null;
+        place.types = null;
+
+        ImmutablePlace result = ImmutablePlace.copyOf(place);
+
+        assertFalse(result.hasLocation());
+        assertThat(result.getLocation(), is(nullValue()));
+        assertThat(result.getViewport(), is(nullValue()));
+        assertFalse(result.hasRating());
+        assertFalse(result.hasPriceLevel());
+        assertThat(result.getPriceLevel(), is(nullValue()));
+        assertThat(result.getTypes(), is(empty()));
+    }
+
+    @Test
+    public void testCopyOfIsIndependent()
+    {
+        ImmutablePlace result = ImmutablePlace.copyOf(place);
+        ImmutablePlace copy = ImmutablePlace.copyOf(place);
+
+        place.name = place.name + "-changed";
+        place.geometry.location.latitude = 0;
+
+        assertThat(result, is(copy));
+        assertThat(ImmutablePlace.copyOf(place), not(result));
+    }
+
+    @Test
+    public void testTypesCannotBeModified()
+    {
+        ImmutablePlace result = ImmutablePlace.copyOf(place);
+
+        assertThrows(() -> result.getTypes().add(Types.ReturnedPlaceType.ATM))
+            .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    public void testCopyOfWithBadArgs()
+    {
+        assertThrows(() -> ImmutablePlace.copyOf(null))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testIsPermanentlyClosed()
+    {
+        place.permanentlyClosed = true;
+
+        assertTrue(ImmutablePlace.copyOf(place).isPermanentlyClosed());
+    }
+
+}
@@ -16,6 +16,8 @@
 
 package tech.redroma.google.places.data;
 
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -67,4 +69,19 @@ public class LanguageTest
         assertThrows(() -> Language.fromCode(code))
             .isInstanceOf(IllegalArgumentException.class);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testSerializerRoundTrip() throws Exception
+    {
+        Gson gson = new GsonBuilder()
+            .registerTypeAdapter(Language.class, Language.createSerializer())
+            .registerTypeAdapter(Language.class, Language.createDeserializer())
+            .create();
+
+        String json = gson.toJson(language, Language.class);
+        assertThat(json, is("\"" + language.code + "\""));
+
+        Language result = gson.fromJson(json, Language.class);
+        assertThat(result, is(language));
+    }
+}
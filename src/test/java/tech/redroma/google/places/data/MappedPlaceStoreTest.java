@@ -0,0 +1,216 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places.data;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import tech.sirwellington.alchemy.test.junit.runners.AlchemyTestRunner;
+import tech.sirwellington.alchemy.test.junit.runners.GeneratePojo;
+import tech.sirwellington.alchemy.test.junit.runners.Repeat;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static tech.sirwellington.alchemy.generator.AlchemyGenerator.Get.one;
+import static tech.sirwellington.alchemy.generator.CollectionGenerators.listOf;
+import static tech.sirwellington.alchemy.generator.ObjectGenerators.pojos;
+import static tech.sirwellington.alchemy.generator.StringGenerators.hexadecimalString;
+import static tech.sirwellington.alchemy.test.junit.ThrowableAssertion.assertThrows;
+
+/**
+ *
+ * @author SirWellington
+ */
+@Repeat(10)
+@RunWith(AlchemyTestRunner.class)
+public class MappedPlaceStoreTest
+{
+
+    @GeneratePojo
+    private PlaceDetails place;
+
+    private List<PlaceDetails> places;
+
+    private Path file;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        places = listOf(pojos(PlaceDetails.class), 100);
+        file = Files.createTempFile("places", ".store");
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void testGet() throws Exception
+    {
+        write(places);
+
+        try (MappedPlaceStore store = MappedPlaceStore.open(file))
+        {
+            assertThat(store.size(), is((long) places.size()));
+
+            for (PlaceDetails expected : places)
+            {
+                MappedPlaceStore.PlaceView view = store.get(expected.placeId);
+                assertThat(view, notNullValue());
+                assertThat(view.getPlaceId(), is(expected.placeId));
+                assertThat(view.getName(), is(expected.name));
+                assertThat(view.getLocation(), is(expected.geometry.location));
+                assertThat(view.toPlaceDetails(), is(expected));
+                assertThat(store.getDetails(expected.placeId), is(expected));
+            }
+        }
+    }
+
+    @Test
+    public void testGetWhenMissing() throws Exception
+    {
+        write(places);
+
+        try (MappedPlaceStore store = MappedPlaceStore.open(file))
+        {
+            String placeId = one(hexadecimalString(20));
+
+            assertThat(store.get(placeId), nullValue());
+            assertThat(store.getDetails(placeId), nullValue());
+            assertThat(store.contains(placeId), is(false));
+        }
+    }
+
+    @Test
+    public void testWhenEmpty() throws Exception
+    {
+        MappedPlaceStore.writer(file).close();
+
+        try (MappedPlaceStore store = MappedPlaceStore.open(file))
+        {
+            assertThat(store.size(), is(0L));
+            assertThat(store.get(place.placeId), nullValue());
+        }
+    }
+
+    @Test
+    public void testLastRecordWins() throws Exception
+    {
+        PlaceDetails updated = one(pojos(PlaceDetails.class));
+        updated.placeId = place.placeId;
+
+        try (MappedPlaceStore.Writer writer = MappedPlaceStore.writer(file))
+        {
+            writer.add(place);
+            writer.addAll(places);
+            writer.add(updated);
+        }
+
+        try (MappedPlaceStore store = MappedPlaceStore.open(file))
+        {
+            assertThat(store.size(), is(places.size() + 1L));
+            assertThat(store.getDetails(place.placeId), is(updated));
+        }
+    }
+
+    @Test
+    public void testRecordsDoNotStraddleSegments() throws Exception
+    {
+        //Small segments force the writer to pad records over segment boundaries
+        try (MappedPlaceStore.Writer writer = new MappedPlaceStore.Writer(file, 16))
+        {
+            for (int i = 0; i < 10; ++i)
+            {
+                writer.addAll(places);
+            }
+        }
+
+        assertThat(Files.size(file), greaterThan(1L << 17));
+
+        try (MappedPlaceStore store = MappedPlaceStore.open(file))
+        {
+            for (PlaceDetails expected : places)
+            {
+                assertThat(store.getDetails(expected.placeId), is(expected));
+            }
+        }
+    }
+
+    @Test
+    public void testClose() throws Exception
+    {
+        write(places);
+
+        MappedPlaceStore store = MappedPlaceStore.open(file);
+        MappedPlaceStore.PlaceView view = store.get(places.get(0).placeId);
+        store.close();
+
+        assertThrows(() -> store.get(place.placeId))
+            .isInstanceOf(IllegalStateException.class);
+
+        assertThrows(view::toPlaceDetails)
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void testOpenWithGarbage() throws Exception
+    {
+        Files.write(file, new byte[128]);
+
+        assertThrows(() -> MappedPlaceStore.open(file))
+            .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void testWithBadArgs() throws Exception
+    {
+        assertThrows(() -> MappedPlaceStore.open(null))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        write(places);
+
+        try (MappedPlaceStore store = MappedPlaceStore.open(file))
+        {
+            assertThrows(() -> store.get(""))
+                .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        place.placeId = null;
+
+        try (MappedPlaceStore.Writer writer = MappedPlaceStore.writer(file))
+        {
+            assertThrows(() -> writer.add(place))
+                .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    private void write(List<PlaceDetails> places) throws IOException
+    {
+        try (MappedPlaceStore.Writer writer = MappedPlaceStore.writer(file))
+        {
+            writer.addAll(places);
+        }
+    }
+
+}
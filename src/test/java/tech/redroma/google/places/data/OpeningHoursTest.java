@@ -16,6 +16,8 @@
 
 package tech.redroma.google.places.data;
 
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -117,6 +119,22 @@ public class OpeningHoursTest
         assertFalse(instance.hasPeriods());
     }
     
+    @Test
+    public void testPeriodSerializerRoundTrip()
+    {
+        Gson gson = new GsonBuilder()
+            .registerTypeAdapter(OpeningHours.Period.class, OpeningHours.Period.createSerializer())
+            .registerTypeAdapter(OpeningHours.Period.class, OpeningHours.Period.createDeserializer())
+            .create();
+
+        for (OpeningHours.Period period : instance.periods)
+        {
+            String json = gson.toJson(period, OpeningHours.Period.class);
+            OpeningHours.Period result = gson.fromJson(json, OpeningHours.Period.class);
+            assertThat(result, is(period));
+        }
+    }
+
     @Test
     public void testHashCode()
     {
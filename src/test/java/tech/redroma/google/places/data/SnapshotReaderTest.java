@@ -0,0 +1,213 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places.data;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import tech.sirwellington.alchemy.test.junit.runners.AlchemyTestRunner;
+import tech.sirwellington.alchemy.test.junit.runners.GeneratePojo;
+import tech.sirwellington.alchemy.test.junit.runners.Repeat;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static tech.redroma.google.places.data.TestResources.GSON;
+import static tech.sirwellington.alchemy.test.junit.ThrowableAssertion.assertThrows;
+
+/**
+ *
+ * @author SirWellington
+ */
+@Repeat(10)
+@RunWith(AlchemyTestRunner.class)
+public class SnapshotReaderTest
+{
+
+    @GeneratePojo
+    private Place place;
+
+    @GeneratePojo
+    private Place otherPlace;
+
+    @GeneratePojo
+    private PlaceDetails details;
+
+    @GeneratePojo
+    private PlaceDetails otherDetails;
+
+    @Test
+    public void testPlacesRoundTrip() throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (SnapshotWriter<Place> writer = SnapshotWriter.forPlaces(out))
+        {
+            writer.writeAll(Arrays.asList(place, otherPlace, place));
+            assertThat(writer.getCount(), is(3L));
+        }
+
+        List<Place> result = new ArrayList<>();
+
+        try (SnapshotReader<Place> reader = SnapshotReader.forPlaces(new ByteArrayInputStream(out.toByteArray())))
+        {
+            reader.forEachRemaining(result::add);
+        }
+
+        assertThat(result, contains(place, otherPlace, place));
+    }
+
+    @Test
+    public void testPlaceDetailsRoundTrip() throws Exception
+    {
+        byte[] snapshot = writeDetails(details, otherDetails);
+
+        try (SnapshotReader<PlaceDetails> reader = SnapshotReader.forPlaceDetails(new ByteArrayInputStream(snapshot)))
+        {
+            assertThat(reader.read(), is(details));
+            assertThat(reader.read(), is(otherDetails));
+            assertThat(reader.read(), nullValue());
+        }
+    }
+
+    @Test
+    public void testRecordsWithAppendedSymbolsAreSkipped() throws Exception
+    {
+        PlaceDetails.AddressComponent component = new PlaceDetails.AddressComponent();
+        component.longName = details.name;
+        component.shortName = details.name;
+        otherDetails.addressComponents = Arrays.asList(component, component);
+
+        //Simulates a newer writer that appends a field which this reader does not know about
+        BinaryEncoder encoder = new BinaryEncoder();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        PlaceBinaryCodec.writeHeader(encoder, PlaceBinaryCodec.PLACE_DETAILS);
+        writeFramed(encoder, out);
+
+        for (PlaceDetails record : Arrays.asList(details, otherDetails))
+        {
+            encoder.reset();
+            encoder.resetSymbols();
+            PlaceBinaryCodec.CURRENT.writePlaceDetails(encoder, record);
+            encoder.writeSymbol(details.placeId);
+            writeFramed(encoder, out);
+        }
+
+        try (SnapshotReader<PlaceDetails> reader = SnapshotReader.forPlaceDetails(new ByteArrayInputStream(out.toByteArray())))
+        {
+            assertThat(reader.read(), is(details));
+            assertThat(reader.read(), is(otherDetails));
+            assertThat(reader.read(), nullValue());
+        }
+    }
+
+    @Test
+    public void testPlaceDetailsFromJSON() throws Exception
+    {
+        String json = TestResources.loadFile("place-details.json");
+        PlaceDetails expected = GSON.fromJson(json, PlaceDetails.class);
+
+        byte[] snapshot = writeDetails(expected);
+
+        try (SnapshotReader<PlaceDetails> reader = SnapshotReader.forPlaceDetails(new ByteArrayInputStream(snapshot)))
+        {
+            assertThat(reader.read(), is(expected));
+        }
+    }
+
+    @Test
+    public void testEmptySnapshot() throws Exception
+    {
+        byte[] snapshot = writeDetails();
+
+        try (SnapshotReader<PlaceDetails> reader = SnapshotReader.forPlaceDetails(new ByteArrayInputStream(snapshot)))
+        {
+            assertThat(reader.read(), nullValue());
+        }
+    }
+
+    @Test
+    public void testWithWrongRecordType() throws Exception
+    {
+        byte[] snapshot = writeDetails(details);
+
+        assertThrows(() -> SnapshotReader.forPlaces(new ByteArrayInputStream(snapshot)))
+            .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void testWithGarbage() throws Exception
+    {
+        byte[] garbage = GSON.toJson(place).getBytes();
+
+        assertThrows(() -> SnapshotReader.forPlaces(new ByteArrayInputStream(garbage)))
+            .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void testWithTruncatedSnapshot() throws Exception
+    {
+        byte[] snapshot = writeDetails(details);
+        byte[] truncated = Arrays.copyOf(snapshot, snapshot.length - 1);
+
+        SnapshotReader<PlaceDetails> reader = SnapshotReader.forPlaceDetails(new ByteArrayInputStream(truncated));
+
+        assertThrows(reader::read)
+            .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void testWithBadArgs() throws Exception
+    {
+        assertThrows(() -> SnapshotReader.forPlaces(null))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> SnapshotWriter.forPlaces(null))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        SnapshotWriter<Place> writer = SnapshotWriter.forPlaces(new ByteArrayOutputStream());
+
+        assertThrows(() -> writer.write(null))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private byte[] writeDetails(PlaceDetails... records) throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (SnapshotWriter<PlaceDetails> writer = SnapshotWriter.forPlaceDetails(out))
+        {
+            writer.writeAll(Arrays.asList(records));
+        }
+
+        return out.toByteArray();
+    }
+
+    private void writeFramed(BinaryEncoder frame, ByteArrayOutputStream out) throws IOException
+    {
+        BinaryEncoder length = new BinaryEncoder();
+        length.writeVarInt(frame.size());
+        length.writeTo(out);
+        frame.writeTo(out);
+    }
+
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package tech.redroma.google.places.data;
+
+import com.google.gson.Gson;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import tech.redroma.google.places.JsonCodec;
+import tech.sirwellington.alchemy.test.junit.runners.AlchemyTestRunner;
+import tech.sirwellington.alchemy.test.junit.runners.Repeat;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static tech.sirwellington.alchemy.generator.AlchemyGenerator.Get.one;
+import static tech.sirwellington.alchemy.generator.StringGenerators.alphabeticStrings;
+import static tech.sirwellington.alchemy.test.junit.ThrowableAssertion.assertThrows;
+
+/**
+ *
+ * @author SirWellington
+ */
+@Repeat(50)
+@RunWith(AlchemyTestRunner.class)
+public class StringPoolTest
+{
+
+    private StringPool instance;
+
+    private String value;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        instance = StringPool.create();
+        value = one(alphabeticStrings());
+    }
+
+    @Test
+    public void testIntern()
+    {
+        String first = instance.intern(new String(value));
+        String second = instance.intern(new String(value));
+
+        assertThat(second, is(value));
+        assertThat(second, sameInstance(first));
+        assertThat(instance.size(), is(1));
+    }
+
+    @Test
+    public void testInternWithNull()
+    {
+        assertThat(instance.intern(null), nullValue());
+        assertThat(instance.size(), is(0));
+    }
+
+    @Test
+    public void testInternWhenFull()
+    {
+        instance = StringPool.create(1);
+        instance.intern(value);
+
+        String other = value + "-other";
+        String result = instance.intern(other);
+
+        assertThat(result, sameInstance(other));
+        assertThat(instance.size(), is(1));
+    }
+
+    @Test
+    public void testCreateWithBadArgs()
+    {
+        assertThrows(() -> StringPool.create(0))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> StringPool.create(-1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testCreateTypeAdapterFactory()
+    {
+        Gson gson = JsonCodec.newGsonBuilder()
+            .registerTypeAdapterFactory(instance.createTypeAdapterFactory())
+            .create();
+
+        String json = "{\"icon\":\"" + value + "\",\"vicinity\":\"1 " + value + " Street\"," +
+                      "\"opening_hours\":{\"weekday_text\":[\"" + value + "\"]}," +
+                      "\"photos\":[{\"html_attributions\":[\"" + value + "\"]}]}";
+
+        Place first = gson.fromJson(json, Place.class);
+        Place second = gson.fromJson(json, Place.class);
+
+        assertThat(first, is(second));
+        assertThat(second.iconURL, sameInstance(first.iconURL));
+        assertThat(second.openingHours.weekdayText.get(0), sameInstance(first.iconURL));
+        assertThat(second.photos.get(0).htmlAttributions.get(0), sameInstance(first.iconURL));
+
+        //Addresses are not pooled
+        assertThat(instance.size(), is(1));
+    }
+
+    @Test
+    public void testCreateTypeAdapterFactoryWithAddressComponents()
+    {
+        Gson gson = JsonCodec.newGsonBuilder()
+            .registerTypeAdapterFactory(instance.createTypeAdapterFactory())
+            .create();
+
+        String json = "{\"address_components\":[{\"long_name\":\"" + value + "\",\"short_name\":\"" + value + "\"}]}";
+
+        PlaceDetails first = gson.fromJson(json, PlaceDetails.class);
+        PlaceDetails second = gson.fromJson(json, PlaceDetails.class);
+
+        assertThat(second.getAddressComponents().get(0).getLongName(), sameInstance(first.getAddressComponents().get(0).getLongName()));
+        assertThat(second.getAddressComponents().get(0).getShortName(), sameInstance(first.getAddressComponents().get(0).getLongName()));
+    }
+
+    @Test
+    public void testWithoutPool()
+    {
+        Gson gson = JsonCodec.newGsonBuilder().create();
+        String json = "{\"icon\":\"" + value + "\"}";
+
+        Place first = gson.fromJson(json, Place.class);
+        Place second = gson.fromJson(json, Place.class);
+
+        assertThat(second.iconURL, not(sameInstance(first.iconURL)));
+    }
+
+}
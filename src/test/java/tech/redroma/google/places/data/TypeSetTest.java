@@ -0,0 +1,215 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package tech.redroma.google.places.data;
+
+import com.google.gson.Gson;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import tech.redroma.google.places.JsonCodec;
+import tech.sirwellington.alchemy.test.junit.runners.AlchemyTestRunner;
+import tech.sirwellington.alchemy.test.junit.runners.Repeat;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static tech.redroma.google.places.data.Types.ReturnedPlaceType.BAKERY;
+import static tech.redroma.google.places.data.Types.ReturnedPlaceType.BAR;
+import static tech.redroma.google.places.data.Types.ReturnedPlaceType.CAFE;
+import static tech.redroma.google.places.data.Types.ReturnedPlaceType.SUBPREMISE;
+import static tech.sirwellington.alchemy.generator.AlchemyGenerator.Get.one;
+import static tech.sirwellington.alchemy.generator.NumberGenerators.integers;
+import static tech.sirwellington.alchemy.test.junit.ThrowableAssertion.assertThrows;
+
+/**
+ *
+ * @author SirWellington
+ */
+@Repeat(50)
+@RunWith(AlchemyTestRunner.class)
+public class TypeSetTest
+{
+
+    private static final Types.ReturnedPlaceType[] VALUES = Types.ReturnedPlaceType.values();
+
+    private EnumSet<Types.ReturnedPlaceType> expected;
+
+    private TypeSet instance;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        expected = EnumSet.noneOf(Types.ReturnedPlaceType.class);
+
+        int size = one(integers(0, 10));
+
+        for (int i = 0; i < size; ++i)
+        {
+            expected.add(VALUES[one(integers(0, VALUES.length))]);
+        }
+
+        instance = TypeSet.copyOf(expected);
+    }
+
+    @Test
+    public void testMatchesEnumSet()
+    {
+        assertThat(instance, is(expected));
+        assertThat(instance.size(), is(expected.size()));
+        assertThat(instance.isEmpty(), is(expected.isEmpty()));
+        assertThat(instance.hashCode(), is(expected.hashCode()));
+        assertThat(new ArrayList<>(instance), is(new ArrayList<>(expected)));
+
+        for (Types.ReturnedPlaceType type : VALUES)
+        {
+            assertThat(instance.contains(type), is(expected.contains(type)));
+        }
+    }
+
+    @Test
+    public void testContainsAny()
+    {
+        Types.ReturnedPlaceType type = VALUES[one(integers(0, VALUES.length))];
+
+        assertThat(instance.containsAny(TypeSet.of(type)), is(expected.contains(type)));
+        assertFalse(instance.containsAny(TypeSet.EMPTY));
+        assertTrue(TypeSet.copyOf(EnumSet.allOf(Types.ReturnedPlaceType.class)).containsAny(TypeSet.of(type)));
+    }
+
+    @Test
+    public void testContainsAll()
+    {
+        assertTrue(instance.containsAll(TypeSet.EMPTY));
+        assertTrue(instance.containsAll(instance));
+        assertTrue(TypeSet.copyOf(EnumSet.allOf(Types.ReturnedPlaceType.class)).containsAll(instance));
+
+        Types.ReturnedPlaceType type = VALUES[one(integers(0, VALUES.length))];
+        EnumSet<Types.ReturnedPlaceType> larger = EnumSet.of(type);
+        larger.addAll(expected);
+
+        assertThat(instance.containsAll(TypeSet.copyOf(larger)), is(expected.contains(type)));
+    }
+
+    @Test
+    public void testCopyOfIgnoresNulls()
+    {
+        TypeSet result = TypeSet.copyOf(Arrays.asList(BAR, null, BAR));
+
+        assertThat(result, contains(BAR));
+        assertFalse(result.contains((Object) null));
+    }
+
+    @Test
+    public void testIsUnmodifiable()
+    {
+        assertThrows(() -> instance.add(BAR))
+            .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    public void testFilter()
+    {
+        Place bar = placeWithTypes(BAR, null);
+        Place cafe = placeWithTypes(CAFE, BAKERY, SUBPREMISE);
+        Place none = placeWithTypes();
+        List<Place> places = Arrays.asList(bar, null, cafe, none);
+
+        assertThat(TypeSet.of(BAR, CAFE).filterAny(places), contains(bar, cafe));
+        assertThat(TypeSet.of(CAFE, SUBPREMISE).filterAll(places), contains(cafe));
+        assertThat(TypeSet.of(BAKERY, BAR).filterAll(places), is(empty()));
+        assertThat(TypeSet.EMPTY.filterAny(places), is(empty()));
+
+        assertThrows(() -> TypeSet.of(BAR).filterAny(null))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testPlaceQueries()
+    {
+        Place place = placeWithTypes(BAR, CAFE, null);
+
+        assertTrue(place.hasType(BAR));
+        assertFalse(place.hasType(BAKERY));
+        assertTrue(place.hasAnyType(TypeSet.of(BAKERY, CAFE)));
+        assertFalse(place.hasAllTypes(TypeSet.of(BAKERY, CAFE)));
+        assertTrue(place.hasAllTypes(TypeSet.of(BAR, CAFE)));
+        assertThat(place.getTypeSet(), is(EnumSet.of(BAR, CAFE)));
+    }
+
+    @Test
+    public void testTypeSetIsMadeOncePerList()
+    {
+        Place place = placeWithTypes(BAR, CAFE);
+        TypeSet typeSet = place.getTypeSet();
+
+        assertThat(place.getTypeSet(), sameInstance(typeSet));
+
+        place.types = Arrays.asList(BAKERY);
+        assertThat(place.getTypeSet(), is(EnumSet.of(BAKERY)));
+        assertThat(place.getTypeSet(), sameInstance(place.getTypeSet()));
+
+        PlaceDetails details = new PlaceDetails();
+        details.types = Arrays.asList(BAR);
+
+        assertThat(details.getTypeSet(), sameInstance(details.getTypeSet()));
+        assertThat(details.getTypeSet(), is(EnumSet.of(BAR)));
+    }
+
+    @Test
+    public void testReadPlace()
+    {
+        Gson gson = JsonCodec.newGsonBuilder().create();
+
+        Place place = gson.fromJson("{\"types\":[\"bar\",\"not_a_type\",\"cafe\"]}", Place.class);
+
+        assertThat(place.types, contains(BAR, null, CAFE));
+        assertThat(place.getTypeSet(), sameInstance(place.getTypeSet()));
+        assertThat(place.getTypeSet(), is(EnumSet.of(BAR, CAFE)));
+
+        assertThrows(() -> place.types.clear())
+            .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    public void testReadPlaceDetails()
+    {
+        Gson gson = JsonCodec.newGsonBuilder().create();
+
+        PlaceDetails details = gson.fromJson("{\"types\":[\"bar\"]}", PlaceDetails.class);
+
+        assertTrue(details.hasType(BAR));
+        assertTrue(details.hasAllTypes(TypeSet.of(BAR)));
+        assertFalse(details.hasAnyType(TypeSet.of(CAFE)));
+    }
+
+    private Place placeWithTypes(Types.ReturnedPlaceType... types)
+    {
+        Place place = new Place();
+        place.types = Arrays.asList(types);
+        return place;
+    }
+
+}
@@ -20,14 +20,19 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import tech.redroma.google.places.data.Generators;
+import tech.redroma.google.places.data.PlaceField;
 import tech.sirwellington.alchemy.test.junit.runners.AlchemyTestRunner;
 import tech.sirwellington.alchemy.test.junit.runners.Repeat;
 
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static tech.sirwellington.alchemy.test.junit.ThrowableAssertion.assertThrows;
 
 /**
  *
@@ -73,6 +78,38 @@ public class GetPlaceDetailsRequestTest
         assertTrue(instance.hasLanguage());
     }
 
+    @Test
+    public void testHasFields()
+    {
+        assertFalse(instance.hasFields());
+        assertThat(instance.fields, is(empty()));
+
+        GetPlaceDetailsRequest result = GetPlaceDetailsRequest.newBuilder()
+            .withPlaceID(instance.placeId)
+            .withFields(PlaceField.NAME, PlaceField.GEOMETRY)
+            .withFields(PlaceField.OPENING_HOURS)
+            .build();
+
+        assertTrue(result.hasFields());
+        assertThat(result.fields, contains(PlaceField.GEOMETRY, PlaceField.NAME, PlaceField.OPENING_HOURS));
+        assertThat(result, not(copy(instance)));
+    }
+
+    @Test
+    public void testWithFieldsWithBadArgs()
+    {
+        GetPlaceDetailsRequest.Builder builder = GetPlaceDetailsRequest.newBuilder();
+
+        assertThrows(() -> builder.withFields())
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> builder.withFields((PlaceField[]) null))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThrows(() -> builder.withFields(PlaceField.NAME, null))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
     public void testHashCode()
     {
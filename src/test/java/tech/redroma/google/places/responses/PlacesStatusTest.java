@@ -0,0 +1,116 @@
+/*
+ * Copyright 2016 RedRoma, Inc..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tech.redroma.google.places.responses;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import java.io.StringReader;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import tech.sirwellington.alchemy.test.junit.runners.AlchemyTestRunner;
+import tech.sirwellington.alchemy.test.junit.runners.GenerateEnum;
+import tech.sirwellington.alchemy.test.junit.runners.GenerateString;
+import tech.sirwellington.alchemy.test.junit.runners.Repeat;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static tech.sirwellington.alchemy.test.junit.ThrowableAssertion.assertThrows;
+import static tech.sirwellington.alchemy.test.junit.runners.GenerateString.Type.HEXADECIMAL;
+
+/**
+ *
+ * @author SirWellington
+ */
+@Repeat(10)
+@RunWith(AlchemyTestRunner.class)
+public class PlacesStatusTest
+{
+
+    @GenerateEnum
+    private PlacesStatus instance;
+
+    @GenerateString(HEXADECIMAL)
+    private String unknownCode;
+
+    @Test
+    public void testFromCode() throws Exception
+    {
+        assertThat(PlacesStatus.fromCode(instance.name()), is(instance));
+        assertThat(PlacesStatus.fromCode(unknownCode), nullValue());
+        assertThat(PlacesStatus.fromCode(""), nullValue());
+        assertThat(PlacesStatus.fromCode(null), nullValue());
+    }
+
+    @Test
+    public void testIsError() throws Exception
+    {
+        assertThat(PlacesStatus.OK.isError(), is(false));
+        assertThat(PlacesStatus.ZERO_RESULTS.isError(), is(false));
+        assertThat(PlacesStatus.OVER_QUERY_LIMIT.isError(), is(true));
+        assertThat(PlacesStatus.NOT_FOUND.isError(), is(true));
+    }
+
+    @Test
+    public void testReadFrom() throws Exception
+    {
+        String json = "{\"results\":[{\"status\":\"OK\",\"name\":\"nested\"}],\"status\":\"" + instance + "\"}";
+
+        assertThat(PlacesStatus.readFrom(reader(json)), is(instance));
+    }
+
+    @Test
+    public void testReadFromStopsAtStatus() throws Exception
+    {
+        //Anything after the status is never read
+        String json = "{\"status\":\"" + instance + "\", \"results\": [ this is not json";
+
+        assertThat(PlacesStatus.readFrom(reader(json)), is(instance));
+    }
+
+    @Test
+    public void testReadFromWhenMissing() throws Exception
+    {
+        assertThat(PlacesStatus.readFrom(reader("{\"results\":[]}")), nullValue());
+        assertThat(PlacesStatus.readFrom(reader("[]")), nullValue());
+        assertThat(PlacesStatus.readFrom(reader("{\"status\":\"" + unknownCode + "\"}")), nullValue());
+    }
+
+    @Test
+    public void testReadFromWithBadArgs() throws Exception
+    {
+        assertThrows(() -> PlacesStatus.readFrom(null))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testGetPlacesStatus() throws Exception
+    {
+        String json = "{\"status\":\"" + instance + "\"}";
+
+        NearbySearchResponse search = new Gson().fromJson(json, NearbySearchResponse.class);
+        assertThat(search.getPlacesStatus(), is(instance));
+
+        GetPlaceDetailsResponse details = new Gson().fromJson(json, GetPlaceDetailsResponse.class);
+        assertThat(details.getPlacesStatus(), is(instance));
+    }
+
+    private static JsonReader reader(String json)
+    {
+        return new JsonReader(new StringReader(json));
+    }
+}